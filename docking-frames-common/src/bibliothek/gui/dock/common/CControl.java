@@ -40,7 +40,6 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -138,6 +137,7 @@ import bibliothek.gui.dock.control.DockRegister;
 import bibliothek.gui.dock.control.DockRelocatorMode;
 import bibliothek.gui.dock.control.DockableSelector;
 import bibliothek.gui.dock.control.focus.DefaultFocusStrategy;
+import bibliothek.gui.dock.control.focus.FocusHistory;
 import bibliothek.gui.dock.control.focus.FocusStrategyRequest;
 import bibliothek.gui.dock.control.relocator.DefaultDockRelocator;
 import bibliothek.gui.dock.disable.DisablingStrategy;
@@ -690,17 +690,26 @@ public class CControl {
     		public void extendedModeChanged( CDockable dockable, ExtendedMode mode ){
     			if( transferFocusOnMinimize ){
 		    		if( mode == ExtendedMode.MINIMIZED ){
-		    			Dockable[] history = getController().getFocusHistory().getHistory();
-		    			for( int i = history.length-1; i >= 0; i-- ){
-		    				Dockable next = history[i];
-		    				if( next instanceof CommonDockable ){
-		    					CDockable cdockable = ((CommonDockable)next).getDockable();
-		    					if( cdockable.getExtendedMode() != ExtendedMode.MINIMIZED ){
-		    						getController().setFocusedDockable( cdockable.intern(), true );
-		    						break;
+		    			Filter<Dockable> filter = new Filter<Dockable>(){
+		    				public boolean includes( Dockable item ){
+		    					return item instanceof CommonDockable && ((CommonDockable)item).getDockable().getExtendedMode() != ExtendedMode.MINIMIZED;
+		    				}
+		    			};
+		    			
+		    			FocusHistory history = getController().getFocusHistory();
+		    			Dockable next = history.getFirst( filter );
+		    			if( next == null ){
+		    				// the elements that never had the focus are only listed by getHistory
+		    				Dockable[] dockables = history.getHistory();
+		    				for( int i = dockables.length-1; i >= 0 && next == null; i-- ){
+		    					if( filter.includes( dockables[i] )){
+		    						next = dockables[i];
 		    					}
 		    				}
 		    			}
+		    			if( next != null ){
+		    				getController().setFocusedDockable( ((CommonDockable)next).getDockable().intern(), true );
+		    			}
 		    		}
     			}
     		}
@@ -1750,12 +1759,7 @@ public class CControl {
      * @return the element with that identifier or <code>null</code>
      */
     public SingleCDockable getSingleDockable( String id ){
-        for( SingleCDockable dockable : register.getSingleDockables() ){
-            if( dockable.getUniqueId().equals( id )){
-                return dockable;
-            }
-        }
-        return null;
+        return register.getSingleDockable( id );
     }
 
     /**
@@ -1765,10 +1769,9 @@ public class CControl {
      * otherwise
      */
     public boolean removeSingleDockable( String id ){
-        for( SingleCDockable dockable : register.getSingleDockables() ){
-            if( dockable.getUniqueId().equals( id )){
-                return removeDockable( dockable );
-            }
+        SingleCDockable dockable = register.getSingleDockable( id );
+        if( dockable != null ){
+            return removeDockable( dockable );
         }
         return false;
     }
@@ -1935,8 +1938,6 @@ public class CControl {
      * or is not registered (see {@link #addMultipleDockableFactory(String, MultipleCDockableFactory)}).
      */
     public <M extends MultipleCDockable> M addDockable( M dockable) {
-        Set<String> ids = new HashSet<String>();
-
         String factoryId;
         MultipleCDockableFactory<?, ?> factory = dockable.getFactory();
         if( factory == null ){
@@ -1949,15 +1950,9 @@ public class CControl {
         }        	
         
 
-        for( MultipleCDockable multi : register.getMultipleDockables() ){
-            if( factoryId.equals( access.getFactoryId( multi.getFactory() ))){
-                ids.add( accesses.get( multi ).getUniqueId() );
-            }
-        }
-
         int count = 0;
         String id = count + " " + factoryId;
-        while( ids.contains( register.toMultiId( id ) ) ){
+        while( register.getMultipleDockable( id ) != null ){
             count++;
             id = count + " " + factoryId;
         }
@@ -1993,14 +1988,11 @@ public class CControl {
         if( dockable.getControl() != null )
             throw new IllegalStateException( "dockable is already part of a control" );
 
-        uniqueId = register.toMultiId( uniqueId );
-
-        for( MultipleCDockable multi : register.getMultipleDockables() ){
-            String id = accesses.get( multi ).getUniqueId();
-            if( uniqueId.equals( id )){
-                throw new IllegalArgumentException( "The unique identifier is already in use: " + uniqueId );
-            }
+        if( register.getMultipleDockable( uniqueId ) != null ){
+            throw new IllegalArgumentException( "The unique identifier is already in use: " + register.toMultiId( uniqueId ) );
         }
+        
+        uniqueId = register.toMultiId( uniqueId );
 
         dockable.setControlAccess( access );
         accesses.get( dockable ).setUniqueId( uniqueId );
@@ -2067,13 +2059,7 @@ public class CControl {
      * was found
      */
     public MultipleCDockable getMultipleDockable( String id ){
-        id = register.toMultiId( id );
-        for( MultipleCDockable dockable : register.getMultipleDockables() ){
-            if( accesses.get( dockable ).getUniqueId().equals( id )){
-                return dockable;
-            }
-        }
-        return null;
+        return register.getMultipleDockable( id );
     }
     
     /**
@@ -2132,12 +2118,8 @@ public class CControl {
     private boolean shouldCreate( MultipleCDockableFactory<?, ?> factory, CommonMultipleDockableLayout layout ){
         String uniqueId = layout.getId();
 
-        String multiId = register.toMultiId( uniqueId );
-
-        for( MultipleCDockable multi : register.getMultipleDockables() ){
-            if( accesses.get( multi ).getUniqueId().equals( multiId )){
-                return false;
-            }
+        if( register.getMultipleDockable( uniqueId ) != null ){
+            return false;
         }
 
         String factoryId = access.getFactoryId( factory );
@@ -81,6 +81,31 @@ public interface CControlRegister {
      */    
     public List<MultipleCDockable> getMultipleDockables();
     
+    /**
+     * Gets an unmodifiable list of all {@link MultipleCDockable}s which are known to
+     * this register and which were created by the factory with identifier <code>factoryId</code>.
+     * This method does not create a new list, the list might or might not be updated when
+     * the contents of this register change.
+     * @param factoryId the identifier of a {@link MultipleCDockableFactory}
+     * @return an unmodifiable list of elements, never <code>null</code> but might be empty
+     */
+    public List<MultipleCDockable> getMultipleDockables( String factoryId );
+    
+    /**
+     * Searches the one {@link SingleCDockable} whose unique id equals <code>id</code>.
+     * @param id some id to search
+     * @return a dockable with the same id or <code>null</code>
+     */
+    public SingleCDockable getSingleDockable( String id );
+    
+    /**
+     * Searches the one {@link MultipleCDockable} whose unique id equals <code>id</code>. 
+     * @param id the unique id as given to {@link CControl#addDockable(String, MultipleCDockable)}, not
+     * the result of {@link #toMultiId(String)}
+     * @return a dockable with the same id or <code>null</code>
+     */
+    public MultipleCDockable getMultipleDockable( String id );
+    
     /**
      * Gets an unmodifiable list of all {@link CStation}s which are known to
      * this register. The list might or might not be updated when the content
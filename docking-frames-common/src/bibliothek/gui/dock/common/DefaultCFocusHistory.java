@@ -66,11 +66,19 @@ public class DefaultCFocusHistory implements CFocusHistory{
 		return result.toArray( new CDockable[ result.size() ] );
 	}
 	
-	public CDockable getFirst( Filter<CDockable> filter ){
-		CDockable[] history = getHistory();
-		Set<CDockable> visited = new HashSet<CDockable>();
+	public CDockable getFirst( final Filter<CDockable> filter ){
+		FocusHistory history = control.getController().getFocusHistory();
+		Dockable first = history.getFirst( new Filter<Dockable>(){
+			public boolean includes( Dockable item ){
+				return item instanceof CommonDockable && filter.includes( ((CommonDockable)item).getDockable() );
+			}
+		});
+		if( first != null ){
+			return ((CommonDockable)first).getDockable();
+		}
 		
-		for( CDockable dockable : history ){
+		Set<CDockable> visited = new HashSet<CDockable>();
+		for( CDockable dockable : getHistory() ){
 			if( filter.includes( dockable )){
 				return dockable;
 			}
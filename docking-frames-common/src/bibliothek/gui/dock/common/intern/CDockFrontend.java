@@ -55,6 +55,9 @@ public class CDockFrontend extends DockFrontend{
     /** whether basic modes should be applied when loading a layout */
     private boolean revertToBasicModes = true;
     
+    /** the converter used for all {@link ModeSettings}, sharing the converter allows to reuse unchanged entries of old settings */
+    private LocationSettingConverter converter;
+    
     /**
      * Creates a new frontend.
      * @param control the owner of this object
@@ -67,6 +70,17 @@ public class CDockFrontend extends DockFrontend{
         registerAdjacentFactory( new RootStationAdjacentFactory() );
     }
     
+    /**
+     * Gets the converter which is used for all the {@link ModeSettings} created by this frontend.
+     * @return the converter, not <code>null</code>
+     */
+    protected LocationSettingConverter getConverter(){
+    	if( converter == null ){
+    		converter = new LocationSettingConverter( getController() );
+    	}
+    	return converter;
+    }
+    
     /**
      * Adds <code>listener</code> to this frontend, <code>listener</code> will be informed
      * about changes of this frontend.
@@ -124,7 +138,7 @@ public class CDockFrontend extends DockFrontend{
     protected Setting createSetting() {
         CSetting setting = new CSetting();
         CLocationModeManager manager = control.getLocationManager();
-        ModeSettings<Location, Location> modeSettings = manager.createSettings( new LocationSettingConverter( getController() ) );
+        ModeSettings<Location, Location> modeSettings = manager.createSettings( getConverter() );
         setting.setModes( modeSettings );
         return setting;
     }
@@ -135,7 +149,7 @@ public class CDockFrontend extends DockFrontend{
     	
     	CSetting setting = (CSetting)super.getSetting( entry );
         
-        ModeSettings<Location, Location> modeSettings = manager.createSettings( new LocationSettingConverter( getController() ) );
+        ModeSettings<Location, Location> modeSettings = manager.createSettings( getConverter() );
         setting.setModes( modeSettings );
         manager.writeSettings( modeSettings );
         
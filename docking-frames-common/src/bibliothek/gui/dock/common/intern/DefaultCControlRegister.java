@@ -29,6 +29,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -82,6 +83,22 @@ public class DefaultCControlRegister implements MutableCControlRegister {
     private List<MultipleCDockable> multiDockables = 
         new ArrayList<MultipleCDockable>();
     
+    /** all {@link SingleCDockable}s accessible through their unique id */
+    private Map<String, SingleCDockable> singleDockablesById = 
+    	new HashMap<String, SingleCDockable>();
+    
+    /** all {@link MultipleCDockable}s accessible through their unique id */
+    private Map<String, MultipleCDockable> multiDockablesById =
+    	new HashMap<String, MultipleCDockable>();
+    
+    /** the unique id of each {@link MultipleCDockable}, the ids are stored because they are no longer available once a dockable is removed */
+    private Map<MultipleCDockable, String> multiDockableIds =
+    	new IdentityHashMap<MultipleCDockable, String>();
+    
+    /** all {@link MultipleCDockable}s grouped by their {@link MultipleCDockable#getFactory() factory} */
+    private Map<MultipleCDockableFactory<?, ?>, List<MultipleCDockable>> multiDockablesByFactory =
+    	new IdentityHashMap<MultipleCDockableFactory<?,?>, List<MultipleCDockable>>();
+    
     /** the stations known  */
     private List<CStation<?>> stations = new ArrayList<CStation<?>>();
     
@@ -200,13 +217,22 @@ public class DefaultCControlRegister implements MutableCControlRegister {
      * @return the list of dockables, never <code>null</code> but might be empty
      */
     public List<MultipleCDockable> listMultipleDockables( MultipleCDockableFactory<?, ?> factory ){
-        List<MultipleCDockable> result = new ArrayList<MultipleCDockable>();
-        for( MultipleCDockable dockable : multiDockables ){
-            if( dockable.getFactory() == factory ){
-                result.add( dockable );
-            }
+        List<MultipleCDockable> list = multiDockablesByFactory.get( factory );
+        if( list == null ){
+        	return new ArrayList<MultipleCDockable>();
         }
-        return result;
+        return new ArrayList<MultipleCDockable>( list );
+    }
+    
+    public List<MultipleCDockable> getMultipleDockables( String factoryId ){
+    	MultipleCDockableFactory<?, ?> factory = getFactory( factoryId );
+    	if( factory != null ){
+    		List<MultipleCDockable> list = multiDockablesByFactory.get( factory );
+    		if( list != null ){
+    			return Collections.unmodifiableList( list );
+    		}
+    	}
+    	return Collections.emptyList();
     }
     
     /**
@@ -267,20 +293,33 @@ public class DefaultCControlRegister implements MutableCControlRegister {
     public void addMultipleDockable( MultipleCDockable dockable ) {
         dockables.add( dockable );
         multiDockables.add( dockable );
+        
+        String id = control.getUniqueId( dockable );
+        if( id != null ){
+        	multiDockableIds.put( dockable, id );
+        	multiDockablesById.put( id, dockable );
+        }
+        
+        List<MultipleCDockable> list = multiDockablesByFactory.get( dockable.getFactory() );
+        if( list == null ){
+        	list = new ArrayList<MultipleCDockable>();
+        	multiDockablesByFactory.put( dockable.getFactory(), list );
+        }
+        list.add( dockable );
     }
 
     public void addSingleDockable( SingleCDockable dockable ) {
         dockables.add( dockable );
         singleDockables.add( dockable );
+        singleDockablesById.put( dockable.getUniqueId(), dockable );
     }
     
     public SingleCDockable getSingleDockable( String id ){
-	    for( SingleCDockable dockable : singleDockables ){
-	    	if( dockable.getUniqueId().equals( id )){
-	    		return dockable;
-	    	}
-	    }
-	    return null;
+    	return singleDockablesById.get( id );
+    }
+    
+    public MultipleCDockable getMultipleDockable( String id ){
+    	return multiDockablesById.get( id );
     }
 
     public void addStation( CStation<?> station ) {
@@ -358,6 +397,19 @@ public class DefaultCControlRegister implements MutableCControlRegister {
     public boolean removeMultipleDockable( MultipleCDockable dockable ) {
         if( dockables.remove( dockable ) ){
             multiDockables.remove( dockable );
+            
+            String id = multiDockableIds.remove( dockable );
+            if( id != null && multiDockablesById.get( id ) == dockable ){
+            	multiDockablesById.remove( id );
+            }
+            
+            List<MultipleCDockable> list = multiDockablesByFactory.get( dockable.getFactory() );
+            if( list != null ){
+            	list.remove( dockable );
+            	if( list.isEmpty() ){
+            		multiDockablesByFactory.remove( dockable.getFactory() );
+            	}
+            }
             return true;
         }
         return false;
@@ -366,6 +418,9 @@ public class DefaultCControlRegister implements MutableCControlRegister {
     public boolean removeSingleDockable( SingleCDockable dockable ) {
         if( dockables.remove( dockable )){
             singleDockables.remove( dockable );
+            if( singleDockablesById.get( dockable.getUniqueId() ) == dockable ){
+            	singleDockablesById.remove( dockable.getUniqueId() );
+            }
             return true;
         }
         return false;
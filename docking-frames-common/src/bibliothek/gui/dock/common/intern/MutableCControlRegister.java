@@ -26,6 +26,7 @@
 package bibliothek.gui.dock.common.intern;
 
 import bibliothek.gui.dock.common.CContentArea;
+import bibliothek.gui.dock.common.CControl;
 import bibliothek.gui.dock.common.CControlRegister;
 import bibliothek.gui.dock.common.CStation;
 import bibliothek.gui.dock.common.CStationContainer;
@@ -94,14 +95,8 @@ public interface MutableCControlRegister extends CControlRegister {
     public void addSingleDockable( SingleCDockable dockable );
 
     /**
-     * Searches the one {@link SingleCDockable} whose unique id equals <code>id</code>.
-     * @param id some id to search
-     * @return a dockable with the same id
-     */
-    public SingleCDockable getSingleDockable( String id );
-    
-    /**
-     * Adds <code>dockable</code> to this register.
+     * Adds <code>dockable</code> to this register. The unique identifier of <code>dockable</code>
+     * must already be known to the {@link CControl}, see {@link CControl#getUniqueId(MultipleCDockable)}.
      * @param dockable the new element
      */
     public void addMultipleDockable( MultipleCDockable dockable );
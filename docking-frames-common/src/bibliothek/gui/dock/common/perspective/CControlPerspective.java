@@ -80,7 +80,10 @@ import bibliothek.util.xml.XException;
 
 /**
  * A {@link CControlPerspective} is a wrapper around a {@link CControl} allowing
- * access to various {@link CPerspective}s.
+ * access to various {@link CPerspective}s.<br>
+ * Most methods of this class access the {@link CControl} and must be called in the <code>EventDispatchThread</code>.
+ * Clients that want to read a layout on another thread can use a {@link PerspectiveReader} created by
+ * {@link #createReader(boolean)}.
  * @author Benjamin Sigg
  */
 @ClientOnly
@@ -418,87 +421,7 @@ public class CControlPerspective {
      * @throws XException if the structure of <code>root</code> is not as expected
      */
     public CPerspective readXML( XElement root, boolean includeWorkingAreas ) throws XException{
-    	CPerspective perspective = createEmptyPerspective();
-    	
-    	PerspectiveElementFactory factory = new PerspectiveElementFactory( perspective );
-    	DockFrontendPerspective frontend = wrap( perspective, includeWorkingAreas, factory );
-    	Perspective conversion = frontend.getPerspective();
-    	
-    	for( Map.Entry<String, MultipleCDockableFactory<?, ?>> item : control.getRegister().getFactories().entrySet() ){
-    		conversion.getSituation().add( new CommonMultipleDockableFactory( item.getKey(), item.getValue(), control, perspective ) );
-    	}
-    	
-    	XElement xstations = root.getElement( "stations" );
-    	if( xstations == null ){
-    		throw new XException( "missing element 'stations'" );
-    	}
-    	
-    	Map<String, DockLayoutComposition> stations = conversion.getSituation().readCompositionsXML( xstations );
-    	factory.setStations( stations );
-    	
-    	for( DockLayoutComposition composition : stations.values() ){
-    		PerspectiveElement station = conversion.convert( composition );
-    		if( station instanceof CommonElementPerspective ){
-    			CStationPerspective stationPerspective = ((CommonElementPerspective)station).getElement().asStation();
-    			if( stationPerspective != null ){
-    				perspective.addStation( stationPerspective );
-    			}
-    		}
-    	}
-    	
-    	perspective.storeLocations();
-    	
-    	// read the last known location of all elements
-    	XElement xinvisible = root.getElement( "invisible" );
-    	if( xinvisible != null ){
-    		PropertyTransformer transformer = frontend.getPropertyTransformer();
-    		for( XElement xdockable : xinvisible.getElements( "dockable" )){
-    			String key = xdockable.getString( "key" );
-    			CDockablePerspective dockable = perspective.getDockable( key );
-    			if( dockable == null ){
-    				XElement xcontent = xdockable.getElement( "content" );
-    				if( xcontent != null ){
-    					PerspectiveElement element = conversion.convert( conversion.getSituation().readCompositionXML( xcontent ) );
-    	    			if( element instanceof CommonElementPerspective ){
-    	    				dockable = ((CommonElementPerspective)element).getElement().asDockable();
-    	    				if( dockable != null ){
-    	    					perspective.putDockable( dockable );
-    	    				}
-    	    			}		
-    				}
-    			}
-    			if( dockable != null ){
-    				XElement xlocation = xdockable.getElement( "location" );
-    				String locationRoot = xlocation.getString( "root" );
-    				DockableProperty location = transformer.readXML( xlocation );
-    				Path mode = new Path( xlocation.getString( "mode" ));
-    				
-    				boolean applicationDefined = false;
-    				if( xlocation.attributeExists( "applicationDefined" )){
-    					applicationDefined = xlocation.getBoolean( "applicationDefined" );
-    				}
-    				
-    				ExtendedMode extendedMode = perspective.getLocationManager().getMode( mode );
-    				if( extendedMode != null ){
-    					dockable.getLocationHistory().add( extendedMode, new Location( mode, locationRoot, location, applicationDefined ) );
-    				}
-    			}
-    		}
-    	}
-    	
-    	
-    	XElement xmodes = root.getElement( "modes" );
-    	if( xmodes == null ){
-    		throw new XException( "missing element 'modes'" );
-    	}
-    	
-    	ModeSettingsConverter<Location, Location> converter = new LocationSettingConverter( control.getOwner().getController() );
-    	ModeSettings<Location, Location> modes = control.getOwner().getLocationManager().createModeSettings( converter );
-    	modes.readXML( xmodes );
-    	
-    	perspective.getLocationManager().readModes( modes, perspective, control );
-    	
-    	return perspective;
+    	return createReader( includeWorkingAreas ).readXML( root );
     }
     
     /**
@@ -540,90 +463,34 @@ public class CControlPerspective {
      * @throws IOException if <code>in</code> is not readable or in the wrong format
      */
     public CPerspective read( DataInputStream in, boolean includeWorkingAreas ) throws IOException{
-    	Version version = Version.read( in );
-    	
-    	boolean version111 = version.equals( Version.VERSION_1_1_1 );
-    	boolean version111a = version.equals( Version.VERSION_1_1_1a );
-    	boolean version112 = version.equals( Version.VERSION_1_1_2 );
-    	
-    	if( !version111 && !version111a && !version112 ){
-    		throw new IOException( "unknown version: " + version );
-    	}
-    	
-    	CPerspective perspective = createEmptyPerspective();
-    	
-    	PerspectiveElementFactory factory = new PerspectiveElementFactory( perspective );
-    	DockFrontendPerspective frontend = wrap( perspective, includeWorkingAreas, factory );
-    	Perspective conversion = frontend.getPerspective();
-    	
-    	for( Map.Entry<String, MultipleCDockableFactory<?, ?>> item : control.getRegister().getFactories().entrySet() ){
-    		conversion.getSituation().add( new CommonMultipleDockableFactory( item.getKey(), item.getValue(), control, perspective ) );
-    	}
-    	
-    	Map<String, DockLayoutComposition> stations = conversion.getSituation().readCompositions( in );
-    	factory.setStations( stations );
-    	
-    	for( DockLayoutComposition composition : stations.values() ){
-    		PerspectiveElement station = conversion.convert( composition );
-    		if( station instanceof CommonElementPerspective ){
-    			CStationPerspective stationPerspective = ((CommonElementPerspective)station).getElement().asStation();
-    			if( stationPerspective != null ){
-    				perspective.addStation( stationPerspective );
-    			}
-    		}
-    	}
-    	
-    	if( version111a || version112 ){
-    		perspective.storeLocations();
-    		PropertyTransformer transformer = frontend.getPropertyTransformer();
-    		for( int i = 0, n = in.readInt(); i<n; i++ ){
-    			if( in.readBoolean() ){
-    				String key = in.readUTF();
-    				DockLayoutComposition composition = null;
-    				if( in.readBoolean() ){
-    					 composition = conversion.getSituation().readComposition( in );
-    				}
-    				
-	    			CDockablePerspective dockable = perspective.getDockable( key );
-	    			if( dockable == null && composition != null ){
-	    				PerspectiveElement element = conversion.convert( composition );
-	    	    		if( element instanceof CommonElementPerspective ){
-	    	    			dockable = ((CommonElementPerspective)element).getElement().asDockable();
-	    	    			if( dockable != null ){
-	    	    				perspective.putDockable( dockable );
-	    	    			}
-	    	    		}		
-	    			}
-	    			
-	    			String locationRoot = in.readUTF();
-	    			String modeId = in.readUTF();
-	    			
-	    			boolean applicationDefined = false;
-	    			if( version112 ){
-	    				applicationDefined = in.readBoolean();
-	    			}
-	    			
-	    			DockableProperty location = transformer.read( in );
-	    			
-	    			if( dockable != null ){
-	    				Path mode = new Path( modeId );
-	    				
-	    				ExtendedMode extendedMode = perspective.getLocationManager().getMode( mode );
-	    				if( extendedMode != null ){
-	    					dockable.getLocationHistory().add( extendedMode, new Location( mode, locationRoot, location, applicationDefined ) );
-	    				}
-	    			}
-	    		}
-    		}
+    	return createReader( includeWorkingAreas ).read( in );
+    }
+    
+    /**
+     * Creates a new {@link PerspectiveReader} which reads exactly one {@link CPerspective}. This method
+     * must be called in the <code>EventDispatchThread</code>. The reader itself can then be used on another
+     * thread, e.g. to read a layout while the application is starting up. See {@link PerspectiveReader} for
+     * the parts of the {@link CControl} that are still used by the reader.
+     * @param includeWorkingAreas whether the perspective contains information about children of {@link CStation#isWorkingArea() working areas}
+     * @return the new reader
+     */
+    public PerspectiveReader createReader( boolean includeWorkingAreas ){
+    	return new PerspectiveReader( includeWorkingAreas );
+    }
+    
+    /**
+     * Changes the layout of the associated {@link CControl} such that it matches <code>setting</code>. The
+     * <code>setting</code> usually was created by {@link PerspectiveReader#write()} on another thread, this
+     * method only applies the layout and must be called in the <code>EventDispatchThread</code>.
+     * @param setting the layout to apply, not <code>null</code>
+     * @param includeWorkingAreas whether <code>setting</code> includes the {@link Dockable}s that are managed
+     * by a working-area
+     */
+    public void setPerspective( CSetting setting, boolean includeWorkingAreas ){
+    	if( setting == null ){
+    		throw new IllegalArgumentException( "setting must not be null" );
     	}
-    	
-    	ModeSettingsConverter<Location, Location> converter = new LocationSettingConverter( control.getOwner().getController() );
-    	ModeSettings<Location, Location> modes = control.getOwner().getLocationManager().createModeSettings( converter );
-    	modes.read( in );
-    	
-    	perspective.getLocationManager().readModes( modes, perspective, control );
-    	
-    	return perspective;
+    	control.getOwner().intern().setSetting( setting, !includeWorkingAreas );
     }
     
     /**
@@ -637,9 +504,12 @@ public class CControlPerspective {
     }
     
     private CSetting convert( CPerspective perspective, boolean includeWorkingAreas ){
+    	return convert( perspective, conversion( perspective, includeWorkingAreas ) );
+    }
+    
+    private CSetting convert( CPerspective perspective, DockFrontendPerspective frontend ){
     	perspective.storeLocations();
     	
-    	DockFrontendPerspective frontend = conversion( perspective, includeWorkingAreas );
     	Perspective conversion = frontend.getPerspective();
     	CSetting setting = new CSetting();
     	
@@ -777,6 +647,257 @@ public class CControlPerspective {
     	return frontend;
     }
     
+    /**
+     * A {@link PerspectiveReader} reads one {@link CPerspective} from a stream or from an xml element, and converts
+     * the perspective into a {@link CSetting}. The reader is created in the <code>EventDispatchThread</code> by
+     * {@link CControlPerspective#createReader(boolean)}, which collects the empty perspective, the factories and
+     * the stations from the {@link CControl}.<br>
+     * Afterwards reading never modifies the {@link CControl} and never accesses its {@link Dockable}s or stations.
+     * But reading still calls the {@link CControl}: 
+     * <ul>
+     * 	<li>The {@link bibliothek.gui.dock.common.CControlRegister CControlRegister} translates the identifiers of the dockables.</li>
+     * 	<li>The {@link MultipleCDockableFactory}s that were registered when the reader was created read the layouts
+     * of their dockables.</li>
+     * 	<li>The {@link bibliothek.gui.DockController DockController} of the {@link CControl} provides the factories for
+     * converting locations.</li>
+     * </ul>
+     * Hence reading and modifying the perspective can happen on any thread if these objects allow it. 
+     * This is true for the default register, and for any {@link MultipleCDockableFactory} that 
+     * does not access Swing components. Only one thread at a time must use the reader, and clients must
+     * not register new factories, stations or {@link ExtendedMode}s at the {@link CControl} while a reader is 
+     * in use. Converting the perspective with {@link #write()} and the final call to 
+     * {@link CControlPerspective#setPerspective(CSetting, boolean)} have to happen in the <code>EventDispatchThread</code>.
+     * @author Benjamin Sigg
+     */
+    public class PerspectiveReader{
+    	private boolean includeWorkingAreas;
+    	private CPerspective perspective;
+    	private DockFrontendPerspective frontend;
+    	private Perspective conversion;
+    	private ModeSettings<Location, Location> modes;
+    	private PerspectiveElementFactory factory;
+    	private boolean started = false;
+    	
+    	private PerspectiveReader( boolean includeWorkingAreas ){
+    		this.includeWorkingAreas = includeWorkingAreas;
+    		
+    		perspective = createEmptyPerspective();
+        	
+        	factory = new PerspectiveElementFactory( perspective );
+        	frontend = wrap( perspective, includeWorkingAreas, factory );
+        	conversion = frontend.getPerspective();
+        	
+        	for( Map.Entry<String, MultipleCDockableFactory<?, ?>> item : control.getRegister().getFactories().entrySet() ){
+        		conversion.getSituation().add( new CommonMultipleDockableFactory( item.getKey(), item.getValue(), control, perspective ) );
+        	}
+        	
+        	ModeSettingsConverter<Location, Location> converter = new LocationSettingConverter( control.getOwner().getController() );
+        	modes = control.getOwner().getLocationManager().createModeSettings( converter );
+    	}
+    	
+    	/**
+    	 * Tells whether the perspective that is read contains information about the children of working areas.
+    	 * @return whether working areas are included
+    	 */
+    	public boolean isIncludeWorkingAreas(){
+			return includeWorkingAreas;
+		}
+    	
+    	/**
+    	 * Gets the perspective that is filled by this reader. 
+    	 * @return the perspective, empty unless {@link #read(DataInputStream)} or {@link #readXML(XElement)} was called
+    	 */
+    	public CPerspective getPerspective(){
+			return perspective;
+		}
+    	
+    	private void start(){
+    		if( started ){
+    			throw new IllegalStateException( "a PerspectiveReader can only be used once" );
+    		}
+    		started = true;
+    	}
+    	
+    	/**
+    	 * Fills the {@link #getPerspective() perspective} of this reader using the information stored in <code>root</code>.
+    	 * This method can be called at most once, and only if {@link #read(DataInputStream)} was not called.
+    	 * @param root the element which contains information about a perspective
+    	 * @return the new perspective
+    	 * @throws XException if the structure of <code>root</code> is not as expected
+    	 * @see CControlPerspective#readXML(XElement, boolean)
+    	 */
+    	public CPerspective readXML( XElement root ) throws XException{
+    		start();
+    	
+    		XElement xstations = root.getElement( "stations" );
+    		if( xstations == null ){
+    			throw new XException( "missing element 'stations'" );
+    		}
+    	
+    		Map<String, DockLayoutComposition> stations = conversion.getSituation().readCompositionsXML( xstations );
+    		factory.setStations( stations );
+    	
+    		for( DockLayoutComposition composition : stations.values() ){
+    			PerspectiveElement station = conversion.convert( composition );
+    			if( station instanceof CommonElementPerspective ){
+    				CStationPerspective stationPerspective = ((CommonElementPerspective)station).getElement().asStation();
+    				if( stationPerspective != null ){
+    					perspective.addStation( stationPerspective );
+    				}
+    			}
+    		}
+    	
+    		perspective.storeLocations();
+    	
+    		// read the last known location of all elements
+    		XElement xinvisible = root.getElement( "invisible" );
+    		if( xinvisible != null ){
+    			PropertyTransformer transformer = frontend.getPropertyTransformer();
+    			for( XElement xdockable : xinvisible.getElements( "dockable" )){
+    				String key = xdockable.getString( "key" );
+    				CDockablePerspective dockable = perspective.getDockable( key );
+    				if( dockable == null ){
+    					XElement xcontent = xdockable.getElement( "content" );
+    					if( xcontent != null ){
+    						PerspectiveElement element = conversion.convert( conversion.getSituation().readCompositionXML( xcontent ) );
+    		    			if( element instanceof CommonElementPerspective ){
+    		    				dockable = ((CommonElementPerspective)element).getElement().asDockable();
+    		    				if( dockable != null ){
+    		    					perspective.putDockable( dockable );
+    		    				}
+    		    			}		
+    					}
+    				}
+    				if( dockable != null ){
+    					XElement xlocation = xdockable.getElement( "location" );
+    					String locationRoot = xlocation.getString( "root" );
+    					DockableProperty location = transformer.readXML( xlocation );
+    					Path mode = new Path( xlocation.getString( "mode" ));
+    				
+    					boolean applicationDefined = false;
+    					if( xlocation.attributeExists( "applicationDefined" )){
+    						applicationDefined = xlocation.getBoolean( "applicationDefined" );
+    					}
+    				
+    					ExtendedMode extendedMode = perspective.getLocationManager().getMode( mode );
+    					if( extendedMode != null ){
+    						dockable.getLocationHistory().add( extendedMode, new Location( mode, locationRoot, location, applicationDefined ) );
+    					}
+    				}
+    			}
+    		}
+    	
+    	
+    		XElement xmodes = root.getElement( "modes" );
+    		if( xmodes == null ){
+    			throw new XException( "missing element 'modes'" );
+    		}
+    	
+    		modes.readXML( xmodes );
+    	
+    		perspective.getLocationManager().readModes( modes, perspective, control );
+    	
+    		return perspective;
+    	}
+    	
+    	/**
+    	 * Fills the {@link #getPerspective() perspective} of this reader using the information stored in <code>in</code>.
+    	 * This method can be called at most once, and only if {@link #readXML(XElement)} was not called.
+    	 * @param in the stream to read data from
+    	 * @return the new perspective
+    	 * @throws IOException if <code>in</code> is not readable or in the wrong format
+    	 * @see CControlPerspective#read(DataInputStream, boolean)
+    	 */
+    	public CPerspective read( DataInputStream in ) throws IOException{
+    		Version version = Version.read( in );
+    	
+    		boolean version111 = version.equals( Version.VERSION_1_1_1 );
+    		boolean version111a = version.equals( Version.VERSION_1_1_1a );
+    		boolean version112 = version.equals( Version.VERSION_1_1_2 );
+    	
+    		if( !version111 && !version111a && !version112 ){
+    			throw new IOException( "unknown version: " + version );
+    		}
+    	
+    		start();
+    	
+    		Map<String, DockLayoutComposition> stations = conversion.getSituation().readCompositions( in );
+    		factory.setStations( stations );
+    	
+    		for( DockLayoutComposition composition : stations.values() ){
+    			PerspectiveElement station = conversion.convert( composition );
+    			if( station instanceof CommonElementPerspective ){
+    				CStationPerspective stationPerspective = ((CommonElementPerspective)station).getElement().asStation();
+    				if( stationPerspective != null ){
+    					perspective.addStation( stationPerspective );
+    				}
+    			}
+    		}
+    	
+    		if( version111a || version112 ){
+    			perspective.storeLocations();
+    			PropertyTransformer transformer = frontend.getPropertyTransformer();
+    			for( int i = 0, n = in.readInt(); i<n; i++ ){
+    				if( in.readBoolean() ){
+    					String key = in.readUTF();
+    					DockLayoutComposition composition = null;
+    					if( in.readBoolean() ){
+    						 composition = conversion.getSituation().readComposition( in );
+    					}
+    				
+		    			CDockablePerspective dockable = perspective.getDockable( key );
+		    			if( dockable == null && composition != null ){
+		    				PerspectiveElement element = conversion.convert( composition );
+		    	    		if( element instanceof CommonElementPerspective ){
+		    	    			dockable = ((CommonElementPerspective)element).getElement().asDockable();
+		    	    			if( dockable != null ){
+		    	    				perspective.putDockable( dockable );
+		    	    			}
+		    	    		}		
+		    			}
+    				
+		    			String locationRoot = in.readUTF();
+		    			String modeId = in.readUTF();
+    				
+		    			boolean applicationDefined = false;
+		    			if( version112 ){
+		    				applicationDefined = in.readBoolean();
+		    			}
+    				
+		    			DockableProperty location = transformer.read( in );
+    				
+		    			if( dockable != null ){
+		    				Path mode = new Path( modeId );
+    					
+		    				ExtendedMode extendedMode = perspective.getLocationManager().getMode( mode );
+		    				if( extendedMode != null ){
+		    					dockable.getLocationHistory().add( extendedMode, new Location( mode, locationRoot, location, applicationDefined ) );
+		    				}
+		    			}
+		    		}
+    			}
+    		}
+    	
+    		modes.read( in );
+    	
+    		perspective.getLocationManager().readModes( modes, perspective, control );
+    	
+    		return perspective;
+    	}
+    	
+    	/**
+    	 * Converts the {@link #getPerspective() perspective} of this reader into a {@link CSetting} which can be
+    	 * applied by calling {@link CControlPerspective#setPerspective(CSetting, boolean)}. The conversion is the
+    	 * same as the one used by {@link CControlPerspective#setPerspective(CPerspective, boolean)}. Like
+    	 * {@link CControlPerspective#createReader(boolean)} this method collects the factories and stations
+    	 * of the {@link CControl}, and hence it must be called in the <code>EventDispatchThread</code>.
+    	 * @return the converted perspective
+    	 */
+    	public CSetting write(){
+    		return convert( perspective, includeWorkingAreas );
+    	}
+    }
+    
     /**
      * Helper class for converting {@link DockElement}s to {@link PerspectiveElement}s.
      * @author Benjamin Sigg
@@ -31,7 +31,6 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -68,6 +67,12 @@ public abstract class ModeManager<H, M extends Mode<H>> {
 	
 	/** list all {@link DockableHandle}s ever created and not dismissed by this manager */
 	private Map<String, DockableHandle> entries = new HashMap<String, DockableHandle>();
+	
+	/** the identifiers of all modes ever used by a {@link DockableHandle}, the index of a path is its id */
+	private List<Path> paths = new ArrayList<Path>();
+	
+	/** tells for each element of {@link #paths} its index */
+	private Map<Path, Integer> pathIds = new HashMap<Path, Integer>();
 		
 	/** all the listeners that are registered at this manager */
 	private List<ModeManagerListener<? super H, ? super M>> listeners =
@@ -621,7 +626,7 @@ public abstract class ModeManager<H, M extends Mode<H>> {
     	if( !force && dockableMode == mode )
     		return;
     	
-    	H history = entry.properties.get( mode.getUniqueIdentifier() );
+    	H history = entry.getProperty( mode.getUniqueIdentifier() );
     	apply( dockable, mode, history, set );
     }
 
@@ -635,7 +640,7 @@ public abstract class ModeManager<H, M extends Mode<H>> {
     	DockableHandle entry = dockables.get( dockable );
     	if( entry == null )
     		return null;
-    	return entry.properties.get( modeId );
+    	return entry.getProperty( modeId );
     }
     
     /**
@@ -712,10 +717,7 @@ public abstract class ModeManager<H, M extends Mode<H>> {
     protected void setProperties( M mode, Dockable dockable, H property ){
     	DockableHandle entry = dockables.get( dockable );
     	if( entry != null ){
-    		if( property == null )
-    			entry.properties.remove( mode.getUniqueIdentifier() );
-    		else
-    			entry.properties.put( mode.getUniqueIdentifier(), property );
+    		entry.setProperty( mode.getUniqueIdentifier(), property );
     	}
     }
     
@@ -731,7 +733,7 @@ public abstract class ModeManager<H, M extends Mode<H>> {
         if( entry == null )
             return null;
         
-        return entry.properties.get( mode.getUniqueIdentifier() );
+        return entry.getProperty( mode.getUniqueIdentifier() );
     }
     
     /**
@@ -980,9 +982,9 @@ public abstract class ModeManager<H, M extends Mode<H>> {
 		
 		M lastMode = getCurrentMode( dockable );
 		
-		List<M> result = new ArrayList<M>();
-		for( Path path : handle.history ){
-			M mode = getMode( path );
+		List<M> result = new ArrayList<M>( handle.historySize + 1 );
+		for( int i = 0; i < handle.historySize; i++ ){
+			M mode = getMode( paths.get( handle.history[i] ) );
 			addMode( mode, result );
 			if( mode == lastMode ){
 				lastMode = null;
@@ -1026,9 +1028,9 @@ public abstract class ModeManager<H, M extends Mode<H>> {
 		if( handle == null )
 			return Collections.emptyList();
 		
-		List<H> result = new ArrayList<H>();
-		for( Path path : handle.history ){
-			H history = handle.properties.get( path );
+		List<H> result = new ArrayList<H>( handle.historySize );
+		for( int i = 0; i < handle.historySize; i++ ){
+			H history = handle.getProperty( handle.history[i] );
 			if( history != null ){
 				result.add( history );
 			}
@@ -1069,7 +1071,7 @@ public abstract class ModeManager<H, M extends Mode<H>> {
     	
     	DockableHandle handle = getHandle( dockable );
     	if( handle != null ){
-    		handle.properties.put( mode.getUniqueIdentifier(), mode.current( dockable ) );
+    		handle.setProperty( mode.getUniqueIdentifier(), mode.current( dockable ) );
     	}
     }
 
@@ -1148,6 +1150,27 @@ public abstract class ModeManager<H, M extends Mode<H>> {
 		return dockables.get( dockable );
 	}
 	
+	/**
+	 * Gets the id of <code>path</code>. Identifiers of modes are stored as small integers by
+	 * the {@link DockableHandle}s, each path is stored only once by this manager.
+	 * @param path the identifier of a mode
+	 * @param create whether to create a new id if <code>path</code> is not yet known
+	 * @return the id of <code>path</code>, -1 if <code>path</code> is not known and <code>create</code>
+	 * was <code>false</code>
+	 */
+	private int getPathId( Path path, boolean create ){
+		Integer id = pathIds.get( path );
+		if( id == null ){
+			if( !create ){
+				return -1;
+			}
+			id = paths.size();
+			paths.add( path );
+			pathIds.put( path, id );
+		}
+		return id;
+	}
+	
 	/**
 	 * Creates a new {@link ModeSetting} which is configured to transfer data from
 	 * this {@link ModeManager} to persistent storage or the other way. The new setting
@@ -1188,13 +1211,19 @@ public abstract class ModeManager<H, M extends Mode<H>> {
 	
 	/**
 	 * Writes all the information stored in this {@link ModeManager} to
-	 * <code>setting</code>.
+	 * <code>setting</code>. Entries that did not change since they were last written
+	 * or read are not converted again, if <code>setting</code> uses the same
+	 * {@link ModeSettings#getConverter() converter} as the settings that were used back then.
 	 * @param setting the settings to fill
 	 */
 	public void writeSettings( ModeSettings<H,?> setting ){
 		// dockables
 		for( DockableHandle handle : entries.values() ){
-			setting.add( handle.id, handle.getCurrent(), handle.properties, handle.history );
+			Path current = handle.getCurrent();
+			if( !handle.isWritten( current ) || !setting.addEntry( handle.written )){
+				setting.add( handle.id, current, handle.getProperties(), handle.getHistory() );
+				handle.setWritten( setting.getEntry( setting.size()-1 ), current );
+			}
 		}
 		
 		// modes
@@ -1255,11 +1284,9 @@ public abstract class ModeManager<H, M extends Mode<H>> {
                 if( current == null )
                     current = old;
                 
-                entry.history.clear();
-                for( Path next : settings.getHistory( i ))
-                    entry.history.add( next );
-                
-                entry.properties = settings.getProperties( i );
+                entry.setHistory( settings.getHistory( i ) );
+                entry.setProperties( settings.getProperties( i ) );
+                entry.setWritten( settings.getEntry( i ), settings.getCurrent( i ) );
                 
                 if( (old == null && current != null) || (old != null && !old.equals( current ))){
                     applyDuringRead( key, old, current, entry.dockable );
@@ -1338,7 +1365,7 @@ public abstract class ModeManager<H, M extends Mode<H>> {
 			builder.append( "\n\t" );
 			builder.append( handle.id );
 			
-			for( Map.Entry<Path, H> entry : handle.properties.entrySet() ){
+			for( Map.Entry<Path, H> entry : handle.getProperties().entrySet() ){
 				builder.append( "\n\t\t" );
 				builder.append( entry.getKey() );
 				builder.append( " -> " );
@@ -1376,15 +1403,22 @@ public abstract class ModeManager<H, M extends Mode<H>> {
         
         /** the set of actions available for {@link #dockable} */
         public MultiDockActionSource source;
-        /** a map that stores some properties mapped to the different modes */
-        public Map<Path, H> properties;
+        /** the properties of the different modes, the index of a property is the id of its mode */
+        private Object[] properties = new Object[0];
 
-        /** The modes this entry already visited. No mode is more than once in this list. */
-        private List<Path> history;
+        /** The ids of the modes this entry already visited. No mode is more than once in this list. */
+        private int[] history = new int[0];
+        /** the number of ids in {@link #history} */
+        private int historySize = 0;
         
         /** if <code>true</code>, then this entry is not deleted automatically */
         private boolean empty = false;
         
+        /** the entry of a {@link ModeSettings} that describes this handle, <code>null</code> if this handle changed */
+        private ModeSettings.DockableEntry<?> written;
+        /** the current mode that was stored in {@link #written} */
+        private Path writtenCurrent;
+        
         /**
          * Creates a new entry
          * @param dockable the element whose properties are stores in this entry
@@ -1394,8 +1428,154 @@ public abstract class ModeManager<H, M extends Mode<H>> {
             this.dockable = dockable;
             this.id = id;
             source = new MultiDockActionSource( new LocationHint( LocationHint.ACTION_GUARD, LocationHint.RIGHT ) );
-            properties = new HashMap<Path, H>();
-            history = new LinkedList<Path>();
+        }
+        
+        /**
+         * Gets the property that is stored for the mode <code>id</code>.
+         * @param id the unique identifier of a mode
+         * @return the property or <code>null</code>
+         */
+        public H getProperty( Path id ){
+        	int index = getPathId( id, false );
+        	if( index == -1 ){
+        		return null;
+        	}
+        	return getProperty( index );
+        }
+        
+        /**
+         * Gets the property that is stored for the mode with id <code>index</code>.
+         * @param index the id of a mode
+         * @return the property or <code>null</code>
+         */
+        @SuppressWarnings("unchecked")
+        public H getProperty( int index ){
+        	if( index >= properties.length ){
+        		return null;
+        	}
+        	return (H)properties[ index ];
+        }
+        
+        /**
+         * Stores the property of mode <code>id</code>.
+         * @param id the unique identifier of a mode
+         * @param property the new property, <code>null</code> to remove the property
+         */
+        public void setProperty( Path id, H property ){
+        	written = null;
+        	if( property == null ){
+        		int index = getPathId( id, false );
+        		if( index != -1 && index < properties.length ){
+        			properties[ index ] = null;
+        		}
+        	}
+        	else{
+        		int index = getPathId( id, true );
+        		if( index >= properties.length ){
+        			Object[] temp = new Object[ paths.size() ];
+        			System.arraycopy( properties, 0, temp, 0, properties.length );
+        			properties = temp;
+        		}
+        		properties[ index ] = property;
+        	}
+        }
+        
+        /**
+         * Gets a new map containing all the properties of this entry.
+         * @return the map of properties
+         */
+        public Map<Path, H> getProperties(){
+        	Map<Path, H> result = new HashMap<Path, H>();
+        	for( int i = 0; i < properties.length; i++ ){
+        		H property = getProperty( i );
+        		if( property != null ){
+        			result.put( paths.get( i ), property );
+        		}
+        	}
+        	return result;
+        }
+        
+        /**
+         * Replaces all the properties of this entry.
+         * @param properties the new properties
+         */
+        public void setProperties( Map<Path, H> properties ){
+        	this.properties = new Object[0];
+        	for( Map.Entry<Path, H> entry : properties.entrySet() ){
+        		setProperty( entry.getKey(), entry.getValue() );
+        	}
+        }
+        
+        /**
+         * Gets the history of this entry, the oldest mode is the first entry of the list.
+         * @return the history, a new list
+         */
+        public List<Path> getHistory(){
+        	List<Path> result = new ArrayList<Path>( historySize );
+        	for( int i = 0; i < historySize; i++ ){
+        		result.add( paths.get( history[i] ) );
+        	}
+        	return result;
+        }
+        
+        /**
+         * Replaces the history of this entry.
+         * @param history the new history, the oldest mode is the first entry of the array
+         */
+        public void setHistory( Path[] history ){
+        	written = null;
+        	historySize = 0;
+        	for( Path next : history ){
+        		pushHistory( getPathId( next, true ) );
+        	}
+        }
+        
+        /**
+         * Puts the mode <code>id</code> on top of the history, removes any older
+         * occurrence of <code>id</code>.
+         * @param id the id of a mode
+         */
+        private void pushHistory( int id ){
+        	int index = 0;
+        	while( index < historySize && history[index] != id ){
+        		index++;
+        	}
+        	if( index < historySize ){
+        		System.arraycopy( history, index+1, history, index, historySize-index-1 );
+        		historySize--;
+        	}
+        	if( historySize == history.length ){
+        		int[] temp = new int[ historySize + 4 ];
+        		System.arraycopy( history, 0, temp, 0, historySize );
+        		history = temp;
+        	}
+        	history[ historySize++ ] = id;
+        }
+        
+        /**
+         * Tells whether the last {@link ModeSettings} entry that was written or read for this
+         * entry still describes this entry.
+         * @param current the current mode of this entry
+         * @return whether the last entry can be reused
+         */
+        public boolean isWritten( Path current ){
+        	if( written == null ){
+        		return false;
+        	}
+        	if( current == null ){
+        		return writtenCurrent == null;
+        	}
+        	return current.equals( writtenCurrent );
+        }
+        
+        /**
+         * Sets the entry of a {@link ModeSettings} that describes this entry.
+         * @param written the entry, can be <code>null</code>
+         * @param current the current mode stored in <code>written</code>
+         */
+        public void setWritten( ModeSettings.DockableEntry<?> written, Path current ){
+        	this.written = written;
+        	this.writtenCurrent = current;
         }
         
         /**
@@ -1444,9 +1624,8 @@ public abstract class ModeManager<H, M extends Mode<H>> {
          * @param data history data associated with mode <code>id</code>
          */
         public void addToHistory( Path id, H data ){
-        	history.remove( id );
-            history.add( id );
-            properties.put( id, data );
+        	pushHistory( getPathId( id, true ) );
+            setProperty( id, data );
         }
         
         /**
@@ -1457,10 +1636,10 @@ public abstract class ModeManager<H, M extends Mode<H>> {
          * was put onto the history
          */
         public ModeHandle previousMode(){
-            if( history.size() < 2 )
+            if( historySize < 2 )
                 return access( getDefaultMode( dockable ) );
             else
-                return getAccess( history.get( history.size()-2 ) );
+                return getAccess( paths.get( history[ historySize-2 ] ) );
         }
         
         /**
@@ -1468,10 +1647,10 @@ public abstract class ModeManager<H, M extends Mode<H>> {
          * @return the mode or <code>null</code>
          */
         public ModeHandle peekMode(){
-            if( history.isEmpty() )
+            if( historySize == 0 )
                 return null;
             else
-                return getAccess( history.get( history.size()-1 ) );
+                return getAccess( paths.get( history[ historySize-1 ] ) );
         }
         
         /**
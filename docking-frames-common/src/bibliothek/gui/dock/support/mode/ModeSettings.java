@@ -32,6 +32,7 @@ import java.io.DataOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -53,7 +54,7 @@ import bibliothek.util.xml.XException;
  */
 public class ModeSettings<A,B> {
     /** the list of known {@link Dockable}s */
-    private List<DockableEntry> dockables = new ArrayList<DockableEntry>();
+    private List<DockableEntry<B>> dockables = new ArrayList<DockableEntry<B>>();
     
     /** the list of mode information to store */
     private Map<Path, ModeSetting<A>> modes = new HashMap<Path, ModeSetting<A>>();
@@ -108,15 +109,39 @@ public class ModeSettings<A,B> {
         if( history == null )
             throw new NullPointerException( "history" );
         
-        DockableEntry entry = new DockableEntry();
-        entry.id = id;
-        entry.current = current;
-        entry.history = history.toArray( new Path[ history.size() ] );
-        entry.properties = new HashMap<Path, B>();
+        Map<Path, B> converted = new HashMap<Path, B>();
         for( Map.Entry<Path, A> next : properties.entrySet() ){
-            entry.properties.put( next.getKey(), converter.convertToSetting( next.getValue() ) );
+            converted.put( next.getKey(), converter.convertToSetting( next.getValue() ) );
         }
-        dockables.add( entry );
+        dockables.add( new DockableEntry<B>( id, current, history.toArray( new Path[ history.size() ] ), converted, converter ) );
+    }
+    
+    /**
+     * Gets the index'th set of properties of this setting. The returned object is immutable and
+     * can be given to {@link #addEntry(DockableEntry)} of another setting, which allows to reuse
+     * properties that did not change since they were converted.
+     * @param index the index of the set
+     * @return the set of properties
+     */
+    DockableEntry<B> getEntry( int index ){
+    	return dockables.get( index );
+    }
+    
+    /**
+     * Adds a set of properties which was created by {@link #getEntry(int)}. The set is only
+     * added if it was converted by the same {@link #getConverter() converter} this setting uses.
+     * @param entry the set of properties, can be <code>null</code>
+     * @return <code>true</code> if <code>entry</code> was added, <code>false</code> if
+     * <code>entry</code> cannot be used by this setting
+     */
+    @SuppressWarnings("unchecked")
+    boolean addEntry( DockableEntry<?> entry ){
+    	if( entry == null || entry.getConverter() != converter ){
+    		return false;
+    	}
+    	// the converter is the same, hence the properties have the type B
+    	dockables.add( (DockableEntry<B>)entry );
+    	return true;
     }
     
     /**
@@ -158,7 +183,7 @@ public class ModeSettings<A,B> {
      */
     public int indexOf( String id ){
     	int index = 0;
-    	for( DockableEntry entry : dockables ){
+    	for( DockableEntry<B> entry : dockables ){
     		if( entry.id.equals( id )){
     			return index;
     		}
@@ -191,7 +216,7 @@ public class ModeSettings<A,B> {
      * @return the history
      */
     public Path[] getHistory( int index ){
-        return dockables.get( index ).history;
+        return dockables.get( index ).history.clone();
     }
     
     /**
@@ -226,7 +251,7 @@ public class ModeSettings<A,B> {
         Version.write( out, Version.VERSION_1_0_8 );
         
         out.writeInt( dockables.size() );
-        for( DockableEntry entry : dockables ){
+        for( DockableEntry<B> entry : dockables ){
             out.writeUTF( entry.id );
             
             if( entry.current == null ){
@@ -313,48 +338,49 @@ public class ModeSettings<A,B> {
         
         dockables.clear();
         for( int i = 0, n = in.readInt(); i<n; i++ ){
-            DockableEntry entry = new DockableEntry();
-            dockables.add( entry );
-            entry.id = in.readUTF();
+            String id = in.readUTF();
+            Path current = null;
             if( in.readBoolean() ){
             	String key = in.readUTF();
-                entry.current = version7 ? resuceMode( key ) : new Path( key );
+                current = version7 ? resuceMode( key ) : new Path( key );
             }
             
-            entry.history = new Path[ in.readInt() ];
-            for( int j = 0; j < entry.history.length; j++ ){
+            Path[] history = new Path[ in.readInt() ];
+            for( int j = 0; j < history.length; j++ ){
             	String key = in.readUTF();
-                entry.history[j] = version7 ? resuceMode( key ) : new Path( key );
+                history[j] = version7 ? resuceMode( key ) : new Path( key );
             }
             
             if( version7 ){
             	int count = 0;
-            	for( int j = 0; j < entry.history.length; j++ ){
-            		if( entry.history[j] != null ){
+            	for( int j = 0; j < history.length; j++ ){
+            		if( history[j] != null ){
             			count++;
             		}
             	}
-            	if( count != entry.history.length ){
-            		Path[] temp = entry.history;
-            		entry.history = new Path[ count ];
+            	if( count != history.length ){
+            		Path[] temp = history;
+            		history = new Path[ count ];
             		int index = 0;
             		for( int j = 0; j < temp.length; j++ ){
             			if( temp[j] != null ){
-            				entry.history[ index++ ] = temp[j];
+            				history[ index++ ] = temp[j];
             			}
             		}
             	}
             }
             
-            entry.properties = new HashMap<Path, B>();
+            Map<Path, B> properties = new HashMap<Path, B>();
             for( int j = 0, m = in.readInt(); j<m; j++ ){
             	String key = in.readUTF();
             	Path mode = version7 ? resuceMode( key ) : new Path( key );
             	B property = converter.readProperty( in );
             	if( mode != null ){
-            		entry.properties.put( mode, property );
+            		properties.put( mode, property );
             	}
             }
+            
+            dockables.add( new DockableEntry<B>( id, current, history, properties, converter ) );
         }
         
         // new since 1.0.8
@@ -401,7 +427,7 @@ public class ModeSettings<A,B> {
      */
     public void writeXML( XElement element ){
     	XElement delement = element.addElement( "dockables" );
-    	for( DockableEntry entry : dockables ){
+    	for( DockableEntry<B> entry : dockables ){
             XElement xentry = delement.addElement( "entry" );
             xentry.addString( "id", entry.id );
             if( entry.current != null )
@@ -439,30 +465,32 @@ public class ModeSettings<A,B> {
         XElement delement = element.getElement( "dockables" );
         if( delement != null ){
         	for( XElement xentry : delement.getElements( "entry" )){
-        		DockableEntry entry = new DockableEntry();
-        		dockables.add( entry );
-        		entry.id = xentry.getString( "id" );
-        		XAttribute current = xentry.getAttribute( "current" );
-        		if( current != null )
-        			entry.current = new Path( current.getString() );
+        		String id = xentry.getString( "id" );
+        		Path current = null;
+        		XAttribute xcurrent = xentry.getAttribute( "current" );
+        		if( xcurrent != null )
+        			current = new Path( xcurrent.getString() );
 
+        		Path[] history;
         		XElement xhistory = xentry.getElement( "history" );
         		if( xhistory == null )
-        			entry.history = new Path[]{};
+        			history = new Path[]{};
         		else{
         			XElement[] xmodes = xhistory.getElements( "mode" );
-        			entry.history = new Path[ xmodes.length ];
+        			history = new Path[ xmodes.length ];
         			for( int i = 0; i < xmodes.length; i++ )
-        				entry.history[i] = new Path( xmodes[i].getString() );
+        				history[i] = new Path( xmodes[i].getString() );
         		}
 
         		XElement xproperties = xentry.getElement( "properties" );
-        		entry.properties = new HashMap<Path, B>();
+        		Map<Path, B> properties = new HashMap<Path, B>();
         		if( xproperties != null ){
         			for( XElement xproperty : xproperties.getElements( "property" )){
-        				entry.properties.put( new Path( xproperty.getString( "id" )), converter.readPropertyXML( xproperty ) );
+        				properties.put( new Path( xproperty.getString( "id" )), converter.readPropertyXML( xproperty ) );
         			}
         		}
+        		
+        		dockables.add( new DockableEntry<B>( id, current, history, properties, converter ) );
         	}
         }
         
@@ -485,20 +513,49 @@ public class ModeSettings<A,B> {
     }
     
     /**
-     * The properties of one {@link Dockable}
+     * The properties of one {@link Dockable}. An entry is immutable and does not reference the
+     * {@link ModeSettings} that created it, hence it can be shared by several settings.
      * @author Benjamin Sigg
+     * @param <B> the independent objects used to store information
      */
-    private class DockableEntry{
+    static final class DockableEntry<B>{
         /** the unique id of this entry */
-        public String id;
+        private final String id;
         
         /** the current mode of this entry */
-        public Path current;
+        private final Path current;
         
         /** a set of properties that has been built by the client */
-        public Map<Path, B> properties;
+        private final Map<Path, B> properties;
 
         /** The modes this entry already visited. No mode is more than once in this list. */
-        public Path[] history;
+        private final Path[] history;
+        
+        /** the converter which was used to create {@link #properties} */
+        private final ModeSettingsConverter<?, B> converter;
+        
+        /**
+         * Creates a new entry.
+         * @param id the unique id of this entry
+         * @param current the current mode, can be <code>null</code>
+         * @param history the modes this entry already visited, this array must not be modified afterwards
+         * @param properties the properties of the modes, this map must not be modified afterwards
+         * @param converter the converter which was used to create <code>properties</code>
+         */
+        public DockableEntry( String id, Path current, Path[] history, Map<Path, B> properties, ModeSettingsConverter<?, B> converter ){
+        	this.id = id;
+        	this.current = current;
+        	this.history = history;
+        	this.properties = Collections.unmodifiableMap( properties );
+        	this.converter = converter;
+        }
+        
+        /**
+         * Gets the converter which was used to create the {@link #properties} of this entry.
+         * @return the converter
+         */
+        public ModeSettingsConverter<?, B> getConverter(){
+        	return converter;
+        }
     }
 }
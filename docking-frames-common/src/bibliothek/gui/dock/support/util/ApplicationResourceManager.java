@@ -41,7 +41,10 @@ import bibliothek.util.xml.XElement;
  * stream of bytes belongs to which resource. If data is loaded, the byte-streams
  * for missing resources will be stored in a buffer that is read as soon as
  * a missing resource is registered. Additional resources are ignored.<br>
- * Note that there is no order how the resources are stored in the file. 
+ * Note that there is no order how the resources are stored in the file.<br>
+ * {@link #writeFile(File)} compares the new content with the content of the file and
+ * does not touch the file if nothing changed, storing an unchanged layout therefore
+ * costs only the time needed to read the old file.
  * @author Benjamin Sigg
  *
  */
@@ -56,13 +59,15 @@ public class ApplicationResourceManager {
      * Stores a resource that might be read or written at any time. If a stream
      * was already read by this manager, and if there was an entry in that stream
      * that equals <code>name</code>, then <code>resource</code> will immediately
-     * be asked to read the stream.
+     * be asked to read the stream. The buffered entry is released once it was
+     * read successfully.
      * @param name the unique identifier of the resource
      * @param resource the new resource
      * @throws NullPointerException if <code>name</code> of <code>resource</code>
      * is <code>null</code>
      * @throws IOException if the buffered stream can't be read. The resource
-     * will be stored in this manager even if an exception occurs
+     * will be stored in this manager even if an exception occurs, and the buffered
+     * entry is kept until another resource with the same name reads it successfully
      */
     public void put( String name, ApplicationResource resource ) throws IOException{
         if( name == null )
@@ -82,6 +87,7 @@ public class ApplicationResourceManager {
             if( buffered instanceof XElement ){
                 resource.readXML( (XElement)buffered );
             }
+            buffer.remove( name );
         }
     }
     
@@ -104,16 +110,24 @@ public class ApplicationResourceManager {
         Version.write( out, Version.VERSION_1_0_4 );
         
         // number of elements
-        out.writeInt( resources.size() );
+        int count = resources.size();
+        for( Map.Entry<String, Object> unknownResource : buffer.entrySet() ){
+        	if( unknownResource.getValue() instanceof byte[] && !resources.containsKey( unknownResource.getKey() )){
+        		count++;
+        	}
+        }
+        out.writeInt( count );
+        
+        // elements, one buffer is reused for all the resources
+        ByteArrayOutputStream array = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream( array );
         
-        // elements
         for( Map.Entry<String, ApplicationResource> resource : resources.entrySet() ){
             out.writeUTF( resource.getKey() );
             
-            ByteArrayOutputStream array = new ByteArrayOutputStream();
-            DataOutputStream data = new DataOutputStream( array );
+            array.reset();
             resource.getValue().write( data );
-            data.close();
+            data.flush();
             
             // write out the array
             out.writeInt( array.size() );
@@ -122,12 +136,12 @@ public class ApplicationResourceManager {
         
         for( Map.Entry<String, Object> unknownResource : buffer.entrySet() ){
         	Object value = unknownResource.getValue();
-        	if( value instanceof byte[] ){
-        		byte[] array = (byte[])value;
+        	if( value instanceof byte[] && !resources.containsKey( unknownResource.getKey() )){
+        		byte[] bytes = (byte[])value;
         		
         		out.writeUTF( unknownResource.getKey() );
-        		out.writeInt( array.length );
-        		out.write( array );
+        		out.writeInt( bytes.length );
+        		out.write( bytes );
         	}
         }
     }
@@ -146,17 +160,18 @@ public class ApplicationResourceManager {
             String key = in.readUTF();
             
             int length = in.readInt();
-            byte[] input = new byte[ length ];
-            in.readFully( input );
             ApplicationResource resource = resources.get( key );
             if( resource != null ){
-                ByteArrayInputStream array = new ByteArrayInputStream( input );
-                DataInputStream data = new DataInputStream( array );
+                // the resource reads directly from "in", but cannot read more than its own entry
+                DataInputStream data = new DataInputStream( new EntryInputStream( in, length ) );
                 resource.read( data );
                 data.close();
             }
-            else
+            else{
+                byte[] input = new byte[ length ];
+                in.readFully( input );
                 buffer.put( key, input );
+            }
         }
     }
     
@@ -174,7 +189,7 @@ public class ApplicationResourceManager {
         
         for( Map.Entry<String, Object> unknownResource : buffer.entrySet() ){
         	Object value = unknownResource.getValue();
-        	if( value instanceof XElement ){
+        	if( value instanceof XElement && !resources.containsKey( unknownResource.getKey() )){
         		XElement xvalue = (XElement)value;
         		element.addElement( xvalue );
         	}
@@ -198,20 +213,59 @@ public class ApplicationResourceManager {
     }
     
     /**
-     * Writes the contents of this manager into <code>file</code>.
+     * Writes the contents of this manager into <code>file</code>. The file is not
+     * touched if it already has the same content, otherwise the entire file is written
+     * again.
      * @param file the file to write into
      * @throws IOException if the operation can't be completed
      */
     public void writeFile( File file ) throws IOException{
-        DataOutputStream out = new DataOutputStream( new BufferedOutputStream( new FileOutputStream( file )));
+        byte[] content = writeArray();
+        
+        if( file.exists() && file.length() == content.length && hasContent( file, content )){
+            return;
+        }
+        
+        OutputStream out = new BufferedOutputStream( new FileOutputStream( file ));
         try{
-            writeStream( out );
+            out.write( content );
         }
         finally{
             out.close();
         }
     }
     
+    /**
+     * Tells whether <code>file</code> contains exactly the bytes of <code>content</code>.
+     * @param file the file to check
+     * @param content the expected content
+     * @return <code>true</code> if the content of <code>file</code> equals <code>content</code>
+     * @throws IOException if <code>file</code> can't be read
+     */
+    private boolean hasContent( File file, byte[] content ) throws IOException{
+        InputStream in = new FileInputStream( file );
+        try{
+            byte[] old = new byte[ 8192 ];
+            int offset = 0;
+            while( offset < content.length ){
+                int read = in.read( old, 0, Math.min( old.length, content.length - offset ));
+                if( read < 0 ){
+                    return false;
+                }
+                for( int i = 0; i < read; i++ ){
+                    if( old[ i ] != content[ offset + i ] ){
+                        return false;
+                    }
+                }
+                offset += read;
+            }
+            return in.read() < 0;
+        }
+        finally{
+            in.close();
+        }
+    }
+    
     /**
      * Reads the contents of this manager from <code>file</code>.
      * @param file the file to read
@@ -273,24 +327,68 @@ public class ApplicationResourceManager {
         if( array != null )
             readArray( array );
     }
+    
+    /**
+     * A view of a part of another stream, used to let an {@link ApplicationResource} read
+     * its entry without copying the entry into a new array. Closing this stream skips the
+     * remaining bytes of the entry but does not close the underlying stream.
+     * @author Benjamin Sigg
+     */
+    private static class EntryInputStream extends InputStream{
+        /** the stream to read from */
+        private DataInputStream in;
+        /** how many bytes of the entry are not yet read */
+        private int remaining;
+        
+        /**
+         * Creates a new view.
+         * @param in the stream to read from
+         * @param length the number of bytes that belong to the entry
+         */
+        public EntryInputStream( DataInputStream in, int length ){
+            this.in = in;
+            this.remaining = length;
+        }
+        
+        @Override
+        public int read() throws IOException{
+            if( remaining <= 0 )
+                return -1;
+            int result = in.read();
+            if( result < 0 )
+                throw new EOFException();
+            remaining--;
+            return result;
+        }
+        
+        @Override
+        public int read( byte[] b, int off, int len ) throws IOException{
+            if( len == 0 )
+                return 0;
+            if( remaining <= 0 )
+                return -1;
+            int result = in.read( b, off, Math.min( len, remaining ));
+            if( result < 0 )
+                throw new EOFException();
+            remaining -= result;
+            return result;
+        }
+        
+        @Override
+        public int available() throws IOException{
+            return Math.min( remaining, in.available() );
+        }
+        
+        @Override
+        public void close() throws IOException{
+            while( remaining > 0 ){
+                int skipped = in.skipBytes( remaining );
+                if( skipped <= 0 ){
+                    in.readByte();
+                    skipped = 1;
+                }
+                remaining -= skipped;
+            }
+        }
+    }
 }
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
@@ -0,0 +1,161 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2013 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.common.perspective;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import bibliothek.gui.dock.common.CControl;
+import bibliothek.gui.dock.common.CGridArea;
+import bibliothek.gui.dock.common.CLocation;
+import bibliothek.gui.dock.common.CWorkingArea;
+import bibliothek.gui.dock.common.DefaultMultipleCDockable;
+import bibliothek.gui.dock.common.DefaultSingleCDockable;
+import bibliothek.gui.dock.common.EmptyMultipleCDockableFactory;
+import bibliothek.gui.dock.common.intern.CSetting;
+import bibliothek.gui.dock.common.perspective.CControlPerspective.PerspectiveReader;
+
+/**
+ * Tests that a layout read by a {@link PerspectiveReader} is the same as a layout read
+ * by {@link CControlPerspective#read(DataInputStream, boolean)}.
+ * @author Benjamin Sigg
+ */
+public class PerspectiveReaderTest {
+	private CControl control;
+	
+	@Before
+	public void setup(){
+		// the content area cannot be created in a headless environment, a grid area replaces it
+		control = new CControl();
+		CGridArea grid = control.createGridArea( "grid" );
+		
+		CWorkingArea area = control.createWorkingArea( "area" );
+		area.setLocation( CLocation.normalized( grid ).south( 0.5 ) );
+		area.setVisible( true );
+		
+		add( new DefaultSingleCDockable( "a", "a" ), CLocation.normalized( grid ).north( 0.3 ) );
+		add( new DefaultSingleCDockable( "b", "b" ), CLocation.normalized( grid ).west( 0.4 ) );
+		add( new DefaultSingleCDockable( "c", "c" ), CLocation.normalized( grid ).west( 0.4 ).stack() );
+		add( new DefaultSingleCDockable( "d", "d" ), CLocation.normalized( grid ).east( 0.2 ) );
+		
+		DefaultSingleCDockable e = new DefaultSingleCDockable( "e", "e" );
+		area.add( e );
+		e.setVisible( true );
+		
+		TestFactory factory = new TestFactory();
+		control.addMultipleDockableFactory( "factory", factory );
+		DefaultMultipleCDockable f = factory.createDockable();
+		control.addDockable( "f", f );
+		f.setLocation( CLocation.normalized( grid ).north( 0.3 ).east( 0.5 ) );
+		f.setVisible( true );
+		
+		DefaultMultipleCDockable g = factory.createDockable();
+		area.add( g );
+		g.setVisible( true );
+	}
+	
+	@After
+	public void cleanup(){
+		control.destroy();
+	}
+	
+	/**
+	 * A factory creating empty {@link DefaultMultipleCDockable}s.
+	 * @author Benjamin Sigg
+	 */
+	private static class TestFactory extends EmptyMultipleCDockableFactory<DefaultMultipleCDockable>{
+		@Override
+		public DefaultMultipleCDockable createDockable(){
+			return new DefaultMultipleCDockable( this );
+		}
+	}
+	
+	private void add( DefaultSingleCDockable dockable, CLocation location ){
+		control.addDockable( dockable );
+		dockable.setLocation( location );
+		dockable.setVisible( true );
+	}
+	
+	@Test
+	public void testReaderIncludingWorkingAreas() throws IOException{
+		testReader( true );
+	}
+	
+	@Test
+	public void testReaderExcludingWorkingAreas() throws IOException{
+		testReader( false );
+	}
+	
+	/**
+	 * Applies the same layout once with a {@link PerspectiveReader} and once with a {@link CPerspective}, and 
+	 * compares the results.
+	 * @param includeWorkingAreas whether the layout includes the content of working areas
+	 * @throws IOException if the layout cannot be written or read
+	 */
+	private void testReader( boolean includeWorkingAreas ) throws IOException{
+		CControlPerspective perspectives = control.getPerspectives();
+		byte[] layout = write( perspectives.getPerspective( includeWorkingAreas ), includeWorkingAreas );
+		
+		CPerspective perspective = perspectives.read( in( layout ), includeWorkingAreas );
+		perspectives.setPerspective( perspective, includeWorkingAreas );
+		byte[] expected = write( perspectives.getPerspective( includeWorkingAreas ), includeWorkingAreas );
+		
+		PerspectiveReader reader = perspectives.createReader( includeWorkingAreas );
+		reader.read( in( layout ) );
+		CSetting setting = reader.write();
+		perspectives.setPerspective( setting, includeWorkingAreas );
+		byte[] actual = write( perspectives.getPerspective( includeWorkingAreas ), includeWorkingAreas );
+		
+		assertArrayEquals( expected, actual );
+		
+		// the working area and its content are counted as well
+		assertEquals( 8, control.getCDockableCount() );
+		for( String id : new String[]{ "a", "b", "c", "d", "e" }){
+			assertTrue( id, control.getSingleDockable( id ).isVisible() );
+		}
+	}
+	
+	private byte[] write( CPerspective perspective, boolean includeWorkingAreas ) throws IOException{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream( bytes );
+		control.getPerspectives().write( out, perspective, includeWorkingAreas );
+		out.close();
+		return bytes.toByteArray();
+	}
+	
+	private DataInputStream in( byte[] layout ){
+		return new DataInputStream( new ByteArrayInputStream( layout ) );
+	}
+}
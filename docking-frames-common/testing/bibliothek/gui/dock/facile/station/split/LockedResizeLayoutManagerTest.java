@@ -0,0 +1,121 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2013 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.facile.station.split;
+
+import static org.junit.Assert.*;
+
+import java.awt.Rectangle;
+
+import org.junit.Test;
+
+import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.DefaultDockable;
+import bibliothek.gui.dock.SplitDockStation;
+import bibliothek.gui.dock.station.split.DockableSplitDockTree;
+import bibliothek.gui.dock.station.split.Leaf;
+
+/**
+ * Tests how the {@link LockedResizeLayoutManager} handles a {@link SplitDockStation} whose
+ * layout gets restored.
+ * @author Benjamin Sigg
+ */
+public class LockedResizeLayoutManagerTest {
+	@Test
+	public void testLockedSizeRespectedWhenDroppingTree(){
+		Dockable locked = new DefaultDockable( "locked" );
+		Dockable free = new DefaultDockable( "free" );
+		
+		SplitDockStation station = new SplitDockStation();
+		station.setSplitLayoutManager( new FixedWidthLayoutManager( locked, 100 ) );
+		station.setSize( 1000, 500 );
+		station.doLayout();
+		
+		DockableSplitDockTree tree = new DockableSplitDockTree();
+		tree.root( tree.horizontal( tree.put( locked ), tree.put( free ), 0.5 ) );
+		station.dropTree( tree );
+		
+		Rectangle bounds = station.getRoot().getLeaf( locked ).getBounds();
+		assertEquals( 100, bounds.width, 2 );
+	}
+	
+	@Test
+	public void testLockedSizeRespectedWhenDroppingTreeInBatch(){
+		final Dockable locked = new DefaultDockable( "locked" );
+		final Dockable free = new DefaultDockable( "free" );
+		
+		final SplitDockStation station = new SplitDockStation();
+		station.setSplitLayoutManager( new FixedWidthLayoutManager( locked, 100 ) );
+		station.setSize( 1000, 500 );
+		station.doLayout();
+		
+		station.batch( new Runnable(){
+			public void run(){
+				DockableSplitDockTree tree = new DockableSplitDockTree();
+				tree.root( tree.horizontal( tree.put( free ), tree.put( locked ), 0.5 ) );
+				station.dropTree( tree );
+				
+				tree = new DockableSplitDockTree();
+				tree.root( tree.horizontal( tree.put( locked ), tree.put( free ), 0.5 ) );
+				station.dropTree( tree );
+			}
+		});
+		
+		Rectangle bounds = station.getRoot().getLeaf( locked ).getBounds();
+		assertEquals( 0, bounds.x );
+		assertEquals( 100, bounds.width, 2 );
+	}
+	
+	/**
+	 * A layout manager that always requests the same width for one {@link Dockable}.
+	 * @author Benjamin Sigg
+	 */
+	private static class FixedWidthLayoutManager extends LockedResizeLayoutManager<Integer>{
+		private Dockable dockable;
+		private int width;
+		
+		public FixedWidthLayoutManager( Dockable dockable, int width ){
+			this.dockable = dockable;
+			this.width = width;
+		}
+		
+		@Override
+		public Integer prepareResize( Leaf leaf ){
+			if( leaf.getDockable() == dockable ){
+				return width;
+			}
+			return null;
+		}
+		
+		@Override
+		public ResizeRequest getRequest( Integer size, Leaf leaf ){
+			if( size == null ){
+				return null;
+			}
+			double deltaWidth = (size + 0.001 - leaf.getCurrentBounds().width) / leaf.getRoot().getWidthFactor();
+			return new ResizeRequest( deltaWidth, 0, 1, -1 );
+		}
+	}
+}
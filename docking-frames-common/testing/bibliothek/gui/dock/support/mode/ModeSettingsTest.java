@@ -0,0 +1,186 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2013 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.support.mode;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import bibliothek.util.Path;
+import bibliothek.util.xml.XElement;
+
+/**
+ * Tests the entries of {@link ModeSettings} that are shared between several settings.
+ * @author Benjamin Sigg
+ */
+public class ModeSettingsTest {
+	private static final Path NORMAL = new Path( "normal" );
+	private static final Path MINIMIZED = new Path( "minimized" );
+	private static final Path EXTERNALIZED = new Path( "externalized" );
+	
+	@Test
+	public void testSharedEntryIsAdded(){
+		StringConverter converter = new StringConverter();
+		ModeSettings<String, String> source = create( converter );
+		ModeSettings<String, String> target = new ModeSettings<String, String>( converter );
+		
+		assertTrue( target.addEntry( source.getEntry( 0 ) ));
+		assertEquals( 1, target.size() );
+		assertEquals( "a", target.getId( 0 ) );
+		assertEquals( MINIMIZED, target.getCurrent( 0 ) );
+		assertArrayEquals( new Path[]{ NORMAL, MINIMIZED }, target.getHistory( 0 ) );
+		assertEquals( properties(), target.getProperties( 0 ) );
+	}
+	
+	@Test
+	public void testEntryOfOtherConverterIsRejected(){
+		ModeSettings<String, String> source = create( new StringConverter() );
+		ModeSettings<String, String> target = new ModeSettings<String, String>( new StringConverter() );
+		
+		assertFalse( target.addEntry( source.getEntry( 0 ) ));
+		assertFalse( target.addEntry( null ));
+		assertEquals( 0, target.size() );
+	}
+	
+	@Test
+	public void testModifiedHistoryIsNotShared(){
+		StringConverter converter = new StringConverter();
+		ModeSettings<String, String> source = create( converter );
+		ModeSettings<String, String> target = new ModeSettings<String, String>( converter );
+		target.addEntry( source.getEntry( 0 ) );
+		
+		target.getHistory( 0 )[0] = EXTERNALIZED;
+		source.getHistory( 0 )[1] = EXTERNALIZED;
+		
+		assertArrayEquals( new Path[]{ NORMAL, MINIMIZED }, source.getHistory( 0 ) );
+		assertArrayEquals( new Path[]{ NORMAL, MINIMIZED }, target.getHistory( 0 ) );
+	}
+	
+	@Test
+	public void testSharedEntrySurvivesReading() throws IOException{
+		StringConverter converter = new StringConverter();
+		ModeSettings<String, String> source = create( converter );
+		ModeSettings<String, String> target = new ModeSettings<String, String>( converter );
+		target.addEntry( source.getEntry( 0 ) );
+		
+		ModeSettings<String, String> other = new ModeSettings<String, String>( converter );
+		other.add( "b", NORMAL, new HashMap<Path, String>(), Arrays.asList( NORMAL ) );
+		copy( other, source );
+		
+		assertEquals( "b", source.getId( 0 ) );
+		assertEquals( "a", target.getId( 0 ) );
+		assertEquals( properties(), target.getProperties( 0 ) );
+	}
+	
+	@Test
+	public void testSharedEntryIsWritten() throws IOException{
+		StringConverter converter = new StringConverter();
+		ModeSettings<String, String> source = create( converter );
+		ModeSettings<String, String> target = new ModeSettings<String, String>( converter );
+		target.addEntry( source.getEntry( 0 ) );
+		
+		ModeSettings<String, String> stream = new ModeSettings<String, String>( converter );
+		copy( target, stream );
+		check( stream );
+		
+		XElement element = new XElement( "settings" );
+		target.writeXML( element );
+		ModeSettings<String, String> xml = new ModeSettings<String, String>( converter );
+		xml.readXML( element );
+		check( xml );
+	}
+	
+	private void check( ModeSettings<String, String> settings ){
+		assertEquals( 1, settings.size() );
+		assertEquals( "a", settings.getId( 0 ) );
+		assertEquals( MINIMIZED, settings.getCurrent( 0 ) );
+		assertArrayEquals( new Path[]{ NORMAL, MINIMIZED }, settings.getHistory( 0 ) );
+		assertEquals( properties(), settings.getProperties( 0 ) );
+	}
+	
+	private void copy( ModeSettings<String, String> source, ModeSettings<String, String> target ) throws IOException{
+		ByteArrayOutputStream bout = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream( bout );
+		source.write( out );
+		out.close();
+		
+		DataInputStream in = new DataInputStream( new ByteArrayInputStream( bout.toByteArray() ) );
+		target.read( in );
+		in.close();
+	}
+	
+	private ModeSettings<String, String> create( StringConverter converter ){
+		ModeSettings<String, String> settings = new ModeSettings<String, String>( converter );
+		settings.add( "a", MINIMIZED, properties(), Arrays.asList( NORMAL, MINIMIZED ) );
+		return settings;
+	}
+	
+	private Map<Path, String> properties(){
+		Map<Path, String> properties = new HashMap<Path, String>();
+		properties.put( NORMAL, "center" );
+		properties.put( MINIMIZED, "west" );
+		return properties;
+	}
+	
+	/**
+	 * A converter that just copies {@link String}s.
+	 * @author Benjamin Sigg
+	 */
+	private static class StringConverter implements ModeSettingsConverter<String, String>{
+		public String convertToWorld( String b ){
+			return b;
+		}
+		
+		public String convertToSetting( String a ){
+			return a;
+		}
+		
+		public void writeProperty( String b, DataOutputStream out ) throws IOException{
+			out.writeUTF( b );
+		}
+		
+		public String readProperty( DataInputStream in ) throws IOException{
+			return in.readUTF();
+		}
+		
+		public void writePropertyXML( String b, XElement element ){
+			element.setString( b );
+		}
+		
+		public String readPropertyXML( XElement element ){
+			return element.getString();
+		}
+	}
+}
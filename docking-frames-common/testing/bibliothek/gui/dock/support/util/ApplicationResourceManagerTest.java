@@ -0,0 +1,229 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2013 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.support.util;
+
+import static org.junit.Assert.*;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import bibliothek.util.xml.XElement;
+
+/**
+ * Tests how an {@link ApplicationResourceManager} writes files and reads buffered resources.
+ * @author Benjamin Sigg
+ */
+public class ApplicationResourceManagerTest {
+	private File file;
+	
+	@Before
+	public void setup() throws IOException{
+		file = File.createTempFile( "resources", ".data" );
+	}
+	
+	@After
+	public void cleanup(){
+		file.delete();
+	}
+	
+	@Test
+	public void testWriteLongerContent() throws IOException{
+		write( "short" );
+		byte[] content = write( "a text that is a lot longer than the old text" );
+		assertArrayEquals( content, readFile() );
+		assertEquals( "a text that is a lot longer than the old text", read() );
+	}
+	
+	@Test
+	public void testWriteShorterContent() throws IOException{
+		write( "a text that is a lot longer than the new text" );
+		byte[] content = write( "short" );
+		assertArrayEquals( content, readFile() );
+		assertEquals( "short", read() );
+	}
+	
+	@Test
+	public void testWriteIdenticalContent() throws IOException{
+		byte[] content = write( "text" );
+		long modified = 1000 * 1000 * 1000;
+		assertTrue( file.setLastModified( modified ) );
+		
+		assertArrayEquals( content, write( "text" ) );
+		assertArrayEquals( content, readFile() );
+		assertEquals( modified, file.lastModified() );
+	}
+	
+	@Test
+	public void testWriteFailureKeepsFile() throws IOException{
+		byte[] content = write( "old text" );
+		
+		ApplicationResourceManager manager = new ApplicationResourceManager();
+		TextResource resource = new TextResource( "new text" );
+		resource.fail = true;
+		manager.put( "text", resource );
+		try{
+			manager.writeFile( file );
+			fail( "expected an IOException" );
+		}
+		catch( IOException e ){
+			// expected
+		}
+		assertArrayEquals( content, readFile() );
+	}
+	
+	@Test
+	public void testReadFailureKeepsBuffer() throws IOException{
+		ApplicationResourceManager source = new ApplicationResourceManager();
+		source.put( "text", new TextResource( "content" ) );
+		byte[] content = source.writeArray();
+		
+		ApplicationResourceManager manager = new ApplicationResourceManager();
+		manager.readArray( content );
+		
+		TextResource failing = new TextResource( null );
+		failing.fail = true;
+		try{
+			manager.put( "text", failing );
+			fail( "expected an IOException" );
+		}
+		catch( IOException e ){
+			// expected
+		}
+		
+		// the entry is written only once, the registered resource has priority
+		failing.fail = false;
+		failing.text = "failed";
+		ApplicationResourceManager copy = new ApplicationResourceManager();
+		copy.readArray( manager.writeArray() );
+		TextResource copied = new TextResource( null );
+		copy.put( "text", copied );
+		assertEquals( "failed", copied.text );
+		
+		TextResource resource = new TextResource( null );
+		manager.put( "text", resource );
+		assertEquals( "content", resource.text );
+		
+		// now the buffer is released and the resource itself is written
+		resource.text = "changed";
+		copy = new ApplicationResourceManager();
+		copy.readArray( manager.writeArray() );
+		copied = new TextResource( null );
+		copy.put( "text", copied );
+		assertEquals( "changed", copied.text );
+	}
+	
+	/**
+	 * Writes a manager containing <code>text</code> into {@link #file}.
+	 * @param text the text to write
+	 * @return the content that should be in the file
+	 * @throws IOException if the file can't be written
+	 */
+	private byte[] write( String text ) throws IOException{
+		ApplicationResourceManager manager = new ApplicationResourceManager();
+		manager.put( "text", new TextResource( text ) );
+		manager.writeFile( file );
+		return manager.writeArray();
+	}
+	
+	/**
+	 * Reads the text that is stored in {@link #file}.
+	 * @return the text
+	 * @throws IOException if the file can't be read
+	 */
+	private String read() throws IOException{
+		ApplicationResourceManager manager = new ApplicationResourceManager();
+		TextResource resource = new TextResource( null );
+		manager.put( "text", resource );
+		manager.readFile( file );
+		return resource.text;
+	}
+	
+	/**
+	 * Reads the raw content of {@link #file}.
+	 * @return the content
+	 * @throws IOException if the file can't be read
+	 */
+	private byte[] readFile() throws IOException{
+		byte[] content = new byte[ (int)file.length() ];
+		InputStream in = new FileInputStream( file );
+		try{
+			int offset = 0;
+			while( offset < content.length ){
+				int read = in.read( content, offset, content.length - offset );
+				assertTrue( read > 0 );
+				offset += read;
+			}
+			assertEquals( -1, in.read() );
+		}
+		finally{
+			in.close();
+		}
+		return content;
+	}
+	
+	/**
+	 * A resource that stores a single text, and that can be told to fail reading or writing.
+	 * @author Benjamin Sigg
+	 */
+	private static class TextResource implements ApplicationResource{
+		private String text;
+		private boolean fail = false;
+		
+		public TextResource( String text ){
+			this.text = text;
+		}
+		
+		public void write( DataOutputStream out ) throws IOException{
+			if( fail ){
+				throw new IOException( "test" );
+			}
+			out.writeUTF( text );
+		}
+		
+		public void read( DataInputStream in ) throws IOException{
+			if( fail ){
+				throw new IOException( "test" );
+			}
+			text = in.readUTF();
+		}
+		
+		public void writeXML( XElement element ){
+			element.setString( text );
+		}
+		
+		public void readXML( XElement element ){
+			text = element.getString();
+		}
+	}
+}
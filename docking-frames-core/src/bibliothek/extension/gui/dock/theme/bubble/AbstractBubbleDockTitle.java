@@ -161,8 +161,16 @@ public abstract class AbstractBubbleDockTitle extends AbstractDockTitle{
     @Override
     public void bind() {
         super.bind();
+        animation.setController( getDockable().getController() );
         animation.kick();
     }
+    
+    @Override
+    public void unbind() {
+        super.unbind();
+        animation.kick();
+        animation.setController( null );
+    }
 
     @Override
     public void setActive( boolean active ) {
@@ -27,14 +27,15 @@
 package bibliothek.extension.gui.dock.theme.bubble;
 
 import java.awt.Color;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import javax.swing.Timer;
+import bibliothek.gui.DockController;
+import bibliothek.gui.dock.util.PropertyValue;
+import bibliothek.gui.dock.util.animation.Animation;
+import bibliothek.gui.dock.util.animation.AnimationClock;
 
 /**
  * A <code>BubbleColorAnimation</code> has the ability to convert one or many color-pairs smoothly from source
@@ -42,7 +43,8 @@ import javax.swing.Timer;
  * Clients have to call {@link #putColor(String, Color)} to start an animation. They
  * can call {@link #getColor(String)} any time to get the current intermediate color. Adding a {@link #addTask(Runnable) task}
  * will allow a client to be informed whenever the colors change.<br>
- * The animation itself takes {@link #setDuration(int) duration} milliseconds.  
+ * The animation itself takes {@link #setDuration(int) duration} milliseconds. The steps of the animation
+ * are executed by the {@link AnimationClock} of the {@link #setController(DockController) controller}.
  * @author Benjamin Sigg
  */
 public class BubbleColorAnimation {
@@ -51,8 +53,29 @@ public class BubbleColorAnimation {
     
     /** The color pairs that can be animated */
     private Map<String, Entry> colors = new HashMap<String, Entry>();
-    /** The timer that triggers steps of the animation */
-    private Timer timer;
+    /** Whether the animation is currently running */
+    private boolean running = false;
+    /** The steps of this animation, executed by {@link #clock} */
+    private Animation step = new Animation(){
+    	public boolean step( AnimationClock clock, long nanoTime ){
+    		pulse();
+    		return running;
+    	}
+    };
+    /** The clock that triggers steps of the animation */
+    private PropertyValue<AnimationClock> clock = new PropertyValue<AnimationClock>( AnimationClock.ANIMATION_CLOCK ){
+    	@Override
+    	protected void valueChanged( AnimationClock oldValue, AnimationClock newValue ){
+    		if( running ){
+    			if( oldValue != null ){
+    				oldValue.stop( step );
+    			}
+    			if( newValue != null ){
+    				newValue.start( step );
+    			}
+    		}
+    	}
+    };
     /** The current time in milliseconds*/
     private long time = 0;
     
@@ -63,12 +86,15 @@ public class BubbleColorAnimation {
      * Creates a new animation.
      */
     public BubbleColorAnimation(){
-    	timer = new Timer( 25, new ActionListener(){
-            public void actionPerformed( ActionEvent e ) {
-                pulse();
-            }
-        });
-    	timer.setCoalesce( true );
+    	// nothing to do
+    }
+    
+    /**
+     * Sets the controller whose {@link AnimationClock} is used to run this animation.
+     * @param controller the controller, can be <code>null</code>
+     */
+    public void setController( DockController controller ){
+    	clock.setProperties( controller );
     }
     
     /**
@@ -162,14 +188,20 @@ public class BubbleColorAnimation {
      *
      */
     public void stop(){
-        timer.stop();
+    	if( running ){
+    		running = false;
+    		AnimationClock clock = this.clock.getValue();
+    		if( clock != null ){
+    			clock.stop( step );
+    		}
+    	}
     }
     
     /**
      * Immediately puts all colors to their final state and stops the animation.
      */
     public void kick(){
-        if( timer.isRunning() ){
+        if( running ){
             stop();
             for( Entry entry : colors.values() )
                 entry.kick();
@@ -183,9 +215,16 @@ public class BubbleColorAnimation {
      * Starts the animation if it is not yet running.
      */
     protected void start(){
-        if( !timer.isRunning() ){
-            time = System.currentTimeMillis();
-            timer.start();
+        if( !running ){
+        	AnimationClock clock = this.clock.getValue();
+        	running = true;
+        	if( clock == null || clock.isReduceMotion() ){
+        		kick();
+        	}
+        	else{
+	            time = System.currentTimeMillis();
+	            clock.start( step );
+        	}
         }
     }
     
@@ -202,7 +241,7 @@ public class BubbleColorAnimation {
             run = entry.step( delta ) | run;
         
         if( !run )
-            timer.stop();
+            stop();
         
         for( Runnable task : tasks )
             task.run();
@@ -243,6 +243,7 @@ public class BubbleDisplayer extends BasicDockableDisplayer {
         borderLowInactive.connect( controller );
         borderLowInactiveMouse.connect( controller );
         borderLowDisabled.connect( controller );
+        animation.setController( controller );
         animation.kick();
     }
     
@@ -417,6 +417,7 @@ public class BubbleTab extends ConfiguredBackgroundPanel implements CombinedTab,
 		
 
 		checkAnimation();
+		animation.setController( controller );
 		animation.kick();
 	}
 
@@ -244,6 +244,7 @@ public class RoundButton extends JComponent implements RoundButtonConnectable{
 	    for( AbstractDockColor color : colors )
 	        color.connect( controller );
 	    
+	    animation.setController( controller );
 	    animation.kick();
 	}
 	
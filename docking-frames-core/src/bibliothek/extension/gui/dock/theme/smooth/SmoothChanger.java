@@ -29,14 +29,18 @@ package bibliothek.extension.gui.dock.theme.smooth;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 
-import javax.swing.Timer;
+import bibliothek.gui.DockController;
+import bibliothek.gui.dock.util.PropertyValue;
+import bibliothek.gui.dock.util.animation.Animation;
+import bibliothek.gui.dock.util.animation.AnimationClock;
 
 /**
  * A class which counts milliseconds from 0 to {@link #setDuration(int) duration}
  * or in the other direction. This class contains an array of states: one state is
  * counted upwards (the {@link #destination()}), all the other states are counted
  * downwards. Clients can use this class to smoothly switch between different states.<br>
- * This class works on the EDT, no new threads are created.
+ * This class works on the EDT, no new threads are created. The steps are executed by the
+ * {@link AnimationClock} of the {@link #setController(DockController) controller}.
  * @author Benjamin Sigg
  *
  */
@@ -50,8 +54,31 @@ public abstract class SmoothChanger implements ActionListener{
     /** the duration of the change */
     private int duration;
     
-    /** a timer which pulses this changer */
-    private Timer timer;
+    /** whether a transition is currently running */
+    private boolean running = false;
+    
+    /** the steps of this changer, executed by {@link #clock} */
+    private Animation step = new Animation(){
+    	public boolean step( AnimationClock clock, long nanoTime ){
+    		actionPerformed( null );
+    		return running;
+    	}
+    };
+    
+    /** the clock which pulses this changer */
+    private PropertyValue<AnimationClock> clock = new PropertyValue<AnimationClock>( AnimationClock.ANIMATION_CLOCK ){
+    	@Override
+    	protected void valueChanged( AnimationClock oldValue, AnimationClock newValue ){
+    		if( running ){
+    			if( oldValue != null ){
+    				oldValue.stop( step );
+    			}
+    			if( newValue != null ){
+    				newValue.start( step );
+    			}
+    		}
+    	}
+    };
     
     /**
      * Constructor, sets {@link #setDuration(int) duration} to 250 milliseconds.
@@ -69,10 +96,17 @@ public abstract class SmoothChanger implements ActionListener{
      */
     public SmoothChanger( int duration, int states ){
         this.duration = duration;
-        timer = new Timer( 15, this );
         current = new int[ states ];
     }
     
+    /**
+     * Sets the controller whose {@link AnimationClock} is used to pulse this changer.
+     * @param controller the controller, can be <code>null</code>
+     */
+    public void setController( DockController controller ){
+    	clock.setProperties( controller );
+    }
+    
     /**
      * The direction of the change. The counter of for the state
      * <code>destination()</code> will always rise, while the other
@@ -111,7 +145,7 @@ public abstract class SmoothChanger implements ActionListener{
      * @return <code>true</code> if active, <code>false</code> if not
      */
     public boolean isRunning(){
-    	return timer.isRunning();
+    	return running;
     }
     
     /**
@@ -127,8 +161,35 @@ public abstract class SmoothChanger implements ActionListener{
      * Starts a transition
      */
     public void trigger(){
-        timer.start();
-        last = System.currentTimeMillis();
+    	AnimationClock clock = this.clock.getValue();
+    	if( clock == null || clock.isReduceMotion() ){
+    		stop();
+    		int destination = destination();
+    		for( int i = 0; i < current.length; i++ ){
+    			current[i] = i == destination ? duration : 0;
+    		}
+    		repaint( current );
+    	}
+    	else{
+    		if( !running ){
+    			running = true;
+    			clock.start( step );
+    		}
+    		last = System.currentTimeMillis();
+    	}
+    }
+    
+    /**
+     * Stops the current transition, leaving the counters in their current state.
+     */
+    private void stop(){
+    	if( running ){
+    		running = false;
+    		AnimationClock clock = this.clock.getValue();
+    		if( clock != null ){
+    			clock.stop( step );
+    		}
+    	}
     }
     
     public void actionPerformed( ActionEvent e ){
@@ -151,7 +212,7 @@ public abstract class SmoothChanger implements ActionListener{
         }
         
         if( !incomplete ){
-        	timer.stop();
+        	stop();
         }
                 
         repaint( current );
@@ -68,6 +68,18 @@ public class SmoothDefaultStationTitle extends BasicStationTitle{
         }
     };
     
+    @Override
+    public void bind(){
+    	super.bind();
+    	changer.setController( getDockable().getController() );
+    }
+    
+    @Override
+    public void unbind(){
+    	super.unbind();
+    	changer.setController( null );
+    }
+    
     @Override
     public void setActive( boolean active ) {
         super.setActive(active);
@@ -99,6 +99,18 @@ public class SmoothDefaultTitle extends BasicDockTitle{
         changer.setDuration( duration );
     }
     
+    @Override
+    public void bind(){
+    	super.bind();
+    	changer.setController( getDockable().getController() );
+    }
+    
+    @Override
+    public void unbind(){
+    	super.unbind();
+    	changer.setController( null );
+    }
+    
     @Override
     public void setActive( boolean active ) {
         super.setActive(active);
@@ -35,8 +35,10 @@ import java.awt.event.InputEvent;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseEvent;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
@@ -238,6 +240,9 @@ public class DockController {
     /** tells which {@link Component} represents which {@link DockElement} */
     private Map<Component, DockElementRepresentative> componentToDockElements = 
     	new HashMap<Component, DockElementRepresentative>();
+    /** tells which {@link DockElementRepresentative}s represent which {@link DockElement}, the lists are unmodifiable and replaced on change */
+    private Map<DockElement, List<DockElementRepresentative>> dockElementToRepresentatives =
+    	new IdentityHashMap<DockElement, List<DockElementRepresentative>>();
     /** a list of listeners listening for changes in {@link #componentToDockElements} */
     private List<DockControllerRepresentativeListener> componentToDockElementsListeners =
         new ArrayList<DockControllerRepresentativeListener>();
@@ -854,6 +859,10 @@ public class DockController {
                 .toArray( new DockControllerRepresentativeListener[componentToDockElementsListeners.size()] );
         
         DockElementRepresentative old = componentToDockElements.put( representative.getComponent(), representative );
+        if( old != null ){
+        	unindexRepresentative( old );
+        }
+        indexRepresentative( representative );
     	
     	if( old != null ){
     	    for( DockControllerRepresentativeListener listener : listeners ){
@@ -872,7 +881,10 @@ public class DockController {
      * @see #addRepresentative(DockElementRepresentative)
      */
     public void removeRepresentative( DockElementRepresentative representative ){
-        if( componentToDockElements.remove( representative.getComponent() ) != null ){
+    	DockElementRepresentative old = componentToDockElements.remove( representative.getComponent() );
+        if( old != null ){
+        	unindexRepresentative( old );
+        	
             DockControllerRepresentativeListener[] listeners = componentToDockElementsListeners
                 .toArray( new DockControllerRepresentativeListener[componentToDockElementsListeners.size()] );
         
@@ -882,6 +894,36 @@ public class DockController {
         }
     }
     
+    private void indexRepresentative( DockElementRepresentative representative ){
+    	DockElement element = representative.getElement();
+    	List<DockElementRepresentative> list = dockElementToRepresentatives.get( element );
+    	List<DockElementRepresentative> copy;
+    	if( list == null ){
+    		copy = new ArrayList<DockElementRepresentative>( 1 );
+    	}
+    	else{
+    		copy = new ArrayList<DockElementRepresentative>( list.size()+1 );
+    		copy.addAll( list );
+    	}
+    	copy.add( representative );
+    	dockElementToRepresentatives.put( element, Collections.unmodifiableList( copy ) );
+    }
+    
+    private void unindexRepresentative( DockElementRepresentative representative ){
+    	DockElement element = representative.getElement();
+    	List<DockElementRepresentative> list = dockElementToRepresentatives.get( element );
+    	if( list != null ){
+    		List<DockElementRepresentative> copy = new ArrayList<DockElementRepresentative>( list );
+    		copy.remove( representative );
+    		if( copy.isEmpty() ){
+    			dockElementToRepresentatives.remove( element );
+    		}
+    		else{
+    			dockElementToRepresentatives.put( element, Collections.unmodifiableList( copy ) );
+    		}
+    	}
+    }
+    
     /**
      * Searches the element which is parent or equal to <code>representative</code>.
      * This method searches through all elements given by {@link #addRepresentative(DockElementRepresentative)}. 
@@ -910,15 +952,25 @@ public class DockController {
      * @return the representatives, may include <code>element</code> as well
      */
     public DockElementRepresentative[] getRepresentatives( DockElement element ){
-    	List<DockElementRepresentative> result = new ArrayList<DockElementRepresentative>();
-    	for( DockElementRepresentative representative : componentToDockElements.values() ){
-    		if( representative.getElement() == element ){
-    			result.add( representative );
-    		}
-    	}
+    	List<DockElementRepresentative> result = getRepresentativeList( element );
     	return result.toArray( new DockElementRepresentative[ result.size() ] );
     }
     
+    /**
+     * Gets all registered {@link DockElementRepresentative} whose element is <code>element</code>. Other
+     * than {@link #getRepresentatives(DockElement)} this method does not create a new collection.
+     * @param element the element whose {@link DockElementRepresentative} are searched
+     * @return an unmodifiable list of the representatives, may include <code>element</code> as well. The
+     * list is not updated if representatives are added or removed later.
+     */
+    public List<DockElementRepresentative> getRepresentativeList( DockElement element ){
+    	List<DockElementRepresentative> result = dockElementToRepresentatives.get( element );
+    	if( result == null ){
+    		return Collections.emptyList();
+    	}
+    	return result;
+    }
+    
     /**
      * Adds a station to this controller. The controller allows the user to
      * drag and drop children from and to <code>station</code>. If
@@ -1239,7 +1291,7 @@ public class DockController {
             }
         }
         
-        for( Dockable dockable : getRegister().listDockables() ){
+        for( Dockable dockable : getRegister().getDockables() ){
             Component component = dockable.getComponent();
             Window ancestor = SwingUtilities.getWindowAncestor( component );
             if( ancestor != null ){
@@ -27,6 +27,8 @@
 package bibliothek.gui;
 
 import java.awt.Window;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
@@ -37,6 +39,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -194,8 +197,14 @@ public class DockFrontend {
     
     /** The name of the setting which is currently loaded */
     private String currentSetting;
-    /** A map of all known settings */
-    private Map<String, Setting> settings = new HashMap<String, Setting>();
+    /** A map of all known settings that are not stored in {@link #storedSettings}, the most recently used setting is the last entry */
+    private Map<String, Setting> settings = new LinkedHashMap<String, Setting>();
+    /** The names of the settings in {@link #settings} which were not saved as entries, but contain all the information */
+    private Set<String> fullSettings = new HashSet<String>();
+    /** Settings which were not used for some time and which are stored in their serialized form */
+    private Map<String, StoredSetting> storedSettings = new HashMap<String, StoredSetting>();
+    /** The maximum number of entries in {@link #settings}, -1 if there is no limit */
+    private int settingsCacheSize = -1;
     
     /** A list of observers */
     private List<DockFrontendListener> listeners = new ArrayList<DockFrontendListener>();
@@ -1051,17 +1060,175 @@ public class DockFrontend {
      * @return the set of names
      */
     public Set<String> getSettings(){
-        Set<String> keys = settings.keySet();
-        return Collections.unmodifiableSet( keys );
+    	if( settingsCacheSize < 0 && storedSettings.isEmpty() ){
+    		Set<String> keys = settings.keySet();
+    		return Collections.unmodifiableSet( keys );
+    	}
+    	
+    	// reading a stored setting modifies "settings", hence a copy is required
+    	Set<String> keys = new HashSet<String>( settings.keySet() );
+    	keys.addAll( storedSettings.keySet() );
+    	return Collections.unmodifiableSet( keys );
     }
     
     /**
-     * Gets the {@link Setting} which stores locations and other information under the key <code>name</code>.
+     * Gets the {@link Setting} which stores locations and other information under the key <code>name</code>.<br>
+     * If the {@link #setSettingsCacheSize(int) size of the cache} is limited, then the setting may have to be
+     * read from its serialized form, and the result may not be the same object that was stored using
+     * {@link #setSetting(String, Setting)}. If the serialized form cannot be read anymore, then the setting
+     * is deleted and <code>null</code> is returned.
      * @param name a key that was used for calling {@link #save(String)}
      * @return the setting or <code>null</code> if not found
      */
     public Setting getSetting( String name ){
-    	return settings.get( name );
+    	Setting setting = settings.get( name );
+    	if( setting == null ){
+    		StoredSetting stored = storedSettings.get( name );
+    		if( stored == null ){
+    			return null;
+    		}
+    		setting = readStoredSetting( name );
+    		if( setting == null ){
+    			return null;
+    		}
+    		storedSettings.remove( name );
+    		settings.put( name, setting );
+    		if( !stored.entry ){
+    			fullSettings.add( name );
+    		}
+    		shrinkSettings( name );
+    	}
+    	else if( settingsCacheSize >= 0 ){
+    		settings.remove( name );
+    		settings.put( name, setting );
+    	}
+    	return setting;
+    }
+    
+    /**
+     * Sets the maximum number of named {@link Setting}s that are kept in memory as {@link Setting} objects. All
+     * other settings are stored in the same compact binary form that {@link #write(DataOutputStream)} would use, 
+     * and are read again the first time they are {@link #getSetting(String) accessed}. Settings that are used
+     * often remain in memory, hence switching between them is fast, while rarely used settings need only
+     * little memory.<br>
+     * Note that a serialized setting is read with the factories that are installed when the setting is needed,
+     * and that a setting which cannot be read anymore is deleted. Settings keep the {@link #save(String, boolean) entry}
+     * flag they were saved with.
+     * @param size the maximum number of settings that are kept in memory, at least <code>1</code>, or <code>-1</code>
+     * if all settings should be kept in memory, which is the default value
+     */
+    public void setSettingsCacheSize( int size ){
+    	if( size < -1 || size == 0 ){
+    		throw new IllegalArgumentException( "size must be -1 or at least 1: " + size );
+    	}
+    	settingsCacheSize = size;
+    	shrinkSettings( null );
+    }
+    
+    /**
+     * Gets the maximum number of settings that are kept in memory as {@link Setting} objects.
+     * @return the maximum number of settings or <code>-1</code> if there is no limit
+     * @see #setSettingsCacheSize(int)
+     */
+    public int getSettingsCacheSize(){
+		return settingsCacheSize;
+	}
+    
+    /**
+     * Stores the least recently used settings in their serialized form until there are no more than 
+     * {@link #getSettingsCacheSize()} settings left in memory.
+     * @param keep the name of a setting that must not be stored, can be <code>null</code>
+     */
+    private void shrinkSettings( String keep ){
+    	if( settingsCacheSize < 0 ){
+    		return;
+    	}
+    	
+    	Iterator<Map.Entry<String, Setting>> iterator = settings.entrySet().iterator();
+    	while( settings.size() > settingsCacheSize && iterator.hasNext() ){
+    		Map.Entry<String, Setting> next = iterator.next();
+    		if( !next.getKey().equals( keep )){
+    			try{
+    				boolean entry = !fullSettings.contains( next.getKey() );
+    				ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    				DataOutputStream out = new DataOutputStream( bytes );
+    				write( next.getValue(), entry, out );
+    				out.close();
+    				storedSettings.put( next.getKey(), new StoredSetting( bytes.toByteArray(), entry ) );
+    				fullSettings.remove( next.getKey() );
+    				iterator.remove();
+    			}
+    			catch( IOException e ){
+    				// can't store the setting, then just keep it in memory
+    			}
+    		}
+    	}
+    }
+    
+    /**
+     * Reads the serialized form of the setting <code>name</code>, this method does not change which
+     * settings are kept in memory. If the setting cannot be read, then it is deleted.
+     * @param name the name of the setting to read
+     * @return the setting or <code>null</code> if there is no stored setting with name <code>name</code>, or
+     * if the stored setting cannot be read
+     */
+    private Setting readStoredSetting( String name ){
+    	StoredSetting stored = storedSettings.get( name );
+    	if( stored == null ){
+    		return null;
+    	}
+    	try{
+    		DataInputStream in = new DataInputStream( new ByteArrayInputStream( stored.data ));
+    		Setting setting = read( stored.entry, in );
+    		in.close();
+    		return setting;
+    	}
+    	catch( IOException e ){
+    		e.printStackTrace();
+    		delete( name );
+    		return null;
+    	}
+    }
+    
+    /**
+     * Writes the stored setting <code>name</code> again, using its current content and the
+     * same entry flag that was used to store it originally.
+     * @param name the name of the setting
+     * @param setting the new content of the setting
+     */
+    private void rewriteStoredSetting( String name, Setting setting ){
+    	StoredSetting stored = storedSettings.get( name );
+    	try{
+    		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    		DataOutputStream out = new DataOutputStream( bytes );
+    		write( setting, stored.entry, out );
+    		out.close();
+    		stored.data = bytes.toByteArray();
+    	}
+    	catch( IOException e ){
+    		// can't write the setting, then the old version has to do
+    	}
+    }
+    
+    /**
+     * The serialized form of a {@link Setting} that was not used for some time.
+     * @author Benjamin Sigg
+     */
+    private static class StoredSetting{
+    	/** the setting written by {@link DockFrontend#write(Setting, boolean, DataOutputStream)} */
+    	private byte[] data;
+    	/** whether the setting was written as entry */
+    	private final boolean entry;
+    	
+    	/**
+    	 * Creates a new stored setting.
+    	 * @param data the serialized setting
+    	 * @param entry whether the setting was written as entry
+    	 */
+    	public StoredSetting( byte[] data, boolean entry ){
+    		this.data = data;
+    		this.entry = entry;
+    	}
     }
     
     /**
@@ -1082,7 +1249,7 @@ public class DockFrontend {
     	if( setting == null )
     		throw new IllegalArgumentException( "the name of a setting must not be null" );
     	
-    	if( settings.containsKey( setting ))
+    	if( settings.containsKey( setting ) || storedSettings.containsKey( setting ))
     		load( setting );
     	else
     		save( setting );
@@ -1104,10 +1271,29 @@ public class DockFrontend {
      * @param setting the new setting, not <code>null</code>
      */
     public void setSetting( String name, Setting setting ){
+    	setSetting( name, setting, true );
+    }
+    
+    /**
+     * Stores the setting <code>setting</code> with the given name.
+     * @param name the name of the setting
+     * @param setting the new setting, not <code>null</code>
+     * @param entry whether <code>setting</code> contains only the "entry" information, or all the information
+     */
+    private void setSetting( String name, Setting setting, boolean entry ){
     	if( setting == null ){
     		throw new IllegalArgumentException( "setting is null" );
     	}
+    	storedSettings.remove( name );
+    	settings.remove( name );
     	settings.put( name, setting );
+    	if( entry ){
+    		fullSettings.remove( name );
+    	}
+    	else{
+    		fullSettings.add( name );
+    	}
+    	shrinkSettings( name );
     }
     
     /**
@@ -1524,7 +1710,7 @@ public class DockFrontend {
     		throw new IllegalArgumentException( "name must not be null" );
     	
     	Setting setting = getSetting( entry );
-    	setSetting( name, setting );
+    	setSetting( name, setting, entry );
         currentSetting = name;
         fireSaved( name );
     }
@@ -1549,7 +1735,7 @@ public class DockFrontend {
         if( name == null )
     		throw new IllegalArgumentException( "name must not be null" );
     	
-    	Setting setting = settings.get( name );
+    	Setting setting = getSetting( name );
         if( setting == null )
             throw new IllegalArgumentException( "Unknown setting \""+ name +"\"");
         
@@ -1696,6 +1882,15 @@ public class DockFrontend {
             setting.fillMissing( situation );
         }
         
+        String[] stored = storedSettings.keySet().toArray( new String[ storedSettings.size() ] );
+        for( String name : stored ){
+        	Setting setting = readStoredSetting( name );
+        	if( setting != null ){
+        		setting.fillMissing( situation );
+        		rewriteStoredSetting( name, setting );
+        	}
+        }
+        
         if( lastAppliedFullSetting != null && !settings.containsValue( lastAppliedFullSetting )){
             lastAppliedFullSetting.fillMissing( situation );
         }
@@ -1927,6 +2122,8 @@ public class DockFrontend {
     		throw new IllegalArgumentException( "name must not be null" );
     	
         boolean deleted = settings.remove( name ) != null;
+        deleted = storedSettings.remove( name ) != null || deleted;
+        fullSettings.remove( name );
         if( deleted ){
         	if( name.equals( currentSetting ))
         		currentSetting = null;
@@ -2189,6 +2386,13 @@ public class DockFrontend {
     	for( Map.Entry<String, Setting> entry : settings.entrySet() ){
     		blop.put( entry.getKey(), entry.getValue() );
     	}
+    	String[] stored = storedSettings.keySet().toArray( new String[ storedSettings.size() ] );
+    	for( String name : stored ){
+    		Setting setting = readStoredSetting( name );
+    		if( setting != null ){
+    			blop.put( name, setting );
+    		}
+    	}
     	blop.setCurrent( currentSetting, getSetting( false ) );
     	return blop;
     }
@@ -2205,7 +2409,7 @@ public class DockFrontend {
     		deleteAll();
     	}
     	for( String name : blop.getNames() ){
-    		settings.put( name, blop.getSetting( name ) );
+    		setSetting( name, blop.getSetting( name ) );
     		fireRead( name );
     	}
     	currentSetting = blop.getCurrentName();
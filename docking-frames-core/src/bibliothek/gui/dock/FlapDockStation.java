@@ -40,8 +40,6 @@ import java.awt.event.HierarchyListener;
 import java.awt.event.InputEvent;
 import java.awt.event.MouseEvent;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
 
 import javax.swing.SwingUtilities;
@@ -135,6 +133,7 @@ import bibliothek.gui.dock.util.PropertyValue;
 import bibliothek.gui.dock.util.extension.Extension;
 import bibliothek.gui.dock.util.property.ConstantPropertyFactory;
 import bibliothek.gui.dock.util.property.DynamicPropertyFactory;
+import bibliothek.util.ListenerList;
 import bibliothek.util.Path;
 
 /**
@@ -383,7 +382,7 @@ public class FlapDockStation extends AbstractDockableStation {
     /** the last checked state of {@link #isDockableVisible()} */
     private boolean lastShowing = false;
     /** A list of listeners that were added to this station */
-    private List<FlapDockListener> flapDockListeners = new ArrayList<FlapDockListener>();
+    private ListenerList<FlapDockListener> flapDockListeners = new ListenerList<FlapDockListener>( FlapDockListener.class );
     
     /** Manager for the visibility of the children of this station */
     private DockableShowingManager showingManager;
@@ -1154,7 +1153,7 @@ public class FlapDockStation extends AbstractDockableStation {
      * @param value the new value of the property
      */
     protected void fireHoldChanged( Dockable dockable, boolean value ){
-        for( FlapDockListener listener : flapDockListeners.toArray( new FlapDockListener[ flapDockListeners.size() ] ))
+        for( FlapDockListener listener : flapDockListeners.get())
             listener.holdChanged( this, dockable, value );
     }
     
@@ -65,6 +65,7 @@ import bibliothek.gui.dock.action.LocationHint;
 import bibliothek.gui.dock.component.DefaultDockStationComponentRootHandler;
 import bibliothek.gui.dock.component.DockComponentConfiguration;
 import bibliothek.gui.dock.component.DockComponentRootHandler;
+import bibliothek.gui.dock.control.DockRegister;
 import bibliothek.gui.dock.control.relocator.Merger;
 import bibliothek.gui.dock.disable.DisablingStrategy;
 import bibliothek.gui.dock.disable.DisablingStrategyListener;
@@ -169,6 +170,7 @@ import bibliothek.gui.dock.util.icon.DockIcon;
 import bibliothek.gui.dock.util.property.ConstantPropertyFactory;
 import bibliothek.gui.dock.util.property.DynamicPropertyFactory;
 import bibliothek.util.FrameworkOnly;
+import bibliothek.util.ListenerList;
 import bibliothek.util.Path;
 import bibliothek.util.Todo;
 import bibliothek.util.Todo.Compatibility;
@@ -241,7 +243,7 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 	private DockTitleVersion title;
 
 	/** A list of {@link DockableListener} which will be invoked when something noticable happens */
-	private List<DockableListener> dockableListeners = new ArrayList<DockableListener>();
+	private ListenerList<DockableListener> dockableListeners = new ListenerList<DockableListener>( DockableListener.class );
 
 	/** All {@link DockableStateListener}s of this station */
 	private DockableStateListenerManager dockableStateListeners;
@@ -250,7 +252,7 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 	private DockHierarchyObserver hierarchyObserver;
 
 	/** A list of {@link SplitDockListener} which will be invoked when something noticable happens */
-	private List<SplitDockListener> splitListeners = new ArrayList<SplitDockListener>();
+	private ListenerList<SplitDockListener> splitListeners = new ListenerList<SplitDockListener>( SplitDockListener.class );
 
 	/** The handler for events and listeners concerning the visibility of children */
 	private DockableShowingManager visibility;
@@ -279,7 +281,7 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 			if( newValue == null )
 				newValue = "";
 
-			for( DockableListener listener : dockableListeners.toArray(new DockableListener[dockableListeners.size()]) )
+			for( DockableListener listener : dockableListeners.get() )
 				listener.titleTextChanged(SplitDockStation.this, oldValue, newValue);
 		}
 	};
@@ -291,7 +293,7 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 	private PropertyValue<String> titleToolTip = new PropertyValue<String>(PropertyKey.DOCK_STATION_TOOLTIP){
 		@Override
 		protected void valueChanged( String oldValue, String newValue ){
-			for( DockableListener listener : dockableListeners.toArray(new DockableListener[dockableListeners.size()]) )
+			for( DockableListener listener : dockableListeners.get() )
 				listener.titleToolTipChanged(SplitDockStation.this, oldValue, newValue);
 		}
 	};
@@ -413,6 +415,15 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 
 	/** Whether nodes can automatically be removed from the tree or not */
 	private int treeLock = 0;
+	
+	/** How many times {@link #batch(Runnable)} is currently running */
+	private int batchLevel = 0;
+	/** Whether the bounds of the {@link Component}s need to be updated once the current batch is finished */
+	private boolean batchUpdateBounds = false;
+	/** Whether {@link #revalidate()} was called while a batch was running */
+	private boolean batchRevalidate = false;
+	/** Whether {@link #repaint()} was called while a batch was running */
+	private boolean batchRepaint = false;
 
 	/** Information about the {@link Dockable} which is currently dragged onto this station. */
 	private PutInfo putInfo;
@@ -506,7 +517,7 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 		
 		titleIcon = new DockStationIcon( "dockStation.default", this ){
 			protected void changed( Icon oldValue, Icon newValue ){
-				for( DockableListener listener : dockableListeners.toArray( new DockableListener[ dockableListeners.size()] )){
+				for( DockableListener listener : dockableListeners.get()){
 					listener.titleIconChanged( SplitDockStation.this, oldValue, newValue );
 				}
 			}
@@ -1151,7 +1162,7 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 		if( titles.contains(title) )
 			throw new IllegalArgumentException("Title is already bound");
 		titles.add(title);
-		for( DockableListener listener : dockableListeners.toArray(new DockableListener[dockableListeners.size()]) )
+		for( DockableListener listener : dockableListeners.get() )
 			listener.titleBound(this, title);
 	}
 
@@ -1159,7 +1170,7 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 		if( !titles.contains(title) )
 			throw new IllegalArgumentException("Title is unknown");
 		titles.remove(title);
-		for( DockableListener listener : dockableListeners.toArray(new DockableListener[dockableListeners.size()]) )
+		for( DockableListener listener : dockableListeners.get() )
 			listener.titleUnbound(this, title);
 	}
 
@@ -2572,7 +2583,7 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 	 * @throws SplitDropTreeException if <code>checkValidity</code> is
 	 * set to <code>true</code> and the tree is not acceptable
 	 */
-	public void dropTree( SplitDockTree<Dockable> tree, boolean checkValidity ){
+	public void dropTree( final SplitDockTree<Dockable> tree, final boolean checkValidity ){
 		if( tree == null )
 			throw new IllegalArgumentException("Tree must not be null");
 		DockUtilities.checkLayoutLocked();
@@ -2584,24 +2595,12 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 			if( controller != null ){
 				controller.freezeLayout();
 			}
-
-			setFullScreen(null);
-			removeAllDockables();
-
-			// ensure valid tree
-			for( Dockable dockable : tree.getDockables() ) {
-				DockUtilities.ensureTreeValidity(this, dockable);
-			}
-
-			SplitDockTree<Dockable>.Key rootKey = tree.getRoot();
-			if( rootKey != null ) {
-				Map<Leaf, Dockable> linksToSet = new HashMap<Leaf, Dockable>();
-				root().evolve(rootKey, checkValidity, linksToSet);
-				for( Map.Entry<Leaf, Dockable> entry : linksToSet.entrySet() ) {
-					entry.getKey().setDockable( entry.getValue(), null );
+			
+			batch( new Runnable(){
+				public void run(){
+					dropTreeBatched( tree, checkValidity );
 				}
-				updateBounds();
-			}
+			});
 		}
 		finally {
 			treeLock--;
@@ -2611,6 +2610,26 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 			access.fire();
 		}
 	}
+	
+	private void dropTreeBatched( SplitDockTree<Dockable> tree, boolean checkValidity ){
+		setFullScreen(null);
+		removeAllDockables();
+
+		// ensure valid tree
+		for( Dockable dockable : tree.getDockables() ) {
+			DockUtilities.ensureTreeValidity(this, dockable);
+		}
+
+		SplitDockTree<Dockable>.Key rootKey = tree.getRoot();
+		if( rootKey != null ) {
+			Map<Leaf, Dockable> linksToSet = new HashMap<Leaf, Dockable>();
+			root().evolve(rootKey, checkValidity, linksToSet);
+			for( Map.Entry<Leaf, Dockable> entry : linksToSet.entrySet() ) {
+				entry.getKey().setDockable( entry.getValue(), null );
+			}
+			updateBounds();
+		}
+	}
 
 	/**
 	 * Gets the contents of this station as a {@link SplitDockTree}.
@@ -2658,7 +2677,7 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 	 * @param newDockable the new fullscreen-Dockable, can be <code>null</code>
 	 */
 	protected void fireFullScreenChanged( Dockable oldDockable, Dockable newDockable ){
-		for( SplitDockListener listener : splitListeners.toArray(new SplitDockListener[splitListeners.size()]) )
+		for( SplitDockListener listener : splitListeners.get() )
 			listener.fullScreenDockableChanged(this, oldDockable, newDockable);
 	}
 
@@ -2668,7 +2687,7 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 	 * @param title a title, can be <code>null</code>
 	 */
 	protected void fireTitleExchanged( DockTitle title ){
-		for( DockableListener listener : dockableListeners.toArray(new DockableListener[dockableListeners.size()]) )
+		for( DockableListener listener : dockableListeners.get() )
 			listener.titleExchanged(this, title);
 	}
 
@@ -3162,42 +3181,11 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 	 * @param id the id to search
 	 * @return the node with the id <code>id</code>
 	 */
-	public SplitNode getNode( final long id ){
-		class Visitor implements SplitNodeVisitor {
-			private SplitNode result;
-
-			public void handleRoot( Root root ){
-				if( root.getId() == id ) {
-					result = root;
-				}
-			}
-
-			public void handleLeaf( Leaf leaf ){
-				if( leaf.getId() == id ) {
-					result = leaf;
-				}
-			}
-
-			public void handlePlaceholder( Placeholder placeholder ){
-				if( placeholder.getId() == id ) {
-					result = placeholder;
-				}
-			}
-
-			public void handleNode( Node node ){
-				if( node.getId() == id ) {
-					result = node;
-				}
-			}
-		}
-		;
-
+	public SplitNode getNode( long id ){
 		if( root == null )
 			return null;
 
-		Visitor visitor = new Visitor();
-		getRoot().visit(visitor);
-		return visitor.result;
+		return getRoot().getNode( id );
 	}
 
 	public String getFactoryID(){
@@ -3206,9 +3194,16 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 
 	/**
 	 * Updates all locations and sizes of the {@link Component Components}
-	 * which are in the structure of this tree.
+	 * which are in the structure of this tree.<br>
+	 * While a {@link #batch(Runnable) batch} is running this method does nothing but remember that
+	 * the bounds are outdated, the {@link SplitLayoutManager} updates the bounds once the batch is finished.
 	 */
 	public void updateBounds(){
+		if( batchLevel > 0 ){
+			batchUpdateBounds = true;
+			return;
+		}
+		
 		Insets insets = getContentPane().getInsets();
 		double factorW = getWidth() - insets.left - insets.right;
 		double factorH = getHeight() - insets.top - insets.bottom;
@@ -3223,6 +3218,76 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 		}
 	}
 	
+	/**
+	 * Executes <code>run</code> as one transaction. While <code>run</code> is executed the tree of this station
+	 * can be modified as usual, but the bounds of the {@link Component}s are not updated and calls to
+	 * {@link #revalidate()} and {@link #repaint()} are collected. Once <code>run</code> is finished, the 
+	 * bounds are updated once and at most one call to {@link #revalidate()} and {@link #repaint()} is made.<br>
+	 * Calls to this method can be nested, e.g. in order to modify many stations while the 
+	 * {@link DockRegister#setStalled(boolean) register is stalled}, only the outermost call 
+	 * updates the {@link Component}s.
+	 * @param run the code that modifies this station, not <code>null</code>
+	 */
+	public void batch( Runnable run ){
+		if( run == null ){
+			throw new IllegalArgumentException( "run must not be null" );
+		}
+		batchLevel++;
+		try{
+			run.run();
+		}
+		finally{
+			batchLevel--;
+			if( batchLevel == 0 ){
+				boolean updateBounds = batchUpdateBounds;
+				boolean revalidate = batchRevalidate;
+				boolean repaint = batchRepaint;
+				
+				batchUpdateBounds = false;
+				batchRevalidate = false;
+				batchRepaint = false;
+				
+				if( updateBounds ){
+					updateBounds();
+				}
+				if( revalidate ){
+					revalidate();
+				}
+				if( repaint ){
+					repaint();
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Tells whether {@link #batch(Runnable)} is currently running.
+	 * @return <code>true</code> if the {@link Component}s are currently not updated
+	 */
+	public boolean isBatching(){
+		return batchLevel > 0;
+	}
+	
+	@Override
+	public void revalidate(){
+		if( batchLevel > 0 ){
+			batchRevalidate = true;
+		}
+		else{
+			super.revalidate();
+		}
+	}
+	
+	@Override
+	public void repaint(){
+		if( batchLevel > 0 ){
+			batchRepaint = true;
+		}
+		else{
+			super.repaint();
+		}
+	}
+	
 	/**
 	 * Allows subclasses access to the internal working of this {@link SplitDockStation}. Subclasses
 	 * should be very careful when invoking methods of {@link Access}.
@@ -33,12 +33,11 @@ import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionListener;
 import java.awt.event.MouseWheelEvent;
 import java.awt.event.MouseWheelListener;
-import java.util.ArrayList;
-import java.util.List;
 
 import bibliothek.gui.DockController;
 import bibliothek.gui.dock.event.ControllerSetupListener;
 import bibliothek.gui.dock.util.PropertyValue;
+import bibliothek.util.ListenerList;
 
 /**
  * This default implementation of a {@link GlobalMouseDispatcher} uses an {@link AWTEventListener} is possible, or
@@ -49,14 +48,11 @@ public class DefaultGlobalMouseDispatcher implements GlobalMouseDispatcher {
 	/** The listener to all AWT events*/
 	private AWTEventListener listener;
 
-	private List<MouseListener> mouseListeners = new ArrayList<MouseListener>();
-	private MouseListener[] mouseListenersCache = null;
+	private ListenerList<MouseListener> mouseListeners = new ListenerList<MouseListener>( MouseListener.class );
 
-	private List<MouseMotionListener> mouseMotionListeners = new ArrayList<MouseMotionListener>();
-	private MouseMotionListener[] mouseMotionListenersCache = null;
+	private ListenerList<MouseMotionListener> mouseMotionListeners = new ListenerList<MouseMotionListener>( MouseMotionListener.class );
 
-	private List<MouseWheelListener> mouseWheelListeners = new ArrayList<MouseWheelListener>();
-	private MouseWheelListener[] mouseWheelListenersCache = null;
+	private ListenerList<MouseWheelListener> mouseWheelListeners = new ListenerList<MouseWheelListener>( MouseWheelListener.class );
 
 	/** whether the application is in restricted mode or not */
 	private PropertyValue<Boolean> restricted = new PropertyValue<Boolean>( DockController.RESTRICTED_ENVIRONMENT ){
@@ -126,67 +122,52 @@ public class DefaultGlobalMouseDispatcher implements GlobalMouseDispatcher {
 		}
 	}
 
-	public synchronized void addMouseListener( MouseListener listener ){
+	public void addMouseListener( MouseListener listener ){
 		mouseListeners.add( listener );
-		mouseListenersCache = null;
 	}
 
-	public synchronized void removeMouseListener( MouseListener listener ){
+	public void removeMouseListener( MouseListener listener ){
 		mouseListeners.remove( listener );
-		mouseListenersCache = null;
 	}
 
 	/**
 	 * Gets all the {@link MouseListener}s that are currently registered.
 	 * @return all the listeners
 	 */
-	protected synchronized MouseListener[] getMouseListeners(){
-		if( mouseListenersCache == null ) {
-			mouseListenersCache = mouseListeners.toArray( new MouseListener[mouseListeners.size()] );
-		}
-		return mouseListenersCache;
+	protected MouseListener[] getMouseListeners(){
+		return mouseListeners.get();
 	}
 
-	public synchronized void addMouseMotionListener( MouseMotionListener listener ){
+	public void addMouseMotionListener( MouseMotionListener listener ){
 		mouseMotionListeners.add( listener );
-		mouseMotionListenersCache = null;
 	}
 
-	public synchronized void removeMouseMotionListener( MouseMotionListener listener ){
+	public void removeMouseMotionListener( MouseMotionListener listener ){
 		mouseMotionListeners.remove( listener );
-		mouseMotionListenersCache = null;
 	}
 
 	/**
 	 * Gets all the {@link MouseMotionListener}s that are currently registered.
 	 * @return all the listeners
 	 */
-	protected synchronized MouseMotionListener[] getMouseMotionListeners(){
-		if( mouseMotionListenersCache == null ) {
-			mouseMotionListenersCache = mouseMotionListeners.toArray( new MouseMotionListener[mouseMotionListeners.size()] );
-		}
-		return mouseMotionListenersCache;
+	protected MouseMotionListener[] getMouseMotionListeners(){
+		return mouseMotionListeners.get();
 	}
 	
-	public synchronized void addMouseWheelListener( MouseWheelListener listener ){
+	public void addMouseWheelListener( MouseWheelListener listener ){
 		mouseWheelListeners.add( listener );
-		mouseWheelListenersCache = null;
 	}
 
-	public synchronized void removeMouseWheelListener( MouseWheelListener listener ){
+	public void removeMouseWheelListener( MouseWheelListener listener ){
 		mouseWheelListeners.remove( listener );
-		mouseWheelListenersCache = null;
 	}
 
 	/**
 	 * Gets all the {@link MouseWheelListener}s that are currently registered.
 	 * @return all the listeners
 	 */
-	protected synchronized MouseWheelListener[] getMouseWheelListeners(){
-		if( mouseWheelListenersCache == null ) {
-			mouseWheelListenersCache = mouseWheelListeners.toArray( new MouseWheelListener[mouseWheelListeners.size()] );
-		}
-		return mouseWheelListenersCache;
+	protected MouseWheelListener[] getMouseWheelListeners(){
+		return mouseWheelListeners.get();
 	}
 
 	private void updateRestricted(){
@@ -39,7 +39,10 @@ import bibliothek.gui.dock.util.DockUtilities;
 /**
  * A set of all {@link bibliothek.gui.Dockable Dockables} and
  * {@link bibliothek.gui.DockStation DockStations} currently used in the
- * system. 
+ * system.<br>
+ * Clients that frequently need to look at all the elements of this register should use {@link #getDockables()}
+ * and {@link #getDockStations()}, these methods return snapshots that are only rebuilt if the content
+ * of this register changed.
  * @author Benjamin Sigg
  */
 @LayoutLocked( locked=false )
@@ -48,8 +51,17 @@ public class DockRegister {
 	private Set<DockStation> protectedStations = new HashSet<DockStation>();
 	/** the known stations */
     private List<DockStation> stations = new ArrayList<DockStation>();
+    /** the known stations, allows fast lookup */
+    private Set<DockStation> stationSet = Collections.newSetFromMap( new IdentityHashMap<DockStation, Boolean>() );
+    /** unmodifiable copy of {@link #stations}, <code>null</code> if {@link #stations} changed */
+    private List<DockStation> stationSnapshot;
+    
     /** the known dockables */
     private List<Dockable> dockables = new ArrayList<Dockable>();
+    /** the known dockables, allows fast lookup */
+    private Set<Dockable> dockableSet = Collections.newSetFromMap( new IdentityHashMap<Dockable, Boolean>() );
+    /** unmodifiable copy of {@link #dockables}, <code>null</code> if {@link #dockables} changed */
+    private List<Dockable> dockableSnapshot;
     
     /** The controller for which the dockables and stations are stored */
     private DockController controller;
@@ -113,8 +125,7 @@ public class DockRegister {
      * known to this register.
      */
     public void kill(){
-        List<DockStation> stations = new ArrayList<DockStation>( this.stations );
-        for( DockStation station : stations )
+        for( DockStation station : getDockStations() )
             remove( station );
     }
     
@@ -127,7 +138,7 @@ public class DockRegister {
      * @param protect the new protection state
      */
     public void setProtected( DockStation station, boolean protect ){
-    	if( stations.contains( station )){
+    	if( stationSet.contains( station )){
 	    	if( protect ){
 	    		protectedStations.add( station );
 	    	}
@@ -171,7 +182,7 @@ public class DockRegister {
     	if( station == null )
             throw new NullPointerException( "Station must not be null" );
     	
-        if( !stations.contains( station )){
+        if( !stationSet.contains( station )){
             DockController other = station.getController();
             if( other != null && other != controller ){
                 other.getRegister().remove( station );
@@ -195,7 +206,7 @@ public class DockRegister {
      * @param station the station to remove
      */
     public void remove( DockStation station ){
-        if( stations.contains( station )){
+        if( stationSet.contains( station )){
         	setProtected( station, false );
             Dockable dock = station.asDockable();
             if( dock != null ){
@@ -253,10 +264,25 @@ public class DockRegister {
     /**
      * Gets an array containing all known {@link DockStation DockStations}.
      * @return the modifiable array of stations
+     * @see #getDockStations()
      */
     public DockStation[] listDockStations(){
     	return stations.toArray( new DockStation[ stations.size() ] );
     }
+    
+    /**
+     * Gets an unmodifiable snapshot of all the known {@link DockStation}s. The snapshot is
+     * only created if the set of stations changed since the last call to this method, 
+     * hence calling this method repeatedly is cheap. The snapshot is not updated if 
+     * the content of this register changes.
+     * @return an unmodifiable list of all stations
+     */
+    public List<DockStation> getDockStations(){
+    	if( stationSnapshot == null ){
+    		stationSnapshot = Collections.unmodifiableList( new ArrayList<DockStation>( stations ) );
+    	}
+    	return stationSnapshot;
+    }
 
     /**
      * Gets a list of stations which have no parent and are therefore
@@ -297,7 +323,7 @@ public class DockRegister {
      * @return <code>true</code> if <code>dockable</code> was found
      */
     public boolean isRegistered( Dockable dockable ){
-    	return dockables.contains( dockable );
+    	return dockableSet.contains( dockable );
     }
     
     /**
@@ -328,11 +354,26 @@ public class DockRegister {
     /**
      * Gets a list of all Dockables.
      * @return the list of Dockables
+     * @see #getDockables()
      */
     public Dockable[] listDockables(){
     	return dockables.toArray( new Dockable[ dockables.size() ] );
     }
     
+    /**
+     * Gets an unmodifiable snapshot of all the known {@link Dockable}s. The snapshot is
+     * only created if the set of dockables changed since the last call to this method,
+     * hence calling this method repeatedly is cheap. The snapshot is not updated if 
+     * the content of this register changes.
+     * @return an unmodifiable list of all dockables
+     */
+    public List<Dockable> getDockables(){
+    	if( dockableSnapshot == null ){
+    		dockableSnapshot = Collections.unmodifiableList( new ArrayList<Dockable>( dockables ) );
+    	}
+    	return dockableSnapshot;
+    }
+    
     /**
      * Registers <code>dockable</code>, the associated controller will know the titles
      * of <code>dockable</code> to allow drag and drop operations.<br>
@@ -340,10 +381,12 @@ public class DockRegister {
      * @param dockable a new Dockable
      */
     protected void register( Dockable dockable ){
-        if( !dockables.contains( dockable )){
+        if( !dockableSet.contains( dockable )){
             fireDockableRegistering( dockable );
             
             dockables.add( dockable );
+            dockableSet.add( dockable );
+            dockableSnapshot = null;
             dockable.setController( controller );
             
             fireDockableRegistered( dockable );
@@ -357,7 +400,9 @@ public class DockRegister {
      * @param dockable the element to remove
      */
     protected void unregister( Dockable dockable ){
-        if( dockables.remove( dockable ) ){
+        if( dockableSet.remove( dockable ) ){
+        	dockables.remove( dockable );
+        	dockableSnapshot = null;
             dockable.setController( null );
             
             fireDockableUnregistered( dockable );
@@ -374,10 +419,12 @@ public class DockRegister {
      * listener will not be added
      */
     protected void register( DockStation station, boolean requiresListener ){
-        if( !stations.contains( station )){
+        if( !stationSet.contains( station )){
         	fireDockStationRegistering( station );
             
             stations.add( station );
+            stationSet.add( station );
+            stationSnapshot = null;
             
             station.setController( controller );
             station.updateTheme();
@@ -397,7 +444,9 @@ public class DockRegister {
      * @param station the station to remove
      */
     protected void unregister( DockStation station ){
-        if( stations.remove( station ) ){
+        if( stationSet.remove( station ) ){
+        	stations.remove( station );
+        	stationSnapshot = null;
         	station.setController( null );
             station.removeDockStationListener( stationListener );
             
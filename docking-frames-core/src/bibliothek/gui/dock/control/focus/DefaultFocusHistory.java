@@ -25,8 +25,8 @@
  */
 package bibliothek.gui.dock.control.focus;
 
-import java.util.LinkedList;
-import java.util.List;
+import java.util.IdentityHashMap;
+import java.util.Map;
 
 import bibliothek.gui.DockController;
 import bibliothek.gui.DockStation;
@@ -40,18 +40,30 @@ import bibliothek.util.Filter;
 /**
  * The default implementation of {@link FocusHistory} adds listeners to a 
  * {@link DockController} to keep the history up to date. Only {@link Dockable}s that
- * are actually registered at the controller are reported in the history
+ * are actually registered at the controller are reported in the history.<br>
+ * For each {@link DockStation} that was used in a call to {@link #getNewestOn(DockStation...)}, the history
+ * remembers the newest child that had the focus. These entries are updated when the focus changes, are
+ * forgotten once any {@link Dockable} is registered, unregistered or moved, and are checked before they are used.
  * @author Benjamin Sigg
  */
 public class DefaultFocusHistory implements FocusHistory{
 	/** the controller which is observed */
 	private DockController controller;
 	
-	/** the actual history */
-	private List<Dockable> history = new LinkedList<Dockable>();
+	/** the actual history, the newest element is the first element */
+	private Chain history = new Chain();
 	
-	/** these Dockables did not yet have the focus */
-	private List<Dockable> unfocused = new LinkedList<Dockable>();
+	/** these Dockables did not yet have the focus, ordered by the time they were registered */
+	private Chain unfocused = new Chain();
+	
+	/** all the {@link Dockable}s of {@link #history} and of {@link #unfocused} */
+	private Map<Dockable, Entry> entries = new IdentityHashMap<Dockable, Entry>();
+	
+	/** for some stations the newest child that had the focus, a value of <code>null</code> means there is no such child */
+	private Map<DockStation, Entry> newestOn = new IdentityHashMap<DockStation, Entry>();
+	
+	/** how many times some {@link Dockable} gained the focus */
+	private long focusCount = 0;
 	
 	/** the listeners that are added to {@link #controller} */
 	private Listener listener = new Listener();
@@ -61,7 +73,11 @@ public class DefaultFocusHistory implements FocusHistory{
 			this.controller.getRegister().removeDockRegisterListener( listener );
 			this.controller.getFocusController().removeDockableFocusListener( listener );
 		}
+		for( Entry entry = history.first; entry != null; entry = entry.next ){
+			entries.remove( entry.dockable );
+		}
 		history.clear();
+		newestOn.clear();
 		this.controller = controller;
 		if( this.controller != null ){
 			this.controller.getRegister().addDockRegisterListener( listener );
@@ -70,41 +86,130 @@ public class DefaultFocusHistory implements FocusHistory{
 	}
 	
 	public Dockable[] getHistory(){
-		Dockable[] result = new Dockable[ unfocused.size() + history.size() ];
+		Dockable[] result = new Dockable[ unfocused.size + history.size ];
 		
 		int index = 0;
-		for( Dockable dockable : unfocused ){
-			result[ index++ ] = dockable;
+		for( Entry entry = unfocused.first; entry != null; entry = entry.next ){
+			result[ index++ ] = entry.dockable;
 		}
 		
-		
 		index = result.length-1;
-		for( Dockable item : history ){
-			result[ index-- ] = item;
+		for( Entry entry = history.first; entry != null; entry = entry.next ){
+			result[ index-- ] = entry.dockable;
 		}
 		return result;
 	}
 	
 	public Dockable getNewestOn( DockStation... parents ){
-		for( Dockable item : history ){
-			for( DockStation station : parents ){
-				if( item != station && DockUtilities.isAncestor( station, item )){
-					return item;
-				}
+		Entry newest = null;
+		for( DockStation station : parents ){
+			Entry entry = getNewestEntryOn( station );
+			if( entry != null && (newest == null || entry.focused > newest.focused) ){
+				newest = entry;
 			}
 		}
-		return null;
+		return newest == null ? null : newest.dockable;
+	}
+	
+	/**
+	 * Searches the newest child of <code>station</code> that had the focus. The result is stored
+	 * in {@link #newestOn} if the hierarchy of {@link Dockable}s is currently stable.
+	 * @param station the station whose child is searched
+	 * @return the newest child or <code>null</code>
+	 */
+	private Entry getNewestEntryOn( DockStation station ){
+		if( newestOn.containsKey( station )){
+			// stations change their children before the DockRegister is informed
+			Entry entry = newestOn.get( station );
+			if( entry == null || (entry.chain == history && DockUtilities.isAncestor( station, entry.dockable ))){
+				return entry;
+			}
+		}
+		
+		Entry result = null;
+		for( Entry entry = history.first; entry != null; entry = entry.next ){
+			if( entry.dockable != station && DockUtilities.isAncestor( station, entry.dockable )){
+				result = entry;
+				break;
+			}
+		}
+		
+		if( isIndexing() ){
+			newestOn.put( station, result );
+		}
+		return result;
+	}
+	
+	/**
+	 * Tells whether the results of {@link #getNewestEntryOn(DockStation)} can be stored. While the
+	 * {@link bibliothek.gui.dock.control.DockRegister} is stalled, {@link Dockable}s can be moved without
+	 * any event telling so.
+	 * @return whether {@link #newestOn} can be used
+	 */
+	private boolean isIndexing(){
+		return controller != null && !controller.getRegister().isStalled();
 	}
 	
 	public Dockable getFirst( Filter<Dockable> filter ){
-		for( Dockable dockable : history ){
-			if( filter.includes( dockable )){
-				return dockable;
+		return getFirst( filter, false );
+	}
+	
+	/**
+	 * Traverses the {@link #getHistory() history} in reverse and returns the first {@link Dockable} matching <code>filter</code>.
+	 * Unlike {@link #getHistory()} this method does not need to copy the history.
+	 * @param filter the filter to apply, not <code>null</code>
+	 * @param includeUnfocused if <code>true</code>, then the {@link Dockable}s which never had the focus are checked too,
+	 * after all the other {@link Dockable}s
+	 * @return the newest {@link Dockable} matching <code>filter</code>, or <code>null</code>
+	 */
+	public Dockable getFirst( Filter<Dockable> filter, boolean includeUnfocused ){
+		for( Entry entry = history.first; entry != null; entry = entry.next ){
+			if( filter.includes( entry.dockable )){
+				return entry.dockable;
+			}
+		}
+		if( includeUnfocused ){
+			for( Entry entry = unfocused.last; entry != null; entry = entry.previous ){
+				if( filter.includes( entry.dockable )){
+					return entry.dockable;
+				}
 			}
 		}
 		return null;
 	}
 	
+	/**
+	 * Marks <code>dockable</code> as the newest element of the history.
+	 * @param dockable the element that gained the focus
+	 */
+	private void focused( Dockable dockable ){
+		Entry entry = entries.get( dockable );
+		if( entry == null ){
+			entry = new Entry( dockable );
+			entries.put( dockable, entry );
+		}
+		else{
+			entry.chain.remove( entry );
+		}
+		entry.focused = ++focusCount;
+		history.addFirst( entry );
+		
+		if( isIndexing() ){
+			// dockable is the newest child of all its parents
+			DockStation station = dockable.getDockParent();
+			while( station != null ){
+				if( newestOn.containsKey( station )){
+					newestOn.put( station, entry );
+				}
+				Dockable parent = station.asDockable();
+				station = parent == null ? null : parent.getDockParent();
+			}
+		}
+		else{
+			newestOn.clear();
+		}
+	}
+	
 	/**
 	 * A set of listeners that are needed to find out which {@link Dockable} currently has the
 	 * focus, and which {@link Dockable}s are to be removed.
@@ -112,24 +217,134 @@ public class DefaultFocusHistory implements FocusHistory{
 	 */
 	private class Listener extends DockRegisterAdapter implements DockableFocusListener{
 		public void dockableUnregistered( DockController controller, Dockable dockable ){
-			history.remove( dockable );
-			unfocused.remove( dockable );
+			Entry entry = entries.remove( dockable );
+			if( entry != null ){
+				entry.chain.remove( entry );
+			}
+			newestOn.clear();
 		}
 		
 		@Override
 		public void dockableRegistered( DockController controller, Dockable dockable ) {
-			if( !unfocused.contains( dockable ) && !history.contains( dockable ) ){
-				unfocused.add( dockable );
+			if( !entries.containsKey( dockable )){
+				Entry entry = new Entry( dockable );
+				entries.put( dockable, entry );
+				unfocused.addLast( entry );
 			}
+			newestOn.clear();
+		}
+		
+		@Override
+		public void dockableCycledRegister( DockController controller, Dockable dockable ){
+			newestOn.clear();
+		}
+		
+		@Override
+		public void registerStalled( DockController controller ){
+			newestOn.clear();
+		}
+		
+		@Override
+		public void registerUnstalled( DockController controller ){
+			newestOn.clear();
 		}
 		
 		public void dockableFocused( DockableFocusEvent event ){
 			Dockable owner = event.getNewFocusOwner();
 			if( owner != null ){
-				unfocused.remove( owner );
-				history.remove( owner );
-				history.add( 0, owner );
+				focused( owner );
+			}
+		}
+	}
+	
+	/**
+	 * One element of a {@link Chain}, represents one {@link Dockable}.
+	 * @author Benjamin Sigg
+	 */
+	private static class Entry{
+		/** the element represented by this entry */
+		private final Dockable dockable;
+		/** the value of {@link DefaultFocusHistory#focusCount} when {@link #dockable} last gained the focus */
+		private long focused;
+		
+		/** the list containing this entry */
+		private Chain chain;
+		private Entry previous;
+		private Entry next;
+		
+		public Entry( Dockable dockable ){
+			this.dockable = dockable;
+		}
+	}
+	
+	/**
+	 * A doubly linked list of {@link Entry}s, allows to remove any entry in constant time.
+	 * @author Benjamin Sigg
+	 */
+	private static class Chain{
+		private Entry first;
+		private Entry last;
+		private int size;
+		
+		public void addFirst( Entry entry ){
+			entry.chain = this;
+			entry.previous = null;
+			entry.next = first;
+			if( first == null ){
+				last = entry;
+			}
+			else{
+				first.previous = entry;
+			}
+			first = entry;
+			size++;
+		}
+		
+		public void addLast( Entry entry ){
+			entry.chain = this;
+			entry.next = null;
+			entry.previous = last;
+			if( last == null ){
+				first = entry;
+			}
+			else{
+				last.next = entry;
+			}
+			last = entry;
+			size++;
+		}
+		
+		public void remove( Entry entry ){
+			if( entry.previous == null ){
+				first = entry.next;
+			}
+			else{
+				entry.previous.next = entry.next;
+			}
+			if( entry.next == null ){
+				last = entry.previous;
+			}
+			else{
+				entry.next.previous = entry.previous;
+			}
+			entry.previous = null;
+			entry.next = null;
+			entry.chain = null;
+			size--;
+		}
+		
+		public void clear(){
+			Entry entry = first;
+			while( entry != null ){
+				Entry next = entry.next;
+				entry.previous = null;
+				entry.next = null;
+				entry.chain = null;
+				entry = next;
 			}
+			first = null;
+			last = null;
+			size = 0;
 		}
 	}
 }
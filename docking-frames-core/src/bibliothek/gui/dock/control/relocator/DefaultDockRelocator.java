@@ -38,6 +38,7 @@ import java.awt.event.ComponentListener;
 import java.awt.event.InputEvent;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -62,6 +63,7 @@ import bibliothek.gui.dock.dockable.DockableMovingImageFactory;
 import bibliothek.gui.dock.dockable.MovingImage;
 import bibliothek.gui.dock.event.ControllerSetupListener;
 import bibliothek.gui.dock.event.DockControllerRepresentativeListener;
+import bibliothek.gui.dock.event.DockRegisterAdapter;
 import bibliothek.gui.dock.station.StationDragOperation;
 import bibliothek.gui.dock.station.StationDropItem;
 import bibliothek.gui.dock.station.StationDropOperation;
@@ -128,6 +130,9 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
     /** The {@link DockControllerRepresentativeListener} that creates all the {@link MouseListener}s */
     private Listener listeners;
     
+    /** the stations that can be the target of the current drag and drop operation */
+    private CandidateStations candidates = new CandidateStations();
+    
 	/**
 	 * Creates a new manager.
 	 * @param controller the controller whose dockables are moved
@@ -148,6 +153,7 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
 		setup.add( new ControllerSetupListener(){
 		    public void done( DockController controller ) {
 		        controller.addRepresentativeListener( listeners );
+		        controller.getRegister().addDockRegisterListener( candidates );
 		        
 		        List<Merger> mergers = controller.getExtensions().load( new ExtensionName<Merger>( MERGE_EXTENSION, Merger.class, EXTENSION_PARAM, DefaultDockRelocator.this ));
 				for( Merger next : mergers ){
@@ -406,15 +412,12 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
     	OrderedLayerCollection collection = new OrderedLayerCollection( dropLayerFactory );
     	
     	if( disabling == null || !disabling.isDisabled( moved )){
-	        DockStation movedStation = moved.asDockStation();
 	        if( !isCancelLocation( x, y, moved )){
-	        	for( DockStation station : controller.getRegister().listDockStations() ){
+	        	for( DockStation station : candidates.get( moved ) ){
 	        		if( disabling == null || !disabling.isDisabled( station )){
-		        		if( movedStation == null || (!DockUtilities.isAncestor( movedStation, station ) && movedStation != station )){
-		        			if( station.isStationShowing() && isStationValid( station ) ){
-		        				collection.add( station );
-			                }
-			            }
+	        			if( station.isStationShowing() && isStationValid( station ) ){
+	        				collection.add( station );
+		                }
 	        		}
 		        }
 	        }
@@ -436,7 +439,7 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
     		return true;
     	}
     	DockController controller = moved.getController();
-    	for( DockElementRepresentative item : controller.getRepresentatives( moved ) ){
+    	for( DockElementRepresentative item : controller.getRepresentativeList( moved ) ){
     		if( isCancelLocation( x, y, item )){
     			return true;
     		}
@@ -641,6 +644,7 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
             movingImageWindow = null;
         }
     	lastItem = null;
+    	candidates.clear();
     	
     	Dockable[] implicit = new Dockable[]{};
     	DefaultDockRelocatorEvent event = new DefaultDockRelocatorEvent( getController(), dockable, implicit, null, mouse, false );
@@ -898,6 +902,7 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
                 movingImageWindow.close();
             
             lastItem = null;
+            candidates.clear();
             
             if( dragOperation != null ){
             	dragOperation.canceled();
@@ -973,6 +978,7 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
 	            movingImageWindow.close();
 	        
 	        lastItem = null;
+	        candidates.clear();
 	        movingImageWindow = null;
 	        pressPointScreen = null;
 	        pressPointLocal = null;
@@ -1079,6 +1085,62 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
         }
     }
     
+    /**
+     * Caches the list of {@link DockStation}s which are not children of the currently moved {@link Dockable}.
+     * The list is built once per drag and drop operation and thrown away whenever the set of registered
+     * stations changes, hence the hierarchy does not need to be searched on every mouse event.
+     * @author Benjamin Sigg
+     */
+    private class CandidateStations extends DockRegisterAdapter{
+    	/** the element for which {@link #stations} was built */
+    	private Dockable moved;
+    	/** all the stations that are not a child of {@link #moved}, can be <code>null</code> */
+    	private List<DockStation> stations;
+    	
+    	/**
+    	 * Gets all the registered stations that are neither <code>moved</code> nor a child of <code>moved</code>.
+    	 * @param moved the element that is dragged around
+    	 * @return the stations, the list must not be modified
+    	 */
+    	public List<DockStation> get( Dockable moved ){
+    		if( stations == null || this.moved != moved ){
+    			this.moved = moved;
+    			DockStation movedStation = moved.asDockStation();
+    			List<DockStation> all = getController().getRegister().getDockStations();
+    			stations = new ArrayList<DockStation>( all.size() );
+    			for( DockStation station : all ){
+    				if( movedStation == null || (!DockUtilities.isAncestor( movedStation, station ) && movedStation != station )){
+    					stations.add( station );
+    				}
+    			}
+    		}
+    		return stations;
+    	}
+    	
+    	/**
+    	 * Throws away the cached list of stations.
+    	 */
+    	public void clear(){
+    		moved = null;
+    		stations = null;
+    	}
+    	
+    	@Override
+    	public void dockStationRegistered( DockController controller, DockStation station ){
+    		clear();
+    	}
+    	
+    	@Override
+    	public void dockStationUnregistered( DockController controller, DockStation station ){
+    		clear();
+    	}
+    	
+    	@Override
+    	public void dockableCycledRegister( DockController controller, Dockable dockable ){
+    		clear();
+    	}
+    }
+    
     /**
      * A listener observing the {@link DockController} for new {@link DockElementRepresentative}s
      * and adding the new representatives a {@link MouseRepresentativeListener}.
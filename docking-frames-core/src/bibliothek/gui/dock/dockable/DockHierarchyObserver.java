@@ -25,14 +25,12 @@
  */
 package bibliothek.gui.dock.dockable;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import bibliothek.gui.DockController;
 import bibliothek.gui.Dockable;
 import bibliothek.gui.dock.DockElement;
 import bibliothek.gui.dock.event.DockHierarchyEvent;
 import bibliothek.gui.dock.event.DockHierarchyListener;
+import bibliothek.util.ListenerList;
 
 /**
  * A helper class that is able to send {@link DockHierarchyEvent}s to
@@ -48,7 +46,7 @@ public class DockHierarchyObserver implements DockHierarchyListener{
 	/** the currently observed parent */
 	private DockElement parent;
     /** a list of listeners which are informed when the hierarchy changes */
-    private List<DockHierarchyListener> hierarchyListeners = new ArrayList<DockHierarchyListener>();
+    private ListenerList<DockHierarchyListener> hierarchyListeners = new ListenerList<DockHierarchyListener>( DockHierarchyListener.class );
     
     /** The Dockable for which events are generated */
     private Dockable owner;
@@ -99,7 +97,7 @@ public class DockHierarchyObserver implements DockHierarchyListener{
     protected void fireHierarchyChanged(){
     	if( !hierarchyListeners.isEmpty() ){
 	    	DockHierarchyEvent event = new DockHierarchyEvent( owner );
-	    	for( DockHierarchyListener listener : hierarchyListeners.toArray( new DockHierarchyListener[ hierarchyListeners.size() ] )){
+	    	for( DockHierarchyListener listener : hierarchyListeners.get()){
 	    		listener.hierarchyChanged( event );
 	    	}
     	}
@@ -112,7 +110,7 @@ public class DockHierarchyObserver implements DockHierarchyListener{
     protected void fireControllerChanged( DockController controller ){
     	if( !hierarchyListeners.isEmpty() ){
 	    	DockHierarchyEvent event = new DockHierarchyEvent( owner, controller );
-	    	for( DockHierarchyListener listener : hierarchyListeners.toArray( new DockHierarchyListener[ hierarchyListeners.size() ] )){
+	    	for( DockHierarchyListener listener : hierarchyListeners.get()){
 	    		listener.controllerChanged( event );
 	    	}
     	}
@@ -39,6 +39,7 @@ import bibliothek.gui.Dockable;
 import bibliothek.gui.dock.title.DockTitle;
 import bibliothek.gui.dock.util.AWTComponentCaptureStrategy;
 import bibliothek.gui.dock.util.DockSwingUtilities;
+import bibliothek.gui.dock.util.ImagePool;
 
 /**
  * A factory that makes a snapshot of the {@link Dockable} which will be represented
@@ -74,6 +75,20 @@ public class ScreencaptureMovingImageFactory implements DockableMovingImageFacto
         setAlpha( alpha );
     }
     
+    /**
+     * Tells whether {@link #create(DockController, Dockable)} may paint the {@link Component} of a
+     * {@link Dockable} directly into an image of the {@link ImagePool}, instead of calling 
+     * {@link #createImageFrom(DockController, Dockable)}. Images of the pool are reused by the next
+     * drag and drop operation.<br>
+     * This factory uses the pool, subclasses do not use the pool unless they override this method.
+     * A subclass that does not change how images are captured should override this method and return
+     * <code>true</code>.
+     * @return whether images are taken from the {@link ImagePool}
+     */
+    protected boolean isImagePoolEnabled(){
+    	return getClass() == ScreencaptureMovingImageFactory.class;
+    }
+    
     /**
      * Set the transparency of this image, where 0 means completely transparent and 1 means completely
      * opaque
@@ -99,14 +114,58 @@ public class ScreencaptureMovingImageFactory implements DockableMovingImageFacto
     }
 
     public MovingImage create( DockController controller, Dockable dockable ) {
-        BufferedImage image = createImageFrom( controller, dockable );
-
         TrueMovingImage moving = new TrueMovingImage();
         moving.setAlpha( alpha );
-        moving.setImage( image );
+        
+        Component c = dockable.getComponent();
+        if( isImagePoolEnabled() && c.getWidth() >= 10 && c.getHeight() >= 10 && !DockSwingUtilities.containsAWTComponents( c )){
+        	// paint directly into a reused image of the final size
+        	Dimension size = getImageSize( c.getWidth(), c.getHeight() );
+        	ImagePool pool = controller.getProperties().get( ImagePool.IMAGE_POOL );
+        	BufferedImage image = pool.acquire( size.width, size.height );
+        	
+        	Graphics2D g = image.createGraphics();
+        	g.clipRect( 0, 0, size.width, size.height );
+        	if( size.width != c.getWidth() || size.height != c.getHeight() ){
+        		g.setRenderingHint( RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC );
+        		g.setRenderingHint( RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON );
+        		g.scale( size.getWidth() / c.getWidth(), size.getHeight() / c.getHeight() );
+        	}
+        	c.paint( g );
+        	g.dispose();
+        	
+        	moving.setImage( image, size.width, size.height, pool );
+        }
+        else{
+        	moving.setImage( createImageFrom( controller, dockable ) );
+        }
         return moving;
     }
     
+    /**
+     * Gets the size of an image showing a {@link Component} of size <code>width</code> x <code>height</code>, 
+     * respecting the maximum size that was given to this factory.
+     * @param width the width of the component
+     * @param height the height of the component
+     * @return the size of the image, at least 1 x 1
+     */
+    protected Dimension getImageSize( int width, int height ){
+    	double factor = 1.0;
+    	if( max != null ){
+    		factor = Math.min( 
+    				max.getWidth() / width, 
+    				max.getHeight() / height );
+    	}
+    	
+    	if( factor < 1.0 ){
+    		int w = (int)( factor * width );
+    		int h = (int)( factor * height );
+    		
+    		return new Dimension( Math.max( w, 1 ), Math.max( h, 1 ));
+    	}
+    	return new Dimension( width, height );
+    }
+    
     /**
      * This method creates a new image that contains the contents of <code>dockable</code>.
      * @param controller the controller for which the image is made
@@ -164,29 +223,18 @@ public class ScreencaptureMovingImageFactory implements DockableMovingImageFacto
             }
             
             if( image != null ){
-                double factor = 1.0;
-                if( max != null ){
-                	factor = Math.min( 
-                        max.getWidth() / size.getWidth(), 
-                        max.getHeight() / size.getHeight() );
-                }
-
-                if( factor < 1.0 ){
-                    int w = (int)( factor * size.getWidth() );
-                    int h = (int)( factor * size.getHeight() );
-
-                    w = Math.max( w, 1 );
-                    h = Math.max( h, 1 );
-
-                    if( w != size.width || h != size.height ){
-                        BufferedImage small = new BufferedImage( w, h, image.getType() );
-                        Graphics2D g = small.createGraphics();
-                        g.setRenderingHint( RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC );
-                        g.setRenderingHint( RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON );
-                        g.drawImage( image, 0, 0, w, h, 0, 0, size.width, size.height, null );
-                        g.dispose();
-                        image = small;
-                    }
+                Dimension target = getImageSize( size.width, size.height );
+                int w = target.width;
+                int h = target.height;
+                
+                if( w != size.width || h != size.height ){
+                    BufferedImage small = new BufferedImage( w, h, image.getType() );
+                    Graphics2D g = small.createGraphics();
+                    g.setRenderingHint( RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC );
+                    g.setRenderingHint( RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON );
+                    g.drawImage( image, 0, 0, w, h, 0, 0, size.width, size.height, null );
+                    g.dispose();
+                    image = small;
                 }
             }
         }
@@ -37,6 +37,8 @@ import java.awt.image.BufferedImage;
 
 import javax.swing.JPanel;
 
+import bibliothek.gui.dock.util.ImagePool;
+
 /**
  * A {@link MovingImage} that truly uses an {@link Image} to paint its content.
  * @author Benjamin Sigg
@@ -46,6 +48,15 @@ public class TrueMovingImage extends JPanel implements MovingImage{
     /** the content of this component */
     private BufferedImage image;
     
+    /** the width of the area of {@link #image} that is painted */
+    private int imageWidth;
+    
+    /** the height of the area of {@link #image} that is painted */
+    private int imageHeight;
+    
+    /** the pool which created {@link #image}, can be <code>null</code> */
+    private ImagePool pool;
+    
     /** the transparency with which to paint the image */
     private float alpha = 1.0f;
     
@@ -76,13 +87,13 @@ public class TrueMovingImage extends JPanel implements MovingImage{
     protected void paintComponent( Graphics g ) {
     	if( image != null ){
         	if( alpha == 1.0f || !transparent ){
-        		g.drawImage( image, 0, 0, this );
+        		g.drawImage( image, 0, 0, imageWidth, imageHeight, 0, 0, imageWidth, imageHeight, this );
         	}
         	else{
         		Graphics2D g2 = (Graphics2D)g;
         		Composite old = g2.getComposite();
         		g2.setComposite( AlphaComposite.getInstance( AlphaComposite.DST_ATOP, alpha ) );
-        		g.drawImage( image, 0, 0, this );
+        		g.drawImage( image, 0, 0, imageWidth, imageHeight, 0, 0, imageWidth, imageHeight, this );
         		g2.setComposite( old );
         	}
         }
@@ -93,9 +104,34 @@ public class TrueMovingImage extends JPanel implements MovingImage{
      * @param image the new image or <code>null</code>
      */
     public void setImage( BufferedImage image ) {
+    	if( image == null ){
+    		setImage( null, 0, 0, null );
+    	}
+    	else{
+    		setImage( image, image.getWidth(), image.getHeight(), null );
+    	}
+    }
+    
+    /**
+     * Sets the image that this component will paint. Only the top left area of the image of size
+     * <code>width</code> x <code>height</code> is painted.
+     * @param image the new image or <code>null</code>
+     * @param width the width of the area to paint
+     * @param height the height of the area to paint
+     * @param pool if not <code>null</code>, then <code>image</code> is given back to <code>pool</code>
+     * once this {@link MovingImage} is {@link #unbind() unbound} or the image is replaced
+     */
+    public void setImage( BufferedImage image, int width, int height, ImagePool pool ){
+    	if( this.pool != null ){
+    		this.pool.release( this.image );
+    	}
+    	
         this.image = image;
+        this.imageWidth = width;
+        this.imageHeight = height;
+        this.pool = pool;
         if( image != null ){
-            setPreferredSize( new Dimension( image.getWidth(), image.getHeight() ) );
+            setPreferredSize( new Dimension( width, height ) );
         }
         repaint();
     }
@@ -110,7 +146,10 @@ public class TrueMovingImage extends JPanel implements MovingImage{
     }
     
     public void unbind() {
-        // ignore
+    	if( pool != null ){
+    		// the image can be used for the next drag and drop operation
+    		setImage( null, 0, 0, null );
+    	}
     }
     
     public Component getComponent() {
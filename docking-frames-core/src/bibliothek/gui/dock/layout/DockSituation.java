@@ -37,6 +37,10 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
 
 import bibliothek.gui.DockController;
 import bibliothek.gui.DockStation;
@@ -56,8 +60,10 @@ import bibliothek.gui.dock.station.split.SplitDockStationFactory;
 import bibliothek.gui.dock.station.stack.StackDockStationFactory;
 import bibliothek.gui.dock.station.support.PlaceholderStrategy;
 import bibliothek.gui.dock.util.DockUtilities;
+import bibliothek.gui.dock.util.PropertyKey;
 import bibliothek.gui.dock.util.extension.ExtensionManager;
 import bibliothek.gui.dock.util.extension.ExtensionName;
+import bibliothek.gui.dock.util.property.ConstantPropertyFactory;
 import bibliothek.util.Path;
 import bibliothek.util.Todo;
 import bibliothek.util.Version;
@@ -83,6 +89,37 @@ public class DockSituation {
 	/** Name of a parameter of an {@link ExtensionName} pointing to <code>this</code> */
 	public static final String EXTENSION_PARAM = "situation";
 	
+	/** 
+	 * The {@link Format} used by {@link #writeComposition(DockLayoutComposition, DataOutputStream)} if no format was
+	 * set explicitly with {@link #setFormat(Format)}. 
+	 */
+	public static final PropertyKey<Format> BINARY_FORMAT = new PropertyKey<Format>( "dock.situation.binaryFormat",
+			new ConstantPropertyFactory<Format>( Format.STANDARD ), true );
+	
+	/**
+	 * The binary formats that can be written by {@link DockSituation#writeComposition(DockLayoutComposition, DataOutputStream)}. 
+	 * All the formats can always be read by {@link DockSituation#readComposition(DataInputStream)}, but older versions of 
+	 * this library can only read the {@link #STANDARD} format.
+	 * @author Benjamin Sigg
+	 */
+	public static enum Format{
+		/** The format that was used by all the versions of this library up to 1.1.2 */
+		STANDARD,
+		/** 
+		 * Identifiers of factories and placeholders are written only once per composition, and all the numbers
+		 * are written with as few bytes as possible 
+		 */
+		COMPACT,
+		/** The {@link #COMPACT} format, additionally the data is compressed with the deflate algorithm */
+		COMPRESSED
+	}
+	
+    /** 
+     * Marks compositions written in the {@link Format#COMPACT compact} or {@link Format#COMPRESSED compressed} format.
+     * Older versions of this library read the marker as a version from the future and refuse to read the composition.
+     */
+    private static final Version COMPACT_FORMAT = new Version( 1, 1, 2, "compact" );
+    
     /** the factories used to create new {@link DockElement elements}*/
     private Map<String, DockFactory<?,?,?>> factories = new HashMap<String, DockFactory<?,?,?>>();
 
@@ -103,6 +140,12 @@ public class DockSituation {
     
     /** strategy used to filter placeholders when converting the intermediate format to real {@link DockElement}s */
     private PlaceholderStrategy placeholders;
+    
+    /** the controller in whose realm this situation is used, can be <code>null</code> */
+    private DockController controller;
+    
+    /** the format used to write compositions, <code>null</code> if {@link #BINARY_FORMAT} is to be used */
+    private Format format;
 
     /**
      * Constructs a new DockSituation and sets some factories which are
@@ -129,6 +172,8 @@ public class DockSituation {
                 new StackDockStationFactory(),
                 new FlapDockStationFactory());
         
+        this.controller = controller;
+        
         @SuppressWarnings("rawtypes")
 		List<DockFactory> factories = controller.getExtensions().load( new ExtensionName<DockFactory>( DOCK_FACTORY_EXTENSION, DockFactory.class, EXTENSION_PARAM, this ) );
         for( DockFactory<?,?,?> factory : factories ){
@@ -205,6 +250,30 @@ public class DockSituation {
 		this.intermediatePlaceholders = intermediatePlaceholders;
 	}
     
+    /**
+     * Sets the format that is used by {@link #writeComposition(DockLayoutComposition, DataOutputStream)}.
+     * @param format the format or <code>null</code>, in which case the property {@link #BINARY_FORMAT} of the
+     * {@link DockController} of this situation is used
+     */
+    public void setFormat( Format format ){
+		this.format = format;
+	}
+    
+    /**
+     * Gets the format that is used by {@link #writeComposition(DockLayoutComposition, DataOutputStream)}.
+     * @return the format, not <code>null</code>
+     * @see #setFormat(Format)
+     */
+    public Format getFormat(){
+    	if( format != null ){
+    		return format;
+    	}
+    	if( controller != null ){
+    		return controller.getProperties().get( BINARY_FORMAT );
+    	}
+		return Format.STANDARD;
+	}
+    
     /**
      * Gets the strategy for deleting invalid placeholders in the intermediate format.
      * @return the intermediate strategy, can be <code>null</code>
@@ -434,8 +503,30 @@ public class DockSituation {
      * @throws IOException if an I/O-error occurs
      */
     public void writeComposition( DockLayoutComposition composition, DataOutputStream out ) throws IOException{
-        Version.write( out, Version.VERSION_1_0_8 );
-        writeCompositionStream( composition, out );
+    	Format format = getFormat();
+    	if( format == Format.STANDARD ){
+    		Version.write( out, Version.VERSION_1_0_8 );
+    		writeCompositionStream( composition, out );
+    	}
+    	else{
+    		Version.write( out, COMPACT_FORMAT );
+    		if( format == Format.COMPRESSED ){
+    			out.writeBoolean( true );
+    			ByteArrayOutputStream bout = new ByteArrayOutputStream();
+    			Deflater deflater = new Deflater( Deflater.BEST_SPEED );
+    			DataOutputStream dout = new DataOutputStream( new DeflaterOutputStream( bout, deflater ) );
+    			writeCompactStream( composition, dout, new HashMap<String, Integer>() );
+    			dout.close();
+    			deflater.end();
+    			
+    			writeNumber( bout.size(), out );
+    			bout.writeTo( out );
+    		}
+    		else{
+    			out.writeBoolean( false );
+    			writeCompactStream( composition, out, new HashMap<String, Integer>() );
+    		}
+    	}
     }
 
     /**
@@ -527,6 +618,20 @@ public class DockSituation {
      */
     public DockLayoutComposition readComposition( DataInputStream in ) throws IOException{
         Version version = Version.read( in );
+        
+        if( COMPACT_FORMAT.equals( version ) ){
+        	if( in.readBoolean() ){
+        		DataInputStream compressed = readBuffer( in, readNumber( in ) );
+        		DataInputStream din = new DataInputStream( new InflaterInputStream( compressed ));
+        		DockLayoutComposition result = readCompactStream( din, new ArrayList<String>() );
+        		din.close();
+        		return result;
+        	}
+        	else{
+        		return readCompactStream( in, new ArrayList<String>() );
+        	}
+        }
+        
         version.checkCurrent();
         return readCompositionStream( in, version );
     }
@@ -563,34 +668,9 @@ public class DockSituation {
                 for( int i = 0; i < layoutCount; i++ ){
                     String adjacentFactoryId = in.readUTF();
                     int adjacentCount = in.readInt();
-                    AdjacentDockFactory<Object> adjacentFactory = (AdjacentDockFactory<Object>)getAdjacentFactory( adjacentFactoryId );
-                    if( adjacentFactory == null ){
-                        if( missingAdjacent == null ){
-                            // skip
-                            while( adjacentCount > 0 ){
-                                int skipped = (int)in.skip( adjacentCount );
-                                if( skipped <= 0 )
-                                    throw new EOFException();
-                                adjacentCount -= skipped;
-                            }
-                        }
-                        else{
-                            DataInputStream din = readBuffer( in, adjacentCount );
-                            Object data = missingAdjacent.read( getAdjacentFactoryID( adjacentFactoryId ), din, adjacentCount );
-                            if( data != null ){
-                                adjacentLayouts.add( new DockLayout<Object>( adjacentFactoryId, data ) );
-                            }
-                            din.close();
-                        }
-                    }
-                    else{
-                        DataInputStream din = readBuffer( in, adjacentCount );
-                        Object data = adjacentFactory.read( din, intermediatePlaceholders );
-                        if( data != null ){
-                            adjacentLayouts.add( new DockLayout<Object>( adjacentFactoryId, data ) );
-                        }
-
-                        din.close();
+                    DockLayout<Object> adjacentLayout = readAdjacent( adjacentFactoryId, adjacentCount, in );
+                    if( adjacentLayout != null ){
+                    	adjacentLayouts.add( adjacentLayout );
                     }
                 }
             }
@@ -610,6 +690,256 @@ public class DockSituation {
         return new DockLayoutComposition( info, adjacentLayouts, children, ignore );
     }
 
+    /**
+     * Reads the data of one {@link DockLayout} that was written by an {@link AdjacentDockFactory}.
+     * @param adjacentFactoryId the unique identifier of the factory
+     * @param adjacentCount the number of bytes that belong to the layout
+     * @param in the stream to read from
+     * @return the layout or <code>null</code> if the layout could not be read
+     * @throws IOException if an I/O-error occurs
+     */
+    @SuppressWarnings("unchecked")
+    private DockLayout<Object> readAdjacent( String adjacentFactoryId, int adjacentCount, DataInputStream in ) throws IOException{
+    	AdjacentDockFactory<Object> adjacentFactory = (AdjacentDockFactory<Object>)getAdjacentFactory( adjacentFactoryId );
+    	Object data;
+    	if( adjacentFactory == null ){
+    		if( missingAdjacent == null ){
+    			// skip
+    			while( adjacentCount > 0 ){
+    				int skipped = (int)in.skip( adjacentCount );
+    				if( skipped <= 0 )
+    					throw new EOFException();
+    				adjacentCount -= skipped;
+    			}
+    			return null;
+    		}
+    		else{
+    			DataInputStream din = readBuffer( in, adjacentCount );
+    			data = missingAdjacent.read( getAdjacentFactoryID( adjacentFactoryId ), din, adjacentCount );
+    			din.close();
+    		}
+    	}
+    	else{
+    		DataInputStream din = readBuffer( in, adjacentCount );
+    		data = adjacentFactory.read( din, intermediatePlaceholders );
+    		din.close();
+    	}
+    	
+    	if( data == null ){
+    		return null;
+    	}
+    	return new DockLayout<Object>( adjacentFactoryId, data );
+    }
+    
+    /**
+     * Writes the contents of <code>composition</code> and all its children in the {@link Format#COMPACT compact}
+     * format.
+     * @param composition the composition to write
+     * @param out the stream to write into
+     * @param strings all the strings that were already written, and their index
+     * @throws IOException if an I/O-error occurs
+     */
+    @SuppressWarnings("unchecked")
+    private void writeCompactStream( DockLayoutComposition composition, DataOutputStream out, Map<String, Integer> strings ) throws IOException{
+    	DockLayoutInfo info = composition.getLayout();
+    	
+    	// placeholder
+    	Path placeholder = info.getPlaceholder();
+    	writeString( placeholder == null ? null : placeholder.toString(), out, strings );
+    	
+    	// factory and contents
+    	if( info.getKind() == DockLayoutInfo.Data.BYTE ){
+    		DataInputStream entry = new DataInputStream( new ByteArrayInputStream( info.getDataByte() ));
+    		String factoryId = entry.readUTF();
+    		int count = entry.readInt();
+    		byte[] data = new byte[ count ];
+    		entry.readFully( data );
+    		entry.close();
+    		
+    		writeString( factoryId, out, strings );
+    		writeNumber( count, out );
+    		out.write( data );
+    	}
+    	else if( info.getKind() == DockLayoutInfo.Data.DOCK_LAYOUT ){
+    		DockLayout<?> layout = info.getDataLayout();
+    		DockFactory<DockElement,?,Object> factory = (DockFactory<DockElement,?,Object>)getFactory( layout.getFactoryID() );
+    		if( factory == null )
+    			throw new IOException( "Missing factory: " + layout.getFactoryID() );
+    		
+    		ByteArrayOutputStream bout = new ByteArrayOutputStream();
+    		DataOutputStream dout = new DataOutputStream( bout );
+    		factory.write( layout.getData(), dout );
+    		dout.close();
+    		
+    		writeString( getID( factory ), out, strings );
+    		writeNumber( bout.size(), out );
+    		bout.writeTo( out );
+    	}
+    	else{
+    		throw new IllegalArgumentException( "Cannot store layout in stream: it was never translated and its raw format is not a byte stream" );
+    	}
+    	
+    	// adjacent
+    	List<DockLayout<?>> adjacentLayouts = composition.getAdjacent();
+    	if( adjacentLayouts == null ){
+    		writeNumber( 0, out );
+    	}
+    	else{
+    		writeNumber( adjacentLayouts.size(), out );
+    		for( DockLayout<?> adjacentLayout : adjacentLayouts ){
+    			AdjacentDockFactory<Object> adjacentFactory = (AdjacentDockFactory<Object>)getAdjacentFactory( adjacentLayout.getFactoryID() );
+    			if( adjacentFactory == null )
+    				throw new IOException( "Missing adjacent factory: " + adjacentLayout.getFactoryID() );
+    			
+    			ByteArrayOutputStream adjacentBOut = new ByteArrayOutputStream();
+    			DataOutputStream adjacentOut = new DataOutputStream( adjacentBOut );
+    			adjacentFactory.write( adjacentLayout.getData(), adjacentOut );
+    			adjacentOut.close();
+    			
+    			writeString( getAdjacentID( adjacentFactory ), out, strings );
+    			writeNumber( adjacentBOut.size(), out );
+    			adjacentBOut.writeTo( out );
+    		}
+    	}
+    	
+    	// ignore
+    	out.writeBoolean( composition.isIgnoreChildren() );
+    	
+    	// children
+    	List<DockLayoutComposition> children = composition.getChildren();
+    	writeNumber( children.size(), out );
+    	for( DockLayoutComposition child : children ){
+    		writeCompactStream( child, out, strings );
+    	}
+    }
+    
+    /**
+     * Reads one {@link DockLayoutComposition} and all its children that were written in the
+     * {@link Format#COMPACT compact} format.
+     * @param in the stream to read from
+     * @param strings all the strings that were already read
+     * @return the new composition
+     * @throws IOException if an I/O-error occurs
+     */
+    private DockLayoutComposition readCompactStream( DataInputStream in, List<String> strings ) throws IOException{
+    	String placeholder = readString( in, strings );
+    	Path entryPlaceholder = placeholder == null ? null : new Path( placeholder );
+    	
+    	String factoryId = readString( in, strings );
+    	if( factoryId == null ){
+    		throw new IOException( "missing identifier of factory" );
+    	}
+    	byte[] entry = readEntry( factoryId, readNumber( in ), in );
+    	DockLayoutInfo info = readEntry( entry, entryPlaceholder );
+    	
+    	List<DockLayout<?>> adjacentLayouts = null;
+    	int layoutCount = readNumber( in );
+    	if( layoutCount > 0 ){
+    		adjacentLayouts = new ArrayList<DockLayout<?>>( layoutCount );
+    		for( int i = 0; i < layoutCount; i++ ){
+    			String adjacentFactoryId = readString( in, strings );
+    			if( adjacentFactoryId == null ){
+    				throw new IOException( "missing identifier of adjacent factory" );
+    			}
+    			DockLayout<Object> adjacentLayout = readAdjacent( adjacentFactoryId, readNumber( in ), in );
+    			if( adjacentLayout != null ){
+    				adjacentLayouts.add( adjacentLayout );
+    			}
+    		}
+    	}
+    	
+    	boolean ignore = in.readBoolean();
+    	
+    	int count = readNumber( in );
+    	List<DockLayoutComposition> children = new ArrayList<DockLayoutComposition>( count );
+    	for( int i = 0; i < count; i++ ){
+    		children.add( readCompactStream( in, strings ) );
+    	}
+    	
+    	return new DockLayoutComposition( info, adjacentLayouts, children, ignore );
+    }
+    
+    /**
+     * Writes <code>value</code> into <code>out</code>. If <code>value</code> was already written, then
+     * only its index in <code>strings</code> is written.
+     * @param value the string to write, can be <code>null</code>
+     * @param out the stream to write into
+     * @param strings the strings that were already written
+     * @throws IOException if an I/O-error occurs
+     */
+    private void writeString( String value, DataOutputStream out, Map<String, Integer> strings ) throws IOException{
+    	if( value == null ){
+    		writeNumber( 0, out );
+    	}
+    	else{
+    		Integer index = strings.get( value );
+    		if( index == null ){
+    			strings.put( value, strings.size() );
+    			writeNumber( 1, out );
+    			out.writeUTF( value );
+    		}
+    		else{
+    			writeNumber( index + 2, out );
+    		}
+    	}
+    }
+    
+    /**
+     * Reads a string that was written by {@link #writeString(String, DataOutputStream, Map)}.
+     * @param in the stream to read from
+     * @param strings the strings that were already read
+     * @return the string, can be <code>null</code>
+     * @throws IOException if an I/O-error occurs
+     */
+    private String readString( DataInputStream in, List<String> strings ) throws IOException{
+    	int index = readNumber( in );
+    	if( index == 0 ){
+    		return null;
+    	}
+    	if( index == 1 ){
+    		String value = in.readUTF();
+    		strings.add( value );
+    		return value;
+    	}
+    	index -= 2;
+    	if( index >= strings.size() ){
+    		throw new IOException( "unknown string: " + index );
+    	}
+    	return strings.get( index );
+    }
+    
+    /**
+     * Writes a non negative number using one byte for each 7 bits that are required.
+     * @param value the number to write, not negative
+     * @param out the stream to write into
+     * @throws IOException if an I/O-error occurs
+     */
+    private void writeNumber( int value, DataOutputStream out ) throws IOException{
+    	while( (value & ~0x7F) != 0 ){
+    		out.writeByte( (value & 0x7F) | 0x80 );
+    		value >>>= 7;
+    	}
+    	out.writeByte( value );
+    }
+    
+    /**
+     * Reads a number that was written by {@link #writeNumber(int, DataOutputStream)}.
+     * @param in the stream to read from
+     * @return the number
+     * @throws IOException if an I/O-error occurs
+     */
+    private int readNumber( DataInputStream in ) throws IOException{
+    	int result = 0;
+    	for( int shift = 0; shift < 32; shift += 7 ){
+    		int next = in.readUnsignedByte();
+    		result |= (next & 0x7F) << shift;
+    		if( (next & 0x80) == 0 ){
+    			return result;
+    		}
+    	}
+    	throw new IOException( "malformed number" );
+    }
+    
     /**
      * Tries to read <code>entry</code>. Entry will be read by a {@link DataInputStream},
      * it must start with an utf-String used as id for a {@link DockFactory},
@@ -677,14 +1007,11 @@ public class DockSituation {
      * have <code>count</code> elements
      */
     private DataInputStream readBuffer( DataInputStream in, int count ) throws IOException{
-        byte[] buffer = new byte[ count ];
-        int read = 0;
-        while( read < count ){
-            int input = in.read( buffer, read, count-read );
-            if( input < 0 )
-                throw new EOFException();
-            read += input;
+        if( count < 0 ){
+            throw new IOException( "negative size of entry: " + count );
         }
+        byte[] buffer = new byte[ count ];
+        in.readFully( buffer );
 
         ByteArrayInputStream bin = new ByteArrayInputStream( buffer );
         DataInputStream din = new DataInputStream( bin );
@@ -702,22 +1029,39 @@ public class DockSituation {
     private byte[] readBuffer( DataInputStream in ) throws IOException{
         String factory = in.readUTF();
         int count = in.readInt();
-
-        ByteArrayOutputStream out = new ByteArrayOutputStream( factory.length()*4 + 4 + count );
+        return readEntry( factory, count, in );
+    }
+    
+    /**
+     * Reads the data of one entry and creates an array that has the same format as the arrays
+     * returned by {@link #readBuffer(DataInputStream)}.
+     * @param factory the identifier of the factory that wrote the entry
+     * @param count the number of bytes that belong to the entry
+     * @param in the stream to read from
+     * @return the whole entry
+     * @throws IOException if the entry cannot be read from <code>in</code>
+     */
+    private byte[] readEntry( String factory, int count, DataInputStream in ) throws IOException{
+        if( count < 0 ){
+            throw new IOException( "negative size of entry: " + count );
+        }
+        // the header is small, the body is copied directly into an array of the exact size
+        ByteArrayOutputStream out = new ByteArrayOutputStream( factory.length()*3 + 2 );
         DataOutputStream dout = new DataOutputStream( out );
-
         dout.writeUTF( factory );
-        dout.writeInt( count );
-
-        for( int i = 0; i < count; i++ ){
-            int read = in.read();
-            if( read == -1 )
-                throw new EOFException( "unexpectetly reached end of file" );
-            dout.write( read );
-        }
-
         dout.close();
-        return out.toByteArray();
+        byte[] header = out.toByteArray();
+
+        byte[] entry = new byte[ header.length + 4 + count ];
+        System.arraycopy( header, 0, entry, 0, header.length );
+        int offset = header.length;
+        entry[ offset++ ] = (byte)( count >>> 24 );
+        entry[ offset++ ] = (byte)( count >>> 16 );
+        entry[ offset++ ] = (byte)( count >>> 8 );
+        entry[ offset++ ] = (byte)( count );
+
+        in.readFully( entry, offset, count );
+        return entry;
     }
 
     /**
@@ -34,6 +34,7 @@ import java.util.Map;
 import bibliothek.gui.DockController;
 import bibliothek.gui.Dockable;
 import bibliothek.gui.dock.ScreenDockStation;
+import bibliothek.gui.dock.station.screen.ScreenDockStationListener;
 import bibliothek.gui.dock.station.screen.ScreenDockWindow;
 import bibliothek.gui.dock.station.screen.magnet.AttractorStrategy.Attraction;
 import bibliothek.gui.dock.station.screen.magnet.MagnetRequest.Side;
@@ -85,6 +86,30 @@ public class MagnetController {
 			throw new IllegalArgumentException( "station must not be null" );
 		}
 		this.station = station;
+		
+		station.addScreenDockStationListener( new ScreenDockStationListener(){
+			public void windowRegistering( ScreenDockStation station, Dockable dockable, ScreenDockWindow window ){
+				windowsChanged();
+			}
+			
+			public void windowDeregistering( ScreenDockStation station, Dockable dockable, ScreenDockWindow window ){
+				windowsChanged();
+			}
+			
+			public void fullscreenChanged( ScreenDockStation station, Dockable dockable ){
+				// ignore
+			}
+		});
+	}
+	
+	/**
+	 * Called when a {@link ScreenDockWindow} was added to or removed from the {@link #getStation() station}.
+	 * Forgets which windows are attracted by the {@link #getCurrent() current window}.
+	 */
+	private void windowsChanged(){
+		if( current != null ){
+			current.resetAttracted();
+		}
 	}
 	
 	/**
@@ -190,10 +215,25 @@ public class MagnetController {
 	
 	/**
 	 * Gets all the {@link ScreenDockWindow}s of the {@link #getStation() station} that are attracted to <code>window</code>.
+	 * If <code>window</code> is the {@link #getCurrent() current window}, then the result is calculated only once
+	 * for the entire operation, or until a window is added to or removed from the station.
 	 * @param window the window that has moved and whose partners are searched
 	 * @return all the partner windows, may be empty, is never <code>null</code>, does not contain <code>window</code>
 	 */
 	public ScreenDockWindow[] getAttracted( ScreenDockWindow window ){
+		if( current != null && current.getWindow() == window ){
+			return current.getAttracted();
+		}
+		return searchAttracted( window );
+	}
+	
+	/**
+	 * Asks the {@link AttractorStrategy} for each {@link ScreenDockWindow} of the {@link #getStation() station}
+	 * whether it is attracted to <code>window</code>.
+	 * @param window the window whose partners are searched
+	 * @return all the partner windows, does not contain <code>window</code>
+	 */
+	private ScreenDockWindow[] searchAttracted( ScreenDockWindow window ){
 		List<ScreenDockWindow> result = new ArrayList<ScreenDockWindow>();
 		int count = station.getDockableCount();
 		for( int i = 0; i < count; i++ ){
@@ -371,6 +411,9 @@ public class MagnetController {
 		/** the currently executer operation */
 		private MagnetOperation operation;
 		
+		/** all the windows that are attracted by {@link #window}, lazily initialized */
+		private ScreenDockWindow[] attracted;
+		
 		/**
 		 * Creates a new operation.
 		 * @param window the window that is reshaped
@@ -386,6 +429,28 @@ public class MagnetController {
 		public ScreenDockWindow getWindow(){
 			return window;
 		}
+		
+		/**
+		 * Gets all the windows that are attracted by {@link #getWindow() the window}. The
+		 * {@link AttractorStrategy} does not depend on the location of the windows, hence
+		 * the result does not change while this operation is running, unless windows are
+		 * added or removed.
+		 * @return all the attracted windows
+		 */
+		public ScreenDockWindow[] getAttracted(){
+			if( attracted == null ){
+				attracted = searchAttracted( window );
+			}
+			return attracted.clone();
+		}
+		
+		/**
+		 * Forgets the result of {@link #getAttracted()}, the next call will ask the 
+		 * {@link AttractorStrategy} again.
+		 */
+		public void resetAttracted(){
+			attracted = null;
+		}
 
 		public Rectangle getBounds(){
 			return new Rectangle( baseBoundaries );
@@ -175,9 +175,17 @@ public class StickMagnetGraph {
 		LinkedList<Integer> queue = new LinkedList<Integer>();
 		queue.add( index );
 		
+		boolean[] expanded = new boolean[ nodes.length ];
+		
 		while( !queue.isEmpty() ){
 			index = queue.poll();
 			
+			// expanding a node a second time would not add any new edges
+			if( expanded[ index ] ){
+				continue;
+			}
+			expanded[ index ] = true;
+			
 			for( int i = 0, n = nodes.length; i < n; i++ ) {
 				if( i != index ) {
 					Side relation = relation( windows[index], windows[i] );
@@ -208,6 +216,11 @@ public class StickMagnetGraph {
 	 * stays, <code>null</code> if <code>fixed</code> does not depend on <code>moved</code>
 	 */
 	protected Side relation( ScreenDockWindow moved, ScreenDockWindow fixed ){
+		// most pairs of windows are far apart, this check is much cheaper than asking for the stickiness
+		if( !adjacent( moved, fixed )){
+			return null;
+		}
+		
 		Attraction attraction = getController().getStickiness( moved.getDockable(), fixed.getDockable() );
 		if( attraction == Attraction.ATTRACTED || attraction == Attraction.STRONGLY_ATTRACTED ) {
 			MagnetController controller = getController();
@@ -234,6 +247,27 @@ public class StickMagnetGraph {
 		return null;
 	}
 	
+	/**
+	 * Tells whether one side of <code>moved</code> is exactly one pixel away from the opposite side
+	 * of <code>fixed</code>, using the {@link MagnetRequest#getInitialBounds(ScreenDockWindow) initial boundaries}
+	 * of the windows. Only windows that are adjacent can have a {@link #relation(ScreenDockWindow, ScreenDockWindow) relation}.
+	 * @param moved the window that was moved
+	 * @param fixed the window that was not moved
+	 * @return whether the two windows touch each other
+	 */
+	private boolean adjacent( ScreenDockWindow moved, ScreenDockWindow fixed ){
+		Rectangle boundsMoved = request.getInitialBounds( moved );
+		Rectangle boundsFixed = request.getInitialBounds( fixed );
+		
+		for( Side side : Side.values() ){
+			int distance = controller.getValue( boundsMoved, side ) - controller.getValue( boundsFixed, side.opposite() );
+			if( distance == 1 || distance == -1 ){
+				return true;
+			}
+		}
+		return false;
+	}
+	
 	/**
 	 * Compares the initial location of the root {@link ScreenDockWindow} with its
 	 * current location and moves all neighbors by the same amount. This method does
@@ -246,7 +246,10 @@ public class Node extends VisibleSplitNode implements Divideable{
     public void setOrientation( Orientation orientation ) {
         if( orientation == null )
             throw new NullPointerException( "orientation must not be null" );
-        this.orientation = orientation;
+        if( this.orientation != orientation ){
+        	this.orientation = orientation;
+        	treeChanged();
+        }
         getAccess().getOwner().revalidate();
     }
     
@@ -806,16 +809,33 @@ public class Node extends VisibleSplitNode implements Divideable{
     	boolean leftVisible = left == null || left.isVisible();
     	boolean rightVisible = right == null || right.isVisible();
     	
-        if( leftVisible && rightVisible && dividerBounds.contains( x, y ))
-            return this;
+        boolean searchLeft = leftVisible;
+        boolean searchRight = rightVisible;
+        
+        if( leftVisible && rightVisible ){
+        	if( dividerBounds.contains( x, y )){
+        		return this;
+        	}
+        	
+        	// the children are on different sides of the divider, so only one of them can contain
+        	// the point. One pixel of tolerance is added to cover rounding errors.
+        	if( orientation == Orientation.HORIZONTAL ){
+        		searchLeft = x <= dividerBounds.x + dividerBounds.width;
+        		searchRight = x >= dividerBounds.x - 1;
+        	}
+        	else{
+        		searchLeft = y <= dividerBounds.y + dividerBounds.height;
+        		searchRight = y >= dividerBounds.y - 1;
+        	}
+        }
         
-        if( left != null && leftVisible ){
+        if( left != null && searchLeft ){
             Node node = left.getDividerNode( x, y );
             if( node != null )
                 return node;
         }
         
-        if( right != null && rightVisible ){
+        if( right != null && searchRight ){
             return right.getDividerNode( x, y );
         }
         else{
@@ -30,6 +30,8 @@ import java.awt.Component;
 import java.awt.Dimension;
 import java.awt.Insets;
 import java.awt.Rectangle;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
 
 import javax.swing.JComponent;
@@ -37,6 +39,7 @@ import javax.swing.JComponent;
 import bibliothek.gui.Dockable;
 import bibliothek.gui.dock.SplitDockStation;
 import bibliothek.gui.dock.layout.location.AsideRequest;
+import bibliothek.util.Path;
 
 /**
  * The root of the tree that represents the internal structure of a 
@@ -50,9 +53,25 @@ public class Root extends SpanSplitNode{
     /** tells whether the subtree has changed since the last reset */
     private boolean treeChanged = true;
     
+    /** incremented every time when the subtree changes, never reset */
+    private int treeVersion = 0;
+    
     /** The result of {@link #getBaseBounds()} */
     private Rectangle baseBounds = null;
     
+    /** tells whether {@link #leafIndex}, {@link #idIndex} and {@link #placeholderIndex} are up to date */
+    private boolean indexValid = false;
+    
+    /** all the {@link Leaf}s of this tree, used by {@link #getLeaf(Dockable)}. {@link Dockable}s are compared by identity,
+     * like a search through the tree would do, even if a client overrides <code>equals</code>. */
+    private Map<Dockable, Leaf> leafIndex = new IdentityHashMap<Dockable, Leaf>();
+    
+    /** all the nodes of this tree, used by {@link #getNode(long)} */
+    private Map<Long, SplitNode> idIndex = new HashMap<Long, SplitNode>();
+    
+    /** all the placeholders of this tree, used by {@link #getPlaceholderNode(Path)} */
+    private Map<Path, SplitNode> placeholderIndex = new HashMap<Path, SplitNode>();
+    
     /**
      * Creates a new root.
      * @param access the access to internal methods of the
@@ -75,6 +94,56 @@ public class Root extends SpanSplitNode{
     @Override
     protected void treeChanged(){
 	    treeChanged = true;
+	    treeVersion++;
+	    indexChanged();
+    }
+    
+    @Override
+    protected void indexChanged(){
+    	if( indexValid ){
+    		indexValid = false;
+    		leafIndex.clear();
+    		idIndex.clear();
+    		placeholderIndex.clear();
+    	}
+    }
+    
+    /**
+     * Ensures that the maps used by {@link #getLeaf(Dockable)}, {@link #getNode(long)} and
+     * {@link #getPlaceholderNode(Path)} describe the current tree. The maps are rebuilt lazily, 
+     * any number of modifications of the tree only cost one traversal of the tree.
+     */
+    private void validateIndex(){
+    	if( !indexValid ){
+    		index( this );
+    		indexValid = true;
+    	}
+    }
+    
+    private void index( SplitNode node ){
+    	idIndex.put( Long.valueOf( node.getId() ), node );
+    	
+    	if( node.hasPlaceholders() ){
+    		for( Path placeholder : node.getPlaceholders() ){
+    			if( !placeholderIndex.containsKey( placeholder )){
+    				placeholderIndex.put( placeholder, node );
+    			}
+    		}
+    	}
+    	
+    	if( node instanceof Leaf ){
+    		Dockable dockable = ((Leaf)node).getDockable();
+    		if( dockable != null && !leafIndex.containsKey( dockable )){
+    			leafIndex.put( dockable, (Leaf)node );
+    		}
+    	}
+    	
+    	for( int i = 0, n = node.getMaxChildrenCount(); i<n; i++ ){
+    		SplitNode child = node.getChild( i );
+    		if( child != null ){
+    			index( child );
+    		}
+    	}
     }
     
     /**
@@ -87,6 +156,18 @@ public class Root extends SpanSplitNode{
     	return treeChanged;
     }
     
+    /**
+     * Gets a number that changes every time when the tree below this root changes, e.g. because
+     * children have been added, removed or because the orientation of a {@link Node} changed.
+     * Clients can use this number to find out whether information they derived from the tree is
+     * outdated. Unlike {@link #hasTreeChanged()} this number is not reset when the boundaries
+     * of this root are updated.
+     * @return the current version of the tree
+     */
+    public int getTreeVersion(){
+    	return treeVersion;
+    }
+    
     /**
      * Sets the child of this root. Every root has only one child.<br>
      * Note that setting the child to <code>null</code> does not delete
@@ -398,7 +479,27 @@ public class Root extends SpanSplitNode{
     
     @Override
     public Leaf getLeaf( Dockable dockable ) {
-        return child == null ? null : child.getLeaf( dockable );
+    	if( child == null || dockable == null ){
+    		return null;
+    	}
+    	validateIndex();
+    	return leafIndex.get( dockable );
+    }
+    
+    /**
+     * Searches the node whose id is <code>id</code>, this includes this root.
+     * @param id the unique id of the node
+     * @return the node or <code>null</code> if not found
+     */
+    public SplitNode getNode( long id ){
+    	validateIndex();
+    	return idIndex.get( Long.valueOf( id ) );
+    }
+    
+    @Override
+    public SplitNode getPlaceholderNode( Path placeholder ){
+    	validateIndex();
+    	return placeholderIndex.get( placeholder );
     }
     
     @Override
@@ -96,6 +96,16 @@ public abstract class SplitNode{
     	}
     }
     
+    /**
+     * Called if the id or the placeholders of this node, or of any child of this node, changed
+     * without changing the structure of the tree.
+     */
+    protected void indexChanged(){
+    	if( parent != null ){
+    		parent.indexChanged();
+    	}
+    }
+    
     /**
      * Gets the station this node belongs to.
      * @return the station
@@ -123,7 +133,9 @@ public abstract class SplitNode{
 		if( placeholders == null ){
 			placeholders = new HashSet<Path>();
 		}
-		placeholders.add( placeholder );
+		if( placeholders.add( placeholder ) ){
+			indexChanged();
+		}
 	}
 	
 	/**
@@ -150,8 +162,9 @@ public abstract class SplitNode{
 	 * @param placeholders all the placeholders, can be <code>null</code> or empty
 	 */
 	public void setPlaceholders( Path[] placeholders ){
-		if( this.placeholders != null ){
+		if( this.placeholders != null && !this.placeholders.isEmpty() ){
 			this.placeholders.clear();
+			indexChanged();
 		}
 		if( placeholders != null ){
 			for( Path placeholder : placeholders ){
@@ -166,8 +179,9 @@ public abstract class SplitNode{
 	 * @return <code>true</code> if the placeholder was removed
 	 */
 	public boolean removePlaceholder( Path placeholder ){
-		if( placeholders != null ){
-			return placeholders.remove( placeholder );
+		if( placeholders != null && placeholders.remove( placeholder ) ){
+			indexChanged();
+			return true;
 		}
 		return false;
 	}
@@ -177,8 +191,8 @@ public abstract class SplitNode{
 	 * @param placeholders the placeholders to remove
 	 */
 	public void removePlaceholders( Set<Path> placeholders ){
-		if( this.placeholders != null ){
-			this.placeholders.removeAll( placeholders );
+		if( this.placeholders != null && this.placeholders.removeAll( placeholders ) ){
+			indexChanged();
 		}
 	}
 	
@@ -487,6 +501,7 @@ public abstract class SplitNode{
     		for( int i = 0; i < delta; i++ ){
     			if( ids[offset+i] == id ){
     				this.id = access.uniqueID();
+    				indexChanged();
     				issue = true;
     				break;
     			}
@@ -752,7 +767,8 @@ public abstract class SplitNode{
     public abstract boolean aside( SplitDockPathProperty property, int index, AsideRequest request );
     
     /**
-     * Searches and returns the first {@link SplitNode} which contains <code>placeholder</code>.
+     * Searches and returns the first {@link SplitNode} which contains <code>placeholder</code>. Clients
+     * should prefer {@link Root#getPlaceholderNode(Path)}, which does not need to search the tree.
      * @param placeholder the placeholder to search
      * @return the node containing <code>placeholder</code> or <code>null</code>
      */
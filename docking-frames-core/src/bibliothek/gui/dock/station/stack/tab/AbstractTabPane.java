@@ -497,11 +497,13 @@ public abstract class AbstractTabPane<T extends Tab, M extends TabMenu, I extend
 	public T putOnTab( Dockable dockable ){
 		if( dockable == null )
 			throw new IllegalArgumentException( "dockable must not be null" );
-		if( !dockables.contains( dockable ))
-			throw new IllegalArgumentException( "dockable not child of this pane" );
 		
+		// tabs are only stored for children, hence the expensive check can be skipped if there is a tab
 		T tab = tabs.get( dockable );
 		if( tab == null ){
+			if( !dockables.contains( dockable ))
+				throw new IllegalArgumentException( "dockable not child of this pane" );
+			
 			tab = newTab( dockable );
 			tab.setOrientation( getDockTabPlacement() );
 			putTab( dockable, tab );
@@ -519,11 +521,13 @@ public abstract class AbstractTabPane<T extends Tab, M extends TabMenu, I extend
 	public T getOnTab( Dockable dockable ){
 		if( dockable == null )
 			throw new IllegalArgumentException( "dockable must not be null" );
-		if( !dockables.contains( dockable ))
-			throw new IllegalArgumentException( "dockable not child of this pane" );
 		
+		// tabs are only stored for children, hence the expensive check can be skipped if there is a tab
 		T tab = tabs.get( dockable );
 		if( tab == null ){
+			if( !dockables.contains( dockable ))
+				throw new IllegalArgumentException( "dockable not child of this pane" );
+			
 			tab = newTab( dockable );
 			tab.setOrientation( getDockTabPlacement() );
 			putTab( dockable, tab );
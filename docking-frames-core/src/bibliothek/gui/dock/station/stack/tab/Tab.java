@@ -43,6 +43,12 @@ public interface Tab extends TabPaneComponent{
 	/**
 	 * Gets the minimum size of this tab under the assumption that 
 	 * this tab is displayed together with <code>tabs</code>.
+	 * The result should only depend on this tab and on the direct neighbors of this tab in
+	 * <code>tabs</code>, layout algorithms may not ask again for the size of a tab when some
+	 * tab further away is added or removed.<br>
+	 * Note: this restriction breaks compatibility, earlier versions asked all tabs for their size whenever
+	 * a tab was added. Implementations whose size depends on tabs that are not direct neighbors are no
+	 * longer supported.
 	 * @param tabs the displayed tabs, exactly one entry is <code>this</code>
 	 * and no entry is <code>null</code>
 	 * @return the minimum size of this tab
@@ -52,6 +58,12 @@ public interface Tab extends TabPaneComponent{
 	/**
 	 * Gets the preferred size of this tab under the assumption that 
 	 * this tab is displayed together with <code>tabs</code>.
+	 * The result should only depend on this tab and on the direct neighbors of this tab in
+	 * <code>tabs</code>, layout algorithms may not ask again for the size of a tab when some
+	 * tab further away is added or removed.<br>
+	 * Note: this restriction breaks compatibility, earlier versions asked all tabs for their size whenever
+	 * a tab was added. Implementations whose size depends on tabs that are not direct neighbors are no
+	 * longer supported.
 	 * @param tabs the displayed tabs, exactly one entry is <code>this</code>
 	 * and no entry is <code>null</code>
 	 * @return the preferred size of this tab
@@ -32,7 +32,10 @@ import java.awt.Rectangle;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
 
 import bibliothek.gui.Dockable;
 import bibliothek.gui.dock.station.stack.tab.AxisConversion;
@@ -386,12 +389,19 @@ public class LineTabsLayoutBlock extends AbstractTabsLayoutBlock{
 	
 	/**
 	 * Calculates the {@link TabPaneComponent#setZOrder(int) z-order} of various
-	 * components requiring only a subset of all comparisons 
+	 * components requiring only a subset of all comparisons.<br>
+	 * Note: earlier versions removed the loop counter instead of the handled tab from the lists of
+	 * tabs that are on top of another tab. Hence every tab that was behind another tab got the
+	 * z-order <code>0</code>, and calling {@link #getOrderedByZ()} twice gave different results.
 	 */
 	protected class ZOrder{
 		private Tab[] tabs;
 		
-		private List<Integer>[] onTop;
+		/** tells for each tab its index in {@link #tabs} */
+		private Map<Tab, Integer> indices;
+		
+		/** for each tab the number of tabs that are in front of it */
+		private int[] onTop;
 		private List<Integer>[] onBottom;
 		
 		/**
@@ -402,12 +412,13 @@ public class LineTabsLayoutBlock extends AbstractTabsLayoutBlock{
 		public ZOrder( Tab[] tabs ){
 			this.tabs = tabs;
 			
-			onTop = new List[ tabs.length ];
+			indices = new IdentityHashMap<Tab, Integer>( tabs.length );
+			onTop = new int[ tabs.length ];
 			onBottom = new List[ tabs.length ];
 			
 			for( int i = 0; i < tabs.length; i++ ){
-				onTop[i] = new ArrayList<Integer>( 5 );
-				onBottom[i] = new ArrayList<Integer>( 5 );
+				indices.put( tabs[i], i );
+				onBottom[i] = new ArrayList<Integer>( 2 );
 			}
 		}
 		
@@ -419,17 +430,48 @@ public class LineTabsLayoutBlock extends AbstractTabsLayoutBlock{
 		 * @param back the back tab
 		 */
 		public void putOrder( Tab front, Tab back ){
-			for( int f = 0; f < tabs.length; f++ ){
-				if( tabs[f] == front ){
-					for( int b = 0; b < tabs.length; b++ ){
-						if( tabs[b] == back ){
-							onTop[b].add( f );
-							onBottom[f].add( b );
-							return;
-						}
+			Integer f = indices.get( front );
+			Integer b = indices.get( back );
+			if( f != null && b != null ){
+				onTop[b]++;
+				onBottom[f].add( b );
+			}
+		}
+		
+		/**
+		 * Sorts the tabs topologically, a tab is only put into the result once all the tabs
+		 * that have to be in front of it are in the result. If there is a choice, the tab
+		 * with the smaller index comes first.
+		 * @return the indices of the tabs, the front most tab first
+		 */
+		private int[] order(){
+			int[] count = onTop.clone();
+			int[] result = new int[ tabs.length ];
+			int size = 0;
+			
+			PriorityQueue<Integer> free = new PriorityQueue<Integer>();
+			for( int i = 0; i < count.length; i++ ){
+				if( count[i] == 0 ){
+					free.add( i );
+				}
+			}
+			
+			while( !free.isEmpty() ){
+				int next = free.poll();
+				result[ size++ ] = next;
+				for( int bottom : onBottom[ next ] ){
+					if( --count[ bottom ] == 0 ){
+						free.add( bottom );
 					}
 				}
 			}
+			
+			if( size < result.length ){
+				int[] temp = new int[ size ];
+				System.arraycopy( result, 0, temp, 0, size );
+				result = temp;
+			}
+			return result;
 		}
 		
 		/**
@@ -438,22 +480,9 @@ public class LineTabsLayoutBlock extends AbstractTabsLayoutBlock{
 		 */
 		public int[] getZOrders(){
 			int[] results = new int[ tabs.length ];
-			boolean[] handled = new boolean[ results.length ];
-			
-			for( int i = 0; i < results.length; i++ ){
-				for( int j = 0; j < results.length; j++ ){
-					if( !handled[j] ){
-						if( onTop[j].isEmpty() ){
-							results[j] = results.length-i;
-							handled[j] = true;
-							Integer index = i;
-							
-							for( int bottom : onBottom[j] ){
-								onTop[bottom].remove( index );
-							}
-						}
-					}
-				}
+			int[] order = order();
+			for( int i = 0; i < order.length; i++ ){
+				results[ order[i] ] = results.length-i;
 			}
 			return results;
 		}
@@ -465,23 +494,9 @@ public class LineTabsLayoutBlock extends AbstractTabsLayoutBlock{
 		 */
 		public Tab[] getOrderedByZ(){
 			Tab[] results = new Tab[ tabs.length ];
-			boolean[] handled = new boolean[ results.length ];
-			
-			base:for( int i = 0; i < results.length; i++ ){
-				for( int j = 0; j < results.length; j++ ){
-					if( !handled[j] ){
-						if( onTop[j].isEmpty() ){
-							results[i] = tabs[j];
-							handled[j] = true;
-							Integer index = i;
-							
-							for( int bottom : onBottom[j] ){
-								onTop[bottom].remove( index );
-							}
-							continue base;
-						}
-					}
-				}
+			int[] order = order();
+			for( int i = 0; i < order.length; i++ ){
+				results[i] = tabs[ order[i] ];
 			}
 			return results;
 		}
@@ -494,7 +509,11 @@ public class LineTabsLayoutBlock extends AbstractTabsLayoutBlock{
 	 */
 	protected class SizeCollector{
 		private Dockable[] dockables;
+		/** tells for each element of {@link #dockables} its index */
+		private Map<Dockable, Integer> indices;
 		private Tab[] tabs;
+		/** all the tabs of {@link #tabs} that are not <code>null</code> */
+		private List<Tab> visibleTabs;
 		
 		private Dimension[] minimum;
 		private Dimension[] preferred;
@@ -509,7 +528,13 @@ public class LineTabsLayoutBlock extends AbstractTabsLayoutBlock{
 			this.dockables = dockables;
 			int size = dockables.length;
 			
+			indices = new IdentityHashMap<Dockable, Integer>( size );
+			for( int i = 0; i < size; i++ ){
+				indices.put( dockables[i], i );
+			}
+			
 			tabs = new Tab[ size ];
+			visibleTabs = new ArrayList<Tab>( size );
 			minimum = new Dimension[ size ];
 			preferred = new Dimension[ size ];
 			overlapPrevious = new int[ size ];
@@ -522,45 +547,54 @@ public class LineTabsLayoutBlock extends AbstractTabsLayoutBlock{
 		 * @param tab the new tab
 		 */
 		public void insert( Tab tab ){
-			Dockable dockable = tab.getDockable();
-			for( int i = 0; i < dockables.length; i++ ){
-				if( dockables[i] == dockable ){
-					insert( tab, i );
-					return;
-				}
+			Integer index = indices.get( tab.getDockable() );
+			if( index != null ){
+				insert( tab, index );
 			}
 		}
 		
 		/**
-		 * Gets all the tabs that are currently not <code>null</code>
-		 * @return the visible tabs
+		 * Updates the minimum and preferred size of the tab at <code>index</code>.
+		 * @param index the index of a tab that is not <code>null</code>
+		 * @param visibleTabs all the tabs that are not <code>null</code>
 		 */
-		private Tab[] getVisibleTabs(){
-			int count = 0;
-			for( Tab tab : tabs ){
-				if( tab != null ){
-					count++;
-				}
-			}
-			Tab[] visible = new Tab[count];
-			int index = 0;
-			for( Tab tab : tabs ){
-				if( tab != null ){
-					visible[ index++ ] = tab;
-				}
-			}
-			return visible;
+		private void update( int index, Tab[] visibleTabs ){
+			minimum[ index ] = tabs[ index ].getMinimumSize( visibleTabs );
+			preferred[ index ] = tabs[ index ].getPreferredSize( visibleTabs );
 		}
 		
 		private void insert( Tab tab, int index ){
+			if( tabs[ index ] == null ){
+				int position = 0;
+				for( int i = 0; i < index; i++ ){
+					if( tabs[i] != null ){
+						position++;
+					}
+				}
+				visibleTabs.add( position, tab );
+			}
+			else{
+				visibleTabs.set( visibleTabs.indexOf( tabs[ index ] ), tab );
+			}
 			tabs[ index ] = tab;
-			Tab[] visibleTabs = getVisibleTabs();
 			
-			for( int i = 0; i < tabs.length; i++ ){
-				if( tabs[i] != null ){
-					minimum[ i ] = tabs[i].getMinimumSize( visibleTabs );
-					preferred[ i ] = tabs[i].getPreferredSize( visibleTabs );
-				}
+			int previous = index-1;
+			while( previous >= 0 && tabs[ previous ] == null ){
+				previous--;
+			}
+			int next = index+1;
+			while( next < tabs.length && tabs[ next ] == null ){
+				next++;
+			}
+			
+			// the size of a tab depends only on its direct neighbors, see Tab#getPreferredSize(Tab[])
+			Tab[] visible = visibleTabs.toArray( new Tab[ visibleTabs.size() ] );
+			update( index, visible );
+			if( previous >= 0 ){
+				update( previous, visible );
+			}
+			if( next < tabs.length ){
+				update( next, visible );
 			}
 			
 			boolean horizontal = getOrientation().isHorizontal();
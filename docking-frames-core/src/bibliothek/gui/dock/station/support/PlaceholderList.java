@@ -26,8 +26,11 @@
 package bibliothek.gui.dock.station.support;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
 
@@ -42,6 +45,10 @@ import bibliothek.util.Path;
  * of placeholders.<br>
  * Clients should call {@link #bind()} and {@link #unbind()} to manage the
  * lifecycle of this list.<br>
+ * The entries of this list are indexed by their placeholders and by their dockables, and the index of
+ * an entry in any {@link Level} can be found in logarithmic time. Clients must not modify the sets 
+ * returned by {@link Item#getPlaceholderSet()} directly, they have to use the methods of {@link Item}
+ * instead.<br>
  * A {@link PlaceholderList} is not thread-safe.
  * @author Benjamin Sigg
  * @param <D> the kind of object that should be treated as {@link Dockable}
@@ -65,6 +72,21 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 
 	/** head of the dockables sublist */
 	private Entry headDockable = null;
+	
+	/** tree used to find the index of an {@link Entry} in any {@link Level} */
+	private PlaceholderListTree<Entry> tree = new PlaceholderListTree<Entry>();
+	
+	/** all the entries of this list, grouped by their placeholders */
+	private Map<Path, Set<Entry>> placeholderIndex = new HashMap<Path, Set<Entry>>();
+	
+	/** all the entries of this list which currently show a dockable */
+	private Map<D, Entry> dockableIndex = new IdentityHashMap<D, Entry>();
+	
+	/** all the entries of this list whose {@link Item} has a {@link PlaceholderMap} */
+	private Set<Entry> mapIndex = new HashSet<Entry>();
+	
+	/** all the entries of this list which neither have a dockable nor a placeholder */
+	private Set<Entry> emptyIndex = new HashSet<Entry>();
 
 	/** identifiers for the various sublists this list consists of */
 	public static enum Level {
@@ -492,8 +514,12 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 				if( placeholders != null ) {
 					Iterator<Path> paths = placeholders.iterator();
 					while( paths.hasNext() ) {
-						if( !strategy.isValidPlaceholder( paths.next() ) ) {
+						Path path = paths.next();
+						if( !strategy.isValidPlaceholder( path ) ) {
 							paths.remove();
+							if( item.owner != null ){
+								item.owner.removeFromIndex( path );
+							}
 						}
 					}
 				}
@@ -562,12 +588,20 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 	 * @param placeholders the placeholders to remove
 	 */
 	public void removeAll( Set<Path> placeholders ){
-		Iterator<Item> iter = list().iterator();
-		while( iter.hasNext() ) {
-			Item item = iter.next();
+		Set<Entry> entries = new HashSet<Entry>( mapIndex );
+		entries.addAll( emptyIndex );
+		for( Path placeholder : placeholders ){
+			Set<Entry> indexed = placeholderIndex.get( placeholder );
+			if( indexed != null ){
+				entries.addAll( indexed );
+			}
+		}
+		
+		for( Entry entry : entries ){
+			Item item = entry.item;
 			item.removeAll( placeholders );
 			if( item.getPlaceholderSet() == null && item.isPlaceholder() ) {
-				iter.remove();
+				entry.remove();
 			}
 		}
 	}
@@ -583,13 +617,19 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 	}
 	
 	private void ensureRemoved( Item ignore, Path placeholder ){
-		Iterator<Item> iter = list().iterator();
-		while( iter.hasNext() ) {
-			Item item = iter.next();
+		Set<Entry> entries = new HashSet<Entry>( mapIndex );
+		entries.addAll( emptyIndex );
+		Set<Entry> indexed = placeholderIndex.get( placeholder );
+		if( indexed != null ){
+			entries.addAll( indexed );
+		}
+		
+		for( Entry entry : entries ){
+			Item item = entry.item;
 			if( item != ignore ){
 				item.remove( placeholder );
 				if( item.getPlaceholderSet() == null && item.isPlaceholder() ) {
-					iter.remove();
+					entry.remove();
 				}
 			}
 		}
@@ -708,16 +748,11 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 			return -1;
 		}
 
-		while( entry != null && entry.item.isPlaceholder() ) {
-			entry = entry.previous( Level.BASE );
-		}
-
-		if( entry == null ) {
-			return 0;
-		}
-		else {
-			return entry.index( Level.DOCKABLE ) + 1;
+		int index = tree.countBefore( entry.node, Level.DOCKABLE );
+		if( !entry.item.isPlaceholder() ){
+			index++;
 		}
+		return index;
 	}
 
 	/**
@@ -877,6 +912,19 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
     	}
     	return entry.item;
     }
+    
+    /**
+     * Searches the location of <code>dockable</code> in the {@link #dockables() dockables} list.
+     * @param dockable the dockable used for searching
+     * @return the index of <code>dockable</code> or -1 if not found
+     */
+    public int indexOfDockable( D dockable ){
+    	Entry entry = search( dockable );
+    	if( entry == null ){
+    		return -1;
+    	}
+    	return entry.index( Level.DOCKABLE );
+    }
 	
     /**
      * Adds <code>placeholder</code> at the location of <code>dockable</code>. This method will remove <code>placeholder</code> from all
@@ -913,47 +961,49 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 	}
 
 	private Entry search( Path placeholder ){
-		Entry entry = this.head;
-		while( entry != null ) {
-			Set<Path> set = entry.item.getPlaceholderSet();
-			if( set != null && set.contains( placeholder ) ) {
-				return entry;
+		return search( placeholder, Level.BASE );
+	}
+	
+	/**
+	 * Searches the first entry in <code>level</code> that has <code>placeholder</code>.
+	 * @param placeholder the placeholder to search
+	 * @param level the level in which to search
+	 * @return the first entry or <code>null</code>
+	 */
+	private Entry search( Path placeholder, Level level ){
+		Set<Entry> entries = placeholderIndex.get( placeholder );
+		if( entries == null ){
+			return null;
+		}
+		
+		Entry result = null;
+		int resultIndex = -1;
+		
+		for( Entry entry : entries ){
+			int index = entry.index( level );
+			if( index != -1 && (result == null || index < resultIndex) ){
+				result = entry;
+				resultIndex = index;
 			}
-			entry = entry.next( Level.BASE );
 		}
-		return null;
+		return result;
 	}
 	
 	private Entry search( D dockable ){
-		Entry entry = head( Level.DOCKABLE );
-		while( entry != null ) {
-			if( entry.item.getDockable().asDockable() == dockable ) {
-				return entry;
-			}
-			entry = entry.next( Level.DOCKABLE );
-		}
-		return null;
+		return dockableIndex.get( dockable );
 	}
 
 	private Entry search( P dockable ){
-		Entry entry = head( Level.DOCKABLE );
-		while( entry != null ) {
-			if( entry.item.getDockable() == dockable ) {
-				return entry;
-			}
-			entry = entry.next( Level.DOCKABLE );
+		Entry entry = dockableIndex.get( dockable.asDockable() );
+		if( entry != null && entry.item.getDockable() == dockable ) {
+			return entry;
 		}
 		return null;
 	}
 
 	private Entry search( int index, Level level ){
-		Entry entry = head( level );
-
-		while( entry != null && index > 0 ) {
-			entry = entry.next( level );
-			index--;
-		}
-		return entry;
+		// any index below 0 has always been treated as 0
+		return tree.get( Math.max( index, 0 ), level );
 	}
 
 	/**
@@ -992,10 +1042,21 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 	 * Clears this list, all entries are removed
 	 */
 	public void clear(){
+		Entry entry = head;
+		while( entry != null ){
+			entry.node = null;
+			entry = entry.next;
+		}
+		
 		head = null;
 		headDockable = null;
 		headPlaceholder = null;
-		invalidate();
+		
+		tree.clear();
+		placeholderIndex.clear();
+		dockableIndex.clear();
+		mapIndex.clear();
+		emptyIndex.clear();
 	}
 
 	private Entry head( Level level ){
@@ -1010,13 +1071,6 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 		throw new IllegalArgumentException();
 	}
 
-	private void invalidate(){
-		dockables.invalidate();
-		allPlaceholders.invalidate();
-		purePlaceholders.invalidate();
-		allItems.invalidate();
-	}
-
 	@Override
 	public String toString(){
 		return list().toString();
@@ -1028,6 +1082,9 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 
 		private Entry next, previous;
 		private Entry nextLevel, previousLevel;
+		
+		/** the node representing this entry in {@link PlaceholderList#tree}, <code>null</code> if this entry is not part of the list */
+		private PlaceholderListTree.Node<Entry> node;
 
 		public Entry( Entry predecessor, Item item ){
 			this.item = item;
@@ -1035,8 +1092,6 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 		}
 
 		public void insertAfter( Entry predecessor ){
-			invalidate();
-
 			item.setOwner( this );
 			itemWasPlaceholder = item.isPlaceholder();
 
@@ -1060,12 +1115,14 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 				predecessor.next = this;
 				this.previous = predecessor;
 
-				Entry search = predecessor;
-				while( search != null && predecessorLevel == null ) {
-					if( search.item.isPlaceholder() == item.isPlaceholder() ) {
-						predecessorLevel = search;
+				if( predecessor.item.isPlaceholder() == item.isPlaceholder() ){
+					predecessorLevel = predecessor;
+				}
+				else{
+					int count = tree.countBefore( predecessor.node, level( item ) );
+					if( count > 0 ){
+						predecessorLevel = tree.get( count-1, level( item ) );
 					}
-					search = search.previous( Level.BASE );
 				}
 			}
 
@@ -1094,6 +1151,9 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 				nextLevel = successorLevel;
 				successorLevel.previousLevel = this;
 			}
+			
+			node = tree.insertAfter( predecessor == null ? null : predecessor.node, this, item.isPlaceholder() );
+			addToIndex();
 		}
 
 		public void move( int delta, Level level ){
@@ -1147,16 +1207,10 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 		}
 
 		public int index( Level level ){
-			Entry entry = head( level );
-			int index = 0;
-			while( entry != this && entry != null ) {
-				entry = entry.next( level );
-				index++;
-			}
-			if( entry == null ) {
+			if( node == null ){
 				return -1;
 			}
-			return index;
+			return tree.index( node, level );
 		}
 
 		public void refresh(){
@@ -1164,17 +1218,26 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 		}
 
 		public void set( Item item ){
+			removeFromIndex();
 			this.item.setOwner( null );
 			item.setOwner( this );
 
 			if( itemWasPlaceholder != item.isPlaceholder() ) {
 				itemWasPlaceholder = item.isPlaceholder();
 
-				invalidate();
 				removeLevel();
 
-				Entry levelPredecessor = findLevelPredecessor( item.isPlaceholder() );
-				Entry levelSuccessor = findLevelSuccessor( item.isPlaceholder() );
+				Entry levelPredecessor = null;
+				Entry levelSuccessor = null;
+				
+				if( node != null ){
+					tree.setPlaceholder( node, item.isPlaceholder() );
+					int index = tree.index( node, level( item ) );
+					if( index > 0 ){
+						levelPredecessor = tree.get( index-1, level( item ) );
+					}
+					levelSuccessor = tree.get( index+1, level( item ) );
+				}
 
 				if( levelPredecessor == null ) {
 					if( item.isPlaceholder() ) {
@@ -1199,32 +1262,128 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 				}
 			}
 			this.item = item;
+			addToIndex();
 		}
-
-		private Entry findLevelPredecessor( boolean placeholder ){
-			Entry entry = previous;
-			while( entry != null ) {
-				if( entry.item.isPlaceholder() == placeholder ) {
-					return entry;
+		
+		private Level level( Item item ){
+			return item.isPlaceholder() ? Level.PLACEHOLDER : Level.DOCKABLE;
+		}
+		
+		/**
+		 * Adds the placeholders, dockable and map of {@link #item} to the indices of the enclosing list.
+		 */
+		private void addToIndex(){
+			if( node == null ){
+				return;
+			}
+			if( item.placeholderSet != null ){
+				for( Path placeholder : item.placeholderSet ){
+					addToIndex( placeholder );
 				}
-				entry = entry.previous;
 			}
-			return null;
+			if( item.value != null ){
+				dockableIndex.put( item.value.asDockable(), this );
+			}
+			if( item.placeholderMap != null ){
+				mapIndex.add( this );
+			}
+			updateEmptyIndex();
 		}
-
-		private Entry findLevelSuccessor( boolean placeholder ){
-			Entry entry = next;
-			while( entry != null ) {
-				if( entry.item.isPlaceholder() == placeholder ) {
-					return entry;
+		
+		/**
+		 * Removes the placeholders, dockable and map of {@link #item} from the indices of the enclosing list.
+		 */
+		private void removeFromIndex(){
+			if( node == null ){
+				return;
+			}
+			if( item.placeholderSet != null ){
+				for( Path placeholder : item.placeholderSet ){
+					removeFromIndex( placeholder );
+				}
+			}
+			removeDockableFromIndex();
+			mapIndex.remove( this );
+			emptyIndex.remove( this );
+		}
+		
+		/**
+		 * Removes the current dockable of {@link #item} from the index of dockables.
+		 */
+		private void removeDockableFromIndex(){
+			if( node != null && item.value != null ){
+				D dockable = item.value.asDockable();
+				if( dockableIndex.get( dockable ) == this ){
+					dockableIndex.remove( dockable );
+				}
+			}
+		}
+		
+		/**
+		 * Stores that {@link #item} has <code>placeholder</code>.
+		 * @param placeholder the new placeholder of {@link #item}
+		 */
+		private void addToIndex( Path placeholder ){
+			if( node != null ){
+				Set<Entry> entries = placeholderIndex.get( placeholder );
+				if( entries == null ){
+					entries = new HashSet<Entry>( 2 );
+					placeholderIndex.put( placeholder, entries );
+				}
+				entries.add( this );
+			}
+		}
+		
+		/**
+		 * Stores that {@link #item} no longer has <code>placeholder</code>.
+		 * @param placeholder the placeholder that was removed from {@link #item}
+		 */
+		private void removeFromIndex( Path placeholder ){
+			if( node != null ){
+				Set<Entry> entries = placeholderIndex.get( placeholder );
+				if( entries != null ){
+					entries.remove( this );
+					if( entries.isEmpty() ){
+						placeholderIndex.remove( placeholder );
+					}
+				}
+			}
+		}
+		
+		/**
+		 * Stores whether {@link #item} neither has a dockable nor a placeholder.
+		 */
+		private void updateEmptyIndex(){
+			if( node != null ){
+				if( item.isPlaceholder() && !item.hasPlaceholders() ){
+					emptyIndex.add( this );
+				}
+				else{
+					emptyIndex.remove( this );
+				}
+			}
+		}
+		
+		/**
+		 * Stores whether {@link #item} has a {@link PlaceholderMap}.
+		 */
+		private void updateMapIndex(){
+			if( node != null ){
+				if( item.placeholderMap == null ){
+					mapIndex.remove( this );
+				}
+				else{
+					mapIndex.add( this );
 				}
-				entry = entry.next;
 			}
-			return null;
 		}
 
 		public void remove(){
-			invalidate();
+			if( node != null ){
+				removeFromIndex();
+				tree.remove( node );
+				node = null;
+			}
 
 			if( next != null ) {
 				next.previous = previous;
@@ -1246,8 +1405,6 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 		}
 
 		private void removeLevel(){
-			invalidate();
-
 			if( nextLevel != null ) {
 				nextLevel.previousLevel = previousLevel;
 			}
@@ -1377,7 +1534,25 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 			if( placeholderSet != null && placeholderSet.contains( null ) ) {
 				throw new IllegalArgumentException( "placeholderSet contains a null value" );
 			}
-			this.placeholderSet = placeholderSet;
+			if( owner != null && this.placeholderSet != null ){
+				for( Path placeholder : this.placeholderSet ){
+					owner.removeFromIndex( placeholder );
+				}
+			}
+			if( placeholderSet == null ){
+				this.placeholderSet = null;
+			}
+			else{
+				this.placeholderSet = new HashSet<Path>( placeholderSet );
+				if( owner != null ){
+					for( Path placeholder : this.placeholderSet ){
+						owner.addToIndex( placeholder );
+					}
+				}
+			}
+			if( owner != null ){
+				owner.updateEmptyIndex();
+			}
 		}
 
 		/**
@@ -1386,7 +1561,11 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 		 */
 		public void removeAll( Set<Path> placeholders ){
 			if( placeholderSet != null ) {
-				placeholderSet.removeAll( placeholders );
+				for( Path placeholder : placeholders ){
+					if( placeholderSet.remove( placeholder ) && owner != null ){
+						owner.removeFromIndex( placeholder );
+					}
+				}
 				if( placeholderSet.isEmpty() ) {
 					placeholderSet = null;
 				}
@@ -1397,6 +1576,9 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 					setPlaceholderMap( null );
 				}
 			}
+			if( owner != null ){
+				owner.updateEmptyIndex();
+			}
 		}
 
 		/**
@@ -1405,7 +1587,9 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 		 */
 		public void remove( Path placeholder ){
 			if( placeholderSet != null ) {
-				placeholderSet.remove( placeholder );
+				if( placeholderSet.remove( placeholder ) && owner != null ){
+					owner.removeFromIndex( placeholder );
+				}
 				if( placeholderSet.isEmpty() ) {
 					placeholderSet = null;
 				}
@@ -1416,6 +1600,9 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 					setPlaceholderMap( null );
 				}
 			}
+			if( owner != null ){
+				owner.updateEmptyIndex();
+			}
 		}
 
 		/**
@@ -1430,7 +1617,10 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 			if( placeholderSet == null ) {
 				placeholderSet = new HashSet<Path>();
 			}
-			placeholderSet.add( placeholder );
+			if( placeholderSet.add( placeholder ) && owner != null ){
+				owner.addToIndex( placeholder );
+				owner.updateEmptyIndex();
+			}
 		}
 
 		/**
@@ -1465,6 +1655,7 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 		 * @param dockable the new value, can be <code>null</code>
 		 */
 		public void setDockable( P dockable ){
+			owner.removeDockableFromIndex();
 			this.value = dockable;
 			owner.refresh();
 		}
@@ -1487,6 +1678,9 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 			else {
 				this.placeholderMap = placeholders;
 			}
+			if( owner != null ){
+				owner.updateMapIndex();
+			}
 		}
 
 		/**
@@ -1650,7 +1844,6 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 
 	private abstract class SubList<A> implements Filter<A> {
 		private Level level;
-		private int size = -1;
 
 		protected abstract A unwrap( Item item );
 
@@ -1670,23 +1863,13 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 			return PlaceholderList.this;
 		}
 		
-		public void invalidate(){
-			size = -1;
-		}
-
 		private Entry getEntry( int index ){
 			if( index < 0 )
 				throw new IndexOutOfBoundsException("index < 0: " + index);
 
-			Entry entry = head( level );
-			int start = index;
-			
-			while( index > 0 ) {
-				entry = entry.next( level );
-				index--;
-				if( entry == null ) {
-					throw new IndexOutOfBoundsException( "index=" + start + ", size=" + size() );
-				}
+			Entry entry = tree.get( index, level );
+			if( entry == null ) {
+				throw new IndexOutOfBoundsException( "index=" + index + ", size=" + size() );
 			}
 
 			return entry;
@@ -1723,12 +1906,7 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 		
 		private void insert( int index, Item item ){
 			if( size() == index ) {
-				Entry entry = head;
-				Entry predecessor = null;
-				while( entry != null ) {
-					predecessor = entry;
-					entry = entry.next;
-				}
+				Entry predecessor = tree.get( tree.size( Level.BASE )-1, Level.BASE );
 				new Entry( predecessor, item );
 			}
 			else {
@@ -1759,16 +1937,11 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 		}
 		
 		public int indexOfPlaceholder( Path placeholder ){
-			int index = 0;
-			Entry entry = head( level );
-			while( entry != null ) {
-				if( entry.item.hasPlaceholder( placeholder )){
-					return index;
-				}
-				entry = entry.next( level );
-				index++;
+			Entry entry = search( placeholder, level );
+			if( entry == null ){
+				return -1;
 			}
-			return -1;
+			return entry.index( level );
 		}
 
 		public A remove( int index ){
@@ -1799,15 +1972,7 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 		}
 		
 		public int size(){
-			if( size == -1 ) {
-				size = 0;
-				Entry entry = head( level );
-				while( entry != null ) {
-					size++;
-					entry = entry.next( level );
-				}
-			}
-			return size;
+			return tree.size( level );
 		}
 
 		public void move( int source, int destination ){
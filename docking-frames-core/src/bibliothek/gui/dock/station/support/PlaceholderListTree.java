@@ -0,0 +1,339 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ *
+ * Copyright (C) 2013 Benjamin Sigg
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.station.support;
+
+import bibliothek.gui.dock.station.support.PlaceholderList.Level;
+
+/**
+ * An order statistic tree used by the {@link PlaceholderList} to find the index of an entry, or the entry
+ * at some index, in logarithmic time. The tree does not store any keys, the order of the nodes is
+ * defined only by the location where they are inserted. Each node is either a placeholder or a dockable,
+ * hence the tree can answer queries for all the {@link Level}s of the list. The tree is a treap, its shape
+ * is balanced by random priorities.
+ * @author Benjamin Sigg
+ * @param <V> the kind of value stored in this tree
+ */
+class PlaceholderListTree<V> {
+	/** the root of the tree, can be <code>null</code> */
+	private Node<V> root;
+
+	/** seed for the next priority */
+	private int seed = 0x2545F491;
+
+	/**
+	 * Creates a new node and inserts it directly after <code>predecessor</code>.
+	 * @param predecessor the node after which the new node is inserted, <code>null</code> if the
+	 * new node is to be inserted at the beginning of the sequence
+	 * @param value the value of the new node
+	 * @param placeholder whether the new node represents a placeholder
+	 * @return the new node
+	 */
+	public Node<V> insertAfter( Node<V> predecessor, V value, boolean placeholder ){
+		Node<V> node = new Node<V>( value, placeholder, nextPriority() );
+
+		if( root == null ){
+			root = node;
+			return node;
+		}
+
+		Node<V> parent;
+		if( predecessor == null ){
+			parent = root;
+			while( parent.left != null ){
+				parent = parent.left;
+			}
+			parent.left = node;
+		}
+		else if( predecessor.right == null ){
+			parent = predecessor;
+			parent.right = node;
+		}
+		else{
+			parent = predecessor.right;
+			while( parent.left != null ){
+				parent = parent.left;
+			}
+			parent.left = node;
+		}
+		node.parent = parent;
+
+		for( Node<V> ancestor = parent; ancestor != null; ancestor = ancestor.parent ){
+			ancestor.size++;
+			if( placeholder ){
+				ancestor.placeholders++;
+			}
+		}
+
+		while( node.parent != null && node.parent.priority < node.priority ){
+			rotateUp( node );
+		}
+
+		return node;
+	}
+
+	/**
+	 * Removes <code>node</code> from this tree.
+	 * @param node the node to remove, must be part of this tree
+	 */
+	public void remove( Node<V> node ){
+		while( node.left != null || node.right != null ){
+			Node<V> child;
+			if( node.left == null ){
+				child = node.right;
+			}
+			else if( node.right == null ){
+				child = node.left;
+			}
+			else if( node.left.priority > node.right.priority ){
+				child = node.left;
+			}
+			else{
+				child = node.right;
+			}
+			rotateUp( child );
+		}
+
+		Node<V> parent = node.parent;
+		if( parent == null ){
+			root = null;
+		}
+		else{
+			if( parent.left == node ){
+				parent.left = null;
+			}
+			else{
+				parent.right = null;
+			}
+
+			for( Node<V> ancestor = parent; ancestor != null; ancestor = ancestor.parent ){
+				ancestor.size--;
+				if( node.placeholder ){
+					ancestor.placeholders--;
+				}
+			}
+		}
+		node.parent = null;
+	}
+
+	/**
+	 * Changes the kind of <code>node</code>.
+	 * @param node some node of this tree
+	 * @param placeholder whether <code>node</code> now represents a placeholder
+	 */
+	public void setPlaceholder( Node<V> node, boolean placeholder ){
+		if( node.placeholder != placeholder ){
+			node.placeholder = placeholder;
+			int delta = placeholder ? 1 : -1;
+			for( Node<V> ancestor = node; ancestor != null; ancestor = ancestor.parent ){
+				ancestor.placeholders += delta;
+			}
+		}
+	}
+
+	/**
+	 * Removes all nodes from this tree.
+	 */
+	public void clear(){
+		root = null;
+	}
+
+	/**
+	 * Gets the number of nodes that are visible in <code>level</code>.
+	 * @param level the level to count
+	 * @return the number of nodes
+	 */
+	public int size( Level level ){
+		return count( root, level );
+	}
+
+	/**
+	 * Gets the index of <code>node</code> in <code>level</code>.
+	 * @param node some node of this tree
+	 * @param level the level in which the index is searched
+	 * @return the index or -1 if <code>node</code> is not visible in <code>level</code>
+	 */
+	public int index( Node<V> node, Level level ){
+		if( self( node, level ) == 0 ){
+			return -1;
+		}
+		return countBefore( node, level );
+	}
+
+	/**
+	 * Gets the number of nodes that are visible in <code>level</code> and that
+	 * are located before <code>node</code>.
+	 * @param node some node of this tree
+	 * @param level the level whose nodes are counted
+	 * @return the number of nodes before <code>node</code>
+	 */
+	public int countBefore( Node<V> node, Level level ){
+		int result = count( node.left, level );
+		for( Node<V> current = node; current.parent != null; current = current.parent ){
+			Node<V> parent = current.parent;
+			if( parent.right == current ){
+				result += count( parent.left, level ) + self( parent, level );
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the value of the <code>index</code>'th node that is visible in <code>level</code>.
+	 * @param index the index of the node
+	 * @param level the level in which to search
+	 * @return the value or <code>null</code> if <code>index</code> is out of bounds
+	 */
+	public V get( int index, Level level ){
+		if( index < 0 ){
+			return null;
+		}
+
+		Node<V> current = root;
+		while( current != null ){
+			int left = count( current.left, level );
+			if( index < left ){
+				current = current.left;
+			}
+			else{
+				index -= left;
+				int self = self( current, level );
+				if( index < self ){
+					return current.value;
+				}
+				index -= self;
+				current = current.right;
+			}
+		}
+		return null;
+	}
+
+	private int nextPriority(){
+		seed ^= seed << 13;
+		seed ^= seed >>> 17;
+		seed ^= seed << 5;
+		return seed;
+	}
+
+	private int count( Node<V> node, Level level ){
+		if( node == null ){
+			return 0;
+		}
+		switch( level ){
+			case BASE: return node.size;
+			case PLACEHOLDER: return node.placeholders;
+			case DOCKABLE: return node.size - node.placeholders;
+			default: throw new IllegalArgumentException( "unknown level: " + level );
+		}
+	}
+
+	private int self( Node<V> node, Level level ){
+		switch( level ){
+			case BASE: return 1;
+			case PLACEHOLDER: return node.placeholder ? 1 : 0;
+			case DOCKABLE: return node.placeholder ? 0 : 1;
+			default: throw new IllegalArgumentException( "unknown level: " + level );
+		}
+	}
+
+	/**
+	 * Rotates <code>node</code> such that it replaces its parent.
+	 * @param node the node to move up, must have a parent
+	 */
+	private void rotateUp( Node<V> node ){
+		Node<V> parent = node.parent;
+		Node<V> grandParent = parent.parent;
+
+		if( parent.left == node ){
+			parent.left = node.right;
+			if( node.right != null ){
+				node.right.parent = parent;
+			}
+			node.right = parent;
+		}
+		else{
+			parent.right = node.left;
+			if( node.left != null ){
+				node.left.parent = parent;
+			}
+			node.left = parent;
+		}
+		parent.parent = node;
+		node.parent = grandParent;
+
+		if( grandParent == null ){
+			root = node;
+		}
+		else if( grandParent.left == parent ){
+			grandParent.left = node;
+		}
+		else{
+			grandParent.right = node;
+		}
+
+		parent.update();
+		node.update();
+	}
+
+	/**
+	 * A single node of a {@link PlaceholderListTree}.
+	 * @author Benjamin Sigg
+	 * @param <V> the kind of value stored in this node
+	 */
+	public static class Node<V>{
+		private V value;
+		private boolean placeholder;
+		private int priority;
+
+		private Node<V> parent;
+		private Node<V> left;
+		private Node<V> right;
+
+		/** the number of nodes in the subtree starting at this node */
+		private int size = 1;
+		/** the number of placeholders in the subtree starting at this node */
+		private int placeholders;
+
+		private Node( V value, boolean placeholder, int priority ){
+			this.value = value;
+			this.placeholder = placeholder;
+			this.priority = priority;
+			this.placeholders = placeholder ? 1 : 0;
+		}
+
+		private void update(){
+			size = 1;
+			placeholders = placeholder ? 1 : 0;
+			if( left != null ){
+				size += left.size;
+				placeholders += left.placeholders;
+			}
+			if( right != null ){
+				size += right.size;
+				placeholders += right.placeholders;
+			}
+		}
+	}
+}
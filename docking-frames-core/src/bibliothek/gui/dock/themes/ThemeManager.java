@@ -279,7 +279,7 @@ public class ThemeManager extends TypedUIProperties{
 	    		controller.getDockTitleManager().registerTheme( DockTitleManager.THEME_FACTORY_ID, theme.getTitleFactory( controller ) );
 	    		
 	    		// update only those station which are registered to this controller
-	    		for( DockStation station : register.listDockStations() ){
+	    		for( DockStation station : register.getDockStations() ){
 	    			if( station.getController() == controller ){
 	    				station.updateTheme();
 	    			}
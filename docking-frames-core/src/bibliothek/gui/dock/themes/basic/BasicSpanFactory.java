@@ -25,29 +25,25 @@
  */
 package bibliothek.gui.dock.themes.basic;
 
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
-import java.util.Collection;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 
-import javax.swing.Timer;
-
+import bibliothek.gui.DockController;
 import bibliothek.gui.dock.station.span.Span;
 import bibliothek.gui.dock.station.span.SpanCallback;
 import bibliothek.gui.dock.station.span.SpanFactory;
 import bibliothek.gui.dock.station.span.SpanMode;
+import bibliothek.gui.dock.util.animation.Animation;
+import bibliothek.gui.dock.util.animation.AnimationClock;
 
 /**
- * The {@link BasicSpanFactory} uses a small animation to expand and to shrink its {@link Span}s.
+ * The {@link BasicSpanFactory} uses a small animation to expand and to shrink its {@link Span}s. The
+ * animations are executed by the {@link AnimationClock} of the {@link DockController} of each station.
  * @author Benjamin Sigg
  */
 public class BasicSpanFactory implements SpanFactory{
 	private int duration;
 	private int minSpeed;
-	private Timer timer;
-	private Collection<BasicSpan> ticking = new HashSet<BasicSpan>(); 
 	
 	/**
 	 * Creates a new factory
@@ -57,15 +53,6 @@ public class BasicSpanFactory implements SpanFactory{
 	public BasicSpanFactory( int duration, int minSpeed ){
 		setDuration( duration );
 		setMinSpeed( minSpeed );
-		timer = new Timer( 0, new ActionListener(){
-			public void actionPerformed( ActionEvent e ){
-				tick();
-			}
-		} );
-		timer.setRepeats( true );
-		timer.setCoalesce( true );
-		timer.setDelay( 20 );
-		timer.setInitialDelay( 0 );
 	}
 	
 	/**
@@ -102,31 +89,7 @@ public class BasicSpanFactory implements SpanFactory{
 		return new BasicSpan( callback );
 	}
 	
-	private synchronized void start( BasicSpan span ){
-		if( ticking.isEmpty() ){
-			ticking.add( span );
-			timer.start();
-		}
-		else{
-			ticking.add( span );
-		}
-	}
-	
-	private synchronized void stop( BasicSpan span ){
-		ticking.remove( span );
-		if( ticking.isEmpty() ){
-			timer.stop();
-		}
-	}
-	
-	private synchronized void tick(){
-		long now = System.nanoTime();
-		for( BasicSpan span : ticking.toArray( new BasicSpan[ ticking.size() ] ) ){
-			span.tick( now );
-		}
-	}
-	
-	private class BasicSpan implements Span {
+	private class BasicSpan implements Span, Animation {
 		private SpanCallback callback;
 		private Map<SpanMode, Integer> sizes = new HashMap<SpanMode, Integer>( 2 );
 		private SpanMode currentMode;
@@ -137,6 +100,9 @@ public class BasicSpanFactory implements SpanFactory{
 		private long animationStart = -1;
 		private int duration;
 		
+		/** the clock which currently executes this animation */
+		private AnimationClock clock;
+		
 		public BasicSpan( SpanCallback callback ){
 			this.callback = callback;
 		}
@@ -154,12 +120,42 @@ public class BasicSpanFactory implements SpanFactory{
 				
 				animationDuration = 0;
 				animationStart = -1;
-				start( this );
+				start();
+			}
+		}
+		
+		private void start(){
+			AnimationClock clock = this.clock;
+			if( clock == null ){
+				DockController controller = callback.getStation().getController();
+				if( controller == null ){
+					clock = AnimationClock.getSharedClock();
+				}
+				else{
+					clock = controller.getProperties().get( AnimationClock.ANIMATION_CLOCK );
+				}
+			}
+			
+			if( clock.isReduceMotion() ){
+				stop();
+				animationDuration = -1;
+				callback.resized();
+			}
+			else{
+				this.clock = clock;
+				clock.start( this );
+			}
+		}
+		
+		private void stop(){
+			if( clock != null ){
+				clock.stop( this );
+				clock = null;
 			}
 		}
 
 		public void set( SpanMode mode ){
-			stop( this );
+			stop();
 			animationDuration = -1;
 			sizeTarget = getSize( mode );
 			callback.resized();
@@ -182,16 +178,19 @@ public class BasicSpanFactory implements SpanFactory{
 			}
 		}
 		
-		public void tick( long now ){
+		public boolean step( AnimationClock clock, long now ){
 			if( animationStart == -1 ){
 				animationStart = now;
 			}
 			animationDuration = (int)((now - animationStart) / 1000000);
+			boolean running = true;
 			if( animationDuration >= duration ){
 				animationDuration = -1;
-				stop( this );
+				running = false;
+				this.clock = null;
 			}
 			callback.resized();
+			return running;
 		}
 
 		public int getSize(){
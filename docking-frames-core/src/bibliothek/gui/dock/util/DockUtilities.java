@@ -416,7 +416,7 @@ public class DockUtilities {
             if( !component.isShowing() ){
             	DockController controller = dockable.getController();
             	if( controller != null ){
-            		for( DockElementRepresentative item : controller.getRepresentatives( dockable )){
+            		for( DockElementRepresentative item : controller.getRepresentativeList( dockable )){
             			if( item.getComponent().isShowing() ){
             				component = item.getComponent();
             				break;
@@ -0,0 +1,170 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2013 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.util;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.lang.ref.SoftReference;
+import java.util.Iterator;
+import java.util.LinkedList;
+
+import bibliothek.gui.DockController;
+import bibliothek.gui.dock.dockable.MovingImage;
+import bibliothek.gui.dock.util.property.PropertyFactory;
+
+/**
+ * A small cache of {@link BufferedImage}s of type {@link BufferedImage#TYPE_INT_ARGB}. Images are used for 
+ * short periods of time, e.g. to show a {@link MovingImage} while the user drags a {@link bibliothek.gui.Dockable}, 
+ * and are then given back to the pool. The next drag &amp; drop operation can reuse the same image instead
+ * of allocating a new one.<br>
+ * The size of the images is rounded up to the next multiple of {@value #BUCKET_SIZE} pixels, hence an image is 
+ * usually a bit larger than requested, clients should only use the area they asked for. The pool only keeps
+ * {@link SoftReference}s to the images, the garbage collector can always reclaim the memory.
+ * @author Benjamin Sigg
+ */
+public class ImagePool {
+	/** The pool used by the {@link DockController} */
+	public static final PropertyKey<ImagePool> IMAGE_POOL = new PropertyKey<ImagePool>( "dock.imagePool", 
+			new PropertyFactory<ImagePool>(){
+				public ImagePool getDefault( PropertyKey<ImagePool> key, DockProperties properties ){
+					return new ImagePool();
+				}
+				
+				public ImagePool getDefault( PropertyKey<ImagePool> key ){
+					return getSharedPool();
+				}
+			}, true );
+	
+	/** the width and height of images are always a multiple of this value */
+	public static final int BUCKET_SIZE = 64;
+	
+	/** the pool used if no {@link DockController} is known */
+	private static ImagePool sharedPool;
+	
+	/**
+	 * Gets the pool that is used if no {@link DockController} is known.
+	 * @return the shared pool, never <code>null</code>
+	 */
+	public static synchronized ImagePool getSharedPool(){
+		if( sharedPool == null ){
+			sharedPool = new ImagePool();
+		}
+		return sharedPool;
+	}
+	
+	/** the images that are currently not used */
+	private LinkedList<SoftReference<BufferedImage>> images = new LinkedList<SoftReference<BufferedImage>>();
+	
+	/** the maximum number of images in {@link #images} */
+	private int capacity = 4;
+	
+	/**
+	 * Sets the maximum number of unused images this pool keeps.
+	 * @param capacity the maximum number of images, 0 disables the pool
+	 */
+	public synchronized void setCapacity( int capacity ){
+		if( capacity < 0 ){
+			throw new IllegalArgumentException( "capacity must not be negative: " + capacity );
+		}
+		this.capacity = capacity;
+		while( images.size() > capacity ){
+			images.removeFirst();
+		}
+	}
+	
+	/**
+	 * Gets the maximum number of unused images this pool keeps.
+	 * @return the maximum number of images
+	 */
+	public synchronized int getCapacity(){
+		return capacity;
+	}
+	
+	/**
+	 * Gets an image that has at least the size <code>width</code> x <code>height</code>. The image
+	 * is completely transparent. Once the image is no longer used, it should be given back to this
+	 * pool using {@link #release(BufferedImage)}.
+	 * @param width the minimum width of the image, at least 1
+	 * @param height the minimum height of the image, at least 1
+	 * @return the image, never <code>null</code>
+	 */
+	public BufferedImage acquire( int width, int height ){
+		if( width < 1 || height < 1 ){
+			throw new IllegalArgumentException( "width and height must be at least 1: " + width + ", " + height );
+		}
+		
+		int bucketWidth = bucket( width );
+		int bucketHeight = bucket( height );
+		
+		BufferedImage result = null;
+		synchronized( this ){
+			Iterator<SoftReference<BufferedImage>> iterator = images.iterator();
+			while( iterator.hasNext() ){
+				BufferedImage image = iterator.next().get();
+				if( image == null ){
+					iterator.remove();
+				}
+				else if( image.getWidth() == bucketWidth && image.getHeight() == bucketHeight ){
+					iterator.remove();
+					result = image;
+					break;
+				}
+			}
+		}
+		
+		if( result == null ){
+			return new BufferedImage( bucketWidth, bucketHeight, BufferedImage.TYPE_INT_ARGB );
+		}
+		
+		Graphics2D g = result.createGraphics();
+		g.setComposite( AlphaComposite.Clear );
+		g.fillRect( 0, 0, width, height );
+		g.dispose();
+		return result;
+	}
+	
+	/**
+	 * Gives <code>image</code> back to this pool. The image must not be used anymore by the caller.
+	 * @param image an image that was created by {@link #acquire(int, int)}, can be <code>null</code>
+	 */
+	public synchronized void release( BufferedImage image ){
+		if( image == null || capacity == 0 ){
+			return;
+		}
+		if( image.getType() != BufferedImage.TYPE_INT_ARGB || image.getWidth() % BUCKET_SIZE != 0 || image.getHeight() % BUCKET_SIZE != 0 ){
+			return;
+		}
+		images.addLast( new SoftReference<BufferedImage>( image ) );
+		while( images.size() > capacity ){
+			images.removeFirst();
+		}
+	}
+	
+	private int bucket( int size ){
+		return ((size + BUCKET_SIZE - 1) / BUCKET_SIZE) * BUCKET_SIZE;
+	}
+}
@@ -25,13 +25,15 @@
  */
 package bibliothek.gui.dock.util;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.Map;
 import java.util.Set;
 
@@ -40,7 +42,10 @@ import bibliothek.util.Path;
 
 /**
  * A map containing some string-values pairs and so called
- * bridges to modify these values when reading them out. 
+ * bridges to modify these values when reading them out.<br>
+ * The observers of this map are indexed by the resource they observe and by the kind of bridge they
+ * use. A change of a resource or of a bridge only affects the observers that actually use the
+ * changed resource or bridge. 
  * @author Benjamin Sigg
  * @param <V> The kind of values this map contains
  * @param <U> The kind of observers used to read values from this map
@@ -65,12 +70,30 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
     /** all the listeners to the {@link #schemes} */
     private PriorityValue<UISchemeListener<V, U, B>> schemeListeners = new PriorityValue<UISchemeListener<V,U,B>>();
     
-    /** a list of all observers */
-    private List<Observer> observers = new LinkedList<Observer>();
+    /** all observers in the order they were added */
+    private Set<Observer> observers = new LinkedHashSet<Observer>();
+    
+    /** all observers grouped by the id of the resource they observe */
+    private Map<String, Set<Observer>> observersById = new HashMap<String, Set<Observer>>();
+    
+    /** all observers grouped by the kind of bridge they use */
+    private Map<Path, Set<Observer>> observersByPath = new HashMap<Path, Set<Observer>>();
+    
+    /** all observers grouped by the {@link UIValue} they inform */
+    private Map<U, List<Observer>> observersByValue = new IdentityHashMap<U, List<Observer>>();
     
     /** whether to stall updates or not */
     private int updateLock = 0;
     
+    /** the resources that changed while updates were stalled */
+    private Set<String> stalledResources = new HashSet<String>();
+    
+    /** the bridges that changed while updates were stalled */
+    private Set<Path> stalledBridges = new HashSet<Path>();
+    
+    /** whether all observers have to be updated once updates are no longer stalled */
+    private boolean stalledAll = false;
+    
     /** the owner of this properties map */
     private DockController controller;
     
@@ -99,17 +122,70 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
     }
     
     /**
-     * Tells this manager no longer to stall updates. This triggers a full
-     * update on all {@link UIValue}s.
+     * Tells this manager no longer to stall updates. This triggers an update
+     * of all the {@link UIValue}s whose resource or bridge changed while updates
+     * were stalled.
      */
     public void unlockUpdate(){
         updateLock--;
         if( updateLock == 0 ){
-            for( Observer observer : observers )
+        	Collection<Observer> affected;
+        	if( stalledAll ){
+        		affected = new ArrayList<Observer>( observers );
+        	}
+        	else{
+        		affected = new LinkedHashSet<Observer>();
+        		for( String id : stalledResources ){
+        			Set<Observer> group = observersById.get( id );
+        			if( group != null ){
+        				affected.addAll( group );
+        			}
+        		}
+        		for( Path path : stalledBridges ){
+        			collectObservers( path, affected );
+        		}
+        	}
+        	
+        	stalledAll = false;
+        	stalledResources.clear();
+        	stalledBridges.clear();
+        	
+            for( Observer observer : affected )
                 observer.resetAll();
         }
     }
     
+    /**
+     * Collects all the observers which would use a bridge with name <code>path</code>.
+     * @param path the name of some bridge
+     * @param result the collection to fill
+     */
+    private void collectObservers( Path path, Collection<Observer> result ){
+    	for( Map.Entry<Path, Set<Observer>> entry : observersByPath.entrySet() ){
+    		if( entry.getKey().startsWith( path )){
+    			result.addAll( entry.getValue() );
+    		}
+    	}
+    }
+    
+    /**
+     * Ensures that all the observers which might be affected by a change of the
+     * bridge <code>path</code> use the correct bridge.
+     * @param path the name of a bridge that changed
+     */
+    private void resetBridges( Path path ){
+    	if( updateLock == 0 ){
+    		List<Observer> affected = new ArrayList<Observer>();
+    		collectObservers( path, affected );
+    		for( Observer observer : affected ){
+    			observer.resetBridge();
+    		}
+    	}
+    	else{
+    		stalledBridges.add( path );
+    	}
+    }
+    
     /**
      * Gets the {@link UIScheme} that is used to fill up missing values in
      * the level <code>priority</code>.
@@ -205,6 +281,9 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
     			changedBridges = usedBridges;
     		}
     		
+    		stalledResources.addAll( changedResources );
+    		stalledBridges.addAll( changedBridges );
+    		
     		UIScheme<V, U, B> scheme = schemes.get( priority );
     		
     		// resources
@@ -277,19 +356,11 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
     }
     
     private Set<String> getAllUsedResources(){
-    	Set<String> result = new HashSet<String>();
-    	for( Observer observer : observers ){
-    		result.add( observer.id );
-    	}
-    	return result;
+    	return new HashSet<String>( observersById.keySet() );
     }
     
     private Set<Path> getAllUsedBridges(){
-    	Set<Path> result = new HashSet<Path>();
-    	for( Observer observer : observers ){
-    		result.add( observer.path );
-    	}
-    	return result;
+    	return new HashSet<Path>( observersByPath.keySet() );
     }
     
     /**
@@ -314,11 +385,7 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
         }
         
         if( value.set( priority, bridge, null )){
-            if( updateLock == 0 ){
-                for( Observer check : observers ){
-                    check.resetBridge();
-                }
-            }
+        	resetBridges( path );
         }
     }
     
@@ -345,11 +412,9 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
                 bridges.remove( path );
             }
             
-            if( change && updateLock == 0 ){
-                for( Observer check : observers ){
-                    check.resetBridge();
-                }
-            }   
+            if( change ){
+            	resetBridges( path );
+            }
         }
     }
     
@@ -363,7 +428,7 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
      */
     public void unpublish( Priority priority, B bridge ){
         Iterator<Map.Entry<Path, UIPriorityValue<B>>> iterator = bridges.entrySet().iterator();
-        boolean change = false;
+        List<Path> changed = new LinkedList<Path>();
         
         UIScheme<V, U, B> scheme = schemes.get( priority );
         
@@ -371,14 +436,16 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
         	Map.Entry<Path, UIPriorityValue<B>> entry = iterator.next();
         	UIPriorityValue<B> next = entry.getValue();
         	
-            if( next.get( priority ) == bridge ){
+            if( next.getValue( priority ) == bridge ){
             	if( next.getScheme( priority ) == null ){
             		B replacement = null;
             		if( scheme != null ){
             			replacement = scheme.getBridge( entry.getKey(), this );
             		}
             		
-	                change = next.set( priority, replacement, scheme ) || change;
+	                if( next.set( priority, replacement, scheme )){
+	                	changed.add( entry.getKey() );
+	                }
 	                if( isRemoveable( entry.getKey(), next ) ){
 	                    iterator.remove();
 	                }
@@ -386,10 +453,8 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
             }
         }
         
-        if( change && updateLock == 0 ){
-            for( Observer check : observers ){
-                check.resetBridge();
-            }
+        for( Path path : changed ){
+        	resetBridges( path );
         }
     }
     
@@ -480,23 +545,54 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
         
         Observer combination = new Observer( id, path, value );
         observers.add( combination );
+        group( observersById, id ).add( combination );
+        group( observersByPath, path ).add( combination );
+        
+        List<Observer> byValue = observersByValue.get( value );
+        if( byValue == null ){
+        	byValue = new LinkedList<Observer>();
+        	observersByValue.put( value, byValue );
+        }
+        byValue.add( combination );
+        
         combination.resetAll();
     }
     
+    private <K> Set<Observer> group( Map<K, Set<Observer>> map, K key ){
+    	Set<Observer> result = map.get( key );
+    	if( result == null ){
+    		result = new LinkedHashSet<Observer>();
+    		map.put( key, result );
+    	}
+    	return result;
+    }
+    
+    private <K> void ungroup( Map<K, Set<Observer>> map, K key, Observer observer ){
+    	Set<Observer> group = map.get( key );
+    	if( group != null ){
+    		group.remove( observer );
+    		if( group.isEmpty() ){
+    			map.remove( key );
+    		}
+    	}
+    }
+    
     /**
      * Uninstalls an observer of a resource
      * @param value the observer to remove
      */
     public void remove( U value ){
-        ListIterator<Observer> list = observers.listIterator();
-        while( list.hasNext() ){
-            Observer next = list.next();
-            if( next.getValue() == value ){
-                list.remove();
-                next.destroy();
-                return;
-            }
-        }
+    	List<Observer> byValue = observersByValue.get( value );
+    	if( byValue != null ){
+    		Observer next = byValue.remove( 0 );
+    		if( byValue.isEmpty() ){
+    			observersByValue.remove( value );
+    		}
+    		observers.remove( next );
+    		ungroup( observersById, next.id, next );
+    		ungroup( observersByPath, next.path, next );
+    		next.destroy();
+    	}
     }
     
     /**
@@ -582,11 +678,16 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
         	
 	        if( value.set( priority, resource, scheme ) ){
 	            if( updateLock == 0 ){
-	                for( Observer observer : observers ){
-	                    if( observer.id.equals( id )){
-	                        observer.update( resource );
-	                    }
-	                }
+	            	Set<Observer> group = observersById.get( id );
+	            	if( group != null ){
+	            		V current = value.getValue();
+		                for( Observer observer : new ArrayList<Observer>( group ) ){
+		                    observer.update( current );
+		                }
+	            	}
+	            }
+	            else{
+	            	stalledResources.add( id );
 	            }
 	        }
 	        
@@ -679,6 +780,9 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
                 observer.resetAll();
             }
         }
+        else{
+        	stalledAll = true;
+        }
     }
     
     /**
@@ -806,11 +910,7 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
          * Updates resource and bridge of this <code>Observer</code>.
          */
         public void resetAll(){
-            B bridge = getBridgeFor( path );
-            if( bridge == null )
-                update( get( id ));
-            else
-                setBridge( bridge, true );
+            setBridge( getBridgeFor( path ), true );
         }
         
         /**
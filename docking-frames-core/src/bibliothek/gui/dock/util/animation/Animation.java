@@ -0,0 +1,43 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2013 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.util.animation;
+
+/**
+ * An {@link Animation} is some code that is executed repeatedly by an {@link AnimationClock}, e.g.
+ * to smoothly change a color or the size of a component.
+ * @author Benjamin Sigg
+ */
+public interface Animation {
+	/**
+	 * Performs the next step of this animation. This method is called in the <code>EventDispatchThread</code>.
+	 * @param clock the clock which executes this animation
+	 * @param nanoTime the current time as returned by {@link System#nanoTime()}, all animations that
+	 * are executed in the same frame get the same time
+	 * @return <code>true</code> if this animation needs more steps, <code>false</code> if this
+	 * animation is finished and should be removed from <code>clock</code>
+	 */
+	public boolean step( AnimationClock clock, long nanoTime );
+}
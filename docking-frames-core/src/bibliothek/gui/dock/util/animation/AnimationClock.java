@@ -0,0 +1,238 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2013 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.util.animation;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import javax.swing.Timer;
+
+import bibliothek.gui.DockController;
+import bibliothek.gui.dock.util.DockProperties;
+import bibliothek.gui.dock.util.PropertyKey;
+import bibliothek.gui.dock.util.property.PropertyFactory;
+
+/**
+ * An {@link AnimationClock} executes any number of {@link Animation}s using one {@link Timer}. All the
+ * animations that are running are executed in the same pass of the <code>EventDispatchThread</code>, and
+ * the timer is stopped while no animation is running.<br>
+ * Each {@link DockController} has its own clock, which can be accessed with the key {@link #ANIMATION_CLOCK}.
+ * Animations that are not yet associated with a {@link DockController} use a clock that is shared
+ * by the whole application.
+ * @author Benjamin Sigg
+ */
+public class AnimationClock {
+	/** The clock used by all the animations of a {@link DockController} */
+	public static final PropertyKey<AnimationClock> ANIMATION_CLOCK = new PropertyKey<AnimationClock>( "dock.animationClock", 
+			new PropertyFactory<AnimationClock>(){
+				public AnimationClock getDefault( PropertyKey<AnimationClock> key, DockProperties properties ){
+					return new AnimationClock();
+				}
+				
+				public AnimationClock getDefault( PropertyKey<AnimationClock> key ){
+					return getSharedClock();
+				}
+			}, true );
+	
+	/** the clock used if no {@link DockController} is known */
+	private static AnimationClock sharedClock;
+	
+	/**
+	 * Gets the clock that is used by animations which are not associated with any {@link DockController}.
+	 * @return the shared clock, never <code>null</code>
+	 */
+	public static synchronized AnimationClock getSharedClock(){
+		if( sharedClock == null ){
+			sharedClock = new AnimationClock();
+		}
+		return sharedClock;
+	}
+	
+	/** all the animations that are currently running */
+	private Set<Animation> animations = new LinkedHashSet<Animation>();
+	
+	/** the animations that are executed in the current frame, reused for each frame */
+	private Animation[] frame = new Animation[ 16 ];
+	
+	/** the number of frames per second */
+	private int frameRate;
+	
+	/** whether animations should be skipped */
+	private boolean reduceMotion = false;
+	
+	/** the timer executing the frames */
+	private Timer timer;
+	
+	/**
+	 * Creates a new clock running with 50 frames per second.
+	 */
+	public AnimationClock(){
+		timer = new Timer( 20, new ActionListener(){
+			public void actionPerformed( ActionEvent e ){
+				tick();
+			}
+		});
+		timer.setRepeats( true );
+		timer.setCoalesce( true );
+		timer.setInitialDelay( 0 );
+		setFrameRate( 50 );
+	}
+	
+	/**
+	 * Sets the number of frames per second.
+	 * @param frameRate the number of frames, at least 1
+	 */
+	public void setFrameRate( int frameRate ){
+		if( frameRate < 1 ){
+			throw new IllegalArgumentException( "frameRate must be at least 1: " + frameRate );
+		}
+		this.frameRate = frameRate;
+		timer.setDelay( Math.max( 1, 1000 / frameRate ) );
+	}
+	
+	/**
+	 * Gets the number of frames per second.
+	 * @return the number of frames
+	 */
+	public int getFrameRate(){
+		return frameRate;
+	}
+	
+	/**
+	 * Tells all the clients of this clock whether motion should be reduced. If set, then animations should
+	 * immediately jump to their final state instead of running. This is useful e.g. for remote desktop 
+	 * connections where each repaint is expensive.
+	 * @param reduceMotion whether motion should be reduced
+	 */
+	public void setReduceMotion( boolean reduceMotion ){
+		this.reduceMotion = reduceMotion;
+	}
+	
+	/**
+	 * Tells whether clients should skip their animations.
+	 * @return whether motion should be reduced
+	 * @see #setReduceMotion(boolean)
+	 */
+	public boolean isReduceMotion(){
+		return reduceMotion;
+	}
+	
+	/**
+	 * Starts executing <code>animation</code> until it either reports that it is finished, or 
+	 * until {@link #stop(Animation)} is called. Nothing happens if <code>animation</code> is already
+	 * running.
+	 * @param animation the animation to execute
+	 */
+	public synchronized void start( Animation animation ){
+		if( animation == null ){
+			throw new IllegalArgumentException( "animation must not be null" );
+		}
+		if( animations.add( animation ) && animations.size() == 1 ){
+			timer.start();
+		}
+	}
+	
+	/**
+	 * Stops executing <code>animation</code>.
+	 * @param animation the animation to stop
+	 */
+	public synchronized void stop( Animation animation ){
+		if( animations.remove( animation ) && animations.isEmpty() ){
+			timer.stop();
+		}
+	}
+	
+	/**
+	 * Tells whether <code>animation</code> is currently executed by this clock.
+	 * @param animation the animation to search
+	 * @return <code>true</code> if <code>animation</code> is running
+	 */
+	public synchronized boolean isRunning( Animation animation ){
+		return animations.contains( animation );
+	}
+	
+	/**
+	 * Tells whether any animation is currently running.
+	 * @return <code>true</code> if at least one animation is executed
+	 */
+	public synchronized boolean isRunning(){
+		return !animations.isEmpty();
+	}
+	
+	/**
+	 * Tells whether the {@link Timer} of this clock is currently running. The timer is stopped
+	 * while no animation is running.
+	 * @return whether the timer is running
+	 */
+	synchronized boolean isTimerRunning(){
+		return timer.isRunning();
+	}
+	
+	/**
+	 * Executes one step of all the animations that are currently running.
+	 */
+	private void tick(){
+		Animation[] frame;
+		int count;
+		
+		synchronized( this ){
+			count = animations.size();
+			if( count == 0 ){
+				timer.stop();
+				return;
+			}
+			// the buffer is not available if this method is called recursively
+			frame = this.frame;
+			this.frame = null;
+			if( frame == null || frame.length < count ){
+				frame = new Animation[ Math.max( count, 16 ) * 2 ];
+			}
+			frame = animations.toArray( frame );
+		}
+		
+		long now = System.nanoTime();
+		try{
+			for( int i = 0; i < count; i++ ){
+				Animation animation = frame[i];
+				if( !animation.step( this, now ) ){
+					stop( animation );
+				}
+			}
+		}
+		finally{
+			for( int i = 0; i < count; i++ ){
+				frame[i] = null;
+			}
+			synchronized( this ){
+				if( this.frame == null ){
+					this.frame = frame;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,5 @@
+/**
+ * A clock that executes all the animations of a {@link bibliothek.gui.DockController} in one pass 
+ * of the <code>EventDispatchThread</code>.
+ */
+package bibliothek.gui.dock.util.animation;
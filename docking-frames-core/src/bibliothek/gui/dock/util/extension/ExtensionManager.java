@@ -49,7 +49,7 @@ public class ExtensionManager {
 	/** whether the extensions are installed or not */
 	private boolean alive = false;
 	
-	/** all shared extensions */
+	/** all shared extensions that are currently bound, their content is reset whenever the set of extensions changes */
 	private Map<ExtensionName<?>, Share<?>> shared = new HashMap<ExtensionName<?>, Share<?>>();
 	
 	/**
@@ -99,6 +99,7 @@ public class ExtensionManager {
 		if( alive ){
 			extension.install( controller );
 		}
+		invalidateShares();
 	}
 	
 	/**
@@ -110,6 +111,17 @@ public class ExtensionManager {
 			if( alive ){
 				extension.uninstall( controller );
 			}
+			invalidateShares();
+		}
+	}
+	
+	/**
+	 * Forgets the cached content of all {@link Share}s, the content will be loaded again the next 
+	 * time it is accessed.
+	 */
+	private void invalidateShares(){
+		for( Share<?> share : shared.values() ){
+			share.invalidate();
 		}
 	}
 	
@@ -141,18 +153,22 @@ public class ExtensionManager {
 	/**
 	 * Creates a new {@link SharedExtension} object which uses <code>name</code> as key to read 
 	 * extensions. The {@link SharedExtension} object can be {@link SharedExtension#bind() bound} 
-	 * and {@link SharedExtension#unbind() unbound} at any time, it can be reused.
+	 * and {@link SharedExtension#unbind() unbound} at any time, it can be reused. All bound
+	 * {@link SharedExtension}s with the same <code>name</code> share one list of extensions, that list
+	 * is loaded lazily and only updated if an {@link Extension} is {@link #add(Extension) added} or
+	 * {@link #remove(Extension) removed}.
 	 * @param name the name of the extension to share
 	 * @return the shared extensions
 	 */
 	public <E> SharedExtension<E> share( final ExtensionName<E> name ){
 		return new SharedExtension<E>(){
 			private int bound = 0;
+			private Share<E> share;
 			
 			@SuppressWarnings("unchecked")
 			public void bind(){
 				if( bound == 0 ){
-					Share<E> share = (Share<E>)shared.get( name );
+					share = (Share<E>)shared.get( name );
 					if( share == null ){
 						share = new Share<E>( name );
 					}
@@ -161,26 +177,21 @@ public class ExtensionManager {
 				bound++;
 			}
 			
-			@SuppressWarnings("unchecked")
 			public void unbind(){
 				if( bound == 0 ){
 					throw new IllegalStateException( "cannot unbind, counter is already 0" );
 				}
 				bound--;
 				if( bound == 0 ){
-					Share<E> share = (Share<E>)shared.get( name );
-					if( share != null ){
-						share.unbind();
-					}
+					share.unbind();
+					share = null;
 				}
 			}
 			
-			@SuppressWarnings("unchecked")
 			public List<E> get(){
 				if( bound == 0 ){
 					throw new IllegalStateException( "SharedExtension is not bound" );
 				}
-				Share<E> share = (Share<E>)shared.get( name );
 				return share.get();
 			}
 			
@@ -232,6 +243,13 @@ public class ExtensionManager {
 			}
 		}
 		
+		/**
+		 * Forgets the content of this cache.
+		 */
+		public void invalidate(){
+			extensions = null;
+		}
+		
 		/**
 		 * Gets the content of this cache.
 		 * @return the content
@@ -264,6 +282,7 @@ public class ExtensionManager {
 				extension.uninstall( controller );
 			}
 			extensions.clear();
+			invalidateShares();
 		}
 	}
 	
@@ -0,0 +1,126 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2013 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.util;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+
+/**
+ * A list of listeners that is optimized for firing events. The listeners are stored in an array that
+ * is replaced whenever a listener is added or removed, the array itself is never modified. Hence
+ * clients can iterate over {@link #get()} without making a copy, even if a listener is added or removed
+ * while the event is fired.<br>
+ * Adding and removing listeners is thread safe.
+ * @author Benjamin Sigg
+ * @param <L> the kind of listeners stored in this list
+ */
+public class ListenerList<L> {
+	/** the current listeners, this array is never modified */
+	private volatile L[] listeners;
+	
+	/**
+	 * Creates a new, empty list.
+	 * @param type the type of the listeners, used to create the array of listeners
+	 */
+	@SuppressWarnings("unchecked")
+	public ListenerList( Class<L> type ){
+		listeners = (L[])Array.newInstance( type, 0 );
+	}
+	
+	/**
+	 * Adds <code>listener</code> at the end of this list.
+	 * @param listener the new listener
+	 */
+	public synchronized void add( L listener ){
+		L[] copy = Arrays.copyOf( listeners, listeners.length+1 );
+		copy[ listeners.length ] = listener;
+		listeners = copy;
+	}
+	
+	/**
+	 * Removes the first occurrence of <code>listener</code> from this list.
+	 * @param listener the listener to remove
+	 * @return <code>true</code> if <code>listener</code> was found
+	 */
+	public synchronized boolean remove( L listener ){
+		L[] listeners = this.listeners;
+		for( int i = 0; i < listeners.length; i++ ){
+			if( listeners[i] == null ? listener == null : listeners[i].equals( listener )){
+				L[] copy = Arrays.copyOf( listeners, listeners.length-1 );
+				System.arraycopy( listeners, i+1, copy, i, listeners.length-i-1 );
+				this.listeners = copy;
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Removes all listeners from this list.
+	 */
+	public synchronized void clear(){
+		listeners = Arrays.copyOf( listeners, 0 );
+	}
+	
+	/**
+	 * Gets all the listeners that are currently stored in this list. The result is a snapshot that is not
+	 * affected by later changes of this list.
+	 * @return the listeners, this array must not be modified
+	 */
+	public L[] get(){
+		return listeners;
+	}
+	
+	/**
+	 * Gets the number of listeners stored in this list.
+	 * @return the number of listeners
+	 */
+	public int size(){
+		return listeners.length;
+	}
+	
+	/**
+	 * Tells whether this list is empty.
+	 * @return <code>true</code> if there are no listeners
+	 */
+	public boolean isEmpty(){
+		return listeners.length == 0;
+	}
+	
+	/**
+	 * Tells whether <code>listener</code> is stored in this list.
+	 * @param listener the listener to search
+	 * @return <code>true</code> if <code>listener</code> was found
+	 */
+	public boolean contains( L listener ){
+		for( L item : listeners ){
+			if( item == null ? listener == null : item.equals( listener )){
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -253,6 +253,8 @@ public class XIO {
         private XElement element;
         /** the current stack of active entries */
         private LinkedList<XElement> stack = new LinkedList<XElement>();
+        /** the text of the entries of {@link #stack}, collected until the entries are closed */
+        private LinkedList<StringBuilder> texts = new LinkedList<StringBuilder>();
         
         /**
          * Gets the first element that was read.
@@ -275,6 +277,7 @@ public class XIO {
             }
             
             stack.addFirst( element );
+            texts.addFirst( new StringBuilder() );
             
             // read the attributes
             for( int i = 0, n = attributes.getLength(); i<n; i++ ){
@@ -287,12 +290,7 @@ public class XIO {
         @Override
         public void characters( char[] ch, int start, int length ) throws SAXException {
             if( length > 0 ){
-                String value = new String( ch, start, length );
-                String old = stack.getFirst().getValue();
-                if( old != null && old.length() > 0 ){
-                    value = old + value;
-                }
-                stack.getFirst().setValue( value );
+                texts.getFirst().append( ch, start, length );
             }
         }
         
@@ -301,7 +299,8 @@ public class XIO {
                 throws SAXException {
 
             XElement element = stack.removeFirst();
-            element.setValue( element.getString().trim() );
+            StringBuilder text = texts.removeFirst();
+            element.setValue( text.toString().trim() );
         }
     }
 }
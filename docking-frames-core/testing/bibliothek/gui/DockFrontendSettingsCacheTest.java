@@ -0,0 +1,196 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2013 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import bibliothek.gui.dock.DefaultDockable;
+import bibliothek.gui.dock.SplitDockStation;
+import bibliothek.gui.dock.frontend.Setting;
+import bibliothek.gui.dock.frontend.SettingsBlop;
+
+/**
+ * Tests that {@link Setting}s which are pushed out of the cache of a {@link DockFrontend} can be
+ * read again without losing any information.
+ * @author Benjamin Sigg
+ */
+public class DockFrontendSettingsCacheTest {
+	private TestFrontend frontend;
+	private SplitDockStation station;
+	private DefaultDockable[] dockables;
+	
+	@Before
+	public void setup(){
+		frontend = new TestFrontend();
+		station = new SplitDockStation();
+		station.setSize( 400, 400 );
+		frontend.addRoot( "root", station );
+		
+		dockables = new DefaultDockable[4];
+		for( int i = 0; i < dockables.length; i++ ){
+			dockables[i] = new DefaultDockable( "dockable " + i );
+			frontend.addDockable( "d" + i, dockables[i] );
+			frontend.setHideable( dockables[i], true );
+			station.drop( dockables[i] );
+			station.doLayout();
+		}
+	}
+	
+	@After
+	public void cleanup(){
+		frontend.kill();
+	}
+	
+	@Test
+	public void testSettingsRemainIdentical() throws IOException{
+		Map<String, Boolean> entries = saveSettings();
+		Map<String, byte[]> expected = new HashMap<String, byte[]>();
+		for( Map.Entry<String, Boolean> entry : entries.entrySet() ){
+			expected.put( entry.getKey(), write( entry.getKey(), entry.getValue() ) );
+		}
+		
+		frontend.setSettingsCacheSize( 1 );
+		assertEquals( entries.keySet(), frontend.getSettings() );
+		
+		for( int round = 0; round < 3; round++ ){
+			for( Map.Entry<String, Boolean> entry : entries.entrySet() ){
+				assertArrayEquals( entry.getKey(), expected.get( entry.getKey() ), write( entry.getKey(), entry.getValue() ) );
+			}
+		}
+		for( Map.Entry<String, Boolean> entry : entries.entrySet() ){
+			assertEquals( entry.getKey(), entry.getValue(), frontend.readEntries.get( frontend.getSetting( entry.getKey() ) ) );
+		}
+		
+		frontend.setSettingsCacheSize( -1 );
+		for( Map.Entry<String, Boolean> entry : entries.entrySet() ){
+			assertArrayEquals( entry.getKey(), expected.get( entry.getKey() ), write( entry.getKey(), entry.getValue() ) );
+		}
+	}
+	
+	@Test
+	public void testLoadStoredSetting(){
+		saveSettings();
+		frontend.setSettingsCacheSize( 1 );
+		
+		frontend.load( "all" );
+		assertEquals( "all", frontend.getCurrentSetting() );
+		for( DefaultDockable dockable : dockables ){
+			assertTrue( frontend.isShown( dockable ) );
+		}
+		
+		frontend.load( "some" );
+		assertEquals( "some", frontend.getCurrentSetting() );
+		assertFalse( frontend.isShown( dockables[0] ) );
+		assertFalse( frontend.isShown( dockables[1] ) );
+		assertTrue( frontend.isShown( dockables[2] ) );
+	}
+	
+	@Test
+	public void testUnreadableSetting(){
+		saveSettings();
+		frontend.setSettingsCacheSize( 1 );
+		frontend.getSetting( "some" );
+		
+		frontend.failRead = true;
+		assertNull( frontend.getSetting( "all" ) );
+		assertFalse( frontend.getSettings().contains( "all" ) );
+		
+		SettingsBlop blop = frontend.writeBlop();
+		assertNotNull( blop.getSetting( "some" ) );
+		assertNull( blop.getSetting( "all" ) );
+		assertNull( blop.getSetting( "full" ) );
+		assertEquals( 1, frontend.getSettings().size() );
+	}
+	
+	/**
+	 * Saves three different settings.
+	 * @return the names of the settings and whether they were saved as entries
+	 */
+	private Map<String, Boolean> saveSettings(){
+		Map<String, Boolean> entries = new HashMap<String, Boolean>();
+		
+		frontend.save( "all", true );
+		entries.put( "all", true );
+		
+		frontend.hide( dockables[0] );
+		frontend.save( "full", false );
+		entries.put( "full", false );
+		
+		frontend.hide( dockables[1] );
+		frontend.save( "some", true );
+		entries.put( "some", true );
+		
+		return entries;
+	}
+	
+	/**
+	 * Writes the setting <code>name</code> of {@link #frontend}.
+	 * @param name the name of the setting
+	 * @param entry whether the setting is an entry
+	 * @return the serialized setting
+	 * @throws IOException if the setting cannot be written
+	 */
+	private byte[] write( String name, boolean entry ) throws IOException{
+		Setting setting = frontend.getSetting( name );
+		assertNotNull( name, setting );
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream( bytes );
+		frontend.write( setting, entry, out );
+		out.close();
+		return bytes.toByteArray();
+	}
+	
+	/**
+	 * A {@link DockFrontend} that remembers how {@link Setting}s were read, and that can be told to fail reading them.
+	 * @author Benjamin Sigg
+	 */
+	private static class TestFrontend extends DockFrontend{
+		private boolean failRead = false;
+		private Map<Setting, Boolean> readEntries = new IdentityHashMap<Setting, Boolean>();
+		
+		@Override
+		protected Setting read( boolean entry, DataInputStream in ) throws IOException{
+			if( failRead ){
+				throw new IOException( "test" );
+			}
+			Setting setting = super.read( entry, in );
+			readEntries.put( setting, entry );
+			return setting;
+		}
+	}
+}
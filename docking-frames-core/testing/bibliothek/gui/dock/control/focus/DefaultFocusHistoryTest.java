@@ -0,0 +1,389 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2013 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.control.focus;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import bibliothek.gui.DockController;
+import bibliothek.gui.DockStation;
+import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.DefaultDockable;
+import bibliothek.gui.dock.StackDockStation;
+import bibliothek.gui.dock.control.ControllerSetupCollection;
+import bibliothek.gui.dock.control.DefaultDockControllerFactory;
+import bibliothek.gui.dock.control.DefaultFocusController;
+import bibliothek.gui.dock.event.DockRegisterAdapter;
+import bibliothek.gui.dock.event.DockableFocusEvent;
+import bibliothek.gui.dock.event.DockableFocusListener;
+import bibliothek.gui.dock.util.DockUtilities;
+import bibliothek.util.Filter;
+
+/**
+ * Tests the order of the {@link Dockable}s in a {@link DefaultFocusHistory}.
+ * @author Benjamin Sigg
+ */
+public class DefaultFocusHistoryTest {
+	private DockController controller;
+	private TestFocusController focus;
+	private DefaultFocusHistory history;
+	
+	private StackDockStation left;
+	private StackDockStation right;
+	
+	@Before
+	public void setup(){
+		controller = new DockController( new DefaultDockControllerFactory(){
+			@Override
+			public FocusController createFocusController( DockController controller, ControllerSetupCollection setup ){
+				focus = new TestFocusController( controller );
+				return focus;
+			}
+		});
+		history = (DefaultFocusHistory)controller.getFocusHistory();
+		
+		left = new StackDockStation();
+		right = new StackDockStation();
+		controller.add( left );
+		controller.add( right );
+	}
+	
+	@After
+	public void cleanup(){
+		controller.kill();
+	}
+	
+	@Test
+	public void testRepeatedFocusChanges(){
+		Dockable a = add( left, "a" );
+		Dockable b = add( left, "b" );
+		Dockable c = add( right, "c" );
+		
+		assertOrder( a, b, c );
+		
+		focus.focusGained( b );
+		focus.focusGained( a );
+		focus.focusGained( c );
+		focus.focusGained( b );
+		focus.focusGained( b );
+		
+		assertOrder( a, c, b );
+		assertSame( b, history.getNewestOn( left ) );
+		assertSame( c, history.getNewestOn( right ) );
+		assertSame( b, history.getNewestOn( left, right ) );
+		
+		focus.focusGained( c );
+		assertSame( c, history.getNewestOn( left, right ) );
+		assertSame( b, history.getNewestOn( left ) );
+	}
+	
+	@Test
+	public void testNewestOnAfterMove(){
+		Dockable a = add( left, "a" );
+		Dockable b = add( left, "b" );
+		Dockable c = add( right, "c" );
+		
+		focus.focusGained( b );
+		focus.focusGained( c );
+		focus.focusGained( a );
+		assertSame( a, history.getNewestOn( left ) );
+		assertSame( c, history.getNewestOn( right ) );
+		
+		// a is unregistered and loses its place in the history
+		move( a, right );
+		assertSame( b, history.getNewestOn( left ) );
+		assertSame( c, history.getNewestOn( right ) );
+		
+		focus.focusGained( a );
+		assertSame( a, history.getNewestOn( right ) );
+		
+		// a stays registered while the register is stalled
+		controller.getRegister().setStalled( true );
+		try{
+			move( a, left );
+			assertSame( a, history.getNewestOn( left ) );
+			assertSame( c, history.getNewestOn( right ) );
+		}
+		finally{
+			controller.getRegister().setStalled( false );
+		}
+		assertSame( a, history.getNewestOn( left ) );
+		assertSame( c, history.getNewestOn( right ) );
+	}
+	
+	@Test
+	public void testUnregister(){
+		Dockable a = add( left, "a" );
+		Dockable b = add( left, "b" );
+		Dockable c = add( right, "c" );
+		
+		focus.focusGained( a );
+		focus.focusGained( c );
+		assertSame( a, history.getNewestOn( left ) );
+		
+		left.drag( a );
+		assertOrder( b, c );
+		assertNull( history.getNewestOn( left ) );
+		
+		right.drag( c );
+		assertOrder( b );
+		assertNull( history.getFirst( new Filter<Dockable>(){
+			public boolean includes( Dockable item ){
+				return true;
+			}
+		}) );
+	}
+	
+	@Test
+	public void testUnregisterWhileStalled(){
+		Dockable a = add( left, "a" );
+		Dockable b = add( left, "b" );
+		Dockable c = add( right, "c" );
+		
+		focus.focusGained( a );
+		focus.focusGained( b );
+		assertSame( b, history.getNewestOn( left ) );
+		
+		controller.getRegister().setStalled( true );
+		try{
+			left.drag( b );
+			assertSame( a, history.getNewestOn( left ) );
+			move( c, left );
+			left.drag( a );
+			assertNull( history.getNewestOn( left ) );
+		}
+		finally{
+			controller.getRegister().setStalled( false );
+		}
+		
+		assertOrder( c );
+		assertNull( history.getNewestOn( left ) );
+		
+		focus.focusGained( c );
+		assertSame( c, history.getNewestOn( left ) );
+	}
+	
+	@Test
+	public void testSameResultsAsListHistory(){
+		ListFocusHistory expected = new ListFocusHistory();
+		expected.setController( controller );
+		
+		Random random = new Random( 42 );
+		List<Dockable> dockables = new ArrayList<Dockable>();
+		StackDockStation[] stations = { left, right };
+		
+		List<Filter<Dockable>> filters = new ArrayList<Filter<Dockable>>();
+		for( int i = 0; i < 3; i++ ){
+			final int remainder = i;
+			filters.add( new Filter<Dockable>(){
+				public boolean includes( Dockable item ){
+					return item.getTitleText().hashCode() % 3 == remainder;
+				}
+			});
+		}
+		filters.add( new Filter<Dockable>(){
+			public boolean includes( Dockable item ){
+				return item instanceof DefaultDockable;
+			}
+		});
+		
+		for( int step = 0; step < 500; step++ ){
+			int action = random.nextInt( 10 );
+			if( action < 2 || dockables.isEmpty() ){
+				dockables.add( add( stations[ random.nextInt( 2 )], "d" + step ));
+			}
+			else{
+				Dockable dockable = dockables.get( random.nextInt( dockables.size() ));
+				if( action < 6 ){
+					focus.focusGained( dockable );
+				}
+				else if( action < 8 ){
+					move( dockable, stations[ random.nextInt( 2 )] );
+				}
+				else if( action < 9 ){
+					dockable.getDockParent().drag( dockable );
+					dockables.remove( dockable );
+				}
+				else{
+					controller.getRegister().setStalled( random.nextBoolean() );
+				}
+			}
+			
+			if( !controller.getRegister().isStalled() ){
+				assertArrayEquals( expected.getHistory(), history.getHistory() );
+			}
+			for( Filter<Dockable> filter : filters ){
+				assertSame( expected.getFirst( filter ), history.getFirst( filter ) );
+				assertSame( expected.getFirst( filter, true ), history.getFirst( filter, true ) );
+			}
+			assertSame( expected.getNewestOn( left ), history.getNewestOn( left ) );
+			assertSame( expected.getNewestOn( right ), history.getNewestOn( right ) );
+			assertSame( expected.getNewestOn( left, right ), history.getNewestOn( left, right ) );
+		}
+		
+		controller.getRegister().setStalled( false );
+		assertArrayEquals( expected.getHistory(), history.getHistory() );
+	}
+	
+	private Dockable add( StackDockStation station, String title ){
+		Dockable dockable = new DefaultDockable( title );
+		station.drop( dockable );
+		return dockable;
+	}
+	
+	private void move( Dockable dockable, StackDockStation station ){
+		dockable.getDockParent().drag( dockable );
+		station.drop( dockable );
+	}
+	
+	/**
+	 * Checks the {@link DefaultFocusHistory#getHistory() history}, ignoring the two root stations
+	 * which never have the focus.
+	 * @param dockables the expected history, the newest element at the end
+	 */
+	private void assertOrder( Dockable... dockables ){
+		Dockable[] actual = history.getHistory();
+		assertEquals( dockables.length + 2, actual.length );
+		assertSame( left, actual[0] );
+		assertSame( right, actual[1] );
+		for( int i = 0; i < dockables.length; i++ ){
+			assertSame( dockables[i], actual[i+2] );
+		}
+	}
+	
+	/**
+	 * A {@link FocusController} that ignores all requests and only fires the events of the test.
+	 * @author Benjamin Sigg
+	 */
+	private static class TestFocusController extends DefaultFocusController{
+		public TestFocusController( DockController controller ){
+			super( controller );
+		}
+		
+		@Override
+		public void focus( FocusRequest request ){
+			// ignore
+		}
+		
+		public void focusGained( Dockable dockable ){
+			fireDockableFocused( null, dockable );
+		}
+	}
+	
+	/**
+	 * A {@link FocusHistory} that stores its elements in simple lists, and searches them
+	 * every time a method is called. This is how the {@link DefaultFocusHistory} used to work.
+	 * @author Benjamin Sigg
+	 */
+	private static class ListFocusHistory extends DockRegisterAdapter implements FocusHistory, DockableFocusListener{
+		private List<Dockable> history = new LinkedList<Dockable>();
+		private List<Dockable> unfocused = new LinkedList<Dockable>();
+		
+		public void setController( DockController controller ){
+			controller.getRegister().addDockRegisterListener( this );
+			controller.getFocusController().addDockableFocusListener( this );
+			for( Dockable dockable : controller.getRegister().listDockables() ){
+				unfocused.add( dockable );
+			}
+		}
+		
+		public Dockable[] getHistory(){
+			Dockable[] result = new Dockable[ unfocused.size() + history.size() ];
+			int index = 0;
+			for( Dockable dockable : unfocused ){
+				result[ index++ ] = dockable;
+			}
+			index = result.length-1;
+			for( Dockable item : history ){
+				result[ index-- ] = item;
+			}
+			return result;
+		}
+		
+		public Dockable getNewestOn( DockStation... parents ){
+			for( Dockable item : history ){
+				for( DockStation station : parents ){
+					if( item != station && DockUtilities.isAncestor( station, item )){
+						return item;
+					}
+				}
+			}
+			return null;
+		}
+		
+		public Dockable getFirst( Filter<Dockable> filter ){
+			for( Dockable dockable : history ){
+				if( filter.includes( dockable )){
+					return dockable;
+				}
+			}
+			return null;
+		}
+		
+		public Dockable getFirst( Filter<Dockable> filter, boolean includeUnfocused ){
+			if( !includeUnfocused ){
+				return getFirst( filter );
+			}
+			Dockable[] dockables = getHistory();
+			for( int i = dockables.length-1; i >= 0; i-- ){
+				if( filter.includes( dockables[i] )){
+					return dockables[i];
+				}
+			}
+			return null;
+		}
+		
+		@Override
+		public void dockableUnregistered( DockController controller, Dockable dockable ){
+			history.remove( dockable );
+			unfocused.remove( dockable );
+		}
+		
+		@Override
+		public void dockableRegistered( DockController controller, Dockable dockable ){
+			if( !unfocused.contains( dockable ) && !history.contains( dockable )){
+				unfocused.add( dockable );
+			}
+		}
+		
+		public void dockableFocused( DockableFocusEvent event ){
+			Dockable owner = event.getNewFocusOwner();
+			if( owner != null ){
+				unfocused.remove( owner );
+				history.remove( owner );
+				history.add( 0, owner );
+			}
+		}
+	}
+}
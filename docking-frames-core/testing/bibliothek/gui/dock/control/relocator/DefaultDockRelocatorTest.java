@@ -0,0 +1,197 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2013 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.control.relocator;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import bibliothek.gui.DockController;
+import bibliothek.gui.DockStation;
+import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.DefaultDockable;
+import bibliothek.gui.dock.DockElement;
+import bibliothek.gui.dock.SplitDockStation;
+import bibliothek.gui.dock.StackDockStation;
+import bibliothek.gui.dock.action.DockAction;
+import bibliothek.gui.dock.disable.DisablingStrategy;
+import bibliothek.gui.dock.disable.DisablingStrategyListener;
+import bibliothek.gui.dock.station.split.SplitDockTree;
+import bibliothek.gui.dock.title.DockTitle;
+
+/**
+ * Tests that {@link DefaultDockRelocator} considers the correct {@link DockStation}s as possible
+ * targets of a drag and drop operation, even if the set of stations changes while an item is dragged.
+ * @author Benjamin Sigg
+ */
+public class DefaultDockRelocatorTest {
+	private DockController controller;
+	private DefaultDockRelocator relocator;
+	private RecordingStrategy strategy;
+	
+	private StackDockStation rootA;
+	private StackDockStation rootB;
+	private SplitDockStation inner;
+	private SplitDockStation innerChild;
+	private DefaultDockable dockable;
+	
+	@Before
+	public void setup(){
+		controller = new DockController();
+		relocator = (DefaultDockRelocator)controller.getRelocator();
+		strategy = new RecordingStrategy();
+		controller.getProperties().set( DisablingStrategy.STRATEGY, strategy );
+		
+		rootA = new StackDockStation();
+		rootB = new StackDockStation();
+		controller.add( rootA );
+		controller.add( rootB );
+		
+		dockable = new DefaultDockable( "dockable" );
+		innerChild = split( new DefaultDockable( "a" ), new DefaultDockable( "b" ) );
+		inner = split( innerChild, dockable, new DefaultDockable( "c" ) );
+		rootA.drop( inner );
+	}
+	
+	@After
+	public void cleanup(){
+		controller.kill();
+	}
+	
+	@Test
+	public void testAllStationsAreCandidates(){
+		assertEquals( set( rootA, rootB, inner, innerChild ), candidates( dockable ));
+	}
+	
+	@Test
+	public void testChildrenOfMovedStationAreIgnored(){
+		assertEquals( set( rootA, rootB ), candidates( inner ));
+		assertEquals( set( rootA, rootB, inner ), candidates( innerChild ));
+	}
+	
+	@Test
+	public void testRegisteredStationIsFound(){
+		assertEquals( set( rootA, rootB ), candidates( inner ));
+		
+		StackDockStation rootC = new StackDockStation();
+		controller.add( rootC );
+		assertEquals( set( rootA, rootB, rootC ), candidates( inner ));
+		
+		SplitDockStation added = split( new DefaultDockable( "d" ), new DefaultDockable( "e" ) );
+		rootB.drop( added );
+		assertEquals( set( rootA, rootB, rootC, added ), candidates( inner ));
+	}
+	
+	@Test
+	public void testUnregisteredStationIsIgnored(){
+		assertEquals( set( rootA, rootB ), candidates( inner ));
+		
+		controller.remove( rootB );
+		assertEquals( set( rootA ), candidates( inner ));
+	}
+	
+	@Test
+	public void testMovedStationChanges(){
+		assertEquals( set( rootA, rootB ), candidates( inner ));
+		
+		inner.drag( innerChild );
+		rootB.drop( innerChild );
+		assertEquals( set( rootA, rootB, innerChild ), candidates( inner ));
+	}
+	
+	private SplitDockStation split( Dockable... children ){
+		SplitDockStation station = new SplitDockStation();
+		SplitDockTree<Dockable> tree = station.createTree();
+		SplitDockTree<Dockable>.Key key = tree.put( new Dockable[]{ children[0] }, null );
+		for( int i = 1; i < children.length; i++ ){
+			key = tree.horizontal( key, tree.put( new Dockable[]{ children[i] }, null ));
+		}
+		tree.root( key );
+		station.dropTree( tree );
+		return station;
+	}
+	
+	private Set<DockStation> candidates( Dockable moved ){
+		strategy.elements.clear();
+		relocator.listStationsOrdered( 0, 0, moved );
+		assertSame( moved, strategy.elements.get( 0 ));
+		
+		Set<DockStation> result = new HashSet<DockStation>();
+		for( DockElement element : strategy.elements.subList( 1, strategy.elements.size() )){
+			result.add( (DockStation)element );
+		}
+		return result;
+	}
+	
+	private Set<DockStation> set( DockStation... stations ){
+		Set<DockStation> result = new HashSet<DockStation>();
+		for( DockStation station : stations ){
+			result.add( station );
+		}
+		return result;
+	}
+	
+	/**
+	 * A {@link DisablingStrategy} that never disables anything, but remembers all the elements that were
+	 * checked by the relocator. The relocator first checks the moved element, then all the candidate stations.
+	 * @author Benjamin Sigg
+	 */
+	private static class RecordingStrategy implements DisablingStrategy{
+		private List<DockElement> elements = new ArrayList<DockElement>();
+		
+		public void addDisablingStrategyListener( DisablingStrategyListener listener ){
+			// ignore
+		}
+		
+		public void removeDisablingStrategyListener( DisablingStrategyListener listener ){
+			// ignore
+		}
+		
+		public boolean isDisabled( DockElement item ){
+			elements.add( item );
+			return false;
+		}
+		
+		public boolean isDisabled( Dockable dockable, DockAction item ){
+			return false;
+		}
+		
+		public boolean isDisabled( Dockable dockable, DockTitle item ){
+			return false;
+		}
+		
+		public boolean isTabDisabled( Dockable dockable ){
+			return false;
+		}
+	}
+}
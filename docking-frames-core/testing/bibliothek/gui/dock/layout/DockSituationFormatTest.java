@@ -0,0 +1,241 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2013 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.layout;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import bibliothek.gui.DockController;
+import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.DefaultDockable;
+import bibliothek.gui.dock.SplitDockStation;
+import bibliothek.gui.dock.StackDockStation;
+import bibliothek.gui.dock.dockable.DefaultDockableFactory;
+import bibliothek.gui.dock.layout.DockSituation.Format;
+import bibliothek.gui.dock.station.split.SplitDockStationFactory;
+import bibliothek.gui.dock.station.split.SplitDockTree;
+import bibliothek.gui.dock.station.stack.StackDockStationFactory;
+import bibliothek.util.Version;
+
+/**
+ * Tests that {@link DockSituation} can read all the {@link Format}s it writes, including
+ * entries of factories that are missing.
+ * @author Benjamin Sigg
+ */
+public class DockSituationFormatTest {
+	private DockController controller;
+	private SplitDockStation station;
+	
+	private DockSituation complete;
+	private DockSituation partial;
+	
+	@Before
+	public void setup(){
+		controller = new DockController();
+		
+		StackDockStation stack = new StackDockStation();
+		stack.drop( new DefaultDockable( "b" ) );
+		stack.drop( new DefaultDockable( "c" ) );
+		
+		station = new SplitDockStation();
+		controller.add( station );
+		SplitDockTree<Dockable> tree = station.createTree();
+		tree.root( tree.horizontal( 
+				tree.put( new Dockable[]{ new DefaultDockable( "a" ) }, null ),
+				tree.vertical(
+						tree.put( new Dockable[]{ stack }, null ),
+						tree.put( new Dockable[]{ new DefaultDockable( "d" ) }, null ))));
+		station.dropTree( tree );
+		
+		complete = new DockSituation( new DefaultDockableFactory(), new SplitDockStationFactory(), new StackDockStationFactory() );
+		partial = new DockSituation( new SplitDockStationFactory() );
+	}
+	
+	@After
+	public void cleanup(){
+		controller.kill();
+	}
+	
+	@Test
+	public void testStandardIsDefault(){
+		assertEquals( Format.STANDARD, complete.getFormat() );
+	}
+	
+	@Test
+	public void testStandardRoundTrip() throws IOException{
+		roundTrip( Format.STANDARD );
+	}
+	
+	@Test
+	public void testCompactRoundTrip() throws IOException{
+		roundTrip( Format.COMPACT );
+	}
+	
+	@Test
+	public void testCompressedRoundTrip() throws IOException{
+		roundTrip( Format.COMPRESSED );
+	}
+	
+	@Test
+	public void testStandardMissingFactories() throws IOException{
+		missingFactories( Format.STANDARD );
+	}
+	
+	@Test
+	public void testCompactMissingFactories() throws IOException{
+		missingFactories( Format.COMPACT );
+	}
+	
+	@Test
+	public void testCompressedMissingFactories() throws IOException{
+		missingFactories( Format.COMPRESSED );
+	}
+	
+	@Test
+	public void testStandardIsReadableByOlderVersions() throws IOException{
+		byte[] data = write( complete, complete.convert( station ), Format.STANDARD );
+		Version version = Version.read( new DataInputStream( new ByteArrayInputStream( data ) ) );
+		assertTrue( version.compareTo( Version.CURRENT ) <= 0 );
+	}
+	
+	@Test
+	public void testCompactIsRejectedByOlderVersions() throws IOException{
+		for( Format format : new Format[]{ Format.COMPACT, Format.COMPRESSED }){
+			byte[] data = write( complete, complete.convert( station ), format );
+			Version version = Version.read( new DataInputStream( new ByteArrayInputStream( data ) ) );
+			assertTrue( version.compareTo( Version.CURRENT ) > 0 );
+		}
+	}
+	
+	@Test( expected=IOException.class )
+	public void testMissingFactoryIdentifier() throws IOException{
+		byte[] data = write( complete, complete.convert( station ), Format.COMPACT );
+		
+		// keep the marker and the flag telling that the data is not compressed
+		ByteArrayInputStream bin = new ByteArrayInputStream( data );
+		DataInputStream in = new DataInputStream( bin );
+		Version.read( in );
+		in.readBoolean();
+		int header = data.length - bin.available();
+		
+		// no placeholder, no factory, no content, no adjacent layouts, no children
+		byte[] corrupt = Arrays.copyOf( data, header + 6 );
+		Arrays.fill( corrupt, header, corrupt.length, (byte)0 );
+		read( complete, corrupt );
+	}
+	
+	@Test( expected=IOException.class )
+	public void testTruncatedStandard() throws IOException{
+		byte[] data = write( complete, complete.convert( station ), Format.STANDARD );
+		read( partial, Arrays.copyOf( data, data.length - 4 ) );
+	}
+	
+	@Test( expected=IOException.class )
+	public void testTruncatedCompact() throws IOException{
+		byte[] data = write( complete, complete.convert( station ), Format.COMPACT );
+		read( complete, Arrays.copyOf( data, data.length / 2 ) );
+	}
+	
+	@Test( expected=IOException.class )
+	public void testTruncatedCompressed() throws IOException{
+		byte[] data = write( complete, complete.convert( station ), Format.COMPRESSED );
+		read( complete, Arrays.copyOf( data, data.length - 4 ) );
+	}
+	
+	/**
+	 * Writes the layout of {@link #station} with <code>format</code>, reads it again and compares
+	 * the result with the original layout.
+	 * @param format the format to test
+	 * @throws IOException if the layout cannot be read or written
+	 */
+	private void roundTrip( Format format ) throws IOException{
+		DockLayoutComposition composition = complete.convert( station );
+		byte[] expected = write( complete, composition, Format.STANDARD );
+		
+		DockLayoutComposition result = read( complete, write( complete, composition, format ) );
+		assertEquals( DockLayoutInfo.Data.DOCK_LAYOUT, result.getLayout().getKind() );
+		assertArrayEquals( expected, write( complete, result, Format.STANDARD ) );
+	}
+	
+	/**
+	 * Reads the layout of {@link #station} with a {@link DockSituation} that does not know the factories
+	 * of the {@link Dockable}s and of the {@link StackDockStation}, writes the raw entries again using <code>format</code>, and checks that 
+	 * a {@link DockSituation} that knows all the factories can read them.
+	 * @param format the format to test
+	 * @throws IOException if the layout cannot be read or written
+	 */
+	private void missingFactories( Format format ) throws IOException{
+		byte[] expected = write( complete, complete.convert( station ), Format.STANDARD );
+		
+		// the four dockables and the stack
+		DockLayoutComposition raw = read( partial, expected );
+		assertEquals( 5, countBytes( raw ) );
+		
+		byte[] data = write( partial, raw, format );
+		
+		DockLayoutComposition again = read( partial, data );
+		assertEquals( 5, countBytes( again ) );
+		assertArrayEquals( expected, write( partial, again, Format.STANDARD ) );
+		
+		DockLayoutComposition result = read( complete, data );
+		assertEquals( 0, countBytes( result ) );
+		assertArrayEquals( expected, write( complete, result, Format.STANDARD ) );
+	}
+	
+	private int countBytes( DockLayoutComposition composition ){
+		int count = composition.getLayout().getKind() == DockLayoutInfo.Data.BYTE ? 1 : 0;
+		for( DockLayoutComposition child : composition.getChildren() ){
+			count += countBytes( child );
+		}
+		return count;
+	}
+	
+	private byte[] write( DockSituation situation, DockLayoutComposition composition, Format format ) throws IOException{
+		situation.setFormat( format );
+		ByteArrayOutputStream bout = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream( bout );
+		situation.writeComposition( composition, out );
+		out.close();
+		return bout.toByteArray();
+	}
+	
+	private DockLayoutComposition read( DockSituation situation, byte[] data ) throws IOException{
+		DataInputStream in = new DataInputStream( new ByteArrayInputStream( data ) );
+		DockLayoutComposition result = situation.readComposition( in );
+		in.close();
+		return result;
+	}
+}
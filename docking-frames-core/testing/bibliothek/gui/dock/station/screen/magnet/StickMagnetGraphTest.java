@@ -0,0 +1,272 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2013 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.station.screen.magnet;
+
+import static org.junit.Assert.*;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.swing.JDesktopPane;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import bibliothek.gui.DockController;
+import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.DefaultDockable;
+import bibliothek.gui.dock.ScreenDockStation;
+import bibliothek.gui.dock.station.screen.BoundaryRestriction;
+import bibliothek.gui.dock.station.screen.ScreenDockWindow;
+import bibliothek.gui.dock.station.screen.magnet.MagnetRequest.Side;
+import bibliothek.gui.dock.station.screen.magnet.StickMagnetGraph.Edge;
+import bibliothek.gui.dock.station.screen.magnet.StickMagnetGraph.Node;
+import bibliothek.gui.dock.station.screen.window.InternalScreenDockWindowFactory;
+import bibliothek.gui.dock.util.NullWindowProvider;
+
+/**
+ * Tests how a {@link StickMagnetGraph} is built, and which windows the {@link MagnetController}
+ * reports as attracted.
+ * @author Benjamin Sigg
+ */
+public class StickMagnetGraphTest {
+	private DockController controller;
+	private ScreenDockStation station;
+	private TestAttractor attractor;
+	private TestStrategy strategy;
+	
+	@Before
+	public void setup(){
+		controller = new DockController();
+		attractor = new TestAttractor();
+		controller.getProperties().set( ScreenDockStation.ATTRACTOR_STRATEGY, attractor );
+		strategy = new TestStrategy();
+		controller.getProperties().set( ScreenDockStation.MAGNET_STRATEGY, strategy );
+		// the default restrictions require a screen
+		controller.getProperties().set( ScreenDockStation.BOUNDARY_RESTRICTION, new BoundaryRestriction(){
+			public Rectangle check( ScreenDockWindow window ){
+				return null;
+			}
+			
+			public Rectangle check( ScreenDockWindow window, Rectangle target ){
+				return null;
+			}
+		});
+		
+		station = new ScreenDockStation( new NullWindowProvider() );
+		station.setWindowFactory( new InternalScreenDockWindowFactory( new JDesktopPane() ) );
+		controller.add( station );
+	}
+	
+	@After
+	public void cleanup(){
+		// without windows the station does not need the default restriction when it is removed
+		while( station.getDockableCount() > 0 ){
+			station.removeDockable( 0 );
+		}
+		controller.kill();
+	}
+	
+	@Test
+	public void testGraph(){
+		// a b c
+		// d     e
+		ScreenDockWindow a = add( "a", 0, 0 );
+		ScreenDockWindow b = add( "b", 100, 0 );
+		ScreenDockWindow c = add( "c", 200, 0 );
+		ScreenDockWindow d = add( "d", 0, 100 );
+		ScreenDockWindow e = add( "e", 500, 500 );
+		
+		StickMagnetGraph graph = new StickMagnetGraph( station.getMagnetController(), request( a ) );
+		Node root = graph.getRoot();
+		assertSame( a, root.getWindow() );
+		assertEquals( Side.EAST, root.getNeighbor( b ) );
+		assertEquals( Side.SOUTH, root.getNeighbor( d ) );
+		assertNull( root.getNeighbor( c ) );
+		assertNull( root.getNeighbor( e ) );
+		
+		Node nodeB = target( root, b );
+		assertEquals( Side.EAST, nodeB.getNeighbor( c ) );
+		assertNull( nodeB.getNeighbor( d ) );
+		// leaves only know the edge leading to them
+		assertEquals( 1, target( nodeB, c ).getEdges().length );
+		assertSame( nodeB, target( nodeB, c ).getEdges()[0].getSource() );
+		assertEquals( 1, target( root, d ).getEdges().length );
+		assertSame( root, target( root, d ).getEdges()[0].getSource() );
+		
+		assertTrue( graph.depends( c, Side.EAST ));
+		assertFalse( graph.depends( e, Side.EAST ));
+		assertFalse( graph.depends( e, Side.SOUTH ));
+	}
+	
+	@Test
+	public void testGraphRespectsStickiness(){
+		ScreenDockWindow a = add( "a", 0, 0 );
+		ScreenDockWindow b = add( "b", 100, 0 );
+		ScreenDockWindow c = add( "c", 0, 100 );
+		attractor.loose.add( c.getDockable() );
+		
+		Node root = new StickMagnetGraph( station.getMagnetController(), request( a ) ).getRoot();
+		assertEquals( Side.EAST, root.getNeighbor( b ) );
+		assertNull( root.getNeighbor( c ) );
+	}
+	
+	@Test
+	public void testRelationSeesAllPairs(){
+		ScreenDockWindow a = add( "a", 0, 0 );
+		ScreenDockWindow b = add( "b", 100, 0 );
+		ScreenDockWindow c = add( "c", 500, 500 );
+		
+		final List<ScreenDockWindow> fixed = new ArrayList<ScreenDockWindow>();
+		StickMagnetGraph graph = new StickMagnetGraph( station.getMagnetController(), request( a ) ){
+			@Override
+			protected Side relation( ScreenDockWindow moved, ScreenDockWindow fixedWindow ){
+				fixed.add( fixedWindow );
+				return super.relation( moved, fixedWindow );
+			}
+		};
+		graph.getRoot();
+		assertTrue( fixed.contains( c ) );
+		assertTrue( fixed.contains( b ) );
+	}
+	
+	@Test
+	public void testAttractedFollowsWindows(){
+		ScreenDockWindow a = add( "a", 0, 0 );
+		ScreenDockWindow b = add( "b", 100, 0 );
+		
+		MagnetController magnet = station.getMagnetController();
+		magnet.start( a );
+		assertEquals( set( b ), set( magnet.getAttracted( a ) ) );
+		
+		ScreenDockWindow c = add( "c", 300, 300 );
+		assertEquals( set( b, c ), set( magnet.getAttracted( a ) ) );
+		
+		station.removeDockable( b.getDockable() );
+		assertEquals( set( c ), set( magnet.getAttracted( a ) ) );
+		
+		// the result is cached as long as the windows do not change
+		int count = attractor.attractCalls;
+		magnet.getAttracted( a );
+		assertEquals( count, attractor.attractCalls );
+	}
+	
+	/**
+	 * Starts moving <code>window</code>, but does not yet change its location.
+	 * @param window the window to move
+	 * @return the request describing the movement
+	 */
+	private MagnetRequest request( ScreenDockWindow window ){
+		station.getMagnetController().start( window ).attract( window.getWindowBounds() );
+		assertSame( window, strategy.request.getWindow() );
+		return strategy.request;
+	}
+	
+	private Set<ScreenDockWindow> set( ScreenDockWindow... windows ){
+		return new HashSet<ScreenDockWindow>( Arrays.asList( windows ) );
+	}
+	
+	private Node target( Node node, ScreenDockWindow window ){
+		for( Edge edge : node.getEdges() ){
+			if( edge.getTarget().getWindow() == window ){
+				return edge.getTarget();
+			}
+		}
+		fail( "no edge to " + window.getDockable().getTitleText() );
+		return null;
+	}
+	
+	/**
+	 * Adds a new window of size 100x100 at <code>x/y</code>.
+	 * @param title the title of the new dockable
+	 * @param x the x coordinate of the window
+	 * @param y the y coordinate of the window
+	 * @return the new window
+	 */
+	private ScreenDockWindow add( String title, int x, int y ){
+		Dockable dockable = new DefaultDockable( title );
+		station.addDockable( dockable, new Rectangle( x, y, 100, 100 ), true );
+		ScreenDockWindow window = station.getWindow( dockable );
+		assertEquals( new Rectangle( x, y, 100, 100 ), window.getWindowBounds() );
+		return window;
+	}
+	
+	/**
+	 * An {@link AttractorStrategy} that lets all {@link Dockable}s attract each other, and that
+	 * lets all {@link Dockable}s stick together unless they are {@link #loose}.
+	 * @author Benjamin Sigg
+	 */
+	private static class TestAttractor implements AttractorStrategy{
+		private Set<Dockable> loose = new HashSet<Dockable>();
+		private int attractCalls = 0;
+		
+		public Attraction attract( ScreenDockStation parent, Dockable moved, Dockable fixed ){
+			attractCalls++;
+			return Attraction.ATTRACTED;
+		}
+		
+		public Attraction stick( ScreenDockStation parent, Dockable moved, Dockable fixed ){
+			if( loose.contains( moved ) || loose.contains( fixed )){
+				return Attraction.NEUTRAL;
+			}
+			return Attraction.ATTRACTED;
+		}
+	}
+	
+	/**
+	 * A {@link MagnetStrategy} that does not change any boundaries, but remembers the last {@link MagnetRequest}.
+	 * @author Benjamin Sigg
+	 */
+	private static class TestStrategy implements MagnetStrategy{
+		private MagnetRequest request;
+		
+		public void install( MagnetController controller ){
+			// ignore
+		}
+		
+		public void uninstall( MagnetController controller ){
+			// ignore
+		}
+		
+		public MagnetOperation start( MagnetController controller, MagnetRequest request ){
+			this.request = request;
+			return new MagnetOperation(){
+				public void attract( MagnetController controller, MagnetRequest request ){
+					// ignore
+				}
+				
+				public void destroy(){
+					// ignore
+				}
+			};
+		}
+	}
+}
@@ -0,0 +1,277 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2013 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.station.split;
+
+import static org.junit.Assert.*;
+
+import java.awt.EventQueue;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import bibliothek.gui.DockController;
+import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.DefaultDockable;
+import bibliothek.gui.dock.SplitDockStation;
+import bibliothek.util.Path;
+
+/**
+ * Tests that the index of {@link Root} always answers {@link Root#getLeaf(Dockable)}, {@link Root#getNode(long)}
+ * and {@link Root#getPlaceholderNode(Path)} like a search through the tree would.
+ * @author Benjamin Sigg
+ */
+public class RootIndexTest {
+	private DockController controller;
+	private SplitDockStation station;
+	private Root root;
+	
+	private Dockable a;
+	private Dockable b;
+	private Dockable c;
+	
+	@Before
+	public void setup(){
+		controller = new DockController();
+		station = new SplitDockStation();
+		controller.add( station );
+		root = station.getRoot();
+		
+		a = new KeyDockable( "a" );
+		b = new KeyDockable( "b" );
+		c = new KeyDockable( "c" );
+		
+		SplitDockTree<Dockable> tree = station.createTree();
+		tree.root( tree.horizontal(
+				tree.put( new Dockable[]{ a }, null ),
+				tree.vertical(
+						tree.put( new Dockable[]{ b }, null ),
+						tree.put( new Dockable[]{ c }, null ))));
+		station.dropTree( tree );
+	}
+	
+	@After
+	public void cleanup(){
+		controller.kill();
+	}
+	
+	@Test
+	public void testEvolve(){
+		check();
+		assertSame( a, root.getLeaf( a ).getDockable() );
+		assertSame( b, root.getLeaf( b ).getDockable() );
+		assertSame( c, root.getLeaf( c ).getDockable() );
+		assertNull( root.getLeaf( new KeyDockable( "a" ) ) );
+	}
+	
+	@Test
+	public void testIdentity(){
+		check();
+		((KeyDockable)b).key = "a";
+		((KeyDockable)c).key = "x";
+		check();
+		assertSame( b, root.getLeaf( b ).getDockable() );
+		assertSame( c, root.getLeaf( c ).getDockable() );
+		
+		// the controller relies on the keys when it is killed
+		((KeyDockable)b).key = "b";
+		((KeyDockable)c).key = "c";
+	}
+	
+	@Test
+	public void testSetChild(){
+		check();
+		Node top = (Node)root.getChild();
+		Node swapped = root.createNode( -1 );
+		swapped.setLeft( top.getRight() );
+		swapped.setRight( top.getLeft() );
+		root.setChild( swapped );
+		check();
+		assertNull( root.getNode( top.getId() ) );
+		
+		Leaf leafA = root.getLeaf( a );
+		swapped.setRight( null );
+		check();
+		assertNull( root.getLeaf( a ) );
+		assertNull( root.getNode( leafA.getId() ) );
+		
+		swapped.setRight( leafA );
+		check();
+		assertSame( leafA, root.getLeaf( a ) );
+	}
+	
+	@Test
+	public void testDelete(){
+		check();
+		station.removeDockable( b );
+		check();
+		assertNull( root.getLeaf( b ) );
+		
+		Leaf leafC = root.getLeaf( c );
+		Placeholder placeholder = root.createPlaceholder( -1 );
+		placeholder.addPlaceholder( new Path( "placeholder" ) );
+		Node node = root.createNode( -1 );
+		node.setLeft( root.getChild() );
+		node.setRight( placeholder );
+		root.setChild( node );
+		check();
+		assertSame( placeholder, root.getPlaceholderNode( new Path( "placeholder" ) ) );
+		
+		placeholder.delete( true );
+		check();
+		assertNull( root.getPlaceholderNode( new Path( "placeholder" ) ) );
+		assertSame( leafC, root.getLeaf( c ) );
+	}
+	
+	@Test
+	public void testIdReassignment() throws Exception{
+		final Leaf leafA = root.getLeaf( a );
+		final long id = leafA.getId();
+		final Node duplicate = root.createNode( id );
+		duplicate.addPlaceholder( new Path( "duplicate" ) );
+		
+		// inside the EDT the ids are checked later, the index is built while the ids are not yet unique
+		EventQueue.invokeAndWait( new Runnable(){
+			public void run(){
+				duplicate.setLeft( root.getChild() );
+				duplicate.setRight( root.createPlaceholder( -1 ) );
+				root.setChild( duplicate );
+				assertNotNull( root.getNode( id ) );
+			}
+		});
+		EventQueue.invokeAndWait( new Runnable(){
+			public void run(){
+				// wait until the ids were checked
+			}
+		});
+		
+		assertTrue( leafA.getId() != duplicate.getId() );
+		check();
+		assertSame( duplicate, root.getNode( duplicate.getId() ) );
+		assertSame( leafA, root.getLeaf( a ) );
+		assertSame( duplicate, root.getPlaceholderNode( new Path( "duplicate" ) ) );
+	}
+	
+	@Test
+	public void testPlaceholders(){
+		Leaf leafA = root.getLeaf( a );
+		Leaf leafB = root.getLeaf( b );
+		Path first = new Path( "first" );
+		Path second = new Path( "second" );
+		
+		check();
+		leafA.addPlaceholder( first );
+		check();
+		assertSame( leafA, root.getPlaceholderNode( first ) );
+		
+		leafB.setPlaceholders( new Path[]{ second } );
+		check();
+		assertSame( leafB, root.getPlaceholderNode( second ) );
+		
+		leafA.removePlaceholder( first );
+		check();
+		assertNull( root.getPlaceholderNode( first ) );
+		
+		leafB.setPlaceholders( null );
+		check();
+		assertNull( root.getPlaceholderNode( second ) );
+	}
+	
+	/**
+	 * Searches through the tree and compares the result with the index of {@link #root}.
+	 */
+	private void check(){
+		Map<Dockable, Leaf> leaves = new IdentityHashMap<Dockable, Leaf>();
+		Map<Long, SplitNode> ids = new HashMap<Long, SplitNode>();
+		Map<Path, SplitNode> placeholders = new HashMap<Path, SplitNode>();
+		List<SplitNode> nodes = new ArrayList<SplitNode>();
+		collect( root, nodes );
+		
+		for( SplitNode node : nodes ){
+			assertNull( "ids are not unique", ids.put( node.getId(), node ) );
+			for( Path placeholder : node.getPlaceholders() ){
+				if( !placeholders.containsKey( placeholder )){
+					placeholders.put( placeholder, node );
+				}
+			}
+			if( node instanceof Leaf ){
+				Dockable dockable = ((Leaf)node).getDockable();
+				if( dockable != null && !leaves.containsKey( dockable )){
+					leaves.put( dockable, (Leaf)node );
+				}
+			}
+		}
+		
+		for( Map.Entry<Long, SplitNode> entry : ids.entrySet() ){
+			assertSame( entry.getValue(), root.getNode( entry.getKey() ) );
+		}
+		for( Map.Entry<Path, SplitNode> entry : placeholders.entrySet() ){
+			assertSame( entry.getValue(), root.getPlaceholderNode( entry.getKey() ) );
+		}
+		for( Map.Entry<Dockable, Leaf> entry : leaves.entrySet() ){
+			assertSame( entry.getValue(), root.getLeaf( entry.getKey() ) );
+		}
+	}
+	
+	private void collect( SplitNode node, List<SplitNode> nodes ){
+		nodes.add( node );
+		for( int i = 0, n = node.getMaxChildrenCount(); i<n; i++ ){
+			SplitNode child = node.getChild( i );
+			if( child != null ){
+				collect( child, nodes );
+			}
+		}
+	}
+	
+	/**
+	 * A {@link Dockable} whose {@link #equals(Object)} and {@link #hashCode()} depend on a key
+	 * that can change, the index must still find the {@link Leaf} of the very same object.
+	 * @author Benjamin Sigg
+	 */
+	private static class KeyDockable extends DefaultDockable{
+		private String key;
+		
+		public KeyDockable( String key ){
+			super( key );
+			this.key = key;
+		}
+		
+		@Override
+		public boolean equals( Object obj ){
+			return obj instanceof KeyDockable && ((KeyDockable)obj).key.equals( key );
+		}
+		
+		@Override
+		public int hashCode(){
+			return key.hashCode();
+		}
+	}
+}
@@ -0,0 +1,319 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2013 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.station.stack.tab.layouting;
+
+import static org.junit.Assert.*;
+
+import java.awt.Dimension;
+import java.awt.Insets;
+import java.awt.Rectangle;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.DefaultDockable;
+import bibliothek.gui.dock.station.stack.tab.Tab;
+import bibliothek.gui.dock.station.stack.tab.TabPane;
+import bibliothek.gui.dock.station.stack.tab.TabPaneComponent;
+import bibliothek.gui.dock.station.stack.tab.layouting.LineTabsLayoutBlock.LineSize;
+import bibliothek.gui.dock.station.stack.tab.layouting.LineTabsLayoutBlock.ZOrder;
+
+/**
+ * Tests the z-order and the sizes calculated by a {@link LineTabsLayoutBlock}.
+ * @author Benjamin Sigg
+ */
+public class LineTabsLayoutBlockTest {
+	@Test
+	public void testZOrderWithoutConstraints(){
+		TestTab[] tabs = tabs( 5 );
+		ZOrder order = new LineTabsLayoutBlock().new ZOrder( tabs );
+		
+		assertArrayEquals( new int[]{ 5, 4, 3, 2, 1 }, order.getZOrders() );
+		assertArrayEquals( tabs, order.getOrderedByZ() );
+	}
+	
+	@Test
+	public void testZOrderChain(){
+		// every tab overlaps its previous tab, like the tabs of the eclipse theme
+		TestTab[] tabs = tabs( 5 );
+		ZOrder order = new LineTabsLayoutBlock().new ZOrder( tabs );
+		for( int i = 0; i+1 < tabs.length; i++ ){
+			order.putOrder( tabs[i+1], tabs[i] );
+		}
+		
+		// the old algorithm removed the loop counter instead of the handled tab from the lists
+		// of tabs that are on top, and hence left all but the last tab with a z-order of 0
+		assertArrayEquals( new int[]{ 1, 2, 3, 4, 5 }, order.getZOrders() );
+		assertArrayEquals( new Tab[]{ tabs[4], tabs[3], tabs[2], tabs[1], tabs[0] }, order.getOrderedByZ() );
+	}
+	
+	@Test
+	public void testZOrderSelectedInFront(){
+		TestTab[] tabs = tabs( 5 );
+		ZOrder order = new LineTabsLayoutBlock().new ZOrder( tabs );
+		order.putOrder( tabs[1], tabs[0] );
+		order.putOrder( tabs[2], tabs[1] );
+		order.putOrder( tabs[2], tabs[3] );
+		order.putOrder( tabs[3], tabs[4] );
+		
+		assertArrayEquals( new Tab[]{ tabs[2], tabs[1], tabs[0], tabs[3], tabs[4] }, order.getOrderedByZ() );
+		assertArrayEquals( new int[]{ 3, 4, 5, 2, 1 }, order.getZOrders() );
+		
+		// asking again must not change the result
+		assertArrayEquals( new Tab[]{ tabs[2], tabs[1], tabs[0], tabs[3], tabs[4] }, order.getOrderedByZ() );
+	}
+	
+	@Test
+	public void testZOrderIgnoresUnknownTabs(){
+		TestTab[] tabs = tabs( 3 );
+		ZOrder order = new LineTabsLayoutBlock().new ZOrder( tabs );
+		order.putOrder( new TestTab( new DefaultDockable(), 1, 1, 0 ), tabs[0] );
+		order.putOrder( tabs[2], tabs[1] );
+		
+		assertArrayEquals( new Tab[]{ tabs[0], tabs[2], tabs[1] }, order.getOrderedByZ() );
+	}
+	
+	@Test
+	public void testSizesOfKnownLayout(){
+		TestTab[] tabs = new TestTab[]{
+				new TestTab( new DefaultDockable(), 10, 5, 2 ),
+				new TestTab( new DefaultDockable(), 20, 8, 2 ),
+				new TestTab( new DefaultDockable(), 30, 6, 0 )
+		};
+		
+		// the minimum width of a tab is half of its preferred width
+		// the middle tab is the most important one, then the first and then the last
+		TestBlock block = new TestBlock( tabs, tabs[1], tabs[0], tabs[2] );
+		LineSize[] sizes = block.getSizes();
+		
+		assertEquals( 4, sizes.length );
+		assertSize( Size.Type.MINIMUM, 10, 8, 1, false, sizes[0] );
+		assertSize( Size.Type.MINIMUM, 5+10-2, 8, 2, false, sizes[1] );
+		assertSize( Size.Type.MINIMUM, 5+10+15-2-2, 8, 3, true, sizes[2] );
+		assertSize( Size.Type.PREFERRED, 10+20+30-2-2, 8, 3, true, sizes[3] );
+	}
+	
+	@Test
+	public void testSizesDependingOnNeighbors(){
+		Random random = new Random( 42 );
+		for( int round = 0; round < 20; round++ ){
+			int count = 1 + random.nextInt( 8 );
+			TestTab[] tabs = new TestTab[ count ];
+			for( int i = 0; i < count; i++ ){
+				tabs[i] = new TestTab( new DefaultDockable(), 5 + random.nextInt( 30 ), 5 + random.nextInt( 10 ), random.nextInt( 4 ) );
+				tabs[i].neighborBonus = random.nextInt( 5 );
+			}
+			
+			List<TestTab> importance = new ArrayList<TestTab>();
+			for( TestTab tab : tabs ){
+				importance.add( random.nextInt( importance.size()+1 ), tab );
+			}
+			
+			TestBlock block = new TestBlock( tabs, importance.toArray( new TestTab[ count ] ) );
+			LineSize[] sizes = block.getSizes();
+			assertEquals( count+1, sizes.length );
+			
+			for( int i = 0; i < count; i++ ){
+				Dimension expected = size( tabs, importance.subList( 0, i+1 ), true );
+				assertEquals( expected, size( sizes[i] ) );
+			}
+			assertEquals( size( tabs, importance, false ), size( sizes[count] ) );
+		}
+	}
+	
+	private void assertSize( Size.Type type, int width, int height, int tabs, boolean allTabs, LineSize size ){
+		assertEquals( type, size.getType() );
+		assertEquals( new Dimension( width, height ), size( size ) );
+		assertEquals( tabs, size.getTabs().length );
+		assertEquals( allTabs, size.isAllTabs() );
+	}
+	
+	private Dimension size( Size size ){
+		return new Dimension( size.getWidth(), size.getHeight() );
+	}
+	
+	/**
+	 * Calculates the size of the tabs <code>visible</code> the straight forward way.
+	 * @param all all the tabs in the order of their dockables
+	 * @param visible the tabs that are shown
+	 * @param minimum whether to use the minimum or the preferred size
+	 * @return the size of the line of tabs
+	 */
+	private Dimension size( TestTab[] all, List<TestTab> visible, boolean minimum ){
+		List<Tab> line = new ArrayList<Tab>();
+		for( TestTab tab : all ){
+			if( visible.contains( tab )){
+				line.add( tab );
+			}
+		}
+		Tab[] array = line.toArray( new Tab[ line.size() ] );
+		
+		int width = 0;
+		int height = 0;
+		for( int i = 0; i < array.length; i++ ){
+			Dimension size = minimum ? array[i].getMinimumSize( array ) : array[i].getPreferredSize( array );
+			width += size.width;
+			height = Math.max( height, size.height );
+			if( i > 0 ){
+				width -= Math.max( array[i-1].getOverlap( array[i] ).right, array[i].getOverlap( array[i-1] ).left );
+			}
+		}
+		return new Dimension( width, height );
+	}
+	
+	private TestTab[] tabs( int count ){
+		TestTab[] tabs = new TestTab[ count ];
+		for( int i = 0; i < count; i++ ){
+			tabs[i] = new TestTab( new DefaultDockable(), 10, 10, 0 );
+		}
+		return tabs;
+	}
+	
+	/**
+	 * A {@link LineTabsLayoutBlock} with a fixed set of tabs and a fixed order of importance.
+	 * @author Benjamin Sigg
+	 */
+	private static class TestBlock extends LineTabsLayoutBlock{
+		private Tab[] importance;
+		
+		public TestBlock( TestTab[] tabs, TestTab... importance ){
+			this.importance = importance;
+			
+			final Dockable[] dockables = new Dockable[ tabs.length ];
+			for( int i = 0; i < tabs.length; i++ ){
+				dockables[i] = tabs[i].getDockable();
+			}
+			
+			// only the dockables of the pane are required
+			setPane( (TabPane)Proxy.newProxyInstance( getClass().getClassLoader(), new Class<?>[]{ TabPane.class }, new InvocationHandler(){
+				public Object invoke( Object proxy, Method method, Object[] args ){
+					if( method.getName().equals( "getDockables" )){
+						return dockables;
+					}
+					throw new UnsupportedOperationException( method.getName() );
+				}
+			}));
+		}
+		
+		@Override
+		public Tab[] getTabsOrderedByImportance(){
+			return importance;
+		}
+	}
+	
+	/**
+	 * A {@link Tab} with a fixed size that overlaps its next tab. If {@link #neighborBonus} is set, then the
+	 * tab gets wider if it has a neighbor on the right side.
+	 * @author Benjamin Sigg
+	 */
+	private static class TestTab implements Tab{
+		private Dockable dockable;
+		private int width;
+		private int height;
+		private int overlap;
+		private int neighborBonus = 0;
+		private int zOrder;
+		private Rectangle bounds = new Rectangle();
+		
+		public TestTab( Dockable dockable, int width, int height, int overlap ){
+			this.dockable = dockable;
+			this.width = width;
+			this.height = height;
+			this.overlap = overlap;
+		}
+		
+		public Dockable getDockable(){
+			return dockable;
+		}
+		
+		public Dimension getMinimumSize( Tab[] tabs ){
+			Dimension size = getPreferredSize( tabs );
+			return new Dimension( size.width / 2, size.height );
+		}
+		
+		public Dimension getPreferredSize( Tab[] tabs ){
+			int result = width;
+			if( tabs[ tabs.length-1 ] != this ){
+				result += neighborBonus;
+			}
+			return new Dimension( result, height );
+		}
+		
+		public TabPane getTabParent(){
+			return null;
+		}
+		
+		public Rectangle getBounds(){
+			return bounds;
+		}
+		
+		public void setBounds( Rectangle bounds ){
+			this.bounds = bounds;
+		}
+		
+		public void setZOrder( int order ){
+			zOrder = order;
+		}
+		
+		public int getZOrder(){
+			return zOrder;
+		}
+		
+		public Insets getOverlap( TabPaneComponent other ){
+			return new Insets( 0, 0, 0, overlap );
+		}
+		
+		public Dimension getMinimumSize(){
+			return getMinimumSize( new Tab[]{ this } );
+		}
+		
+		public Dimension getPreferredSize(){
+			return getPreferredSize( new Tab[]{ this } );
+		}
+		
+		public Dimension getMaximumSize(){
+			return getPreferredSize();
+		}
+		
+		public void setPaneVisible( boolean visible ){
+			// ignore
+		}
+		
+		public boolean isPaneVisible(){
+			return true;
+		}
+		
+		public void setOrientation( TabPlacement orientation ){
+			// ignore
+		}
+	}
+}
@@ -0,0 +1,502 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2013 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.station.support;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import bibliothek.gui.dock.station.support.PlaceholderList.Filter;
+import bibliothek.gui.dock.station.support.PlaceholderList.Level;
+import bibliothek.util.Path;
+
+/**
+ * Tests the bookkeeping of {@link PlaceholderList}. Every operation is applied to a {@link PlaceholderList} and to a
+ * simple list of cells. Afterwards the sublists, the conversion of indices between the levels and the lookup of
+ * placeholders and dockables have to give the same results for both lists.
+ * @author Benjamin Sigg
+ */
+public class PlaceholderListTest {
+	private TestList list;
+	private List<Cell> model;
+	
+	private List<TestDockable> dockables;
+	private List<Path> placeholders;
+	
+	@Before
+	public void setup(){
+		list = new TestList();
+		model = new ArrayList<Cell>();
+		
+		dockables = new ArrayList<TestDockable>();
+		placeholders = new ArrayList<Path>();
+		for( int i = 0; i < 8; i++ ){
+			placeholders.add( new Path( "placeholder", String.valueOf( i ) ));
+		}
+	}
+	
+	@Test
+	public void testInsertAndRemove(){
+		addDockable( 0, dockable( "a", null ) );
+		addDockable( 1, dockable( "b", 0 ) );
+		addDockable( 1, dockable( "c", 1 ) );
+		addDockable( 0, dockable( "d", null ) );
+		check();
+		
+		removeDockable( 1 );
+		check();
+		removeDockable( 1 );
+		check();
+		removeDockable( 0 );
+		check();
+		
+		addDockable( 0, dockable( "e", 2 ) );
+		removeEntry( 1 );
+		check();
+	}
+	
+	@Test
+	public void testPlaceholders(){
+		addDockable( 0, dockable( "a", 0 ) );
+		addDockable( 1, dockable( "b", 1 ) );
+		insertPlaceholder( Level.DOCKABLE, 1, 2 );
+		insertPlaceholder( Level.BASE, 0, 3 );
+		insertPlaceholder( Level.BASE, 4, 3 );
+		check();
+		
+		removeDockable( 0 );
+		check();
+		put( 0, dockable( "c", 4 ) );
+		check();
+		put( 3, dockable( "d", null ) );
+		check();
+		addPlaceholder( 1, 5 );
+		addPlaceholder( 0, 1 );
+		check();
+		removeAll( 5 );
+		removeAll( 3 );
+		check();
+	}
+	
+	@Test
+	public void testMove(){
+		for( int i = 0; i < 5; i++ ){
+			addDockable( i, dockable( String.valueOf( i ), null ) );
+			insertPlaceholder( Level.BASE, 2*i, i+1 );
+		}
+		check();
+		
+		move( Level.DOCKABLE, 0, 4 );
+		check();
+		move( Level.DOCKABLE, 4, 0 );
+		check();
+		move( Level.DOCKABLE, 3, 1 );
+		check();
+		move( Level.BASE, 0, 9 );
+		check();
+		move( Level.BASE, 7, 2 );
+		check();
+		move( Level.PLACEHOLDER, 1, 3 );
+		check();
+	}
+	
+	@Test
+	public void testRandomOperations(){
+		Random random = new Random( 42 );
+		
+		for( int step = 0; step < 1000; step++ ){
+			int dockableCount = list.dockables().size();
+			int placeholderCount = list.purePlaceholders().size();
+			int baseCount = list.list().size();
+			
+			switch( random.nextInt( 10 ) ){
+				case 0:
+				case 1:
+					addDockable( random.nextInt( dockableCount+1 ), dockable( "r" + step, random.nextInt( 3 ) == 0 ? null : random.nextInt( placeholders.size() )));
+					break;
+				case 2:
+					Level level = Level.values()[ random.nextInt( 3 ) ];
+					insertPlaceholder( level, random.nextInt( list.size( level )+1 ), random.nextInt( placeholders.size() ));
+					break;
+				case 3:
+					if( dockableCount > 0 ){
+						removeDockable( random.nextInt( dockableCount ));
+					}
+					break;
+				case 4:
+					if( baseCount > 0 && random.nextInt( 3 ) == 0 ){
+						removeEntry( random.nextInt( baseCount ));
+					}
+					break;
+				case 5:
+					put( random.nextInt( placeholders.size() ), dockable( "p" + step, random.nextInt( 2 ) == 0 ? null : random.nextInt( placeholders.size() )));
+					break;
+				case 6:
+					if( dockableCount > 0 ){
+						addPlaceholder( random.nextInt( dockableCount ), random.nextInt( placeholders.size() ));
+					}
+					break;
+				case 7:
+					if( random.nextInt( 3 ) == 0 ){
+						removeAll( random.nextInt( placeholders.size() ));
+					}
+					break;
+				case 8:
+					if( dockableCount > 1 ){
+						move( Level.DOCKABLE, random.nextInt( dockableCount ), random.nextInt( dockableCount ));
+					}
+					break;
+				case 9:
+					if( placeholderCount > 1 ){
+						move( Level.PLACEHOLDER, random.nextInt( placeholderCount ), random.nextInt( placeholderCount ));
+					}
+					else if( baseCount > 1 ){
+						move( Level.BASE, random.nextInt( baseCount ), random.nextInt( baseCount ));
+					}
+					break;
+			}
+			check();
+		}
+	}
+	
+	private TestDockable dockable( String name, Integer placeholder ){
+		TestDockable dockable = new TestDockable( name, placeholder == null ? null : placeholders.get( placeholder ));
+		dockables.add( dockable );
+		return dockable;
+	}
+	
+	private void addDockable( int index, TestDockable dockable ){
+		list.dockables().add( index, dockable );
+		
+		Cell cell = new Cell( dockable );
+		insert( Level.DOCKABLE, index, cell );
+		if( dockable.placeholder != null ){
+			modelRemoveAll( dockable.placeholder, null );
+		}
+	}
+	
+	private void insertPlaceholder( Level level, int index, int placeholder ){
+		filter( level ).insertPlaceholder( index, placeholders.get( placeholder ) );
+		
+		Cell cell = new Cell( null );
+		cell.placeholders.add( placeholders.get( placeholder ) );
+		insert( level, index, cell );
+	}
+	
+	private void removeDockable( int index ){
+		list.remove( index );
+		
+		Cell cell = model.get( modelIndices( Level.DOCKABLE ).get( index ));
+		if( cell.dockable.placeholder != null ){
+			cell.placeholders.add( cell.dockable.placeholder );
+		}
+		cell.dockable = null;
+		if( cell.placeholders.isEmpty() ){
+			model.remove( cell );
+		}
+	}
+	
+	private void removeEntry( int index ){
+		list.list().remove( index );
+		model.remove( index );
+	}
+	
+	private void put( int placeholder, TestDockable dockable ){
+		Path path = placeholders.get( placeholder );
+		int result = list.put( path, dockable );
+		
+		Cell cell = first( path );
+		if( cell == null ){
+			assertEquals( -1, result );
+		}
+		else{
+			cell.dockable = dockable;
+			modelRemoveAll( path, null );
+			assertEquals( modelIndices( Level.DOCKABLE ).indexOf( model.indexOf( cell ) ), result );
+		}
+	}
+	
+	private void addPlaceholder( int dockable, int placeholder ){
+		Path path = placeholders.get( placeholder );
+		TestDockable item = list.dockables().get( dockable );
+		list.addPlaceholder( item, path );
+		
+		Cell cell = model.get( modelIndices( Level.DOCKABLE ).get( dockable ));
+		modelRemoveAll( path, cell );
+		cell.placeholders.add( path );
+	}
+	
+	private void removeAll( int placeholder ){
+		Path path = placeholders.get( placeholder );
+		list.removeAll( path );
+		modelRemoveAll( path, null );
+	}
+	
+	private void move( Level level, int source, int destination ){
+		filter( level ).move( source, destination );
+		
+		if( source == destination ){
+			return;
+		}
+		List<Integer> indices = modelIndices( level );
+		Cell cell = model.get( indices.get( source ));
+		Cell predecessor;
+		if( destination > source ){
+			predecessor = model.get( indices.get( destination ));
+		}
+		else if( destination == 0 ){
+			predecessor = null;
+		}
+		else{
+			predecessor = model.get( indices.get( destination-1 ));
+		}
+		model.remove( cell );
+		model.add( model.indexOf( predecessor )+1, cell );
+	}
+	
+	/**
+	 * Inserts <code>cell</code> into {@link #model} at the same location as {@link PlaceholderList} would.
+	 */
+	private void insert( Level level, int index, Cell cell ){
+		List<Integer> indices = modelIndices( level );
+		if( index == indices.size() ){
+			model.add( cell );
+		}
+		else if( index == 0 ){
+			model.add( 0, cell );
+		}
+		else{
+			model.add( indices.get( index-1 )+1, cell );
+		}
+	}
+	
+	private void modelRemoveAll( Path placeholder, Cell ignore ){
+		for( int i = model.size()-1; i >= 0; i-- ){
+			Cell cell = model.get( i );
+			if( cell != ignore ){
+				cell.placeholders.remove( placeholder );
+				if( cell.dockable == null && cell.placeholders.isEmpty() ){
+					model.remove( i );
+				}
+			}
+		}
+	}
+	
+	private Cell first( Path placeholder ){
+		for( Cell cell : model ){
+			if( cell.placeholders.contains( placeholder )){
+				return cell;
+			}
+		}
+		return null;
+	}
+	
+	private List<Integer> modelIndices( Level level ){
+		List<Integer> result = new ArrayList<Integer>();
+		for( int i = 0, n = model.size(); i < n; i++ ){
+			if( level == Level.BASE || (level == Level.DOCKABLE) == (model.get( i ).dockable != null) ){
+				result.add( i );
+			}
+		}
+		return result;
+	}
+	
+	private Filter<?> filter( Level level ){
+		switch( level ){
+			case BASE: return list.list();
+			case DOCKABLE: return list.dockables();
+			case PLACEHOLDER: return list.purePlaceholders();
+			default: throw new IllegalArgumentException();
+		}
+	}
+	
+	/**
+	 * Compares {@link #list} with {@link #model}.
+	 */
+	private void check(){
+		assertEquals( model.size(), list.size( Level.BASE ));
+		assertEquals( model.size(), list.list().size() );
+		
+		List<Integer> dockableIndices = modelIndices( Level.DOCKABLE );
+		List<Integer> placeholderIndices = modelIndices( Level.PLACEHOLDER );
+		assertEquals( dockableIndices.size(), list.dockables().size() );
+		assertEquals( placeholderIndices.size(), list.purePlaceholders().size() );
+		
+		for( int i = 0, n = model.size(); i < n; i++ ){
+			Cell cell = model.get( i );
+			PlaceholderList<TestDockable, Object, TestDockable>.Item item = list.list().get( i );
+			assertSame( cell.dockable, item.getDockable() );
+			assertEquals( cell.placeholders, placeholders( item.getPlaceholderSet() ));
+			assertEquals( dockableIndices.indexOf( i ), list.baseToLevel( i, Level.DOCKABLE ));
+			assertEquals( placeholderIndices.indexOf( i ), list.baseToLevel( i, Level.PLACEHOLDER ));
+		}
+		
+		int index = 0;
+		for( TestDockable dockable : list.dockables() ){
+			int base = dockableIndices.get( index );
+			assertSame( model.get( base ).dockable, dockable );
+			assertSame( dockable, list.dockables().get( index ));
+			assertEquals( base, list.levelToBase( index, Level.DOCKABLE ));
+			index++;
+		}
+		
+		index = 0;
+		for( Set<Path> set : list.purePlaceholders() ){
+			int base = placeholderIndices.get( index );
+			assertEquals( model.get( base ).placeholders, placeholders( set ));
+			assertEquals( base, list.levelToBase( index, Level.PLACEHOLDER ));
+			index++;
+		}
+		
+		for( Path placeholder : placeholders ){
+			Cell first = first( placeholder );
+			int base = model.indexOf( first );
+			assertEquals( first != null, list.hasPlaceholder( placeholder ));
+			assertEquals( base, list.getListIndex( placeholder ));
+			assertSame( first == null ? null : first.dockable, list.getDockableAt( placeholder ));
+			
+			if( first == null ){
+				assertEquals( -1, list.getDockableIndex( placeholder ));
+			}
+			else{
+				int before = 0;
+				while( before < dockableIndices.size() && dockableIndices.get( before ) < base ){
+					before++;
+				}
+				assertEquals( first.dockable == null ? before : before+1, list.getDockableIndex( placeholder ));
+			}
+			
+			assertEquals( firstInLevel( placeholder, dockableIndices ), list.dockables().indexOfPlaceholder( placeholder ));
+			assertEquals( firstInLevel( placeholder, placeholderIndices ), list.purePlaceholders().indexOfPlaceholder( placeholder ));
+		}
+		
+		for( TestDockable dockable : dockables ){
+			int expected = -1;
+			for( int i = 0; i < dockableIndices.size(); i++ ){
+				if( model.get( dockableIndices.get( i )).dockable == dockable ){
+					expected = i;
+				}
+			}
+			assertEquals( expected, list.indexOfDockable( dockable ));
+			assertEquals( expected != -1, list.getItem( dockable ) != null );
+		}
+	}
+	
+	private int firstInLevel( Path placeholder, List<Integer> indices ){
+		for( int i = 0; i < indices.size(); i++ ){
+			if( model.get( indices.get( i )).placeholders.contains( placeholder )){
+				return i;
+			}
+		}
+		return -1;
+	}
+	
+	private Set<Path> placeholders( Set<Path> set ){
+		if( set == null ){
+			return new HashSet<Path>();
+		}
+		return set;
+	}
+	
+	/**
+	 * An entry of the simple list that is used to verify the behavior of a {@link PlaceholderList}.
+	 * @author Benjamin Sigg
+	 */
+	private static class Cell {
+		private TestDockable dockable;
+		private Set<Path> placeholders = new HashSet<Path>();
+		
+		public Cell( TestDockable dockable ){
+			this.dockable = dockable;
+		}
+	}
+	
+	/**
+	 * An element that can be stored in a {@link TestList}.
+	 * @author Benjamin Sigg
+	 */
+	private static class TestDockable implements PlaceholderListItem<TestDockable> {
+		private final String name;
+		private final Path placeholder;
+		
+		public TestDockable( String name, Path placeholder ){
+			this.name = name;
+			this.placeholder = placeholder;
+		}
+		
+		public TestDockable asDockable(){
+			return this;
+		}
+		
+		@Override
+		public String toString(){
+			return name;
+		}
+	}
+	
+	/**
+	 * A {@link PlaceholderList} storing {@link TestDockable}s, none of the elements is a station.
+	 * @author Benjamin Sigg
+	 */
+	private static class TestList extends PlaceholderList<TestDockable, Object, TestDockable> {
+		@Override
+		protected Path getPlaceholder( TestDockable dockable ){
+			return dockable.placeholder;
+		}
+		
+		@Override
+		protected String toString( TestDockable dockable ){
+			return dockable.toString();
+		}
+		
+		@Override
+		protected Object toStation( TestDockable dockable ){
+			return null;
+		}
+		
+		@Override
+		protected PlaceholderMap getPlaceholders( Object station ){
+			return null;
+		}
+		
+		@Override
+		protected void setPlaceholders( Object station, PlaceholderMap map ){
+			// ignore
+		}
+		
+		@Override
+		protected TestDockable[] getChildren( Object station ){
+			return new TestDockable[]{};
+		}
+	}
+}
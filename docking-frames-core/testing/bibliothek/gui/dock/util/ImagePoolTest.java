@@ -0,0 +1,205 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2013 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.util;
+
+import static org.junit.Assert.*;
+
+import java.awt.Component;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import bibliothek.gui.DockController;
+import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.DefaultDockable;
+import bibliothek.gui.dock.dockable.MovingImage;
+import bibliothek.gui.dock.dockable.ScreencaptureMovingImageFactory;
+
+/**
+ * Tests how {@link ImagePool} reuses images, and how {@link ScreencaptureMovingImageFactory} uses the pool.
+ * @author Benjamin Sigg
+ */
+public class ImagePoolTest {
+	private DockController controller;
+	private RecordingPool pool;
+	
+	@Before
+	public void setup(){
+		controller = new DockController();
+		pool = new RecordingPool();
+		controller.getProperties().set( ImagePool.IMAGE_POOL, pool );
+	}
+	
+	@After
+	public void cleanup(){
+		controller.kill();
+	}
+	
+	@Test
+	public void testReuseSameSize(){
+		ImagePool pool = new ImagePool();
+		BufferedImage image = pool.acquire( 100, 50 );
+		assertEquals( 128, image.getWidth() );
+		assertEquals( 64, image.getHeight() );
+		
+		Graphics2D g = image.createGraphics();
+		g.fillRect( 0, 0, 100, 50 );
+		g.dispose();
+		pool.release( image );
+		
+		BufferedImage other = pool.acquire( 200, 40 );
+		assertNotSame( "different size", image, other );
+		
+		BufferedImage reused = pool.acquire( 120, 60 );
+		assertSame( image, reused );
+		assertEquals( "a reused image must be cleared", 0, reused.getRGB( 10, 10 ) >>> 24 );
+		
+		assertNotSame( "an image must not be handed out twice", image, pool.acquire( 100, 50 ) );
+	}
+	
+	@Test
+	public void testCapacity(){
+		ImagePool pool = new ImagePool();
+		pool.setCapacity( 1 );
+		BufferedImage first = pool.acquire( 10, 10 );
+		BufferedImage second = pool.acquire( 10, 10 );
+		pool.release( first );
+		pool.release( second );
+		
+		assertSame( second, pool.acquire( 10, 10 ) );
+		assertNotSame( first, pool.acquire( 10, 10 ) );
+		
+		pool.setCapacity( 0 );
+		pool.release( first );
+		assertNotSame( first, pool.acquire( 10, 10 ) );
+	}
+	
+	@Test
+	public void testReleaseForeignImage(){
+		ImagePool pool = new ImagePool();
+		BufferedImage foreign = new BufferedImage( 100, 100, BufferedImage.TYPE_INT_ARGB );
+		pool.release( foreign );
+		pool.release( null );
+		assertNotSame( foreign, pool.acquire( 100, 100 ) );
+	}
+	
+	@Test
+	public void testMovingImageFactory(){
+		Dockable dockable = dockable();
+		ScreencaptureMovingImageFactory factory = new ScreencaptureMovingImageFactory( null );
+		
+		MovingImage image = factory.create( controller, dockable );
+		assertEquals( 1, pool.acquired.size() );
+		assertEquals( 0, pool.released.size() );
+		
+		image.bind( false );
+		image.unbind();
+		assertEquals( pool.acquired, pool.released );
+		
+		factory.create( controller, dockable );
+		assertEquals( 2, pool.acquired.size() );
+		assertSame( "the released image is used again", pool.acquired.get( 0 ), pool.acquired.get( 1 ) );
+	}
+	
+	@Test
+	public void testSubclassOptsIn(){
+		Dockable dockable = dockable();
+		
+		CapturingFactory factory = new CapturingFactory();
+		factory.create( controller, dockable );
+		assertEquals( "a subclass does not use the pool by default", 1, factory.captured );
+		assertEquals( 0, pool.acquired.size() );
+		
+		factory = new PooledCapturingFactory();
+		factory.create( controller, dockable );
+		assertEquals( 0, factory.captured );
+		assertEquals( 1, pool.acquired.size() );
+	}
+	
+	private Dockable dockable(){
+		DefaultDockable dockable = new DefaultDockable( "a" );
+		dockable.getComponent().setSize( 100, 100 );
+		return dockable;
+	}
+	
+	/**
+	 * An {@link ImagePool} remembering all the images it handed out and got back.
+	 * @author Benjamin Sigg
+	 */
+	private static class RecordingPool extends ImagePool{
+		private List<BufferedImage> acquired = new ArrayList<BufferedImage>();
+		private List<BufferedImage> released = new ArrayList<BufferedImage>();
+		
+		@Override
+		public BufferedImage acquire( int width, int height ){
+			BufferedImage image = super.acquire( width, height );
+			acquired.add( image );
+			return image;
+		}
+		
+		@Override
+		public synchronized void release( BufferedImage image ){
+			if( image != null ){
+				released.add( image );
+			}
+			super.release( image );
+		}
+	}
+	
+	/**
+	 * A factory counting how often it captures an image itself.
+	 * @author Benjamin Sigg
+	 */
+	private static class CapturingFactory extends ScreencaptureMovingImageFactory{
+		protected int captured = 0;
+		
+		public CapturingFactory(){
+			super( null );
+		}
+		
+		@Override
+		public BufferedImage createImageFrom( DockController controller, Component c ){
+			captured++;
+			return super.createImageFrom( controller, c );
+		}
+	}
+	
+	/**
+	 * A {@link CapturingFactory} that opts into using the {@link ImagePool}.
+	 * @author Benjamin Sigg
+	 */
+	private static class PooledCapturingFactory extends CapturingFactory{
+		@Override
+		protected boolean isImagePoolEnabled(){
+			return true;
+		}
+	}
+}
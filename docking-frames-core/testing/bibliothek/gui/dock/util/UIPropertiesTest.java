@@ -0,0 +1,225 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2013 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.util;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import bibliothek.util.Path;
+
+/**
+ * Tests that {@link UIProperties} only informs the {@link UIValue}s that are affected by a change.
+ * @author Benjamin Sigg
+ */
+public class UIPropertiesTest {
+	private UIProperties<String, TestValue, TestBridge> properties;
+	
+	@Before
+	public void setup(){
+		properties = new UIProperties<String, TestValue, TestBridge>( null );
+	}
+	
+	@Test
+	public void testResourceChange(){
+		TestValue a = add( "a", "x" );
+		TestValue b = add( "b", "x" );
+		
+		properties.put( Priority.CLIENT, "a", "1" );
+		assertEquals( list( "1" ), a.received );
+		assertEquals( list(), b.received );
+		
+		properties.put( Priority.THEME, "a", "2" );
+		assertEquals( "the value with higher priority must not change", list( "1" ), a.received );
+		
+		properties.put( Priority.CLIENT, "a", null );
+		assertEquals( list( "1", "2" ), a.received );
+		assertEquals( list(), b.received );
+	}
+	
+	@Test
+	public void testBridgeChange(){
+		properties.put( Priority.CLIENT, "a", "1" );
+		TestValue a = add( "a", "x" );
+		TestValue b = add( "a", "y" );
+		
+		TestBridge first = new TestBridge( "first" );
+		properties.publish( Priority.CLIENT, new Path( "x" ), first );
+		assertEquals( list( "first:1" ), a.received );
+		assertEquals( list(), b.received );
+		assertEquals( list( a ), first.added );
+		
+		TestBridge second = new TestBridge( "second" );
+		properties.publish( Priority.THEME, new Path( "x" ), second );
+		assertEquals( "the bridge with higher priority must not change", list( "first:1" ), a.received );
+		
+		properties.unpublish( Priority.CLIENT, first );
+		assertEquals( list( "first:1", "second:1" ), a.received );
+		assertEquals( list( a ), first.removed );
+		assertEquals( list( a ), second.added );
+		
+		properties.unpublish( Priority.THEME, new Path( "x" ) );
+		assertEquals( list( "first:1", "second:1", "1" ), a.received );
+		assertEquals( list( a ), second.removed );
+		assertEquals( list(), b.received );
+	}
+	
+	@Test
+	public void testPathChange(){
+		properties.put( Priority.CLIENT, "a", "1" );
+		TestValue parent = add( "a", "x" );
+		TestValue child = add( "a", "x.y" );
+		TestValue other = add( "a", "z" );
+		
+		// a bridge of the parent path is used by the children as well
+		properties.publish( Priority.CLIENT, new Path( "x" ), new TestBridge( "parent" ) );
+		assertEquals( list( "parent:1" ), parent.received );
+		assertEquals( list( "parent:1" ), child.received );
+		
+		// a bridge of a child path does not affect the parent
+		properties.publish( Priority.CLIENT, new Path( "x", "y" ), new TestBridge( "child" ) );
+		assertEquals( list( "parent:1" ), parent.received );
+		assertEquals( list( "parent:1", "child:1" ), child.received );
+		
+		properties.unpublish( Priority.CLIENT, new Path( "x", "y" ) );
+		assertEquals( list( "parent:1" ), parent.received );
+		assertEquals( list( "parent:1", "child:1", "parent:1" ), child.received );
+		
+		assertEquals( list(), other.received );
+	}
+	
+	@Test
+	public void testLockUpdate(){
+		TestValue a = add( "a", "x" );
+		TestValue b = add( "b", "y" );
+		TestValue c = add( "c", "z" );
+		
+		properties.lockUpdate();
+		properties.lockUpdate();
+		properties.put( Priority.CLIENT, "a", "1" );
+		properties.put( Priority.CLIENT, "a", "2" );
+		properties.publish( Priority.CLIENT, new Path( "y" ), new TestBridge( "bridge" ) );
+		
+		properties.unlockUpdate();
+		assertEquals( list(), a.received );
+		assertEquals( list(), b.received );
+		
+		properties.unlockUpdate();
+		assertEquals( list( "2" ), a.received );
+		assertEquals( list( "bridge:null" ), b.received );
+		assertEquals( list(), c.received );
+		
+		// the recorded changes are consumed
+		properties.lockUpdate();
+		properties.unlockUpdate();
+		assertEquals( list( "2" ), a.received );
+		assertEquals( list( "bridge:null" ), b.received );
+	}
+	
+	@Test
+	public void testClear(){
+		TestValue a = add( "a", "x" );
+		TestValue b = add( "b", "y" );
+		
+		properties.put( Priority.CLIENT, "a", "1" );
+		properties.put( Priority.THEME, "a", "2" );
+		properties.publish( Priority.CLIENT, new Path( "y" ), new TestBridge( "bridge" ) );
+		a.received.clear();
+		b.received.clear();
+		
+		properties.clear( Priority.CLIENT );
+		assertEquals( list( "2" ), a.received );
+		assertEquals( list( "null" ), b.received );
+		assertNull( properties.getBridge( Priority.CLIENT, new Path( "y" ) ) );
+		
+		// while locked a clear updates all observers once the lock is released
+		properties.lockUpdate();
+		properties.clear( Priority.THEME );
+		assertEquals( list( "2" ), a.received );
+		properties.unlockUpdate();
+		assertEquals( list( "2", "null" ), a.received );
+		assertEquals( list( "null", "null" ), b.received );
+		assertNull( properties.get( "a" ) );
+	}
+	
+	private TestValue add( String id, String path ){
+		TestValue value = new TestValue();
+		properties.add( id, new Path( path ), value );
+		value.received.clear();
+		return value;
+	}
+	
+	private static <T> List<T> list( T... items ){
+		List<T> result = new ArrayList<T>();
+		for( T item : items ){
+			result.add( item );
+		}
+		return result;
+	}
+	
+	/**
+	 * A {@link UIValue} remembering all the values it received.
+	 * @author Benjamin Sigg
+	 */
+	private static class TestValue implements UIValue<String>{
+		private List<String> received = new ArrayList<String>();
+		
+		public void set( String value ){
+			received.add( String.valueOf( value ) );
+		}
+	}
+	
+	/**
+	 * A {@link UIBridge} that adds its name to each value, and that remembers which {@link UIValue}s
+	 * it was used for.
+	 * @author Benjamin Sigg
+	 */
+	private static class TestBridge implements UIBridge<String, TestValue>{
+		private String name;
+		private List<TestValue> added = new ArrayList<TestValue>();
+		private List<TestValue> removed = new ArrayList<TestValue>();
+		
+		public TestBridge( String name ){
+			this.name = name;
+		}
+		
+		public void add( String id, TestValue uiValue ){
+			added.add( uiValue );
+		}
+		
+		public void remove( String id, TestValue uiValue ){
+			removed.add( uiValue );
+		}
+		
+		public void set( String id, String value, TestValue uiValue ){
+			uiValue.set( name + ":" + value );
+		}
+	}
+}
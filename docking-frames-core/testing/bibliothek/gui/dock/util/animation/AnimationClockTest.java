@@ -0,0 +1,231 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2013 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.util.animation;
+
+import static org.junit.Assert.*;
+
+import java.awt.EventQueue;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import bibliothek.extension.gui.dock.theme.smooth.SmoothChanger;
+import bibliothek.gui.DockController;
+
+/**
+ * Tests how an {@link AnimationClock} starts and stops its {@link Animation}s and its timer.
+ * @author Benjamin Sigg
+ */
+public class AnimationClockTest {
+	private AnimationClock clock;
+	
+	@Before
+	public void setup(){
+		clock = new AnimationClock();
+	}
+	
+	@After
+	public void cleanup() throws Exception{
+		// let pending frames finish before the next test starts
+		flush();
+	}
+	
+	@Test
+	public void testStartStop() throws Exception{
+		CountingAnimation animation = new CountingAnimation( Integer.MAX_VALUE );
+		assertFalse( clock.isRunning() );
+		
+		clock.start( animation );
+		clock.start( animation );
+		assertTrue( clock.isRunning( animation ));
+		assertTrue( clock.isTimerRunning() );
+		
+		waitFor( animation, 3 );
+		
+		clock.stop( animation );
+		assertFalse( clock.isRunning( animation ));
+		assertFalse( clock.isRunning() );
+		assertFalse( clock.isTimerRunning() );
+		
+		flush();
+		int steps = animation.steps;
+		flush();
+		assertEquals( "a stopped animation must not be executed", steps, animation.steps );
+	}
+	
+	@Test
+	public void testSharedFrame() throws Exception{
+		final CountingAnimation first = new CountingAnimation( Integer.MAX_VALUE );
+		final CountingAnimation second = new CountingAnimation( Integer.MAX_VALUE );
+		// no frame can be executed between the two calls
+		EventQueue.invokeAndWait( new Runnable(){
+			public void run(){
+				clock.start( first );
+				clock.start( second );
+			}
+		});
+		
+		waitFor( second, 3 );
+		clock.stop( first );
+		assertTrue( clock.isRunning() );
+		assertTrue( clock.isTimerRunning() );
+		clock.stop( second );
+		assertFalse( clock.isTimerRunning() );
+		
+		assertEquals( first.times.subList( 0, 3 ), second.times.subList( 0, 3 ));
+	}
+	
+	@Test
+	public void testIdleTimerStops() throws Exception{
+		CountingAnimation animation = new CountingAnimation( 3 );
+		clock.start( animation );
+		
+		waitFor( animation, 3 );
+		flush();
+		assertEquals( 3, animation.steps );
+		assertFalse( clock.isRunning( animation ));
+		assertFalse( clock.isRunning() );
+		assertFalse( clock.isTimerRunning() );
+		
+		// the clock can be restarted
+		CountingAnimation next = new CountingAnimation( 1 );
+		clock.start( next );
+		assertTrue( clock.isTimerRunning() );
+		waitFor( next, 1 );
+		flush();
+		assertFalse( clock.isTimerRunning() );
+	}
+	
+	@Test
+	public void testReduceMotion() throws Exception{
+		DockController controller = new DockController();
+		try{
+			AnimationClock clock = controller.getProperties().get( AnimationClock.ANIMATION_CLOCK );
+			assertNotSame( AnimationClock.getSharedClock(), clock );
+			clock.setReduceMotion( true );
+			assertTrue( clock.isReduceMotion() );
+			
+			TestChanger changer = new TestChanger();
+			changer.setController( controller );
+			changer.trigger();
+			
+			assertFalse( changer.isRunning() );
+			assertFalse( clock.isRunning() );
+			assertEquals( 1, changer.repaints.size() );
+			assertEquals( changer.getDuration(), changer.repaints.get( 0 )[1] );
+			
+			clock.setReduceMotion( false );
+			changer.trigger();
+			assertTrue( changer.isRunning() );
+			assertTrue( clock.isRunning() );
+			changer.setController( null );
+			assertFalse( "the animation must move to the clock of the new controller", clock.isRunning() );
+			assertTrue( AnimationClock.getSharedClock().isRunning() );
+			
+			long timeout = System.currentTimeMillis() + 5000;
+			while( changer.isRunning() ){
+				assertTrue( "animation did not finish", System.currentTimeMillis() < timeout );
+				Thread.sleep( 10 );
+			}
+			flush();
+			assertEquals( changer.getDuration(), changer.repaints.get( changer.repaints.size()-1 )[1] );
+		}
+		finally{
+			controller.kill();
+		}
+	}
+	
+	/**
+	 * Waits until <code>animation</code> was executed at least <code>steps</code> times.
+	 */
+	private void waitFor( CountingAnimation animation, int steps ) throws InterruptedException{
+		long timeout = System.currentTimeMillis() + 5000;
+		synchronized( animation ){
+			while( animation.steps < steps ){
+				long delay = timeout - System.currentTimeMillis();
+				assertTrue( "animation was not executed", delay > 0 );
+				animation.wait( delay );
+			}
+		}
+	}
+	
+	/**
+	 * Waits until all the events that are currently in the <code>EventQueue</code> are processed.
+	 */
+	private void flush() throws Exception{
+		EventQueue.invokeAndWait( new Runnable(){
+			public void run(){
+				// nothing
+			}
+		});
+	}
+	
+	/**
+	 * An {@link Animation} counting how often it was executed.
+	 * @author Benjamin Sigg
+	 */
+	private static class CountingAnimation implements Animation{
+		private int steps;
+		private int limit;
+		private List<Long> times = new ArrayList<Long>();
+		
+		public CountingAnimation( int limit ){
+			this.limit = limit;
+		}
+		
+		public synchronized boolean step( AnimationClock clock, long nanoTime ){
+			steps++;
+			times.add( nanoTime );
+			notifyAll();
+			return steps < limit;
+		}
+	}
+	
+	/**
+	 * A {@link SmoothChanger} with two states, always moving to the second state.
+	 * @author Benjamin Sigg
+	 */
+	private static class TestChanger extends SmoothChanger{
+		private List<int[]> repaints = new ArrayList<int[]>();
+		
+		public TestChanger(){
+			super( 2 );
+		}
+		
+		@Override
+		protected int destination(){
+			return 1;
+		}
+		
+		@Override
+		protected void repaint( int[] current ){
+			repaints.add( current.clone() );
+		}
+	}
+}
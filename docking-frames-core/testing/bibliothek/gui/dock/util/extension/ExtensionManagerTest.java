@@ -0,0 +1,185 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2013 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.util.extension;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import bibliothek.gui.DockController;
+import bibliothek.util.Path;
+
+/**
+ * Tests that the {@link SharedExtension}s of an {@link ExtensionManager} see changes of the
+ * set of {@link Extension}s.
+ * @author Benjamin Sigg
+ */
+public class ExtensionManagerTest {
+	private static final ExtensionName<String> NAME = new ExtensionName<String>( new Path( "test", "name" ), String.class );
+	
+	private ExtensionManager manager;
+	
+	@Before
+	public void setup(){
+		manager = new ExtensionManager( null ){
+			@Override
+			protected void tryLoadDefaultExtensions(){
+				// ignore
+			}
+		};
+	}
+	
+	@Test
+	public void testSharedListLoadedOnce(){
+		TestExtension extension = new TestExtension( "a" );
+		manager.add( extension );
+		
+		SharedExtension<String> share = manager.share( NAME );
+		share.bind();
+		
+		assertEquals( Arrays.asList( "a" ), share.get() );
+		assertSame( share.get(), share.get() );
+		assertEquals( 1, extension.loads );
+		
+		share.unbind();
+	}
+	
+	@Test
+	public void testBoundSharesUseOneList(){
+		manager.add( new TestExtension( "a" ) );
+		
+		SharedExtension<String> first = manager.share( NAME );
+		SharedExtension<String> second = manager.share( NAME );
+		first.bind();
+		second.bind();
+		
+		assertSame( first.get(), second.get() );
+		
+		manager.add( new TestExtension( "b" ) );
+		assertEquals( Arrays.asList( "a", "b" ), first.get() );
+		assertSame( first.get(), second.get() );
+		
+		first.unbind();
+		second.unbind();
+	}
+	
+	@Test
+	public void testAddInvalidatesShare(){
+		SharedExtension<String> share = manager.share( NAME );
+		share.bind();
+		assertEquals( Collections.emptyList(), share.get() );
+		
+		manager.add( new TestExtension( "a" ) );
+		assertEquals( Arrays.asList( "a" ), share.get() );
+		
+		manager.add( new TestExtension( "b" ) );
+		assertEquals( Arrays.asList( "a", "b" ), share.get() );
+		
+		share.unbind();
+	}
+	
+	@Test
+	public void testRemoveInvalidatesShare(){
+		TestExtension a = new TestExtension( "a" );
+		TestExtension b = new TestExtension( "b" );
+		manager.add( a );
+		manager.add( b );
+		
+		SharedExtension<String> share = manager.share( NAME );
+		share.bind();
+		assertEquals( Arrays.asList( "a", "b" ), share.get() );
+		
+		manager.remove( a );
+		assertEquals( Arrays.asList( "b" ), share.get() );
+		
+		share.unbind();
+	}
+	
+	@Test
+	public void testKillInvalidatesShare(){
+		manager.add( new TestExtension( "a" ) );
+		manager.init();
+		
+		SharedExtension<String> share = manager.share( NAME );
+		share.bind();
+		assertEquals( Arrays.asList( "a" ), share.get() );
+		
+		manager.kill();
+		assertEquals( Collections.emptyList(), share.get() );
+		
+		share.unbind();
+	}
+	
+	@Test
+	public void testRebindAfterChange(){
+		SharedExtension<String> share = manager.share( NAME );
+		share.bind();
+		assertEquals( Collections.emptyList(), share.get() );
+		share.unbind();
+		
+		manager.add( new TestExtension( "a" ) );
+		
+		share.bind();
+		assertEquals( Arrays.asList( "a" ), share.get() );
+		share.unbind();
+	}
+	
+	/**
+	 * An {@link Extension} that offers one {@link String} for {@link ExtensionManagerTest#NAME}.
+	 * @author Benjamin Sigg
+	 */
+	private static class TestExtension implements Extension{
+		private String value;
+		private int loads = 0;
+		
+		public TestExtension( String value ){
+			this.value = value;
+		}
+		
+		public void install( DockController controller ){
+			// ignore
+		}
+		
+		public void uninstall( DockController controller ){
+			// ignore
+		}
+		
+		@SuppressWarnings("unchecked")
+		public <E> Collection<E> load( DockController controller, ExtensionName<E> extension ){
+			if( extension.equals( NAME )){
+				loads++;
+				return (Collection<E>)Collections.singleton( value );
+			}
+			return null;
+		}
+	}
+}
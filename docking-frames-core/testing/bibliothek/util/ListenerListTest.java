@@ -0,0 +1,169 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2013 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.util;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.DefaultDockable;
+import bibliothek.gui.dock.event.DockableAdapter;
+import bibliothek.gui.dock.event.DockableListener;
+
+/**
+ * Tests the copy-on-write behavior of {@link ListenerList}.
+ * @author Benjamin Sigg
+ */
+public class ListenerListTest {
+	@Test
+	public void testGetIsSnapshot(){
+		ListenerList<String> list = new ListenerList<String>( String.class );
+		list.add( "a" );
+		list.add( "b" );
+		
+		String[] snapshot = list.get();
+		assertSame( snapshot, list.get() );
+		
+		list.remove( "a" );
+		list.add( "c" );
+		
+		assertArrayEquals( new String[]{ "a", "b" }, snapshot );
+		assertArrayEquals( new String[]{ "b", "c" }, list.get() );
+	}
+	
+	@Test
+	public void testRemoveFirstOccurrence(){
+		ListenerList<String> list = new ListenerList<String>( String.class );
+		list.add( "a" );
+		list.add( "b" );
+		list.add( "a" );
+		
+		assertTrue( list.remove( "a" ));
+		assertArrayEquals( new String[]{ "b", "a" }, list.get() );
+		assertFalse( list.remove( "c" ));
+		assertEquals( 2, list.size() );
+		
+		list.clear();
+		assertTrue( list.isEmpty() );
+		assertFalse( list.contains( "b" ));
+	}
+	
+	@Test
+	public void testModifyWhileFiring(){
+		final ListenerList<Runnable> list = new ListenerList<Runnable>( Runnable.class );
+		final List<String> calls = new ArrayList<String>();
+		
+		final Runnable added = new Runnable(){
+			public void run(){
+				calls.add( "added" );
+			}
+		};
+		final Runnable second = new Runnable(){
+			public void run(){
+				calls.add( "second" );
+			}
+		};
+		final Runnable third = new Runnable(){
+			public void run(){
+				calls.add( "third" );
+			}
+		};
+		Runnable first = new Runnable(){
+			public void run(){
+				calls.add( "first" );
+				list.remove( second );
+				list.add( added );
+			}
+		};
+		
+		list.add( first );
+		list.add( second );
+		list.add( third );
+		
+		for( Runnable listener : list.get() ){
+			listener.run();
+		}
+		assertEquals( "[first, second, third]", calls.toString() );
+		
+		calls.clear();
+		list.remove( first );
+		for( Runnable listener : list.get() ){
+			listener.run();
+		}
+		assertEquals( "[third, added]", calls.toString() );
+	}
+	
+	@Test
+	public void testDockableListenerRemovedWhileFiring(){
+		final DefaultDockable dockable = new DefaultDockable( "a" );
+		final List<String> calls = new ArrayList<String>();
+		
+		final TitleListener second = new TitleListener( "second", calls );
+		TitleListener third = new TitleListener( "third", calls );
+		TitleListener first = new TitleListener( "first", calls ){
+			@Override
+			public void titleTextChanged( Dockable source, String oldTitle, String newTitle ){
+				super.titleTextChanged( source, oldTitle, newTitle );
+				dockable.removeDockableListener( this );
+				dockable.removeDockableListener( second );
+			}
+		};
+		
+		dockable.addDockableListener( first );
+		dockable.addDockableListener( second );
+		dockable.addDockableListener( third );
+		
+		dockable.setTitleText( "b" );
+		assertEquals( "[first, second, third]", calls.toString() );
+		
+		calls.clear();
+		dockable.setTitleText( "c" );
+		assertEquals( "[third]", calls.toString() );
+	}
+	
+	/**
+	 * A {@link DockableListener} that records when the title text changes.
+	 * @author Benjamin Sigg
+	 */
+	private static class TitleListener extends DockableAdapter{
+		private String name;
+		private List<String> calls;
+		
+		public TitleListener( String name, List<String> calls ){
+			this.name = name;
+			this.calls = calls;
+		}
+		
+		@Override
+		public void titleTextChanged( Dockable source, String oldTitle, String newTitle ){
+			calls.add( name );
+		}
+	}
+}
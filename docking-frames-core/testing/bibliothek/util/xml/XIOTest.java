@@ -0,0 +1,98 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2013 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.util.xml;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+/**
+ * Tests how {@link XIO} reads the text of elements.
+ * @author Benjamin Sigg
+ */
+public class XIOTest {
+	@Test
+	public void testTextWithEntities() throws IOException{
+		XElement element = XIO.read( "<a> x &amp; y &lt; z </a>" );
+		assertEquals( "x & y < z", element.getString() );
+	}
+	
+	@Test
+	public void testLongText() throws IOException{
+		StringBuilder text = new StringBuilder();
+		for( int i = 0; i < 20000; i++ ){
+			text.append( i % 10 );
+			if( i % 1000 == 0 ){
+				text.append( "&amp;" );
+			}
+		}
+		XElement element = XIO.read( "<a>" + text + "</a>" );
+		assertEquals( text.toString().replace( "&amp;", "&" ), element.getString() );
+	}
+	
+	@Test
+	public void testTextOfChildrenIsSeparated() throws IOException{
+		XElement element = XIO.read( "<a> head <b> inner </b> tail </a>" );
+		assertEquals( "head  tail", element.getString() );
+		assertEquals( "inner", element.getElement( "b" ).getString() );
+	}
+	
+	@Test
+	public void testWhitespaceBetweenChildren() throws IOException{
+		StringBuilder text = new StringBuilder( "<a>\n" );
+		for( int i = 0; i < 100; i++ ){
+			text.append( "\t<b>" ).append( i ).append( "</b>\n" );
+		}
+		text.append( "</a>" );
+		
+		XElement element = XIO.read( text );
+		assertEquals( "", element.getString() );
+		assertEquals( 100, element.getElementCount() );
+		for( int i = 0; i < 100; i++ ){
+			assertEquals( i, element.getElement( i ).getInt() );
+		}
+	}
+	
+	@Test
+	public void testRoundTrip() throws IOException{
+		XElement element = new XElement( "root" );
+		element.addString( "key", "value" );
+		element.addElement( "text" ).setString( "a < b & c" );
+		element.addElement( "number" ).setInt( 42 );
+		element.addElement( "empty" );
+		
+		StringBuilder out = new StringBuilder();
+		XIO.write( element, out );
+		XElement result = XIO.read( out );
+		
+		assertEquals( "value", result.getString( "key" ) );
+		assertEquals( "a < b & c", result.getElement( "text" ).getString() );
+		assertEquals( 42, result.getElement( "number" ).getInt() );
+		assertEquals( "", result.getElement( "empty" ).getString() );
+	}
+}
@@ -32,8 +32,11 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import bibliothek.gui.dock.extension.css.path.CssPathListener;
 import bibliothek.gui.dock.extension.css.property.BooleanType;
@@ -47,6 +50,7 @@ import bibliothek.gui.dock.extension.css.property.paint.CssPaint;
 import bibliothek.gui.dock.extension.css.property.paint.CssPaintType;
 import bibliothek.gui.dock.extension.css.property.shape.CssShape;
 import bibliothek.gui.dock.extension.css.property.shape.CssShapeType;
+import bibliothek.gui.dock.extension.css.scheme.CssRuleIndex;
 import bibliothek.gui.dock.extension.css.scheme.MatchedCssRule;
 import bibliothek.gui.dock.extension.css.transition.CssTransition;
 import bibliothek.gui.dock.extension.css.transition.DefaultAnimatedCssRuleChain;
@@ -67,7 +71,23 @@ public class CssScheme {
 	
 	private List<CssRule> rules = new ArrayList<CssRule>();
 	
+	/** all the {@link #rules} grouped by the keys of their selectors */
+	private CssRuleIndex index = new CssRuleIndex();
+	
+	/** the rules matching the paths that are currently observed, these lists are cleared whenever a rule changes */
+	private Map<CssPath, List<CssRule>> matchedRules = new IdentityHashMap<CssPath, List<CssRule>>();
+	
+	/** the keys of the rules that changed since the last call to {@link #match()} */
+	private Set<CssSelectorKey> changedKeys = new HashSet<CssSelectorKey>();
+	
+	/** whether all {@link CssItem}s need to be matched again */
+	private boolean changedAll = false;
+	
 	private Map<CssItem, Match> items = new HashMap<CssItem, CssScheme.Match>();
+	
+	/** all the paths that are observed, and the items using these paths */
+	private Map<CssPath, List<Match>> paths = new IdentityHashMap<CssPath, List<Match>>();
+	
 	private Map<Class<?>, CssType<?>> types = new HashMap<Class<?>, CssType<?>>();
 	
 	private boolean rulesAreSorted = false;
@@ -79,11 +99,30 @@ public class CssScheme {
 	private CssRuleListener selectorChangedListener = new CssRuleListener(){
 		@Override
 		public void selectorChanged( CssRule source ){
-			rulesAreSorted = false;
+			synchronized( RULES_LOCK ){
+				changed( index.update( source ) );
+				changed( CssRuleIndex.getKey( source.getSelector() ) );
+				rulesAreSorted = false;
+			}
 			rematch();
 		}
 	};
 	
+	private CssPathListener pathListener = new CssPathListener(){
+		@Override
+		public void pathChanged( CssPath path ){
+			synchronized( RULES_LOCK ){
+				matchedRules.remove( path );
+			}
+			List<Match> matches = paths.get( path );
+			if( matches != null ){
+				for( Match match : matches.toArray( new Match[ matches.size() ] )){
+					match.searchRule();
+				}
+			}
+		}
+	};
+	
 	/**
 	 * Creates a new scheme
 	 */
@@ -189,15 +228,26 @@ public class CssScheme {
 	public CssRuleContent search( CssItem item ){
 		synchronized( RULES_LOCK ){
 			ensureRulesSorted();
-			CssRuleContentUnion result = null;
-			
-			for( CssRule rule : rules ){
-				if( rule.getSelector().matches( item.getPath() )){
-					if( result == null ){
-						result = new CssRuleContentUnion();
+			CssPath path = item.getPath();
+			List<CssRule> matched = matchedRules.get( path );
+			if( matched == null ){
+				matched = new ArrayList<CssRule>();
+				for( CssRule rule : index.getCandidates( path ) ){
+					if( rule.getSelector().matches( path )){
+						matched.add( rule );
 					}
-					result.add( rule.getContent() );
 				}
+				if( paths.containsKey( path )){
+					matchedRules.put( path, matched );
+				}
+			}
+			
+			if( matched.isEmpty() ){
+				return null;
+			}
+			CssRuleContentUnion result = new CssRuleContentUnion();
+			for( CssRule rule : matched ){
+				result.add( rule.getContent() );
 			}
 			return result;
 		}
@@ -214,6 +264,8 @@ public class CssScheme {
 		}
 		synchronized( RULES_LOCK ){
 			rules.add( rule );
+			index.add( rule );
+			changed( CssRuleIndex.getKey( rule.getSelector() ) );
 		}
 		rulesAreSorted = false;
 		rule.addRuleListener( selectorChangedListener );
@@ -227,7 +279,9 @@ public class CssScheme {
 	 */
 	public void removeRule( CssRule rule ){
 		synchronized( RULES_LOCK ){
-			rules.remove( rule );
+			if( rules.remove( rule )){
+				changed( index.remove( rule ) );
+			}
 		}
 		rule.removeRuleListener( selectorChangedListener );
 		rulesAreSorted = false;
@@ -244,6 +298,9 @@ public class CssScheme {
 		}
 		synchronized( RULES_LOCK ){
 			this.rules.clear();
+			index.clear();
+			matchedRules.clear();
+			changedAll = true;
 		}
 		addRules( rules );
 	}
@@ -256,6 +313,8 @@ public class CssScheme {
 		for( CssRule rule : rules ){
 			synchronized( RULES_LOCK ){
 				this.rules.add( rule );
+				index.add( rule );
+				changed( CssRuleIndex.getKey( rule.getSelector() ) );
 			}
 			rule.addRuleListener( selectorChangedListener );
 		}
@@ -264,14 +323,31 @@ public class CssScheme {
 	}
 	
 	/**
-	 * Schedules a call to {@link #match()}, the call will be executed later in the EDT.
+	 * Marks the {@link CssItem}s whose paths contain a node described by <code>key</code> as
+	 * dirty. Must be called while holding {@link #RULES_LOCK}.
+	 * @param key the key of a rule that changed, <code>null</code> if all items are dirty
+	 */
+	private void changed( CssSelectorKey key ){
+		matchedRules.clear();
+		if( key == null ){
+			changedAll = true;
+		}
+		else{
+			changedKeys.add( key );
+		}
+	}
+	
+	/**
+	 * Schedules an update of all the {@link CssItem}s that may be affected by the {@link CssRule}s that
+	 * changed since the last update. The update will be executed later in the EDT.
 	 */
 	public void rematch(){
 		if( !rematchPending ){
+			rematchPending = true;
 			EventQueue.invokeLater( new Runnable(){
 				@Override
 				public void run(){
-					match();
+					matchChanged();
 				}
 			} );
 		}
@@ -283,6 +359,11 @@ public class CssScheme {
 	 */
 	public void match(){
 		rematchPending = false;
+		synchronized( RULES_LOCK ){
+			changedAll = false;
+			changedKeys.clear();
+			matchedRules.clear();
+		}
 		ensureRulesSorted();
 		
 		for( Match match : items.values() ){
@@ -290,6 +371,50 @@ public class CssScheme {
 		}
 	}
 	
+	/**
+	 * Ensures that the {@link CssItem}s affected by the {@link CssRule}s that changed since the last
+	 * update are matched with the correct {@link CssRule}. 
+	 */
+	private void matchChanged(){
+		rematchPending = false;
+		Set<CssSelectorKey> keys;
+		synchronized( RULES_LOCK ){
+			if( changedAll ){
+				keys = null;
+			}
+			else{
+				keys = changedKeys;
+				changedKeys = new HashSet<CssSelectorKey>();
+			}
+		}
+		
+		if( keys == null ){
+			match();
+		}
+		else if( !keys.isEmpty() ){
+			ensureRulesSorted();
+			for( CssPath path : paths.keySet().toArray( new CssPath[ paths.size() ] )){
+				if( affected( path, keys )){
+					List<Match> matches = paths.get( path );
+					if( matches != null ){
+						for( Match match : matches.toArray( new Match[ matches.size() ] )){
+							match.searchRule();
+						}
+					}
+				}
+			}
+		}
+	}
+	
+	private boolean affected( CssPath path, Set<CssSelectorKey> keys ){
+		for( CssSelectorKey key : keys ){
+			if( key.matches( path )){
+				return true;
+			}
+		}
+		return false;
+	}
+	
 	private void ensureRulesSorted(){
 		if( !rulesAreSorted ){
 			synchronized( RULES_LOCK ){
@@ -298,11 +423,36 @@ public class CssScheme {
 						return a.getSelector().getSpecificity().compareTo( b.getSelector().getSpecificity() );
 					}
 				} );
+				index.setOrder( rules );
 			}
 			rulesAreSorted = true;
 		}
 	}
 	
+	private void bind( Match match ){
+		List<Match> list = paths.get( match.path );
+		if( list == null ){
+			list = new ArrayList<Match>( 1 );
+			paths.put( match.path, list );
+			match.path.addPathListener( pathListener );
+		}
+		list.add( match );
+	}
+	
+	private void unbind( Match match ){
+		List<Match> list = paths.get( match.path );
+		if( list != null ){
+			list.remove( match );
+			if( list.isEmpty() ){
+				paths.remove( match.path );
+				match.path.removePathListener( pathListener );
+				synchronized( RULES_LOCK ){
+					matchedRules.remove( match.path );
+				}
+			}
+		}
+	}
+	
 	/**
 	 * Gets the {@link CssScheduler} which is responsible for asynchronous calls to the transitions. 
 	 * @return the scheduler, not <code>null</code>
@@ -358,7 +508,7 @@ public class CssScheme {
 	 * class ensures the transfer of the values from the rule ot the item.
 	 * @author Benjamin Sigg
 	 */
-	private class Match implements CssItemListener, CssPathListener{
+	private class Match implements CssItemListener{
 		private TransitionalCssRuleChain chain;
 		private TransitionalCssRuleContent rule;
 		private CssItem item;
@@ -374,13 +524,13 @@ public class CssScheme {
 			this.item = item;
 			item.addItemListener( this );
 			path = item.getPath();
-			path.addPathListener( this );
+			bind( this );
 			chain = createTransition( item );
 		}
 		
 		public void destroy(){
 			item.removeItemListener( this );
-			item.getPath().removePathListener( this );
+			unbind( this );
 			chain.destroy();
 		}
 		
@@ -419,16 +569,11 @@ public class CssScheme {
 		
 		@Override
 		public void pathChanged( CssItem source ){
-			path.removePathListener( this );
+			unbind( this );
 			path = item.getPath();
-			path.addPathListener( this );
+			bind( this );
 			searchRule();
 		}
-		
-		@Override
-		public void pathChanged( CssPath path ){
-			searchRule();	
-		}
 	}
 	
 	private static class Destroy implements Runnable{
@@ -0,0 +1,152 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2013 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.extension.css;
+
+/**
+ * Describes a {@link CssNode} that must be part of any {@link CssPath} that is matched by a
+ * {@link CssSelector}. The key is used by the {@link CssScheme} to quickly find the {@link CssRule}s
+ * that could match a path, without asking each and every selector.
+ * @author Benjamin Sigg
+ */
+public final class CssSelectorKey {
+	/**
+	 * The different properties of a {@link CssNode} that can be described by a {@link CssSelectorKey}. The
+	 * kinds are ordered by how selective they usually are, starting with the least selective kind.
+	 * @author Benjamin Sigg
+	 */
+	public static enum Kind{
+		/** the key describes a {@link CssNode#hasPseudoClass(String) pseudo class} of a node */
+		PSEUDO_CLASS,
+		/** the key describes the {@link CssNode#getName() name} of a node */
+		NAME,
+		/** the key describes the {@link CssNode#getIdentifier() identifier} of a node */
+		IDENTIFIER
+	}
+	
+	/**
+	 * Creates a key for a node with name <code>name</code>.
+	 * @param name the name of the node, not <code>null</code>
+	 * @return the new key
+	 */
+	public static CssSelectorKey name( String name ){
+		return new CssSelectorKey( Kind.NAME, name );
+	}
+	
+	/**
+	 * Creates a key for a node with identifier <code>identifier</code>.
+	 * @param identifier the identifier of the node, not <code>null</code>
+	 * @return the new key
+	 */
+	public static CssSelectorKey identifier( String identifier ){
+		return new CssSelectorKey( Kind.IDENTIFIER, identifier );
+	}
+	
+	/**
+	 * Creates a key for a node with the pseudo class <code>pseudoClass</code>.
+	 * @param pseudoClass the name of the pseudo class, not <code>null</code>
+	 * @return the new key
+	 */
+	public static CssSelectorKey pseudoClass( String pseudoClass ){
+		return new CssSelectorKey( Kind.PSEUDO_CLASS, pseudoClass );
+	}
+	
+	private final Kind kind;
+	private final String value;
+	
+	private CssSelectorKey( Kind kind, String value ){
+		if( value == null ){
+			throw new IllegalArgumentException( "value must not be null" );
+		}
+		this.kind = kind;
+		this.value = value;
+	}
+	
+	/**
+	 * Tells which property of a node is described by this key.
+	 * @return the kind of property, not <code>null</code>
+	 */
+	public Kind getKind(){
+		return kind;
+	}
+	
+	/**
+	 * Gets the value the property must have.
+	 * @return the value, not <code>null</code>
+	 */
+	public String getValue(){
+		return value;
+	}
+	
+	/**
+	 * Tells whether <code>node</code> is described by this key.
+	 * @param node the node to check
+	 * @return whether <code>node</code> has the property described by this key
+	 */
+	public boolean matches( CssNode node ){
+		switch( kind ){
+			case NAME: return value.equals( node.getName() );
+			case IDENTIFIER: return value.equals( node.getIdentifier() );
+			case PSEUDO_CLASS: return node.hasPseudoClass( value );
+			default: throw new IllegalStateException( "unknown kind: " + kind );
+		}
+	}
+	
+	/**
+	 * Tells whether at least one node of <code>path</code> is described by this key.
+	 * @param path the path to search
+	 * @return whether a matching node was found
+	 */
+	public boolean matches( CssPath path ){
+		for( int i = 0, n = path.getSize(); i<n; i++ ){
+			if( matches( path.getNode( i ) )){
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	@Override
+	public int hashCode(){
+		return kind.hashCode() * 31 + value.hashCode();
+	}
+	
+	@Override
+	public boolean equals( Object obj ){
+		if( this == obj ){
+			return true;
+		}
+		if( obj == null || obj.getClass() != getClass() ){
+			return false;
+		}
+		CssSelectorKey other = (CssSelectorKey)obj;
+		return kind == other.kind && value.equals( other.value );
+	}
+	
+	@Override
+	public String toString(){
+		return kind + "=" + value;
+	}
+}
@@ -34,8 +34,12 @@ import java.util.List;
 import bibliothek.gui.DockController;
 import bibliothek.gui.dock.extension.css.intern.CssParser;
 import bibliothek.gui.dock.extension.css.theme.CssDockTitleFactory;
+import bibliothek.gui.dock.extension.css.transition.scheduler.CssScheduler;
+import bibliothek.gui.dock.extension.css.transition.scheduler.DefaultCssScheduler;
 import bibliothek.gui.dock.extension.css.tree.CssTree;
 import bibliothek.gui.dock.themes.BasicTheme;
+import bibliothek.gui.dock.util.PropertyValue;
+import bibliothek.gui.dock.util.animation.AnimationClock;
 
 /**
  * The {@link CssTheme} makes use of files with a CSS-like syntax for defining how the different
@@ -44,7 +48,27 @@ import bibliothek.gui.dock.themes.BasicTheme;
  */
 public class CssTheme extends BasicTheme{
 	private CssTree tree;
-	private CssScheme scheme = new CssScheme();
+	private CssScheme scheme = new CssScheme(){
+		@Override
+		public void setScheduler( CssScheduler scheduler ){
+			CssScheduler oldScheduler = getScheduler();
+			super.setScheduler( scheduler );
+			if( oldScheduler != scheduler ){
+				if( oldScheduler instanceof DefaultCssScheduler ){
+					((DefaultCssScheduler)oldScheduler).setClock( null );
+				}
+				updateClock();
+			}
+		}
+	};
+	
+	/** the clock of the current controller, used to run the transitions of {@link #scheme} */
+	private PropertyValue<AnimationClock> clock = new PropertyValue<AnimationClock>( AnimationClock.ANIMATION_CLOCK ){
+		@Override
+		protected void valueChanged( AnimationClock oldValue, AnimationClock newValue ){
+			updateClock();
+		}
+	};
 	
 	/**
 	 * Sets up a new theme
@@ -69,12 +93,32 @@ public class CssTheme extends BasicTheme{
 		tree = new CssTree( controller );
 		scheme.setTree( tree );
 		super.install( controller );
+		clock.setProperties( controller );
+		updateClock();
 	}
 	
 	@Override
 	public void uninstall( DockController controller ){
 		super.uninstall( controller );
 		scheme.setTree( null );
+		clock.setProperties( (DockController)null );
+		updateClock();
+	}
+	
+	/**
+	 * Lets the scheduler of the {@link #getScheme() scheme} use the {@link AnimationClock} of the
+	 * current controller. Called whenever the controller, its clock, or the scheduler changes.
+	 */
+	private void updateClock(){
+		if( scheme.getScheduler() instanceof DefaultCssScheduler ){
+			DefaultCssScheduler scheduler = (DefaultCssScheduler)scheme.getScheduler();
+			if( getController() == null ){
+				scheduler.setClock( null );
+			}
+			else{
+				scheduler.setClock( clock.getValue() );
+			}
+		}
 	}
 	
 	/**
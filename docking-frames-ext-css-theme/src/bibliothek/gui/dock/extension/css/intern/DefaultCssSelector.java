@@ -31,6 +31,7 @@ import java.util.List;
 
 import bibliothek.gui.dock.extension.css.CssPath;
 import bibliothek.gui.dock.extension.css.CssSelector;
+import bibliothek.gui.dock.extension.css.CssSelectorKey;
 import bibliothek.gui.dock.extension.css.CssSpecificity;
 
 /**
@@ -56,6 +57,9 @@ public class DefaultCssSelector implements CssSelector{
 	
 	private CssSpecificity specificity;
 	
+	/** a key describing a node that must be present in any matched path */
+	private CssSelectorKey key;
+	
 	private DefaultCssSelector( Step[] steps ){
 		this.steps = steps;
 		
@@ -85,6 +89,14 @@ public class DefaultCssSelector implements CssSelector{
 		}
 		
 		specificity = new CssSpecificity( countStyle, countId, countAttribute, countElement );
+		
+		// use the most selective key, if there are many then the rightmost
+		for( Step step : steps ){
+			CssSelectorKey next = step.getKey();
+			if( next != null && (key == null || next.getKind().ordinal() >= key.getKind().ordinal() )){
+				key = next;
+			}
+		}
 	}
 	
 	@Override
@@ -113,6 +125,15 @@ public class DefaultCssSelector implements CssSelector{
 		return specificity;
 	}
 	
+	/**
+	 * Gets a key describing a {@link bibliothek.gui.dock.extension.css.CssNode} that must be present in any
+	 * {@link CssPath} that is {@link #matches(CssPath) matched} by this selector.
+	 * @return the key, can be <code>null</code> if this selector could match any path
+	 */
+	public CssSelectorKey getKey(){
+		return key;
+	}
+	
 	@Override
 	public String toString(){
 		StringBuilder builder = new StringBuilder();
@@ -155,6 +176,12 @@ public class DefaultCssSelector implements CssSelector{
 		public int[] matches( CssPath path, int offset );
 		
 		public Specificity getSpecificity();
+		
+		/**
+		 * Gets a key describing the nodes that are matched by this step.
+		 * @return the key or <code>null</code> if this step cannot be described by a key
+		 */
+		public CssSelectorKey getKey();
 	}
 	
 	private static class Any implements Step{
@@ -176,6 +203,11 @@ public class DefaultCssSelector implements CssSelector{
 			return null;
 		}
 		
+		@Override
+		public CssSelectorKey getKey(){
+			return null;
+		}
+		
 		@Override
 		public int hashCode(){
 			return 0;
@@ -223,6 +255,11 @@ public class DefaultCssSelector implements CssSelector{
 			return Specificity.ELEMENT;
 		}
 		
+		@Override
+		public CssSelectorKey getKey(){
+			return CssSelectorKey.name( name );
+		}
+		
 		@Override
 		public String toString(){
 			return name;
@@ -278,6 +315,11 @@ public class DefaultCssSelector implements CssSelector{
 			return Specificity.ELEMENT;
 		}
 		
+		@Override
+		public CssSelectorKey getKey(){
+			return CssSelectorKey.name( name );
+		}
+		
 		@Override
 		public String toString(){
 			return " > " + name;
@@ -330,6 +372,11 @@ public class DefaultCssSelector implements CssSelector{
 			return Specificity.ATTRIBUTE;
 		}
 		
+		@Override
+		public CssSelectorKey getKey(){
+			return CssSelectorKey.pseudoClass( name );
+		}
+		
 		@Override
 		public String toString(){
 			return ":" + name;
@@ -391,6 +438,11 @@ public class DefaultCssSelector implements CssSelector{
 			return Specificity.ATTRIBUTE;
 		}
 		
+		@Override
+		public CssSelectorKey getKey(){
+			return null;
+		}
+		
 		@Override
 		public String toString(){
 			if( value == null ){
@@ -455,6 +507,11 @@ public class DefaultCssSelector implements CssSelector{
 			return Specificity.ATTRIBUTE;
 		}
 		
+		@Override
+		public CssSelectorKey getKey(){
+			return null;
+		}
+		
 		@Override
 		public String toString(){
 			return "." + name;
@@ -507,6 +564,11 @@ public class DefaultCssSelector implements CssSelector{
 			return Specificity.ID;
 		}
 		
+		@Override
+		public CssSelectorKey getKey(){
+			return CssSelectorKey.identifier( name );
+		}
+		
 		@Override
 		public String toString(){
 			return "#" + name;
@@ -0,0 +1,215 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2013 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.extension.css.scheme;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import bibliothek.gui.dock.extension.css.CssNode;
+import bibliothek.gui.dock.extension.css.CssPath;
+import bibliothek.gui.dock.extension.css.CssRule;
+import bibliothek.gui.dock.extension.css.CssScheme;
+import bibliothek.gui.dock.extension.css.CssSelector;
+import bibliothek.gui.dock.extension.css.CssSelectorKey;
+import bibliothek.gui.dock.extension.css.intern.DefaultCssSelector;
+
+/**
+ * An index of {@link CssRule}s used by the {@link CssScheme}. The {@link CssRule}s are grouped by
+ * the {@link #getKey(CssSelector) key} of their selector, allowing the index to quickly find all
+ * the rules that could match some {@link CssPath}. Only the selectors of these candidates need
+ * to be checked. Rules whose selector has no key are candidates for any path.
+ * @author Benjamin Sigg
+ */
+public class CssRuleIndex {
+	/** the key under which each rule is currently stored */
+	private Map<CssRule, CssSelectorKey> keys = new IdentityHashMap<CssRule, CssSelectorKey>();
+	
+	/** all the rules grouped by their key, rules without key are stored using <code>null</code> */
+	private Map<CssSelectorKey, List<CssRule>> rules = new HashMap<CssSelectorKey, List<CssRule>>();
+	
+	/** all the keys describing a pseudo class, these keys cannot be found by just reading a path */
+	private Set<CssSelectorKey> pseudoClasses = new HashSet<CssSelectorKey>();
+	
+	/** the position of each rule in the list of sorted rules */
+	private Map<CssRule, Integer> order = new IdentityHashMap<CssRule, Integer>();
+	
+	/** sorts rules by their position in {@link #order} */
+	private Comparator<CssRule> orderComparator = new Comparator<CssRule>(){
+		@Override
+		public int compare( CssRule a, CssRule b ){
+			return position( a ) - position( b );
+		}
+	};
+	
+	/**
+	 * Gets the key under which a rule with selector <code>selector</code> is stored. Only a
+	 * {@link DefaultCssSelector} knows its key, any other selector could match any path.
+	 * @param selector the selector whose key is searched
+	 * @return the key, <code>null</code> if the rule has to be checked for any path
+	 */
+	public static CssSelectorKey getKey( CssSelector selector ){
+		if( selector instanceof DefaultCssSelector ){
+			return ((DefaultCssSelector)selector).getKey();
+		}
+		return null;
+	}
+	
+	/**
+	 * Adds <code>rule</code> to this index.
+	 * @param rule the new rule, not <code>null</code>
+	 */
+	public void add( CssRule rule ){
+		CssSelectorKey key = getKey( rule.getSelector() );
+		keys.put( rule, key );
+		List<CssRule> list = rules.get( key );
+		if( list == null ){
+			list = new ArrayList<CssRule>( 2 );
+			rules.put( key, list );
+			if( key != null && key.getKind() == CssSelectorKey.Kind.PSEUDO_CLASS ){
+				pseudoClasses.add( key );
+			}
+		}
+		list.add( rule );
+	}
+	
+	/**
+	 * Removes <code>rule</code> from this index. If <code>rule</code> was added more than once, then
+	 * only one occurrence is removed.
+	 * @param rule the rule to remove
+	 * @return the key under which <code>rule</code> was stored, can be <code>null</code>
+	 */
+	public CssSelectorKey remove( CssRule rule ){
+		if( !keys.containsKey( rule )){
+			return null;
+		}
+		CssSelectorKey key = keys.get( rule );
+		List<CssRule> list = rules.get( key );
+		list.remove( rule );
+		if( !list.contains( rule )){
+			keys.remove( rule );
+		}
+		if( list.isEmpty() ){
+			rules.remove( key );
+			pseudoClasses.remove( key );
+		}
+		return key;
+	}
+	
+	/**
+	 * Stores <code>rule</code> again, using the current key of its selector.
+	 * @param rule the rule whose selector changed
+	 * @return the key under which <code>rule</code> was stored before, can be <code>null</code>
+	 */
+	public CssSelectorKey update( CssRule rule ){
+		CssSelectorKey old = keys.get( rule );
+		int count = 0;
+		while( keys.containsKey( rule )){
+			remove( rule );
+			count++;
+		}
+		for( int i = 0; i < count; i++ ){
+			add( rule );
+		}
+		return old;
+	}
+	
+	/**
+	 * Removes all rules from this index.
+	 */
+	public void clear(){
+		keys.clear();
+		rules.clear();
+		pseudoClasses.clear();
+		order.clear();
+	}
+	
+	/**
+	 * Sets the order in which the candidates are returned by {@link #getCandidates(CssPath)}.
+	 * @param sorted all the rules of this index, sorted
+	 */
+	public void setOrder( List<CssRule> sorted ){
+		order.clear();
+		for( int i = 0, n = sorted.size(); i<n; i++ ){
+			order.put( sorted.get( i ), i );
+		}
+	}
+	
+	private int position( CssRule rule ){
+		Integer result = order.get( rule );
+		if( result == null ){
+			return Integer.MAX_VALUE;
+		}
+		return result;
+	}
+	
+	/**
+	 * Gets all the rules that might match <code>path</code>. The rules are sorted in the order that was
+	 * set by {@link #setOrder(List)}.
+	 * @param path the path to search
+	 * @return the rules whose selectors may match <code>path</code>, this list does not contain any
+	 * rule whose selector definitely does not match <code>path</code>
+	 */
+	public List<CssRule> getCandidates( CssPath path ){
+		List<CssRule> result = new ArrayList<CssRule>();
+		Set<CssSelectorKey> visited = new HashSet<CssSelectorKey>();
+		
+		collect( null, visited, result );
+		for( int i = 0, n = path.getSize(); i<n; i++ ){
+			CssNode node = path.getNode( i );
+			collect( CssSelectorKey.name( node.getName() ), visited, result );
+			String identifier = node.getIdentifier();
+			if( identifier != null ){
+				collect( CssSelectorKey.identifier( identifier ), visited, result );
+			}
+		}
+		for( CssSelectorKey pseudoClass : pseudoClasses ){
+			if( pseudoClass.matches( path )){
+				collect( pseudoClass, visited, result );
+			}
+		}
+		
+		if( result.size() > 1 ){
+			Collections.sort( result, orderComparator );
+		}
+		return result;
+	}
+	
+	private void collect( CssSelectorKey key, Set<CssSelectorKey> visited, List<CssRule> result ){
+		if( visited.add( key )){
+			List<CssRule> list = rules.get( key );
+			if( list != null ){
+				result.addAll( list );
+			}
+		}
+	}
+}
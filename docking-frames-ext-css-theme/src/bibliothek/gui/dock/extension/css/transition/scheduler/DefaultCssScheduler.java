@@ -25,17 +25,18 @@
  */
 package bibliothek.gui.dock.extension.css.transition.scheduler;
 
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.PriorityQueue;
 
-import javax.swing.Timer;
+import bibliothek.gui.dock.util.animation.Animation;
+import bibliothek.gui.dock.util.animation.AnimationClock;
 
 /**
  * This {@link CssScheduler} ignores multiple calls to its <code>step</code> methods,
- * and executes all <code>steps</code> in the <code>EventDispatcherThread</code>. 
+ * and executes all <code>steps</code> in the <code>EventDispatcherThread</code>. The
+ * steps are executed by an {@link AnimationClock}, hence all the transitions share
+ * one timer with the other animations of the framework.
  * @author Benjamin Sigg
  */
 public class DefaultCssScheduler implements CssScheduler{
@@ -44,16 +45,51 @@ public class DefaultCssScheduler implements CssScheduler{
 	private PriorityQueue<Call> queue = new PriorityQueue<Call>();
 	private Map<CssSchedulable, Call> calls = new HashMap<CssSchedulable, Call>();
 	
-	private volatile int pendingCalls = 0;
 	private volatile Call executing;
 	
-	private ActionListener callback = new ActionListener(){
+	/** the clock executing this scheduler, <code>null</code> if the shared clock is used */
+	private AnimationClock clock;
+	
+	/** whether {@link #frame} is currently registered at a clock */
+	private boolean running = false;
+	
+	/** called by the clock once per frame */
+	private Animation frame = new Animation(){
 		@Override
-		public void actionPerformed( ActionEvent e ){
-			step();	
+		public boolean step( AnimationClock clock, long nanoTime ){
+			return DefaultCssScheduler.this.step( nanoTime );
 		}
 	};
 	
+	/**
+	 * Sets the clock that executes the calls of this scheduler.
+	 * @param clock the clock, <code>null</code> if the {@link AnimationClock#getSharedClock() shared clock} should be used
+	 */
+	public void setClock( AnimationClock clock ){
+		synchronized( LOCK ){
+			if( running ){
+				getClock().stop( frame );
+			}
+			this.clock = clock;
+			if( running ){
+				getClock().start( frame );
+			}
+		}
+	}
+	
+	/**
+	 * Gets the clock that executes the calls of this scheduler.
+	 * @return the clock, not <code>null</code>
+	 */
+	public AnimationClock getClock(){
+		synchronized( LOCK ){
+			if( clock == null ){
+				return AnimationClock.getSharedClock();
+			}
+			return clock;
+		}
+	}
+	
 	@Override
 	public void step( CssSchedulable job ){
 		step( job, 20 );
@@ -77,51 +113,36 @@ public class DefaultCssScheduler implements CssScheduler{
 			if( next != null ){
 				calls.put( job, next );
 				queue.add( next );
-				schedule( delay );
+				if( !running ){
+					running = true;
+					getClock().start( frame );
+				}
 			}
 		}
 	}
 	
-	private void schedule( int delay ){
-		synchronized( LOCK ){
-			pendingCalls++;
-			Timer timer = new Timer( delay, callback );
-			timer.setRepeats( false );
-			timer.start();
-		}
-	}
-	
-	private void step(){
-		synchronized( LOCK ){
-			pendingCalls--;
-		}
-		long now = System.nanoTime();
+	private boolean step( long now ){
 		while( true ){
-			boolean execute = false;
 			Call call = null;
 			synchronized( LOCK ){
 				call = queue.peek();
 				if( call == null ){
-					return;
+					// removing the frame while holding the lock ensures that a concurrent call to "step" restarts the frame
+					running = false;
+					getClock().stop( frame );
+					return true;
 				}
 				
 				if( call.nanoScheduled <= now ){
-					execute = true;
 					queue.poll();
 					calls.remove( call.job );
 				}
 				else{
-					if( pendingCalls == 0 ){
-						schedule( Math.max( 1, (int)((call.nanoScheduled - now)/1000000) ) );
-					}
+					return true;
 				}
 			}
 			
-			if( execute ){
-				call.execute( now );
-			} else {
-				break;
-			}
+			call.execute( now );
 		}
 	}
 
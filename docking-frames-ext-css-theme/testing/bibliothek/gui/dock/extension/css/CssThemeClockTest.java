@@ -0,0 +1,91 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2013 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.extension.css;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import bibliothek.gui.DockController;
+import bibliothek.gui.dock.extension.css.transition.scheduler.DefaultCssScheduler;
+import bibliothek.gui.dock.themes.BasicTheme;
+import bibliothek.gui.dock.util.animation.AnimationClock;
+
+/**
+ * Tests that the scheduler of a {@link CssTheme} always runs on the {@link AnimationClock} of
+ * the current {@link DockController}.
+ * @author Benjamin Sigg
+ */
+public class CssThemeClockTest {
+	private DockController controller;
+	private CssTheme theme;
+	private AnimationClock clock;
+	
+	@Before
+	public void setup(){
+		controller = new DockController();
+		clock = controller.getProperties().get( AnimationClock.ANIMATION_CLOCK );
+		theme = new CssTheme();
+		controller.setTheme( theme );
+	}
+	
+	@After
+	public void cleanup(){
+		controller.kill();
+	}
+	
+	@Test
+	public void testInstall(){
+		DefaultCssScheduler scheduler = (DefaultCssScheduler)theme.getScheme().getScheduler();
+		assertSame( clock, scheduler.getClock() );
+		
+		controller.setTheme( new BasicTheme() );
+		assertSame( AnimationClock.getSharedClock(), scheduler.getClock() );
+	}
+	
+	@Test
+	public void testReplaceScheduler(){
+		DefaultCssScheduler oldScheduler = (DefaultCssScheduler)theme.getScheme().getScheduler();
+		DefaultCssScheduler newScheduler = new DefaultCssScheduler();
+		theme.getScheme().setScheduler( newScheduler );
+		
+		assertSame( clock, newScheduler.getClock() );
+		assertSame( AnimationClock.getSharedClock(), oldScheduler.getClock() );
+		
+		controller.setTheme( new BasicTheme() );
+		assertSame( AnimationClock.getSharedClock(), newScheduler.getClock() );
+	}
+	
+	@Test
+	public void testReplaceClock(){
+		DefaultCssScheduler scheduler = (DefaultCssScheduler)theme.getScheme().getScheduler();
+		AnimationClock replacement = new AnimationClock();
+		controller.getProperties().set( AnimationClock.ANIMATION_CLOCK, replacement );
+		assertSame( replacement, scheduler.getClock() );
+	}
+}
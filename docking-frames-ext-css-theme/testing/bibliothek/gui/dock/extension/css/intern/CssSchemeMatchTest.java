@@ -0,0 +1,207 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2013 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.extension.css.intern;
+
+import static org.junit.Assert.*;
+
+import java.awt.Color;
+import java.awt.EventQueue;
+import java.lang.reflect.InvocationTargetException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import bibliothek.gui.dock.extension.css.CssPath;
+import bibliothek.gui.dock.extension.css.CssSelector;
+import bibliothek.gui.dock.extension.css.CssSpecificity;
+import bibliothek.gui.dock.extension.css.DefaultCssItem;
+import bibliothek.gui.dock.extension.css.path.DefaultCssNode;
+import bibliothek.gui.dock.extension.css.path.DefaultCssPath;
+import bibliothek.gui.dock.extension.css.property.paint.ColorCssProperty;
+import bibliothek.gui.dock.extension.css.property.paint.ColorType;
+
+/**
+ * Tests that the {@link bibliothek.gui.dock.extension.css.CssScheme} updates its items, and the rules it
+ * remembered for their paths, whenever a rule or a path changes. Every item matches at least the gray
+ * rule for "base" elements.
+ * @author Benjamin Sigg
+ */
+public class CssSchemeMatchTest {
+	private TestCssScheme scheme;
+	
+	@Before
+	public void setup(){
+		scheme = TestCssRules.getNoAnimationScheme();
+		scheme.addRule( rule( DefaultCssSelector.selector().element( "base" ).build(), Color.GRAY ));
+	}
+	
+	@Test
+	public void testAddRule() throws Exception{
+		ColorItem item = new ColorItem( "yellow" );
+		scheme.add( item );
+		assertEquals( Color.GRAY, item.color );
+		
+		scheme.addRule( rule( TestCssRules.selector( "yellow" ), Color.YELLOW ));
+		flush();
+		assertEquals( Color.YELLOW, item.color );
+	}
+	
+	@Test
+	public void testRemoveRule() throws Exception{
+		DefaultCssRule rule = rule( TestCssRules.selector( "yellow" ), Color.YELLOW );
+		scheme.addRule( rule );
+		ColorItem item = new ColorItem( "yellow" );
+		scheme.add( item );
+		flush();
+		assertEquals( Color.YELLOW, item.color );
+		
+		scheme.removeRule( rule );
+		flush();
+		assertEquals( Color.GRAY, item.color );
+	}
+	
+	@Test
+	public void testChangeSelector() throws Exception{
+		DefaultCssRule rule = rule( TestCssRules.selector( "yellow" ), Color.YELLOW );
+		scheme.addRule( rule );
+		ColorItem yellow = new ColorItem( "yellow" );
+		ColorItem green = new ColorItem( "green" );
+		scheme.add( yellow );
+		scheme.add( green );
+		flush();
+		assertEquals( Color.YELLOW, yellow.color );
+		assertEquals( Color.GRAY, green.color );
+		
+		rule.setSelector( TestCssRules.selector( "green" ));
+		flush();
+		assertEquals( Color.GRAY, yellow.color );
+		assertEquals( Color.YELLOW, green.color );
+	}
+	
+	@Test
+	public void testChangePath() throws Exception{
+		ColorItem first = new ColorItem( "white" );
+		ColorItem second = new ColorItem( first.getPath() );
+		scheme.add( first );
+		scheme.add( second );
+		assertEquals( Color.WHITE, first.color );
+		assertEquals( Color.WHITE, second.color );
+		
+		first.node.setIdentifier( "black" );
+		assertEquals( Color.BLACK, first.color );
+		assertEquals( Color.BLACK, second.color );
+		
+		first.to( "white" );
+		assertEquals( Color.WHITE, first.color );
+		assertEquals( Color.BLACK, second.color );
+	}
+	
+	@Test
+	public void testForeignSelector() throws Exception{
+		ColorItem item = new ColorItem( "yellow" );
+		scheme.add( item );
+		
+		scheme.addRule( rule( new ForeignSelector( "yellow" ), Color.YELLOW ));
+		flush();
+		assertEquals( Color.YELLOW, item.color );
+		
+		item.to( "red" );
+		assertEquals( Color.GRAY, item.color );
+	}
+	
+	private DefaultCssRule rule( CssSelector selector, Color color ){
+		DefaultCssRule rule = new DefaultCssRule( selector );
+		rule.setProperty( "color", ColorType.convert( color ));
+		return rule;
+	}
+	
+	/**
+	 * Waits until the {@link TestCssScheme} has handled all the changes of its rules.
+	 */
+	private void flush() throws InterruptedException, InvocationTargetException{
+		EventQueue.invokeAndWait( new Runnable(){
+			public void run(){
+				// nothing to do
+			}
+		} );
+	}
+	
+	/**
+	 * An item with one node, the node has the name "base" and an identifier.
+	 * @author Benjamin Sigg
+	 */
+	private class ColorItem extends DefaultCssItem {
+		private DefaultCssNode node;
+		private Color color;
+		
+		public ColorItem( String identifier ){
+			this( new DefaultCssPath( new DefaultCssNode( "base" )));
+			to( identifier );
+		}
+		
+		public ColorItem( CssPath path ){
+			super( path );
+			node = (DefaultCssNode)path.getNode( 0 );
+			putProperty( "color", new ColorCssProperty(){
+				@Override
+				public void set( Color value ){
+					color = value;
+				}
+			} );
+		}
+		
+		public void to( String identifier ){
+			node = new DefaultCssNode( "base" );
+			node.setIdentifier( identifier );
+			setPath( new DefaultCssPath( node ));
+		}
+	}
+	
+	/**
+	 * A selector that is not known to the framework, it matches any path with an identifier.
+	 * @author Benjamin Sigg
+	 */
+	private static class ForeignSelector implements CssSelector {
+		private final String identifier;
+		
+		public ForeignSelector( String identifier ){
+			this.identifier = identifier;
+		}
+		
+		public boolean matches( CssPath path ){
+			for( int i = 0, n = path.getSize(); i < n; i++ ){
+				if( identifier.equals( path.getNode( i ).getIdentifier() )){
+					return true;
+				}
+			}
+			return false;
+		}
+		
+		public CssSpecificity getSpecificity(){
+			return new CssSpecificity( 0, 1, 0, 0 );
+		}
+	}
+}
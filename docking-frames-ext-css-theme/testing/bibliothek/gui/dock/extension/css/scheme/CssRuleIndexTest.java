@@ -0,0 +1,191 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2013 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.extension.css.scheme;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import bibliothek.gui.dock.extension.css.CssNode;
+import bibliothek.gui.dock.extension.css.CssPath;
+import bibliothek.gui.dock.extension.css.CssRule;
+import bibliothek.gui.dock.extension.css.CssSelector;
+import bibliothek.gui.dock.extension.css.CssSelectorKey;
+import bibliothek.gui.dock.extension.css.CssSpecificity;
+import bibliothek.gui.dock.extension.css.intern.DefaultCssRule;
+import bibliothek.gui.dock.extension.css.intern.DefaultCssSelector;
+import bibliothek.gui.dock.extension.css.path.DefaultCssNode;
+import bibliothek.gui.dock.extension.css.path.DefaultCssPath;
+
+/**
+ * Tests whether {@link CssRuleIndex} offers all the {@link CssRule}s that could match some path, and only these.
+ * @author Benjamin Sigg
+ */
+public class CssRuleIndexTest {
+	private CssRuleIndex index;
+	
+	private DefaultCssRule element;
+	private DefaultCssRule identifier;
+	private DefaultCssRule pseudo;
+	private DefaultCssRule child;
+	private DefaultCssRule any;
+	private DefaultCssRule foreign;
+	
+	private List<DefaultCssRule> rules;
+	
+	@Before
+	public void setup(){
+		element = new DefaultCssRule( DefaultCssSelector.selector().element( "a" ).build() );
+		identifier = new DefaultCssRule( DefaultCssSelector.selector().any().identifier( "x" ).build() );
+		pseudo = new DefaultCssRule( DefaultCssSelector.selector().any().pseudo( "hover" ).build() );
+		child = new DefaultCssRule( DefaultCssSelector.selector().element( "a" ).child( "b" ).build() );
+		any = new DefaultCssRule( DefaultCssSelector.selector().any().build() );
+		foreign = new DefaultCssRule( new ForeignSelector( "c" ) );
+		
+		rules = Arrays.asList( element, identifier, pseudo, child, any, foreign );
+		index = new CssRuleIndex();
+		for( CssRule rule : rules ){
+			index.add( rule );
+		}
+		index.setOrder( new ArrayList<CssRule>( rules ) );
+	}
+	
+	@Test
+	public void testKeys(){
+		assertEquals( CssSelectorKey.name( "a" ), CssRuleIndex.getKey( element.getSelector() ));
+		assertEquals( CssSelectorKey.identifier( "x" ), CssRuleIndex.getKey( identifier.getSelector() ));
+		assertEquals( CssSelectorKey.pseudoClass( "hover" ), CssRuleIndex.getKey( pseudo.getSelector() ));
+		assertEquals( CssSelectorKey.name( "b" ), CssRuleIndex.getKey( child.getSelector() ));
+		assertNull( CssRuleIndex.getKey( any.getSelector() ));
+		assertNull( CssRuleIndex.getKey( foreign.getSelector() ));
+	}
+	
+	@Test
+	public void testCandidatesIncludeAllMatches(){
+		for( CssPath path : paths() ){
+			List<CssRule> candidates = index.getCandidates( path );
+			for( CssRule rule : rules ){
+				if( rule.getSelector().matches( path )){
+					assertTrue( rule + " missing for " + path, candidates.contains( rule ));
+				}
+			}
+		}
+	}
+	
+	@Test
+	public void testUnrelatedRulesAreNoCandidates(){
+		assertEquals( Arrays.asList( any, foreign ), index.getCandidates( path( node( "d", null ))));
+		assertEquals( Arrays.asList( element, any, foreign ), index.getCandidates( path( node( "a", null ))));
+		assertEquals( Arrays.asList( element, identifier, child, any, foreign ), index.getCandidates( path( node( "a", null ), node( "b", "x" ))));
+	}
+	
+	@Test
+	public void testOrder(){
+		List<CssRule> reversed = new ArrayList<CssRule>( rules );
+		Collections.reverse( reversed );
+		index.setOrder( reversed );
+		assertEquals( Arrays.asList( foreign, any, child, identifier, element ), index.getCandidates( path( node( "a", null ), node( "b", "x" ))));
+	}
+	
+	@Test
+	public void testRemove(){
+		assertEquals( CssSelectorKey.name( "a" ), index.remove( element ));
+		assertFalse( index.getCandidates( path( node( "a", null ))).contains( element ));
+		
+		assertNull( index.remove( foreign ));
+		assertEquals( Arrays.asList( any ), index.getCandidates( path( node( "d", null ))));
+		
+		assertNull( index.remove( foreign ));
+	}
+	
+	@Test
+	public void testUpdate(){
+		identifier.setSelector( DefaultCssSelector.selector().element( "y" ).build() );
+		assertEquals( CssSelectorKey.identifier( "x" ), index.update( identifier ));
+		
+		assertFalse( index.getCandidates( path( node( "a", "x" ))).contains( identifier ));
+		assertTrue( index.getCandidates( path( node( "y", null ))).contains( identifier ));
+	}
+	
+	private List<CssPath> paths(){
+		List<CssPath> paths = new ArrayList<CssPath>();
+		String[] names = { "a", "b", "c", "d" };
+		String[] identifiers = { null, "x", "y" };
+		for( String first : names ){
+			for( String second : names ){
+				for( String id : identifiers ){
+					paths.add( path( node( first, null ), node( second, id )));
+					
+					DefaultCssNode hover = node( second, id );
+					hover.addPseudoClass( "hover" );
+					paths.add( path( node( first, id ), hover ));
+				}
+			}
+		}
+		return paths;
+	}
+	
+	private DefaultCssNode node( String name, String identifier ){
+		DefaultCssNode node = new DefaultCssNode( name );
+		node.setIdentifier( identifier );
+		return node;
+	}
+	
+	private CssPath path( CssNode... nodes ){
+		return new DefaultCssPath( nodes );
+	}
+	
+	/**
+	 * A selector that is not known to the framework, it matches any path whose first node has a specific name.
+	 * @author Benjamin Sigg
+	 */
+	private static class ForeignSelector implements CssSelector {
+		private final String name;
+		
+		public ForeignSelector( String name ){
+			this.name = name;
+		}
+		
+		public boolean matches( CssPath path ){
+			return path.getSize() > 0 && name.equals( path.getNode( 0 ).getName() );
+		}
+		
+		public CssSpecificity getSpecificity(){
+			return new CssSpecificity( 0, 0, 0, 1 );
+		}
+		
+		@Override
+		public String toString(){
+			return "foreign " + name;
+		}
+	}
+}
@@ -250,12 +250,8 @@ public class CGlassEclipseButtonTitle extends BasicButtonDockTitle {
                gg.setComposite(AlphaComposite.SrcAtop);
             }
 
-            try {
-               glass.Render2Graphics(new Dimension(w, h), gg, glassStrip, true);
-            }
-            catch (Exception e) {
-               glass.Render2Graphics(new Dimension(w, h), gg, CGlassFactory.VALUE_STEEL, true);
-            }
+            DockController controller = getOrigin() == null ? null : getOrigin().getController();
+            gg.drawImage(CGlassImageCache.renderGlass(controller, glass, glassStrip, CGlassFactory.VALUE_STEEL, new Dimension(w, h)), 0, 0, null);
 
             gg.dispose();
 
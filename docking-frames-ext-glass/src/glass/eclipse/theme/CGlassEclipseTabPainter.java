@@ -545,27 +545,35 @@ public class CGlassEclipseTabPainter extends BaseTabComponent {
          Graphics2D g2d = (Graphics2D)g.create();
          g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
-         Shape sTab = createUnSelectedTabShape(isHorizontal() ? w : w, isHorizontal() ? h : h, false, true);
+         Shape sTab;
 
          BufferedImage img;
          dImg = new Dimension(isHorizontal() ? w + CORNER_RADIUS : h + CORNER_RADIUS, isHorizontal() ? h : w);
          if (glassUnSelected != null) {
-            img = new BufferedImage(dImg.width, dImg.height, BufferedImage.TYPE_INT_ARGB);
-            Graphics2D gg = img.createGraphics();
+            // the surface depends only on the size, the glass and the outline of the tab
+            int variant = getOrientation().ordinal() * 2 + (getTabIndex() < getSelectedIndex() ? 1 : 0);
+            CGlassImageCache.Key key = new CGlassImageCache.Key("tab.unselected", glassUnSelected, CGlassFactory.VALUE_STEEL, w, h, variant);
+            CGlassImageCache cache = CGlassImageCache.get(getController());
+            img = cache == null ? null : cache.get(key);
 
-            gg.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-            gg.setColor(Color.WHITE);
-            gg.fill(sTab);
+            if (img == null) {
+               sTab = createUnSelectedTabShape(w, h, false, true);
+               img = new BufferedImage(dImg.width, dImg.height, BufferedImage.TYPE_INT_ARGB);
+               Graphics2D gg = img.createGraphics();
 
-            gg.setComposite(AlphaComposite.SrcIn);
-            try {
-               glass.Render2Graphics(dImg, gg, glassUnSelected, true);
-            }
-            catch (Exception e) {
-               glass.Render2Graphics(dImg, gg, CGlassFactory.VALUE_STEEL, true);
-            }
+               gg.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+               gg.setColor(Color.WHITE);
+               gg.fill(sTab);
+
+               gg.setComposite(AlphaComposite.SrcIn);
+               gg.drawImage(CGlassImageCache.renderGlass(getController(), glass, glassUnSelected, CGlassFactory.VALUE_STEEL, dImg), 0, 0, null);
 
-            gg.dispose();
+               gg.dispose();
+
+               if (cache != null) {
+                  cache.put(key, img);
+               }
+            }
 
             if ( !isHorizontal()) {
                AffineTransform atTrans = AffineTransform.getTranslateInstance(x/* + w*/, y + h);
@@ -616,7 +624,7 @@ public class CGlassEclipseTabPainter extends BaseTabComponent {
       Dimension dImg;
 
       if (w > 0 && h > 0) {
-         Shape sTab = createSelectedTabShape(w, h, false);
+         Shape sTab;
 
          Color lineColor = colorStackBorder.value();
 
@@ -630,64 +638,66 @@ public class CGlassEclipseTabPainter extends BaseTabComponent {
 
          // draw glass 
          // first render to image because glass is transparent and we would see the inactive tab in background
-         BufferedImage bimg = null;
+         String kind;
+         IGlassFactory.SGlassParameter glassParameter;
+         IGlassFactory.SGlassParameter glassFallback;
          dImg = new Dimension(isHorizontal() ? w : h, isHorizontal() ? h : w);
          if( !isEnabled() ){
-        	 if(glassDisabled != null){
-        		 try {
-                     bimg = glass.RenderBufferedImage(glassDisabled, dImg, true);
-				 }
-				 catch( Exception e ) {
-					 bimg = glass.RenderBufferedImage( CGlassFactory.VALUE_GRAY, dImg, true );
-				 } 
-        	 }
+            kind = "tab.disabled";
+            glassParameter = glassDisabled;
+            glassFallback = CGlassFactory.VALUE_GRAY;
          }
          else if (bActive) {
-            if (glassFocused != null) {
-               try {
-                  bimg = glass.RenderBufferedImage(glassFocused, dImg, true);
-               }
-               catch (Exception e) {
-                  bimg = glass.RenderBufferedImage(CGlassFactory.VALUE_STEEL, dImg, true);
-               }
-            }
+            kind = "tab.focused";
+            glassParameter = glassFocused;
+            glassFallback = CGlassFactory.VALUE_STEEL;
          }
          else {
-            if (glassSelected != null) {
-               try {
-                  bimg = glass.RenderBufferedImage(glassSelected, dImg, true);
-               }
-               catch (Exception e) {
-                  bimg = glass.RenderBufferedImage(CGlassFactory.VALUE_DARKENED_PLAIN, dImg, true);
-               }
-            }
+            kind = "tab.selected";
+            glassParameter = glassSelected;
+            glassFallback = CGlassFactory.VALUE_DARKENED_PLAIN;
          }
 
-         if (bimg != null) {
-            // glass is translucent, so we could see the sharp edge of an unselected tab behind
-            // So, we paint the glass image onto a other image were only the glass part is visible (white)
-            BufferedImage b = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
-            Graphics2D gg2d = b.createGraphics();
-            gg2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-            gg2d.setColor(Color.WHITE);
-            gg2d.fill(sTab);
+         if (glassParameter != null) {
+            // the surface depends only on the size, the glass and the outline of the tab
+            int variant = getOrientation().ordinal() * 2 + (getTabIndex() == 0 ? 1 : 0);
+            CGlassImageCache.Key key = new CGlassImageCache.Key(kind, glassParameter, glassFallback, w, h, variant);
+            CGlassImageCache cache = CGlassImageCache.get(getController());
+            BufferedImage b = cache == null ? null : cache.get(key);
+
+            if (b == null) {
+               BufferedImage bimg = CGlassImageCache.renderGlass(getController(), glass, glassParameter, glassFallback, dImg);
+               sTab = createSelectedTabShape(w, h, false);
+
+               // glass is translucent, so we could see the sharp edge of an unselected tab behind
+               // So, we paint the glass image onto a other image were only the glass part is visible (white)
+               b = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+               Graphics2D gg2d = b.createGraphics();
+               gg2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+               gg2d.setColor(Color.WHITE);
+               gg2d.fill(sTab);
+
+               gg2d.setClip(sTab);
+               gg2d.setComposite(AlphaComposite.SrcAtop);
+               if ( !isHorizontal()) {
+                  AffineTransform atTrans = AffineTransform.getTranslateInstance(0/*w*/, h);
+                  atTrans.concatenate(COutlineHelper.tRot90CCW);
+
+                  gg2d.drawImage(bimg, atTrans, null);
+               }
+               else {
 
-            gg2d.setClip(sTab);
-            gg2d.setComposite(AlphaComposite.SrcAtop);
-            if ( !isHorizontal()) {
-               AffineTransform atTrans = AffineTransform.getTranslateInstance(0/*w*/, h);
-               atTrans.concatenate(COutlineHelper.tRot90CCW);
+                  gg2d.drawImage(bimg, 0, 0, null);
+               }
 
-               gg2d.drawImage(bimg, atTrans, null);
-            }
-            else {
+               gg2d.dispose();
 
-               gg2d.drawImage(bimg, 0, 0, null);
+               if (cache != null) {
+                  cache.put(key, b);
+               }
             }
 
-            gg2d.dispose();
-
             g2d.drawImage(b, x, y, null);
          }
 
@@ -733,12 +743,7 @@ public class CGlassEclipseTabPainter extends BaseTabComponent {
 
       if (dImg.width > 0 && dImg.height > 0) {
          if (glassUnSelected != null) {
-            try {
-               bimg = glass.RenderBufferedImage(glassUnSelected, dImg, true);
-            }
-            catch (Exception e) {
-               bimg = glass.RenderBufferedImage(CGlassFactory.VALUE_RED, dImg, true);
-            }
+            bimg = CGlassImageCache.renderGlass(getController(), glass, glassUnSelected, CGlassFactory.VALUE_RED, dImg);
 
             if ( !isHorizontal()) {
                AffineTransform atTrans = AffineTransform.getTranslateInstance(/*r.width*/0, CORNER_RADIUS/*-getHeight()*/);
@@ -59,6 +59,7 @@ public class CGlassStripPainter implements TabPanePainter {
    };
 
    private final EclipseTabPane pane;
+   private DockController controller;
    public IGlassFactory.SGlassParameter glassStrip;
 
    IGlassFactory glass = CGlassFactoryGenerator.Create();
@@ -163,12 +164,7 @@ public class CGlassStripPainter implements TabPanePainter {
             }
 
             gg.setComposite(AlphaComposite.SrcIn);
-            try {
-               glass.Render2Graphics(new Dimension(w, h), gg, glassStrip, true);
-            }
-            catch (Exception e) {
-               glass.Render2Graphics(new Dimension(w, h), gg, CGlassFactory.VALUE_STEEL, true);
-            }
+            gg.drawImage(CGlassImageCache.renderGlass(controller, glass, glassStrip, CGlassFactory.VALUE_STEEL, new Dimension(w, h)), 0, 0, null);
 
             gg.dispose();
 
@@ -188,6 +184,7 @@ public class CGlassStripPainter implements TabPanePainter {
    }
 
    public void setController (DockController controller) {
+      this.controller = controller;
       ColorManager colors = controller == null ? null : controller.getColors();
       color.setManager(colors);
 
@@ -11,6 +11,7 @@ import bibliothek.gui.dock.util.*;
 import bibliothek.gui.dock.util.property.*;
 import glass.eclipse.theme.factory.*;
 import glass.eclipse.theme.icon.*;
+import glass.eclipse.theme.utils.*;
 
 public class EclipseThemeExtension implements DockThemeExtension {
 	private DockTheme trigger;
@@ -22,6 +23,14 @@ public class EclipseThemeExtension implements DockThemeExtension {
 	public static final PropertyKey<IGlassParameterFactory> GLASS_FACTORY = new PropertyKey<IGlassParameterFactory>( "Glass eclipse glass parameter factory",
 			new ConstantPropertyFactory<IGlassParameterFactory>( new CDefaultGlassFactory() ), true );
 
+	/**
+	 * The maximum number of bytes the glass eclipse painters can use to cache rendered glass images. A value 
+	 * of 0 disables the cache.
+	 * @see CGlassImageCache
+	 */
+	public static final PropertyKey<Integer> GLASS_CACHE_SIZE = new PropertyKey<Integer>( "Glass eclipse image cache size",
+			new ConstantPropertyFactory<Integer>( 8 * 1024 * 1024 ), true );
+
 	public EclipseThemeExtension( DockTheme trigger, EclipseTheme theme ) {
 		this.trigger = trigger;
 
@@ -72,6 +81,7 @@ public class EclipseThemeExtension implements DockThemeExtension {
 			IconManager im = controller.getIcons();
 
 			im.clear( Priority.THEME );
+			CGlassImageCache.dispose( controller );
 		}
 	}
 
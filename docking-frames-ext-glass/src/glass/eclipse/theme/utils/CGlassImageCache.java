@@ -0,0 +1,252 @@
+package glass.eclipse.theme.utils;
+
+import java.awt.*;
+import java.awt.image.*;
+import java.util.*;
+import bibliothek.gui.*;
+import bibliothek.gui.dock.util.*;
+import kux.glass.*;
+import glass.eclipse.theme.*;
+
+
+/**
+ * A cache of rendered glass images and of pre-rendered tab surfaces. Rendering the glass effect is expensive,
+ * and painting many tabs while resizing a window would otherwise create a lot of short-lived images. There is one
+ * cache for each {@link DockController}, the cache forgets the least recently used images once the size of all
+ * images exceeds {@link EclipseThemeExtension#GLASS_CACHE_SIZE}.<br>
+ * Images are stored together with the {@link IGlassFactory.SGlassParameter} that were used to paint them, a change
+ * of color or theme therefore never results in an outdated image. The outdated images just are no longer used, and
+ * are removed once the cache runs out of space.
+ * @author Benjamin Sigg
+ */
+public class CGlassImageCache {
+   /** all the caches that are currently in use */
+   private static final Map<DockController, CGlassImageCache> CACHES = new WeakHashMap<DockController, CGlassImageCache>();
+
+   /**
+    * Gets the cache that is used for <code>controller</code>, creates a new cache if necessary.
+    * @param controller the controller whose cache is searched, can be <code>null</code>
+    * @return the cache or <code>null</code> if <code>controller</code> is <code>null</code>
+    */
+   public static CGlassImageCache get (DockController controller) {
+      if (controller == null) {
+         return (null);
+      }
+      synchronized (CACHES) {
+         CGlassImageCache cache = CACHES.get(controller);
+         if (cache == null) {
+            cache = new CGlassImageCache(controller.getProperties().get(EclipseThemeExtension.GLASS_CACHE_SIZE));
+            controller.getProperties().addListener(EclipseThemeExtension.GLASS_CACHE_SIZE, cache.sizeListener);
+            CACHES.put(controller, cache);
+         }
+         return (cache);
+      }
+   }
+
+   /**
+    * Removes and clears the cache that is used for <code>controller</code>.
+    * @param controller the controller whose cache is no longer needed
+    */
+   public static void dispose (DockController controller) {
+      CGlassImageCache cache;
+      synchronized (CACHES) {
+         cache = CACHES.remove(controller);
+      }
+      if (cache != null) {
+         controller.getProperties().removeListener(EclipseThemeExtension.GLASS_CACHE_SIZE, cache.sizeListener);
+         cache.clear();
+      }
+   }
+
+   /**
+    * Renders the glass effect using <code>parameter</code>, or gets the image from the cache of <code>controller</code>.
+    * @param controller the controller whose cache is used, can be <code>null</code> in which case no cache is used
+    * @param glass the factory used to render the glass effect
+    * @param parameter the parameters of the glass effect
+    * @param fallback the parameters to use if rendering with <code>parameter</code> fails
+    * @param size the size of the image
+    * @return the image, must not be modified
+    */
+   public static BufferedImage renderGlass (DockController controller, IGlassFactory glass, IGlassFactory.SGlassParameter parameter, IGlassFactory.SGlassParameter fallback, Dimension size) {
+      CGlassImageCache cache = get(controller);
+      if (cache == null) {
+         return (render(glass, parameter, fallback, size, true));
+      }
+      return (cache.getGlass(glass, parameter, fallback, size));
+   }
+
+   private static BufferedImage render (IGlassFactory glass, IGlassFactory.SGlassParameter parameter, IGlassFactory.SGlassParameter fallback, Dimension size, boolean useFactoryCache) {
+      try {
+         return (glass.RenderBufferedImage(parameter, size, useFactoryCache));
+      }
+      catch (Exception e) {
+         return (glass.RenderBufferedImage(fallback, size, useFactoryCache));
+      }
+   }
+
+   /** the images, the least recently used image is the first entry */
+   private final LinkedHashMap<Key, BufferedImage> images = new LinkedHashMap<Key, BufferedImage>(16, 0.75f, true);
+
+   /** the number of bytes used by {@link #images} */
+   private long size = 0;
+
+   /** the maximum number of bytes that can be used by {@link #images} */
+   private long maximumSize;
+
+   private final DockPropertyListener<Integer> sizeListener = new DockPropertyListener<Integer>() {
+      public void propertyChanged (DockProperties properties, PropertyKey<Integer> property, Integer oldValue, Integer newValue) {
+         setMaximumSize(newValue);
+      }
+   };
+
+   /**
+    * Creates a new cache.
+    * @param maximumSize the maximum number of bytes that can be used by the images of this cache
+    */
+   public CGlassImageCache (Integer maximumSize) {
+      setMaximumSize(maximumSize);
+   }
+
+   /**
+    * Sets the maximum number of bytes that can be used by the images of this cache. Removes images
+    * if the cache is already too big.
+    * @param maximumSize the number of bytes, <code>null</code> or a value smaller than 1 disable the cache
+    */
+   public synchronized void setMaximumSize (Integer maximumSize) {
+      this.maximumSize = maximumSize == null ? 0 : Math.max(0, maximumSize.intValue());
+      shrink();
+   }
+
+   /**
+    * Removes all images from this cache.
+    */
+   public synchronized void clear () {
+      images.clear();
+      size = 0;
+   }
+
+   /**
+    * Gets the image that was stored using <code>key</code>.
+    * @param key the key of the image
+    * @return the image or <code>null</code> if not found, must not be modified
+    */
+   public synchronized BufferedImage get (Key key) {
+      return (images.get(key));
+   }
+
+   /**
+    * Stores <code>image</code>, the image may be removed from the cache at any time.
+    * @param key the key of the image, must not be modified afterwards
+    * @param image the image to store, must not be modified afterwards
+    */
+   public synchronized void put (Key key, BufferedImage image) {
+      long bytes = bytes(image);
+      if (bytes > maximumSize) {
+         return;
+      }
+      BufferedImage old = images.put(key, image);
+      if (old != null) {
+         size -= bytes(old);
+      }
+      size += bytes;
+      shrink();
+   }
+
+   /**
+    * Renders the glass effect using <code>parameter</code>, or gets the image from this cache.
+    * @param glass the factory used to render the glass effect
+    * @param parameter the parameters of the glass effect
+    * @param fallback the parameters to use if rendering with <code>parameter</code> fails
+    * @param size the size of the image
+    * @return the image, must not be modified
+    */
+   public BufferedImage getGlass (IGlassFactory glass, IGlassFactory.SGlassParameter parameter, IGlassFactory.SGlassParameter fallback, Dimension size) {
+      Key key = new Key("glass", parameter, fallback, size.width, size.height, 0);
+      BufferedImage image = get(key);
+      if (image == null) {
+         image = render(glass, parameter, fallback, size, false);
+         put(key, image);
+      }
+      return (image);
+   }
+
+   private void shrink () {
+      Iterator<BufferedImage> iterator = images.values().iterator();
+      while (size > maximumSize && iterator.hasNext()) {
+         size -= bytes(iterator.next());
+         iterator.remove();
+      }
+   }
+
+   private long bytes (BufferedImage image) {
+      return (4L * image.getWidth() * image.getHeight());
+   }
+
+   /**
+    * Describes an image that is stored in a {@link CGlassImageCache}.
+    * @author Benjamin Sigg
+    */
+   public static final class Key {
+      private final String kind;
+      private final IGlassFactory.SGlassParameter parameter;
+      private final IGlassFactory.SGlassParameter fallback;
+      private final int width;
+      private final int height;
+      private final int variant;
+      private final int hash;
+
+      /**
+       * Creates a new key.
+       * @param kind what kind of image is stored, e.g. which state of a tab is painted
+       * @param parameter the parameters used to paint the glass effect, this key uses a copy of this object
+       * @param fallback the parameters used to paint the glass effect if <code>parameter</code> cannot be used,
+       * this key uses a copy of this object
+       * @param width the width of the image
+       * @param height the height of the image
+       * @param variant additional properties of the image, like the orientation of a tab
+       */
+      public Key (String kind, IGlassFactory.SGlassParameter parameter, IGlassFactory.SGlassParameter fallback, int width, int height, int variant) {
+         this.kind = kind;
+         this.parameter = parameter == null ? null : parameter.clone();
+         this.fallback = fallback == null ? null : fallback.clone();
+         this.width = width;
+         this.height = height;
+         this.variant = variant;
+
+         int h = kind.hashCode();
+         h = h * 31 + (parameter == null ? 0 : parameter.hashCode());
+         h = h * 31 + (fallback == null ? 0 : fallback.hashCode());
+         h = h * 31 + width;
+         h = h * 31 + height;
+         h = h * 31 + variant;
+         hash = h;
+      }
+
+      @Override
+      public int hashCode () {
+         return (hash);
+      }
+
+      @Override
+      public boolean equals (Object obj) {
+         if (this == obj) {
+            return (true);
+         }
+         if ( !(obj instanceof Key)) {
+            return (false);
+         }
+         Key other = (Key)obj;
+         if (hash != other.hash || width != other.width || height != other.height || variant != other.variant || !kind.equals(other.kind)) {
+            return (false);
+         }
+         return (equals(parameter, other.parameter) && equals(fallback, other.fallback));
+      }
+
+      private static boolean equals (IGlassFactory.SGlassParameter a, IGlassFactory.SGlassParameter b) {
+         if (a == null) {
+            return (b == null);
+         }
+         return (a.equals(b));
+      }
+   }
+}
@@ -60,6 +60,15 @@ public class WizardColumnModel {
 	/** Information about columns that needs to persist even when the stations layout changes */
 	private PersistentColumn[] persistentColumns;
 	
+	/** the map that was last returned by {@link #getMap()} */
+	private WizardNodeMap map;
+	
+	/** the {@link Root#getTreeVersion() version} of the tree for which {@link #map} was created */
+	private int mapTreeVersion;
+	
+	/** the side of the station at the time when {@link #map} was created */
+	private Side mapSide;
+	
 	public WizardColumnModel( WizardSplitDockStation station ){
 		this( station, -1, -1 );
 	}
@@ -133,16 +142,27 @@ public class WizardColumnModel {
 	/**
 	 * Gets a map containing the current columns and cells. This method may decide
 	 * at any time to create a new map. Callers may use the map to ask as many queries as they
-	 * want, they should however never use more than one map at the same time.
+	 * want, they should however never use more than one map at the same time.<br>
+	 * The same map is reused as long as the tree of the station does not change, only the cached sizes
+	 * of the cells are reset every time this method is called.
 	 * @return the current map of cells and columns
 	 */
 	protected WizardNodeMap getMap(){
-		return new WizardNodeMap( station, persistentColumns ){
-			@Override
-			protected void handlePersistentColumnsAdapted( PersistentColumn[] persistentColumns ){
-				WizardColumnModel.this.persistentColumns = persistentColumns;	
-			}
-		};
+		Root root = station.getRoot();
+		if( map == null || mapTreeVersion != root.getTreeVersion() || mapSide != side() ){
+			mapTreeVersion = root.getTreeVersion();
+			mapSide = side();
+			map = new WizardNodeMap( station, persistentColumns ){
+				@Override
+				protected void handlePersistentColumnsAdapted( PersistentColumn[] persistentColumns ){
+					WizardColumnModel.this.persistentColumns = persistentColumns;	
+				}
+			};
+		}
+		else{
+			map.resetSizes();
+		}
+		return map;
 	}
 	
 	/**
@@ -34,7 +34,6 @@ import java.awt.Dimension;
 import java.awt.Rectangle;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -60,6 +59,9 @@ import bibliothek.gui.dock.wizard.WizardSplitDockStation.Side;
  */
 public abstract class WizardNodeMap {
 	private Map<SplitNode, Column> columns;
+	
+	/** all the {@link Column}s ordered by their index, created together with {@link #columns} */
+	private Column[] sortedColumns;
 	private WizardSplitDockStation station;
 	
 	/** Information about columns that needs to persist even when the stations layout changes */
@@ -135,6 +137,23 @@ public abstract class WizardNodeMap {
 		for( int i = 0; i < array.length; i++ ){
 			array[i].index = i;
 		}
+		sortedColumns = array;
+	}
+	
+	/**
+	 * Forgets the preferred and minimum sizes of all {@link Cell}s, but keeps the columns and cells
+	 * themselves. This method allows to reuse this map as long as the tree of the station does not change,
+	 * the sizes are calculated again the next time they are needed.
+	 */
+	public void resetSizes(){
+		if( columns != null ){
+			for( Column column : columns.values() ){
+				for( Cell cell : column.cells.values() ){
+					cell.preferredSize = null;
+					cell.minimumSize = null;
+				}
+			}
+		}
 	}
 	
 	/**
@@ -163,12 +182,13 @@ public abstract class WizardNodeMap {
 	 * @throws IndexOutOfBoundsException if <code>index</code> does not point to a column
 	 */
 	public Column getColumn( int index ){
-		for( Column column : getColumns().values() ){
-			if( column.index == index ){
-				return column;
-			}
+		if( columns == null ){
+			buildColumns();
+		}
+		if( index < 0 || index >= sortedColumns.length ){
+			throw new IndexOutOfBoundsException( "index: " + index );
 		}
-		throw new IndexOutOfBoundsException( "index: " + index );
+		return sortedColumns[ index ];
 	}
 	
 	/**
@@ -176,15 +196,10 @@ public abstract class WizardNodeMap {
 	 * @return the ordered columns
 	 */
 	public Column[] getSortedColumns(){
-		Collection<Column> columns = getColumns().values();
-		Column[] array = columns.toArray( new Column[ columns.size() ] );
-		Arrays.sort( array, new Comparator<Column>(){
-			@Override
-			public int compare( Column o1, Column o2 ){
-				return o1.getIndex() - o2.getIndex();
-			}
-		});
-		return array;
+		if( columns == null ){
+			buildColumns();
+		}
+		return sortedColumns.clone();
 	}
 
 	/**
@@ -0,0 +1,139 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Herve Guillaume, Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Herve Guillaume
+ * rvguillaume@hotmail.com
+ * FR - France
+ *
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+
+package bibliothek.gui.dock.toolbar;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.DefaultDockable;
+import bibliothek.gui.dock.SplitDockStation.Orientation;
+import bibliothek.gui.dock.station.split.DockableSplitDockTree;
+import bibliothek.gui.dock.station.split.Node;
+import bibliothek.gui.dock.wizard.WizardColumnModel;
+import bibliothek.gui.dock.wizard.WizardNodeMap;
+import bibliothek.gui.dock.wizard.WizardSplitDockStation;
+import bibliothek.gui.dock.wizard.WizardSplitDockStation.Side;
+
+/**
+ * Tests that the {@link WizardColumnModel} reuses its {@link WizardNodeMap} only as long as 
+ * the layout of the {@link WizardSplitDockStation} does not change.
+ * @author Benjamin Sigg
+ */
+public class WizardColumnModelTest {
+	private WizardSplitDockStation station;
+	private TestModel model;
+	private Dockable a;
+	private Dockable b;
+	private Dockable c;
+	
+	@Before
+	public void setup(){
+		station = new WizardSplitDockStation( Side.RIGHT );
+		station.setSize( 400, 300 );
+		station.doLayout();
+		model = new TestModel( station );
+		
+		a = new DefaultDockable( "a" );
+		b = new DefaultDockable( "b" );
+		c = new DefaultDockable( "c" );
+		
+		DockableSplitDockTree tree = new DockableSplitDockTree();
+		tree.root( tree.horizontal( tree.put( a ), tree.put( b ) ) );
+		station.dropTree( tree );
+	}
+	
+	@Test
+	public void testUnchangedTreeReusesMap(){
+		WizardNodeMap map = model.map();
+		assertEquals( 2, map.getColumnCount() );
+		assertSame( map, model.map() );
+	}
+	
+	@Test
+	public void testTreeChangeRebuildsColumns(){
+		WizardNodeMap map = model.map();
+		assertEquals( 2, map.getColumnCount() );
+		
+		DockableSplitDockTree tree = new DockableSplitDockTree();
+		tree.root( tree.horizontal( tree.put( a ), tree.horizontal( tree.put( b ), tree.put( c ) ) ) );
+		station.dropTree( tree );
+		
+		WizardNodeMap next = model.map();
+		assertNotSame( map, next );
+		assertEquals( 3, next.getColumnCount() );
+		assertNotNull( next.getColumn( c ) );
+		assertNull( map.getColumn( c ) );
+	}
+	
+	@Test
+	public void testOrientationChangeRebuildsColumns(){
+		WizardNodeMap map = model.map();
+		assertEquals( 2, map.getColumnCount() );
+		
+		Node node = (Node)station.getRoot().getChild();
+		node.setOrientation( Orientation.VERTICAL );
+		
+		WizardNodeMap next = model.map();
+		assertNotSame( map, next );
+		assertEquals( 1, next.getColumnCount() );
+		assertSame( next.getColumn( a ), next.getColumn( b ) );
+	}
+	
+	@Test
+	public void testSideChangeRebuildsColumns(){
+		WizardNodeMap map = model.map();
+		
+		station.setSide( Side.LEFT );
+		
+		WizardNodeMap next = model.map();
+		assertNotSame( map, next );
+		assertEquals( 2, next.getColumnCount() );
+		assertNotNull( next.getColumn( a ) );
+		assertNotNull( next.getColumn( b ) );
+	}
+	
+	/**
+	 * Grants access to the {@link WizardNodeMap} of a {@link WizardColumnModel}.
+	 * @author Benjamin Sigg
+	 */
+	private static class TestModel extends WizardColumnModel{
+		public TestModel( WizardSplitDockStation station ){
+			super( station );
+		}
+		
+		public WizardNodeMap map(){
+			return getMap();
+		}
+	}
+}